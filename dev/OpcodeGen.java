@@ -0,0 +1,503 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Generates src/Opcodes.java from the opcode table in dev/opcodes.txt
+ * Every opcode gets its own handler with the registers, memory access and
+ * cycle count written out, so nothing is looked up while the CPU runs
+ * Usage: java dev/OpcodeGen.java dev/opcodes.txt src/Opcodes.java
+ */
+class OpcodeGen {
+
+  static final int CB_PREFIX = 0xCB;
+
+  // One row of the table
+  static class Entry {
+    int opcode;
+    boolean cb;
+    String mnemonic;
+    String operands[];  // empty for none
+    int cycles;         // taken cycles for conditional branches
+    int cyclesNotTaken;
+    String flags;
+
+    String name() { return (cb ? "cb" : "op") + String.format("%02X", opcode); }
+
+    String text() {
+      return mnemonic + (operands.length > 0 ? " " + String.join(",", operands) : "");
+    }
+  }
+
+  public static void main(String args[]) throws IOException {
+    if (args.length < 2) {
+      System.out.println("Usage: OpcodeGen <opcodes.txt> <Opcodes.java>");
+      return;
+    }
+
+    Entry base[] = new Entry[256];
+    Entry cb[] = new Entry[256];
+    for (Entry entry : parse(Paths.get(args[0]))) {
+      Entry table[] = entry.cb ? cb : base;
+      if (table[entry.opcode] != null)
+        fail("duplicate opcode " + entry.name());
+      table[entry.opcode] = entry;
+    }
+    for (int i = 0; i < 256; i++) {
+      if (base[i] == null) fail("missing opcode " + String.format("%02X", i));
+      if (cb[i] == null) fail("missing opcode CB" + String.format("%02X", i));
+    }
+
+    Files.write(Paths.get(args[1]), generate(base, cb).getBytes());
+  }
+
+  static List<Entry> parse(Path path) throws IOException {
+    List<Entry> entries = new ArrayList<Entry>();
+    int lineNumber = 0;
+
+    for (String line : Files.readAllLines(path)) {
+      lineNumber++;
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) continue;
+
+      String fields[] = line.split("\\s+");
+      if (fields.length != 5) fail("line " + lineNumber + ": expected 5 fields");
+
+      Entry entry = new Entry();
+      String code = fields[0];
+      entry.cb = code.length() == 4 && code.startsWith("CB");
+      entry.opcode = Integer.parseInt(entry.cb ? code.substring(2) : code, 16);
+      entry.mnemonic = fields[1];
+      entry.operands = fields[2].equals("-") ? new String[0] : fields[2].split(",");
+      String cycles[] = fields[3].split("/");
+      entry.cycles = Integer.parseInt(cycles[0]);
+      entry.cyclesNotTaken = cycles.length > 1 ? Integer.parseInt(cycles[1]) : entry.cycles;
+      entry.flags = fields[4];
+      entries.add(entry);
+    }
+
+    return entries;
+  }
+
+  /*
+   * Output
+   */
+
+  static String generate(Entry base[], Entry cb[]) {
+    StringBuilder out = new StringBuilder();
+    int prefixCycles = base[CB_PREFIX].cycles;
+
+    out.append("// GENERATED by dev/OpcodeGen.java from dev/opcodes.txt, edit those and run\n");
+    out.append("// `make opcodes` instead of changing this file\n\n");
+    out.append("/*\n");
+    out.append(" * A handler for every opcode with its operands and cycles resolved ahead of\n");
+    out.append(" * time, plus the lengths, cycle counts and mnemonics tools need\n");
+    out.append(" */\n");
+    out.append("class Opcodes {\n");
+    out.append("  // Flag bits within register F\n");
+    out.append("  private static final int Z = CPUState.FLAG_Z;\n");
+    out.append("  private static final int N = CPUState.FLAG_N;\n");
+    out.append("  private static final int H = CPUState.FLAG_H;\n");
+    out.append("  private static final int C = CPUState.FLAG_C;\n\n");
+
+    out.append("  // Instruction length in bytes, CB prefixed instructions are all 2\n");
+    out.append("  public static final int LENGTH[] = ").append(intTable(base, OpcodeGen::length)).append(";\n\n");
+    out.append("  // Cycles charged, the taken cycles for conditional branches\n");
+    out.append("  public static final int CYCLES[] = ").append(intTable(base, e -> e.cycles)).append(";\n\n");
+    out.append("  // Cycles charged when a conditional branch isn't taken\n");
+    out.append("  public static final int CYCLES_NOT_TAKEN[] = ").append(intTable(base, e -> e.cyclesNotTaken)).append(";\n\n");
+    out.append("  // Instructions that may not carry on at the next address: jumps, calls,\n");
+    out.append("  // returns, HALT/STOP and the unused opcodes\n");
+    out.append("  public static final boolean ENDS_BLOCK[] = ").append(booleanTable(base, OpcodeGen::endsBlock)).append(";\n\n");
+    out.append("  // Cycles charged for CB prefixed opcodes, including the prefix\n");
+    out.append("  public static final int CB_CYCLES[] = ").append(intTable(cb, e -> e.cycles)).append(";\n\n");
+    out.append("  private static final String MNEMONIC[] = ").append(stringTable(base)).append(";\n\n");
+    out.append("  private static final String CB_MNEMONIC[] = ").append(stringTable(cb)).append(";\n\n");
+
+    out.append("  private CPU cpu;\n");
+    out.append("  private CPUState state;\n");
+    out.append("  private ClockCounter clockCounter;\n");
+    out.append("  private Instructions ins;\n");
+    out.append("  private CBInstructions cb;\n");
+    out.append("  private Opcode cbHandlers[];\n\n");
+
+    out.append("  public Opcodes(CPU cpu, CPUState state, ClockCounter clockCounter, Instructions ins, CBInstructions cb) {\n");
+    out.append("    this.cpu = cpu;\n");
+    out.append("    this.state = state;\n");
+    out.append("    this.clockCounter = clockCounter;\n");
+    out.append("    this.ins = ins;\n");
+    out.append("    this.cb = cb;\n");
+    out.append("  }\n\n");
+
+    // Dispatch
+    out.append("  // Runs opcode, PC is already past it\n");
+    out.append("  public void execute(int opcode) {\n");
+    out.append("    switch (opcode) {\n");
+    for (Entry entry : base)
+      out.append(String.format("      case 0x%02X: %s(); break;  // %s\n", entry.opcode, entry.name(), entry.text()));
+    out.append("    }\n");
+    out.append("  }\n\n");
+
+    out.append("  // Runs the opcode after a CB prefix, PC is already past it\n");
+    out.append("  public void executeCB(int opcode) {\n");
+    out.append("    switch (opcode) {\n");
+    for (Entry entry : cb)
+      out.append(String.format("      case 0x%02X: %s(); break;  // %s\n", entry.opcode, entry.name(), entry.text()));
+    out.append("    }\n");
+    out.append("  }\n\n");
+
+    out.append("  // The same handlers as an array for the table dispatch engine\n");
+    out.append("  public Opcode[] table() {\n");
+    out.append("    if (cbHandlers == null) {\n");
+    out.append("      cbHandlers = new Opcode[256];\n");
+    for (Entry entry : cb)
+      out.append(String.format("      cbHandlers[0x%02X] = this::%s;\n", entry.opcode, entry.name()));
+    out.append("    }\n\n");
+    out.append("    Opcode handlers[] = new Opcode[256];\n");
+    for (Entry entry : base) {
+      String name = entry.opcode == CB_PREFIX ? entry.name() + "Table" : entry.name();
+      out.append(String.format("    handlers[0x%02X] = this::%s;\n", entry.opcode, name));
+    }
+    out.append("    return handlers;\n");
+    out.append("  }\n\n");
+
+    // Mnemonics
+    out.append("  /*\n");
+    out.append("   * Converts an opcode and it's next 2 bytes to a mnemonic representation\n");
+    out.append("   * byte1 and byte2 are passed in case the instruction is multi-byte\n");
+    out.append("   */\n");
+    out.append("  public static String mnemonic(int opcode, int byte1, int byte2) {\n");
+    out.append("    if (opcode == 0x" + String.format("%02X", CB_PREFIX) + ") return CB_MNEMONIC[byte1 & 0xFF];\n\n");
+    out.append("    String z = MNEMONIC[opcode & 0xFF];\n");
+    out.append("    String word = Util.hex((short)byte2) + Util.hex((short)byte1);\n");
+    out.append("    return z.replace(\"d16\", word).replace(\"a16\", word)\n");
+    out.append("            .replace(\"d8\", Util.hex((short)byte1)).replace(\"a8\", Util.hex((short)byte1)).replace(\"r8\", Util.hex((short)byte1));\n");
+    out.append("  }\n\n");
+
+    out.append("  // Mnemonic with its operands left as d8, a16 and so on\n");
+    out.append("  public static String name(int opcode, boolean cb) {\n");
+    out.append("    return cb ? CB_MNEMONIC[opcode & 0xFF] : MNEMONIC[opcode & 0xFF];\n");
+    out.append("  }\n\n");
+
+    // Handlers
+    out.append("\n  /* - Handlers */\n");
+    for (Entry entry : base)
+      handler(out, entry, 0);
+    out.append("  /* - END Handlers */\n\n");
+
+    out.append("\n  /* - CB Handlers */\n");
+    for (Entry entry : cb)
+      handler(out, entry, prefixCycles);
+    out.append("  /* - END CB Handlers */\n");
+
+    out.append("}\n");
+    return out.toString();
+  }
+
+  // Emits entry's handler method, prefixCycles have already been charged
+  static void handler(StringBuilder out, Entry entry, int prefixCycles) {
+    String comment = String.format("  // %s0x%02X %s  %s  %s\n", entry.cb ? "CB " : "", entry.opcode, entry.text(),
+        entry.cycles == entry.cyclesNotTaken ? entry.cycles : entry.cycles + "/" + entry.cyclesNotTaken, entry.flags);
+    out.append(comment);
+
+    if (entry.opcode == CB_PREFIX && !entry.cb) {
+      out.append("  private void ").append(entry.name()).append("() {\n");
+      out.append("    clockCounter.add(").append(entry.cycles).append(");\n");
+      out.append("    executeCB(ins.imm8());\n");
+      out.append("  }\n");
+      out.append("  private void ").append(entry.name()).append("Table() {\n");
+      out.append("    clockCounter.add(").append(entry.cycles).append(");\n");
+      out.append("    cbHandlers[ins.imm8()].execute();\n");
+      out.append("  }\n\n");
+      return;
+    }
+
+    out.append("  private void ").append(entry.name()).append("() {\n");
+
+    String condition = condition(entry);
+    if (condition != null) {
+      out.append("    if (").append(condition).append(") {\n");
+      cycles(out, "      ", entry.cycles);
+      lines(out, "      ", body(entry));
+      out.append("    } else {\n");
+      cycles(out, "      ", entry.cyclesNotTaken);
+      lines(out, "      ", skip(entry));
+      out.append("    }\n");
+    } else {
+      cycles(out, "    ", entry.cycles - prefixCycles);
+      lines(out, "    ", entry.cb ? cbBody(entry) : body(entry));
+    }
+
+    out.append("  }\n\n");
+  }
+
+  static void cycles(StringBuilder out, String indent, int cycles) {
+    if (cycles != 0) out.append(indent).append("clockCounter.add(").append(cycles).append(");\n");
+  }
+
+  static void lines(StringBuilder out, String indent, String code) {
+    if (code.isEmpty()) return;
+    for (String line : code.split("\n"))
+      out.append(indent).append(line).append("\n");
+  }
+
+  /*
+   * Handler bodies
+   */
+
+  static String body(Entry entry) {
+    String ops[] = entry.operands;
+    String m = entry.mnemonic;
+
+    switch (m) {
+      case "NOP":   return "";
+      case "STOP":  return "ins.stop();";
+      case "HALT":  return "ins.halt();";
+      case "DI":    return "state.IME(false);";
+      case "EI":    return "state.IME(true);";
+      case "RLCA": case "RLA": case "RRCA": case "RRA":
+      case "DAA": case "CPL": case "SCF": case "CCF":
+        return "ins." + m.toLowerCase() + "();";
+      case "-":     return String.format("cpu.missing((short)0x%02X);", entry.opcode);
+      case "DUMP":  return "cpu.dump();";
+
+      case "LD":    return load(entry);
+      case "LDH":
+        if (ops[0].equals("[a8]")) return "ins.writeMem8(0xFF00 + ins.imm8(), " + read8(ops[1]) + ");";
+        return write8(ops[0], "ins.readMem8(0xFF00 + ins.imm8())");
+
+      case "INC": case "DEC": {
+        String op = m.equals("INC") ? "ALU.OP_INC" : "ALU.OP_DEC";
+        if (isReg16(ops[0]))
+          return write16(ops[0], "CPUMath." + m.toLowerCase() + "16(" + read16(ops[0]) + ")");
+        if (ops[0].equals("[HL]"))
+          return "int address = state.HL();\n"
+               + "ins.writeMem8(address, ins.alu(" + op + ", ins.readMem8(address), 0));";
+        return write8(ops[0], "ins.alu(" + op + ", " + read8(ops[0]) + ", 0)");
+      }
+
+      case "ADD":
+        if (ops[0].equals("HL")) return "ins.addHL(" + read16(ops[1]) + ");";
+        if (ops[0].equals("SP")) return "state.setSP(ins.addSP(ins.imm8()));";
+        return alu(entry);
+      case "ADC": case "SUB": case "SBC": case "AND": case "XOR": case "OR": case "CP":
+        return alu(entry);
+
+      case "JP":
+        if (ops.length > 0 && ops[ops.length - 1].equals("HL")) return "ins.jump(state.HL());";
+        return "ins.jp();";
+      case "JR":    return "ins.jr();";
+      case "CALL":  return "ins.call();";
+      case "RET":   return "ins.ret();";
+      case "RETI":  return "ins.ret();\nstate.IME(true);";
+      case "RST":   return "ins.rst(" + ops[0] + ");";
+      case "PUSH":  return "ins.push(" + read16(ops[0]) + ");";
+      case "POP":   return write16(ops[0], "ins.pop()");
+    }
+
+    fail("no template for " + entry.text());
+    return null;
+  }
+
+  static String load(Entry entry) {
+    String dst = entry.operands[0];
+    String src = entry.operands[1];
+
+    // 16 bit
+    if (dst.equals("[a16]") && src.equals("SP")) return "ins.writeMem16(ins.imm16(), state.SP());";
+    if (src.equals("SP+r8")) return write16(dst, "ins.addSP(ins.imm8())");
+    if (isReg16(dst) && src.equals("d16")) return write16(dst, "ins.imm16()");
+    if (isReg16(dst) && isReg16(src)) return write16(dst, read16(src));
+
+    // 8 bit with increment/decrement of HL
+    if (dst.equals("[HL+]") || dst.equals("[HL-]"))
+      return "ins.writeMem8(state.HL(), " + read8(src) + ");\n" + stepHL(dst);
+    if (src.equals("[HL+]") || src.equals("[HL-]"))
+      return write8(dst, "ins.readMem8(state.HL())") + "\n" + stepHL(src);
+
+    if (isMemory(dst)) return "ins.writeMem8(" + address(dst) + ", " + read8(src) + ");";
+    return write8(dst, read8(src));
+  }
+
+  static String alu(Entry entry) {
+    String ops[] = entry.operands;
+    String src = read8(ops[ops.length - 1]);
+    String op = "ALU.OP_" + entry.mnemonic;
+
+    if (entry.mnemonic.equals("ADC") || entry.mnemonic.equals("SBC"))
+      src += " | ins.carryIn()";
+    if (entry.mnemonic.equals("CP"))
+      return "ins.alu(" + op + ", state.A(), " + src + ");";
+    return "state.setA(ins.alu(" + op + ", state.A(), " + src + "));";
+  }
+
+  static String cbBody(Entry entry) {
+    String m = entry.mnemonic;
+    String target = entry.operands[entry.operands.length - 1];
+    boolean memory = target.equals("[HL]");
+
+    if (m.equals("BIT")) {
+      int mask = 1 << Integer.parseInt(entry.operands[0]);
+      return String.format("state.setFlags(Z | N | H, (%s & 0x%02X) != 0 ? H : Z | H);", read8(target), mask);
+    }
+
+    String update;
+    if (m.equals("RES"))
+      update = "%s & " + String.format("0x%02X", ~(1 << Integer.parseInt(entry.operands[0])) & 0xFF);
+    else if (m.equals("SET"))
+      update = "%s | " + String.format("0x%02X", 1 << Integer.parseInt(entry.operands[0]));
+    else
+      update = "cb." + m.toLowerCase() + "(%s)";
+
+    if (memory)
+      return "int address = state.HL();\n"
+           + "ins.writeMem8(address, " + String.format(update, "ins.readMem8(address)") + ");";
+    return write8(target, String.format(update, read8(target)));
+  }
+
+  // Code for a conditional branch that isn't taken
+  static String skip(Entry entry) {
+    switch (entry.mnemonic) {
+      case "JR":    return "state.incPC();  // skip offset";
+      case "JP":
+      case "CALL":  return "state.incPC();  // skip immediate address\nstate.incPC();";
+      default:      return "";
+    }
+  }
+
+  // Java test for the entry's branch condition, null when it has none
+  static String condition(Entry entry) {
+    switch (entry.mnemonic) {
+      case "JR": case "JP": case "CALL": case "RET":
+        break;
+      default:
+        return null;
+    }
+    if (entry.operands.length == 0) return null;
+
+    switch (entry.operands[0]) {
+      case "NZ":  return "(state.getFlags() & Z) == 0";
+      case "Z":   return "(state.getFlags() & Z) != 0";
+      case "NC":  return "(state.getFlags() & C) == 0";
+      case "C":   return entry.operands.length > 1 || entry.mnemonic.equals("RET") ? "(state.getFlags() & C) != 0" : null;
+      default:    return null;
+    }
+  }
+
+  /*
+   * Operands
+   */
+
+  static boolean isReg16(String operand) {
+    return operand.equals("AF") || operand.equals("BC") || operand.equals("DE") || operand.equals("HL") || operand.equals("SP");
+  }
+
+  static boolean isMemory(String operand) {
+    return operand.startsWith("[");
+  }
+
+  static String address(String operand) {
+    switch (operand) {
+      case "[BC]":  return "state.BC()";
+      case "[DE]":  return "state.DE()";
+      case "[HL]":  return "state.HL()";
+      case "[C]":   return "0xFF00 + state.C()";
+      case "[a16]": return "ins.imm16()";
+    }
+    fail("bad address operand " + operand);
+    return null;
+  }
+
+  static String read8(String operand) {
+    if (operand.equals("d8")) return "ins.imm8()";
+    if (isMemory(operand)) return "ins.readMem8(" + address(operand) + ")";
+    return "state." + operand + "()";
+  }
+
+  static String write8(String operand, String value) {
+    return "state.set" + operand + "(" + value + ");";
+  }
+
+  static String read16(String operand) {
+    return "state." + operand + "()";
+  }
+
+  static String write16(String operand, String value) {
+    return "state.set" + operand + "(" + value + ");";
+  }
+
+  static String stepHL(String operand) {
+    return "state.setHL(CPUMath." + (operand.contains("+") ? "inc16" : "dec16") + "(state.HL()));";
+  }
+
+  static int length(Entry entry) {
+    if (entry.opcode == CB_PREFIX) return 2;
+    if (entry.mnemonic.equals("STOP")) return 2;  // STOP skips the byte after it
+    int length = 1;
+    for (String operand : entry.operands) {
+      if (operand.contains("d16") || operand.contains("a16")) length += 2;
+      else if (operand.contains("d8") || operand.contains("a8") || operand.contains("r8")) length += 1;
+    }
+    return length;
+  }
+
+  static boolean endsBlock(Entry entry) {
+    switch (entry.mnemonic) {
+      case "JP": case "JR": case "CALL": case "RET": case "RETI": case "RST":
+      case "HALT": case "STOP": case "-": case "DUMP":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /*
+   * Tables
+   */
+
+  interface Field { int get(Entry entry); }
+  interface Test { boolean get(Entry entry); }
+
+  static String intTable(Entry entries[], Field field) {
+    StringBuilder out = new StringBuilder("{\n");
+    for (int i = 0; i < entries.length; i += 16) {
+      out.append("   ");
+      for (int j = i; j < i + 16; j++)
+        out.append(" ").append(field.get(entries[j])).append(",");
+      out.append("  // ").append(String.format("%02X", i)).append("\n");
+    }
+    return out.append("  }").toString();
+  }
+
+  static String booleanTable(Entry entries[], Test test) {
+    StringBuilder out = new StringBuilder("{\n");
+    for (int i = 0; i < entries.length; i += 8) {
+      out.append("   ");
+      for (int j = i; j < i + 8; j++)
+        out.append(" ").append(test.get(entries[j])).append(",");
+      out.append("  // ").append(String.format("%02X", i)).append("\n");
+    }
+    return out.append("  }").toString();
+  }
+
+  static String stringTable(Entry entries[]) {
+    StringBuilder out = new StringBuilder("{\n");
+    for (Entry entry : entries)
+      out.append("    \"").append(mnemonicText(entry)).append("\",\n");
+    return out.append("  }").toString();
+  }
+
+  // Lower case text for Util.mnemonic, immediates are filled in at run time
+  static String mnemonicText(Entry entry) {
+    if (entry.mnemonic.equals("-")) return "N/A";
+    String text = entry.mnemonic.toLowerCase();
+    if (entry.operands.length > 0) text += " " + String.join(", ", entry.operands);
+    return text;
+  }
+
+  static void fail(String message) {
+    System.err.println("ERROR: OpcodeGen - " + message);
+    System.exit(1);
+  }
+}
@@ -1,3 +1,3 @@
 #!/bin/bash
 rgbasm -o $1.o $1.s
-rgblink -o $1.gb $1.o
+rgblink -n $1.sym -o $1.gb $1.o
@@ -0,0 +1,194 @@
+/*
+ * Table driven 8 bit ALU
+ * Results of the arithmetic instructions are precomputed at class init so the
+ * hot paths are a single array load with no data dependent branches.
+ * Entries are packed like CPUMath's p functions: the value in bits 0-7 and the
+ * complete Z/N/H/C flags in bits 8-15.
+ * CPUMath holds the reference implementations, run ALU.main to check the
+ * tables against them.
+ */
+class ALU {
+
+  // Operation codes for apply(), which lets lazy flag evaluation replay an op
+  // For ADC and SBC the carry in is passed in bit 8 of b
+  public static final int OP_ADD = 0;
+  public static final int OP_ADC = 1;
+  public static final int OP_SUB = 2;
+  public static final int OP_SBC = 3;
+  public static final int OP_CP  = 4;
+  public static final int OP_INC = 5;
+  public static final int OP_DEC = 6;
+  public static final int OP_AND = 7;
+  public static final int OP_OR  = 8;
+  public static final int OP_XOR = 9;
+
+  // ADD/ADC, indexed by (carry << 16) | (a << 8) | b
+  private static final char[] ADC = new char[0x20000];
+  // SUB/SBC/CP, indexed the same way
+  private static final char[] SBC = new char[0x20000];
+  // INC/DEC, indexed by the operand. C is left out since they don't touch it
+  private static final char[] INC = new char[0x100];
+  private static final char[] DEC = new char[0x100];
+  // DAA, indexed by (a << 3) | NHC
+  private static final char[] DAA = new char[0x800];
+
+  static {
+    for (int carry = 0; carry <= 1; carry++) {
+      for (int a = 0; a <= 0xFF; a++) {
+        for (int b = 0; b <= 0xFF; b++) {
+          int index = (carry << 16) | (a << 8) | b;
+
+          int sum = a + b + carry;
+          ADC[index] = entry(sum, (a ^ b ^ sum) & 0x10, sum >> 8, 0);
+
+          int difference = a - b - carry;
+          SBC[index] = entry(difference, (a ^ b ^ difference) & 0x10, difference >> 8, CPUState.FLAG_N);
+        }
+      }
+    }
+
+    for (int value = 0; value <= 0xFF; value++) {
+      int inc = (value + 1) & 0xFF;
+      INC[value] = entry(inc, (inc & 0xF) == 0 ? 1 : 0, 0, 0);
+
+      int dec = (value - 1) & 0xFF;
+      DEC[value] = entry(dec, (dec & 0xF) == 0xF ? 1 : 0, 0, CPUState.FLAG_N);
+    }
+
+    for (int a = 0; a <= 0xFF; a++) {
+      for (int nhc = 0; nhc <= 7; nhc++) {
+        DAA[(a << 3) | nhc] = (char)CPUMath.daa8p(a, nhc << 4);
+      }
+    }
+  }
+
+  private ALU() {}
+
+  private static char entry(int result, int halfCarry, int carry, int n) {
+    int value = result & 0xFF;
+    int flags = n;
+    if (value == 0) flags |= CPUState.FLAG_Z;
+    if (halfCarry != 0) flags |= CPUState.FLAG_H;
+    if (carry != 0) flags |= CPUState.FLAG_C;
+    return (char)CPUMath.pack(value, flags);
+  }
+
+  // Operands are 8 bit values, carry is 0 or 1
+  public static int add(int a, int b) { return ADC[(a << 8) | b]; }
+  public static int adc(int a, int b, int carry) { return ADC[(carry << 16) | (a << 8) | b]; }
+
+  public static int sub(int a, int b) { return SBC[(a << 8) | b]; }
+  public static int sbc(int a, int b, int carry) { return SBC[(carry << 16) | (a << 8) | b]; }
+  public static int cp(int a, int b) { return SBC[(a << 8) | b]; }
+
+  public static int inc(int value) { return INC[value]; }
+  public static int dec(int value) { return DEC[value]; }
+
+  // flags is register F's current value, the result holds the complete new F
+  public static int daa(int a, int flags) { return DAA[(a << 3) | ((flags >> 4) & 0x7)]; }
+
+
+  // Packed result of op
+  public static int apply(int op, int a, int b) {
+    switch (op) {
+      case OP_ADD: return ADC[(a << 8) | b];
+      case OP_ADC: return ADC[(a << 8) | (b & 0xFF) | ((b & 0x100) << 8)];
+      case OP_SUB: return SBC[(a << 8) | b];
+      case OP_SBC: return SBC[(a << 8) | (b & 0xFF) | ((b & 0x100) << 8)];
+      case OP_CP:  return SBC[(a << 8) | b];
+      case OP_INC: return INC[a];
+      case OP_DEC: return DEC[a];
+      case OP_AND: return CPUMath.and8p(a, b) | (CPUState.FLAG_H << 8);
+      case OP_OR:  return CPUMath.or8p(a, b);
+      case OP_XOR: return CPUMath.xor8p(a, b);
+      default:
+        Util.errn("ALU.apply - bad op " + op);
+        return 0;
+    }
+  }
+
+  // Result value of op without working out any flags
+  public static int value(int op, int a, int b) {
+    switch (op) {
+      case OP_ADD: return (a + b) & 0xFF;
+      case OP_ADC: return (a + b + (b >> 8)) & 0xFF;
+      case OP_SUB: return (a - b) & 0xFF;
+      case OP_SBC: return (a - (b & 0xFF) - (b >> 8)) & 0xFF;
+      case OP_CP:  return a;
+      case OP_INC: return (a + 1) & 0xFF;
+      case OP_DEC: return (a - 1) & 0xFF;
+      case OP_AND: return a & b;
+      case OP_OR:  return a | b;
+      case OP_XOR: return a ^ b;
+      default:
+        Util.errn("ALU.value - bad op " + op);
+        return 0;
+    }
+  }
+
+  // Flags written by op, INC and DEC leave C alone
+  public static int mask(int op) {
+    return op == OP_INC || op == OP_DEC ? CPUState.ALL_FLAGS & ~CPUState.FLAG_C : CPUState.ALL_FLAGS;
+  }
+
+
+  /*
+   * Compares every table entry with CPUMath's reference implementation
+   * Returns the number of mismatches
+   */
+  public static int verify() {
+    final int ZHC = CPUState.FLAG_Z | CPUState.FLAG_H | CPUState.FLAG_C;
+    final int ZH = CPUState.FLAG_Z | CPUState.FLAG_H;
+    int errors = 0;
+
+    for (int a = 0; a <= 0xFF; a++) {
+      for (int b = 0; b <= 0xFF; b++) {
+        errors += check("add", a, b, add(a, b), CPUMath.add8p(a, b), ZHC);
+        errors += check("sub", a, b, sub(a, b), CPUMath.sub8p(a, b), CPUState.ALL_FLAGS);
+        errors += check("cp", a, b, cp(a, b), CPUMath.sub8p(a, b), CPUState.ALL_FLAGS);
+        for (int carry = 0; carry <= 1; carry++) {
+          errors += check("adc", a, b, adc(a, b, carry), CPUMath.adc8p(a, b, carry), CPUState.ALL_FLAGS);
+          errors += check("sbc", a, b, sbc(a, b, carry), CPUMath.sbc8p(a, b, carry), CPUState.ALL_FLAGS);
+        }
+      }
+
+      errors += check("inc", a, 1, inc(a), CPUMath.inc8p(a), ZH);
+      errors += check("dec", a, 1, dec(a), CPUMath.dec8p(a), CPUState.ALL_FLAGS & ~CPUState.FLAG_C);
+      for (int nhc = 0; nhc <= 7; nhc++) {
+        errors += check("daa", a, nhc << 4, daa(a, nhc << 4), CPUMath.daa8p(a, nhc << 4), CPUState.ALL_FLAGS);
+      }
+    }
+
+    // value() must agree with apply() for lazy flag evaluation
+    for (int op = OP_ADD; op <= OP_XOR; op++) {
+      if (op == OP_CP) continue;
+      for (int a = 0; a <= 0xFF; a++) {
+        for (int b = 0; b <= 0x1FF; b++) {
+          if (b > 0xFF && op != OP_ADC && op != OP_SBC) break;
+          if (value(op, a, b) != CPUMath.value(apply(op, a, b))) {
+            Util.errn("ALU.value - op " + op + " disagrees with apply for " + Util.hex((short)a) + ", " + Util.hex(b));
+            errors++;
+          }
+        }
+      }
+    }
+
+    return errors;
+  }
+
+  // Only the flags in mask are compared, the table's other flag bits must be clear
+  private static int check(String op, int a, int b, int table, int reference, int mask) {
+    boolean valueMatches = CPUMath.value(table) == CPUMath.value(reference);
+    boolean flagsMatch = CPUMath.flags(table) == (CPUMath.flags(reference) & mask);
+    if (valueMatches && flagsMatch) return 0;
+
+    Util.errn("ALU." + op + "(" + Util.hex((short)a) + ", " + Util.hex((short)b) + ") - table "
+        + Util.hex(table) + ", reference " + Util.hex(reference));
+    return 1;
+  }
+
+  public static void main(String args[]) {
+    int errors = verify();
+    Util.log(errors == 0 ? "ALU tables match CPUMath" : "ALU tables - " + errors + " mismatches");
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Runs the same ROM headless under each CPU dispatch engine and reports
+ * instructions per second, so changes to the hot loop can be compared
+ * Usage: java -cp src/ Benchmark <rom> [instructions] [rounds]
+ */
+class Benchmark {
+
+  public static void main(String args[]) {
+    if (args.length < 1) {
+      Util.log("Usage: Benchmark <rom> [instructions] [rounds]");
+      return;
+    }
+    long count = args.length > 1 ? Long.parseLong(args[1]) : 20000000;
+    int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    Util.debug = false;
+
+    // Alternate engines every round so JIT warmup and machine noise hit both
+    for (int round = 1; round <= rounds; round++) {
+      for (CPU.Engine engine : CPU.Engine.values()) {
+        Settings settings = new Settings();
+        settings.display = false;
+        settings.engine = engine;
+
+        Gameboy gameboy = new Gameboy(new Cart(args[0]), settings);
+        long start = System.nanoTime();
+        gameboy.run(count);
+        long elapsed = System.nanoTime() - start;
+
+        double mips = count * 1000.0 / elapsed;
+        String line = "round " + round + "\t" + engine + "\t" + String.format("%.2f", mips) + " MIPS\tclock " + gameboy.getClockCounter().count();
+        BlockCompiler compiler = gameboy.getCPU().getCompiler();
+        if (compiler != null)
+          line += "\tcompiled " + compiler.compiled() + " rejected " + compiler.rejected();
+        Fusions fusions = gameboy.getCPU().getFusions();
+        if (fusions != null)
+          line += "\tfusions " + fusions.report();
+        IdleLoops idleLoops = gameboy.getCPU().getIdleLoops();
+        if (idleLoops != null)
+          line += "\tidle skipped " + idleLoops.skippedInstructions() + " in " + idleLoops.skips();
+        Util.log(line);
+      }
+    }
+  }
+}
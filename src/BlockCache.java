@@ -0,0 +1,151 @@
+/*
+ * Predecoded straight line runs of code for CPU.Engine.BLOCK
+ * A block is decoded the first time the CPU reaches its start address and
+ * runs until an instruction that can branch, so afterwards each step is an
+ * address check and a call instead of an opcode fetch and lookup
+ * Blocks are keyed by ROM bank and address. Any write to memory a block was
+ * decoded from drops it, which covers code copied into RAM (HRAM DMA
+ * routines) and self modifying code
+ */
+class BlockCache {
+  public static final int MAX_INSTRUCTIONS = 64;
+  private static final int MAX_BYTES = MAX_INSTRUCTIONS * 3;  // longest instruction is 3 bytes
+  private static final int PAGE_SHIFT = 7;  // keeps HRAM off the IO registers' page
+  private static final int UNSTABLE_INVALIDATIONS = 4;
+
+  static class Block {
+    final int bank;
+    final int start;
+    int end;                // first address past the block
+    int length;             // number of instructions
+    final int pcs[] = new int[MAX_INSTRUCTIONS];
+    final Opcode handlers[] = new Opcode[MAX_INSTRUCTIONS];
+    boolean valid = true;   // false once memory it came from is written
+    int entries;            // times the CPU started running it, for BlockCompiler
+    CompiledBlock code;     // set once it's compiled
+    Fusions.Fusion fusions[];  // by instruction index, null when it has none
+    boolean idle;           // could be a loop waiting on the PPU or timer, see IdleLoops
+    boolean covered;        // marked as run in the CPU's Coverage
+
+    Block(int bank, int start) {
+      this.bank = bank;
+      this.start = start;
+    }
+  }
+
+  private MMU mmu;
+  private Opcode handlers[];
+  private Fusions fusions;  // null to not look for fusable sequences
+  private IdleLoops idleLoops;  // null to not look for idle loops
+  private boolean breakpoints[];  // by address, blocks end in front of them, null for none
+  private Block blocks[] = new Block[0x10000];       // by start address
+  private int pageBlocks[] = new int[0x10000 >> PAGE_SHIFT];  // live blocks overlapping each page
+  private byte invalidations[] = new byte[0x10000];  // by start address, stops counting at UNSTABLE_INVALIDATIONS
+
+  private long decoded;
+  private long invalidated;
+
+  public BlockCache(MMU mmu, Opcode handlers[]) {
+    this.mmu = mmu;
+    this.handlers = handlers;
+  }
+
+  // The block starting at pc, decoding it if needed
+  // null when pc is in memory that isn't cached (echo, OAM, IO)
+  public Block lookup(int pc) {
+    Block block = blocks[pc];
+    if (block != null && block.bank == mmu.bank(pc)) return block;
+
+    if (!cacheable(pc)) return null;
+    if (block != null) invalidate(block);
+
+    block = decode(pc);
+    blocks[pc] = block;
+    for (int page = block.start >> PAGE_SHIFT; page <= (block.end - 1) >> PAGE_SHIFT; page++)
+      pageBlocks[page]++;
+    decoded++;
+    return block;
+  }
+
+  // Called by the MMU for every write
+  public void written(int address) {
+    if (pageBlocks[address >> PAGE_SHIFT] == 0) return;
+
+    for (int start = Math.max(0, address - MAX_BYTES + 1); start <= address; start++) {
+      Block block = blocks[start];
+      if (block != null && address < block.end) invalidate(block);
+    }
+  }
+
+  public void setFusions(Fusions fusions) {
+    this.fusions = fusions;
+  }
+
+  public void setIdleLoops(IdleLoops idleLoops) {
+    this.idleLoops = idleLoops;
+  }
+
+  public void setBreakpoints(boolean breakpoints[]) {
+    this.breakpoints = breakpoints;
+  }
+
+  // A breakpoint was set at address, drops the blocks that run through it
+  // so CPU.run() only meets it at the start of a block
+  public void split(int address) {
+    for (int start = Math.max(0, address - MAX_BYTES + 1); start < address; start++) {
+      Block block = blocks[start];
+      if (block != null && address < block.end) invalidate(block);
+    }
+  }
+
+  // Blocks at start keep getting written to, so it's probably self modifying code
+  public boolean unstable(int start) {
+    return invalidations[start] >= UNSTABLE_INVALIDATIONS;
+  }
+
+  public long decoded() { return decoded; }
+  public long invalidated() { return invalidated; }
+
+  private Block decode(int pc) {
+    Block block = new Block(mmu.bank(pc), pc);
+    int address = pc;
+
+    while (block.length < MAX_INSTRUCTIONS && cacheable(address)) {
+      if (block.length > 0 && breakpoints != null && breakpoints[address]) break;
+      short opcode = mmu.get(address);
+      block.pcs[block.length] = address;
+      block.handlers[block.length] = handlers[opcode];
+      block.length++;
+
+      address += Opcodes.LENGTH[opcode];
+      if (Opcodes.ENDS_BLOCK[opcode]) break;
+    }
+
+    block.end = Math.min(address, 0x10000);
+
+    if (fusions != null) {
+      for (int i = 0; i < block.length; i++) {
+        Fusions.Fusion fusion = fusions.match(block, i);
+        if (fusion == null) continue;
+        if (block.fusions == null) block.fusions = new Fusions.Fusion[block.length];
+        block.fusions[i] = fusion;
+      }
+    }
+    if (idleLoops != null) block.idle = idleLoops.candidate(block);
+    return block;
+  }
+
+  private void invalidate(Block block) {
+    block.valid = false;
+    blocks[block.start] = null;
+    for (int page = block.start >> PAGE_SHIFT; page <= (block.end - 1) >> PAGE_SHIFT; page++)
+      pageBlocks[page]--;
+    if (invalidations[block.start] < UNSTABLE_INVALIDATIONS) invalidations[block.start]++;
+    invalidated++;
+  }
+
+  // Memory whose bytes only change through MMU writes, and isn't mirrored
+  private static boolean cacheable(int address) {
+    return address < 0xE000 || (address >= 0xFF80 && address < 0xFFFF);
+  }
+}
@@ -0,0 +1,584 @@
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+
+/*
+ * Second tier of CPU.Engine.JIT
+ * Blocks the CPU has entered HOT_ENTRIES times are translated into a hidden
+ * class, so the JVM can inline the whole run of instructions instead of
+ * calling one table handler at a time. Operands, jump targets and cycle
+ * counts are constants in the generated code
+ * The common loads, stores, ALU ops and jumps are translated directly with
+ * the registers in locals, everything else calls its table handler. A
+ * block only goes back to CPU for timer, PPU and interrupts when they could
+ * have something to do, see translate()
+ */
+class BlockCompiler {
+  public static final int HOT_ENTRIES = 100;
+  public static final int VERSION = 2;  // of translate(), saved translations from other versions are dropped
+
+  // Register operand encoding in bits 0-2 and 3-5 of an opcode, 6 is [HL]
+  private static final String REGISTERS[] = { "B", "C", "D", "E", "H", "L", null, "A" };
+  // ALU op for each row of 0x80 - 0xBF and the d8 forms
+  private static final int ALU_OPS[] = {
+    ALU.OP_ADD, ALU.OP_ADC, ALU.OP_SUB, ALU.OP_SBC, ALU.OP_AND, ALU.OP_XOR, ALU.OP_OR, ALU.OP_CP
+  };
+
+  // Locals of the generated run(int index, int quiet), after this
+  private static final int INDEX = 1;     // of the next instruction
+  private static final int LEFT = 2;      // cycles before betweenInstructions() has anything to do
+  private static final int CHARGED = 3;   // LEFT when the ClockCounter was last charged
+  private static final int ADDRESS = 4;   // of a write through a register pair
+  private static final int REGISTER_LOCALS = 5;  // B C D E H L - A, by operand encoding
+  private static final int LOCALS = REGISTER_LOCALS + 8;
+
+  // Types as they appear in the generated code
+  private static final String SELF = "CompiledBlock";
+  private static final String STATE = "CPUState";
+  private static final String BLOCK = "BlockCache$Block";
+
+  private CPUState state;
+  private ClockCounter clockCounter;
+  private Instructions ins;
+  private MMU mmu;
+  private Opcode handlers[];
+  private BlockCache blockCache;
+  private TranslationCache translations;  // null when translations aren't kept between runs
+  private static MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+  // Classes already defined, by their class file, so a block that's
+  // invalidated and compiled again reuses its class. Kept per Gameboy so the
+  // hidden classes can be unloaded along with it
+  private HashMap<ByteBuffer, MethodHandle> classes = new HashMap<ByteBuffer, MethodHandle>();
+
+  private long compiled;
+  private long rejected;
+
+  public BlockCompiler(CPUState state, ClockCounter clockCounter, Instructions ins, MMU mmu, Opcode handlers[], BlockCache blockCache) {
+    this.state = state;
+    this.clockCounter = clockCounter;
+    this.ins = ins;
+    this.mmu = mmu;
+    this.handlers = handlers;
+    this.blockCache = blockCache;
+  }
+
+  // Compiled code for the block, null when it's better left to the interpreter
+  public CompiledBlock compile(BlockCache.Block block) {
+    // Code that keeps rewriting itself would just be recompiled, and code
+    // that's mostly IO access spends its time in the MMU either way
+    if (blockCache.unstable(block.start) || ioHeavy(block)) {
+      rejected++;
+      return null;
+    }
+
+    byte classFile[] = translate(block);
+    CompiledBlock code = define(block, classFile);
+    if (code == null) {
+      rejected++;
+      return null;
+    }
+
+    if (translations != null) translations.put(block, mmu, classFile);
+    compiled++;
+    return code;
+  }
+
+  // The block's translation from an earlier run, null if there isn't one
+  public CompiledBlock cached(BlockCache.Block block) {
+    if (translations == null) return null;
+
+    byte classFile[] = translations.get(block, mmu);
+    if (classFile == null) return null;
+    if (!links(classFile)) {
+      Util.errn("BlockCompiler.cached - block at 0x" + Util.hex(block.start) + " uses members that aren't there, recompiling it");
+      return null;
+    }
+    return define(block, classFile);
+  }
+
+  public void setTranslationCache(TranslationCache translations) {
+    this.translations = translations;
+  }
+
+  public long compiled() { return compiled; }
+  public long rejected() { return rejected; }
+
+  private CompiledBlock define(BlockCache.Block block, byte classFile[]) {
+    try {
+      CompiledBlock code = (CompiledBlock)constructor(classFile).invoke();
+      code.state = state;
+      code.clockCounter = clockCounter;
+      code.ins = ins;
+      code.mem = mmu.memory();
+      code.handlers = handlers;
+      code.block = block;
+      return code;
+    } catch (Throwable e) {
+      Util.errn("BlockCompiler.define - block at 0x" + Util.hex(block.start) + " failed: " + e);
+      return null;
+    }
+  }
+
+  private MethodHandle constructor(byte classFile[]) throws ReflectiveOperationException {
+    ByteBuffer key = ByteBuffer.wrap(classFile);
+    MethodHandle constructor = classes.get(key);
+    if (constructor == null) {
+      MethodHandles.Lookup hidden = lookup.defineHiddenClass(classFile, true);
+      constructor = hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class));
+      classes.put(key, constructor);
+    }
+    return constructor;
+  }
+
+  /*
+   * Every field and method the class file refers to is there
+   * The JVM only resolves a member the first time the instruction using it
+   * runs, so a saved translation that doesn't link would otherwise fail part
+   * way through a block
+   */
+  private static boolean links(byte classFile[]) {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+      in.skipBytes(8);  // magic and version
+      int count = in.readUnsignedShort();
+      int tags[] = new int[count];
+      int first[] = new int[count];   // Utf8 index for Class, class index for refs
+      int second[] = new int[count];  // NameAndType index for refs, descriptor index for NameAndType
+      String utf8[] = new String[count];
+      for (int i = 1; i < count; i++) {
+        tags[i] = in.readUnsignedByte();
+        switch (tags[i]) {
+          case 1: utf8[i] = in.readUTF(); break;
+          case 3: in.skipBytes(4); break;
+          case 7: first[i] = in.readUnsignedShort(); break;
+          case 9: case 10: case 11: case 12:
+            first[i] = in.readUnsignedShort();
+            second[i] = in.readUnsignedShort();
+            break;
+          default: return false;  // Bytecode doesn't write anything else
+        }
+      }
+
+      for (int i = 1; i < count; i++) {
+        if (tags[i] != 9 && tags[i] != 10) continue;
+        String owner = utf8[first[first[i]]].replace('/', '.');
+        String name = utf8[first[second[i]]];
+        String descriptor = utf8[second[second[i]]];
+        Class<?> type = Class.forName(owner, false, BlockCompiler.class.getClassLoader());
+        if (tags[i] == 9 ? !hasField(type, name, descriptor) : !hasMethod(type, name, descriptor))
+          return false;
+      }
+      return true;
+    } catch (IOException | ClassNotFoundException | IndexOutOfBoundsException | NullPointerException e) {
+      return false;
+    }
+  }
+
+  private static boolean hasField(Class<?> type, String name, String descriptor) {
+    for (; type != null; type = type.getSuperclass())
+      for (Field field : type.getDeclaredFields())
+        if (field.getName().equals(name) && field.getType().descriptorString().equals(descriptor)) return true;
+    return false;
+  }
+
+  private static boolean hasMethod(Class<?> type, String name, String descriptor) {
+    if (name.equals("<init>")) {
+      for (java.lang.reflect.Constructor<?> constructor : type.getDeclaredConstructors())
+        if (MethodType.methodType(void.class, constructor.getParameterTypes()).toMethodDescriptorString().equals(descriptor)) return true;
+      return false;
+    }
+    for (; type != null; type = type.getSuperclass())
+      for (Method method : type.getDeclaredMethods())
+        if (method.getName().equals(name) && MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString().equals(descriptor)) return true;
+    return false;
+  }
+
+  /*
+   * run() keeps A - L in locals and runs the block's instructions straight
+   * through from index, one after another. Cycles are counted down in a
+   * local from how many CPU said could go by before betweenInstructions()
+   * has anything to do, and only charged to the ClockCounter when something
+   * could look at it. When that runs out, after a write that could reach the
+   * hardware or the block itself, and after handlers that write memory or
+   * change IME or HALT, the registers and clock go back to CPUState and the
+   * ClockCounter and run() returns, so CPU calls betweenInstructions() and
+   * then carries on from the next instruction. Everything else
+   * betweenInstructions() would have done in between is nothing, so running
+   * a compiled block still gives the same state and clock as interpreting it
+   */
+  private byte[] translate(BlockCache.Block block) {
+    Bytecode bytecode = new Bytecode("CompiledBlock$" + Integer.toHexString(block.start), SELF);
+    bytecode.constructor(SELF);
+
+    Bytecode.Code c = bytecode.newCode();
+    int exit = c.newLabel();
+    int cases[] = new int[block.length];
+    int stops[] = new int[block.length];
+    for (int i = 0; i < block.length; i++) {
+      cases[i] = c.newLabel();
+      stops[i] = c.newLabel();
+    }
+
+    c.iload(LEFT).istore(CHARGED);
+    c.iconst(0).istore(ADDRESS);
+    load(c);
+    c.iload(INDEX).tableswitch(0, exit, cases);
+
+    for (int i = 0; i < block.length; i++) {
+      int pc = block.pcs[i];
+      c.mark(cases[i]);
+      boolean stop = instruction(c, block, i, mmu.get(pc), mmu.get((pc + 1) & 0xFFFF), mmu.get((pc + 2) & 0xFFFF), stops[i]);
+      if (i == block.length - 1) continue;
+
+      if (stop) c.jump(Bytecode.GOTO, stops[i]);
+      else c.iload(LEFT).jump(Bytecode.IFLT, stops[i]);
+    }
+
+    // Returns the index of the next instruction for CPU to carry on from
+    for (int i = 0; i < block.length - 1; i++) {
+      c.mark(stops[i]).iconst(i + 1).istore(INDEX).jump(Bytecode.GOTO, exit);
+    }
+    c.mark(exit);
+    store(c);
+    pcAtIndex(c);
+    charge(c);
+    c.iload(INDEX).op(Bytecode.IRETURN);
+
+    bytecode.method("run", "(II)I", c, 9, LOCALS - 3);
+    return bytecode.toByteArray();
+  }
+
+  /*
+   * Code for one instruction, matching its handler in Opcodes, with the
+   * registers in locals. The last instruction of the block sets PC and
+   * returns
+   * Returns true when betweenInstructions() has to run after it, and jumps
+   * to stop when that's only found out as it runs
+   */
+  private boolean instruction(Bytecode.Code c, BlockCache.Block block, int index, int opcode, int byte1, int byte2,
+      int stop) {
+    int pc = block.pcs[index];
+    boolean last = index == block.length - 1;
+    int next = (pc + Opcodes.LENGTH[opcode]) & 0xFFFF;
+    int word = (byte2 << 8) | byte1;
+    int dst = (opcode >> 3) & 7;
+    int src = opcode & 7;
+
+    // NOP
+    if (opcode == 0x00) {
+      spend(c, Opcodes.CYCLES[opcode]);
+    }
+    // LD r,r'
+    else if (opcode >= 0x40 && opcode < 0x80 && dst != 6 && src != 6) {
+      spend(c, Opcodes.CYCLES[opcode]);
+      c.iload(register(src)).istore(register(dst));
+    }
+    // LD r,d8
+    else if ((opcode & 0xC7) == 0x06 && dst != 6) {
+      spend(c, Opcodes.CYCLES[opcode]);
+      c.iconst(byte1).istore(register(dst));
+    }
+    // LD rr,d16
+    else if ((opcode & 0xCF) == 0x01) {
+      spend(c, Opcodes.CYCLES[opcode]);
+      if (opcode == 0x31) {
+        state(c).iconst(word).invoke(Bytecode.INVOKEVIRTUAL, STATE, "setSP", "(I)V");
+      } else {
+        c.iconst(byte2).istore(register(2 * (opcode >> 4)));
+        c.iconst(byte1).istore(register(2 * (opcode >> 4) + 1));
+      }
+    }
+    // INC r, DEC r
+    else if (((opcode & 0xC7) == 0x04 || (opcode & 0xC7) == 0x05) && dst != 6) {
+      spend(c, Opcodes.CYCLES[opcode]);
+      ins(c).iconst((opcode & 1) == 0 ? ALU.OP_INC : ALU.OP_DEC).iload(register(dst)).iconst(0);
+      alu(c);
+      c.istore(register(dst));
+    }
+    // INC rr, DEC rr
+    else if ((opcode & 0xC7) == 0x03) {
+      String step = (opcode & 0x08) == 0 ? "inc16" : "dec16";
+      spend(c, Opcodes.CYCLES[opcode]);
+      if (opcode >> 4 == 3) {
+        state(c);
+        state(c).invoke(Bytecode.INVOKEVIRTUAL, STATE, "SP", "()I");
+        c.invoke(Bytecode.INVOKESTATIC, "CPUMath", step, "(I)I");
+        c.invoke(Bytecode.INVOKEVIRTUAL, STATE, "setSP", "(I)V");
+      } else {
+        pair(c, opcode >> 4);
+        c.invoke(Bytecode.INVOKESTATIC, "CPUMath", step, "(I)I");
+        setPair(c, opcode >> 4);
+      }
+    }
+    // ALU A,r and ALU A,d8
+    else if ((opcode >= 0x80 && opcode < 0xC0 && src != 6) || (opcode & 0xC7) == 0xC6) {
+      int op = ALU_OPS[dst];
+      spend(c, Opcodes.CYCLES[opcode]);
+      ins(c).iconst(op).iload(register(7));
+      if (opcode < 0xC0) c.iload(register(src));
+      else c.iconst(byte1);
+      if (op == ALU.OP_ADC || op == ALU.OP_SBC) {
+        ins(c).invoke(Bytecode.INVOKEVIRTUAL, "Instructions", "carryIn", "()I");
+        c.op(Bytecode.IOR);
+      }
+      alu(c);
+      if (op != ALU.OP_CP) c.istore(register(7));
+      else c.op(Bytecode.POP);
+    }
+    // JP a16
+    else if (opcode == 0xC3) {
+      spend(c, Opcodes.CYCLES[opcode]);
+      setPC(c, word);
+      finish(c, block);
+      return false;
+    }
+    // JR r8
+    else if (opcode == 0x18) {
+      spend(c, Opcodes.CYCLES[opcode]);
+      setPC(c, (next + (byte)byte1) & 0xFFFF);
+      finish(c, block);
+      return false;
+    }
+    // JR cc,r8 and JP cc,a16
+    else if ((opcode & 0xE7) == 0x20 || (opcode & 0xE7) == 0xC2) {
+      int target = opcode < 0x40 ? (next + (byte)byte1) & 0xFFFF : word;
+      int flag = (opcode & 0x10) == 0 ? CPUState.FLAG_Z : CPUState.FLAG_C;
+      boolean ifSet = (opcode & 0x08) != 0;
+
+      int notTaken = c.newLabel();
+      int done = c.newLabel();
+      state(c).invoke(Bytecode.INVOKEVIRTUAL, STATE, "getFlags", "()I");
+      c.iconst(flag).op(Bytecode.IAND);
+      c.jump(ifSet ? Bytecode.IFEQ : Bytecode.IFNE, notTaken);
+      spend(c, Opcodes.CYCLES[opcode]);
+      setPC(c, target);
+      c.jump(Bytecode.GOTO, done);
+      c.mark(notTaken);
+      spend(c, Opcodes.CYCLES_NOT_TAKEN[opcode]);
+      setPC(c, next);
+      c.mark(done);
+      finish(c, block);
+      return false;
+    }
+    // LDH [a8],A and LD [a16],A
+    else if (opcode == 0xE0 || opcode == 0xEA) {
+      int address = opcode == 0xE0 ? 0xFF00 + byte1 : word;
+      boolean hardware = (address >= 0xFF00 && address < 0xFF80) || address == 0xFFFF;
+      spend(c, Opcodes.CYCLES[opcode]);
+      if (hardware) charge(c);
+      ins(c).iconst(address).iload(register(7));
+      c.invoke(Bytecode.INVOKEVIRTUAL, "Instructions", "writeMem8", "(II)V");
+      if (hardware || (address >= block.start && address < block.end)) {
+        if (last) end(c, block, next);
+        return true;
+      }
+    }
+    // LDH A,[a8] and LD A,[a16]
+    else if (opcode == 0xF0 || opcode == 0xFA) {
+      int address = opcode == 0xF0 ? 0xFF00 + byte1 : word;
+      spend(c, Opcodes.CYCLES[opcode]);
+      if (MMU.plain(address)) {
+        c.op(Bytecode.ALOAD_0).getfield(SELF, "mem", "[S").iconst(address).op(Bytecode.SALOAD);
+      } else {
+        ins(c).iconst(address).invoke(Bytecode.INVOKEVIRTUAL, "Instructions", "readMem8", "(I)I");
+      }
+      c.istore(register(7));
+    }
+    // LD r,[HL] and LD A,[BC], [DE], [HL+], [HL-]
+    else if ((opcode >= 0x40 && opcode < 0x80 && src == 6 && dst != 6) || (opcode & 0xCF) == 0x0A) {
+      int from = opcode < 0x40 ? Math.min(opcode >> 4, 2) : 2;
+      int to = opcode < 0x40 ? 7 : dst;
+      spend(c, Opcodes.CYCLES[opcode]);
+      ins(c);
+      pair(c, from);
+      c.invoke(Bytecode.INVOKEVIRTUAL, "Instructions", "readMem8", "(I)I").istore(register(to));
+      if (opcode == 0x2A || opcode == 0x3A) {
+        pair(c, 2);
+        c.invoke(Bytecode.INVOKESTATIC, "CPUMath", opcode == 0x2A ? "inc16" : "dec16", "(I)I");
+        setPair(c, 2);
+      }
+    }
+    // LD [HL],r, LD [HL],d8, INC [HL], DEC [HL] and LD [BC], [DE], [HL+], [HL-],A
+    else if ((opcode >= 0x70 && opcode < 0x78 && opcode != 0x76) || (opcode >= 0x34 && opcode <= 0x36)
+        || (opcode & 0xCF) == 0x02) {
+      int to = opcode < 0x40 && (opcode & 0x0F) == 0x02 ? Math.min(opcode >> 4, 2) : 2;
+      spend(c, Opcodes.CYCLES[opcode]);
+      pair(c, to);
+      c.istore(ADDRESS);
+      charge(c);  // it may be a hardware register
+      ins(c).iload(ADDRESS);
+      if (opcode == 0x36) {
+        c.iconst(byte1);
+      } else if (opcode == 0x34 || opcode == 0x35) {
+        ins(c).iconst(opcode == 0x34 ? ALU.OP_INC : ALU.OP_DEC);
+        ins(c).iload(ADDRESS).invoke(Bytecode.INVOKEVIRTUAL, "Instructions", "readMem8", "(I)I");
+        c.iconst(0);
+        alu(c);
+      } else {
+        c.iload(register(opcode >= 0x70 ? src : 7));
+      }
+      c.invoke(Bytecode.INVOKEVIRTUAL, "Instructions", "writeMem8", "(II)V");
+      if (opcode == 0x22 || opcode == 0x32) {
+        pair(c, 2);
+        c.invoke(Bytecode.INVOKESTATIC, "CPUMath", opcode == 0x22 ? "inc16" : "dec16", "(I)I");
+        setPair(c, 2);
+      }
+      if (last) {
+        end(c, block, next);
+        return true;
+      }
+      // Hardware registers and the block itself need betweenInstructions()
+      c.iload(ADDRESS).iconst(0xFF00).jump(Bytecode.IF_ICMPGE, stop);
+      valid(c).jump(Bytecode.IFEQ, stop);
+    }
+    // Anything else goes through its handler, same as the interpreter
+    else {
+      store(c);
+      charge(c);
+      setPC(c, (pc + 1) & 0xFFFF);
+      c.op(Bytecode.ALOAD_0).iconst(opcode).invoke(Bytecode.INVOKEVIRTUAL, SELF, "execute", "(I)V");
+      if (last) {
+        c.iconst(block.length).op(Bytecode.IRETURN);
+        return false;
+      }
+
+      // The handler charged its own cycles
+      load(c);
+      spend(c, opcode == 0xCB ? Opcodes.CB_CYCLES[byte1] : Opcodes.CYCLES[opcode]);
+      c.iload(LEFT).istore(CHARGED);
+      return touchesHardware(opcode, byte1);
+    }
+
+    if (last) end(c, block, next);
+    return false;
+  }
+
+  // Handlers whose effects betweenInstructions() has to see straight away:
+  // memory writes, IME and HALT. The rest end blocks anyway
+  private static boolean touchesHardware(int opcode, int byte1) {
+    switch (opcode) {
+      case 0x08: case 0x10: case 0x76: case 0xE2: case 0xF3: case 0xFB:
+      case 0xC5: case 0xD5: case 0xE5: case 0xF5:
+        return true;
+      case 0xCB:
+        return (byte1 & 7) == 6 && (byte1 < 0x40 || byte1 >= 0x80);  // [HL] other than BIT
+      default:
+        return false;
+    }
+  }
+
+  // Code generation helpers
+  private static Bytecode.Code state(Bytecode.Code c) {
+    return c.op(Bytecode.ALOAD_0).getfield(SELF, "state", "L" + STATE + ";");
+  }
+
+  private static Bytecode.Code ins(Bytecode.Code c) {
+    return c.op(Bytecode.ALOAD_0).getfield(SELF, "ins", "LInstructions;");
+  }
+
+  // Pushes block.pcs
+  private static Bytecode.Code pcs(Bytecode.Code c) {
+    return c.op(Bytecode.ALOAD_0).getfield(SELF, "block", "L" + BLOCK + ";").getfield(BLOCK, "pcs", "[I");
+  }
+
+  // Pushes block.valid
+  private static Bytecode.Code valid(Bytecode.Code c) {
+    return c.op(Bytecode.ALOAD_0).getfield(SELF, "block", "L" + BLOCK + ";").getfield(BLOCK, "valid", "Z");
+  }
+
+  // Local holding a register, by its operand encoding
+  private static int register(int index) {
+    return REGISTER_LOCALS + index;
+  }
+
+  // Ends the block with PC already set, all of it has run
+  private static void finish(Bytecode.Code c, BlockCache.Block block) {
+    store(c);
+    charge(c);
+    c.iconst(block.length).op(Bytecode.IRETURN);
+  }
+
+  // Ends the block at next
+  private static void end(Bytecode.Code c, BlockCache.Block block, int next) {
+    setPC(c, next);
+    finish(c, block);
+  }
+
+  // Registers from CPUState into their locals, and back
+  private static void load(Bytecode.Code c) {
+    for (int index = 0; index < REGISTERS.length; index++) {
+      if (REGISTERS[index] == null) continue;
+      state(c).invoke(Bytecode.INVOKEVIRTUAL, STATE, REGISTERS[index], "()I").istore(register(index));
+    }
+  }
+
+  private static void store(Bytecode.Code c) {
+    c.op(Bytecode.ALOAD_0);
+    for (int index = 0; index < REGISTERS.length; index++) {
+      if (REGISTERS[index] != null) c.iload(register(index));
+    }
+    c.invoke(Bytecode.INVOKEVIRTUAL, SELF, "setRegisters", "(IIIIIII)V");
+  }
+
+  // Pushes BC, DE or HL from the locals
+  private static void pair(Bytecode.Code c, int pair) {
+    c.iload(register(2 * pair)).iconst(8).op(Bytecode.ISHL).iload(register(2 * pair + 1)).op(Bytecode.IOR);
+  }
+
+  // Stores the word on top of the stack in BC, DE or HL
+  private static void setPair(Bytecode.Code c, int pair) {
+    c.op(Bytecode.DUP).iconst(8).op(Bytecode.ISHR).istore(register(2 * pair));
+    c.iconst(0xFF).op(Bytecode.IAND).istore(register(2 * pair + 1));
+  }
+
+  // Counts the cycles off LEFT, they're charged later
+  private static void spend(Bytecode.Code c, int cycles) {
+    if (cycles != 0) c.iinc(LEFT, -cycles);
+  }
+
+  // Charges the ClockCounter with the cycles spent since it last was
+  private static void charge(Bytecode.Code c) {
+    c.op(Bytecode.ALOAD_0).getfield(SELF, "clockCounter", "LClockCounter;");
+    c.iload(CHARGED).iload(LEFT).op(Bytecode.ISUB).invoke(Bytecode.INVOKEVIRTUAL, "ClockCounter", "add", "(I)V");
+    c.iload(LEFT).istore(CHARGED);
+  }
+
+  private static void setPC(Bytecode.Code c, int address) {
+    state(c).iconst(address).invoke(Bytecode.INVOKEVIRTUAL, STATE, "setPC", "(I)V");
+  }
+
+  // PC to the address of the instruction at INDEX
+  private static void pcAtIndex(Bytecode.Code c) {
+    state(c);
+    pcs(c).iload(INDEX).op(Bytecode.IALOAD).invoke(Bytecode.INVOKEVIRTUAL, STATE, "setPC", "(I)V");
+  }
+
+  // ins.alu(op, a, b) with its arguments already pushed
+  private static void alu(Bytecode.Code c) {
+    c.invoke(Bytecode.INVOKEVIRTUAL, "Instructions", "alu", "(III)I");
+  }
+
+  // More than half the instructions touch IO registers
+  private boolean ioHeavy(BlockCache.Block block) {
+    int io = 0;
+    for (int i = 0; i < block.length; i++) {
+      int pc = block.pcs[i];
+      short opcode = mmu.get(pc);
+      if (opcode == 0xE0 || opcode == 0xF0 || opcode == 0xE2 || opcode == 0xF2) {
+        io++;
+      } else if (opcode == 0xEA || opcode == 0xFA) {
+        int address = (mmu.get((pc + 2) & 0xFFFF) << 8) | mmu.get((pc + 1) & 0xFFFF);
+        if (address >= 0xFF00 && address < 0xFF80) io++;
+      }
+    }
+    return io * 2 > block.length;
+  }
+}
@@ -0,0 +1,301 @@
+import java.util.HashMap;
+
+/*
+ * Just enough of a class file writer for BlockCompiler
+ * Builds one class without fields or interfaces, branches go to labels
+ * Classes are written as version 49 so the verifier works the types out
+ * itself and no StackMapTable is needed
+ */
+class Bytecode {
+  // Opcodes used by BlockCompiler
+  public static final int ICONST_0 = 0x03;
+  public static final int BIPUSH = 0x10;
+  public static final int SIPUSH = 0x11;
+  public static final int LDC_W = 0x13;
+  public static final int ILOAD = 0x15;
+  public static final int ALOAD_0 = 0x2A;
+  public static final int IALOAD = 0x2E;
+  public static final int AALOAD = 0x32;
+  public static final int SALOAD = 0x35;
+  public static final int ISTORE = 0x36;
+  public static final int POP = 0x57;
+  public static final int DUP = 0x59;
+  public static final int ISUB = 0x64;
+  public static final int INEG = 0x74;
+  public static final int ISHL = 0x78;
+  public static final int ISHR = 0x7A;
+  public static final int IAND = 0x7E;
+  public static final int IOR = 0x80;
+  public static final int IINC = 0x84;
+  public static final int IFEQ = 0x99;
+  public static final int IFNE = 0x9A;
+  public static final int IFLT = 0x9B;
+  public static final int IF_ICMPEQ = 0x9F;
+  public static final int IF_ICMPNE = 0xA0;
+  public static final int IF_ICMPGE = 0xA2;
+  public static final int IF_ICMPGT = 0xA3;
+  public static final int GOTO = 0xA7;
+  public static final int TABLESWITCH = 0xAA;
+  public static final int IRETURN = 0xAC;
+  public static final int RETURN = 0xB1;
+  public static final int GETFIELD = 0xB4;
+  public static final int INVOKEVIRTUAL = 0xB6;
+  public static final int INVOKESPECIAL = 0xB7;
+  public static final int INVOKESTATIC = 0xB8;
+  public static final int INVOKEINTERFACE = 0xB9;
+
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+
+  // Constant pool
+  private Buffer pool = new Buffer();
+  private int poolCount = 1;
+  private HashMap<String, Integer> poolIndex = new HashMap<String, Integer>();
+
+  private Buffer methods = new Buffer();
+  private int methodCount = 0;
+
+  private final int thisClass;
+  private final int superClass;
+
+  public Bytecode(String name, String superName) {
+    thisClass = classRef(name);
+    superClass = classRef(superName);
+  }
+
+  /*
+   * Method bodies
+   */
+  public static class Code {
+    private Bytecode owner;
+    private Buffer code = new Buffer();
+    // Branches to patch, each is (opcode position, offset position, label, 4 byte offset)
+    private int fixups[] = new int[64];
+    private int fixupCount = 0;
+    private int labels[] = new int[16];
+    private int labelCount = 0;
+
+    private Code(Bytecode owner) { this.owner = owner; }
+
+    public Code op(int opcode) { code.u1(opcode); return this; }
+
+    public Code iconst(int value) {
+      if (value >= -1 && value <= 5) code.u1(ICONST_0 + value);
+      else if (value >= -128 && value <= 127) { code.u1(BIPUSH); code.u1(value); }
+      else if (value >= -32768 && value <= 32767) { code.u1(SIPUSH); code.u2(value); }
+      else { code.u1(LDC_W); code.u2(owner.integer(value)); }
+      return this;
+    }
+
+    public Code iload(int local) { code.u1(ILOAD); code.u1(local); return this; }
+    public Code istore(int local) { code.u1(ISTORE); code.u1(local); return this; }
+    public Code iinc(int local, int amount) { code.u1(IINC); code.u1(local); code.u1(amount); return this; }
+
+    public Code getfield(String owner, String name, String descriptor) {
+      code.u1(GETFIELD);
+      code.u2(this.owner.member(9, owner, name, descriptor));
+      return this;
+    }
+
+    public Code invoke(int opcode, String owner, String name, String descriptor) {
+      code.u1(opcode);
+      if (opcode == INVOKEINTERFACE) {
+        code.u2(this.owner.member(11, owner, name, descriptor));
+        code.u1(argumentSlots(descriptor) + 1);
+        code.u1(0);
+      } else {
+        code.u2(this.owner.member(10, owner, name, descriptor));
+      }
+      return this;
+    }
+
+    public int newLabel() {
+      if (labelCount == labels.length) labels = java.util.Arrays.copyOf(labels, labels.length * 2);
+      labels[labelCount] = -1;
+      return labelCount++;
+    }
+
+    public Code mark(int label) { labels[label] = code.length; return this; }
+
+    // Branch to a label, which may be marked before or after
+    public Code jump(int opcode, int label) {
+      fixup(code.length, code.length + 1, label, false);
+      code.u1(opcode);
+      code.u2(0);
+      return this;
+    }
+
+    // Jumps to cases[value - low], or to defaultCase when it's out of range
+    public Code tableswitch(int low, int defaultCase, int cases[]) {
+      int at = code.length;
+      code.u1(TABLESWITCH);
+      while (code.length % 4 != 0) code.u1(0);
+      fixup(at, code.length, defaultCase, true);
+      code.u4(0);
+      code.u4(low);
+      code.u4(low + cases.length - 1);
+      for (int label : cases) {
+        fixup(at, code.length, label, true);
+        code.u4(0);
+      }
+      return this;
+    }
+
+    private void fixup(int at, int field, int label, boolean wide) {
+      if (fixupCount + 4 > fixups.length) fixups = java.util.Arrays.copyOf(fixups, fixups.length * 2);
+      fixups[fixupCount++] = at;
+      fixups[fixupCount++] = field;
+      fixups[fixupCount++] = label;
+      fixups[fixupCount++] = wide ? 1 : 0;
+    }
+
+    private byte[] finish() {
+      for (int i = 0; i < fixupCount; i += 4) {
+        int label = fixups[i + 2];
+        int offset = labels[label] - fixups[i];
+        if (labels[label] < 0 || (fixups[i + 3] == 0 && (offset > 32767 || offset < -32768)))
+          throw new IllegalStateException("Bytecode - bad branch to label " + label);
+        if (fixups[i + 3] == 0) code.set2(fixups[i + 1], offset);
+        else code.set4(fixups[i + 1], offset);
+      }
+      return code.toArray();
+    }
+  }
+
+  public Code newCode() { return new Code(this); }
+
+  // Adds a public method, locals are this, its int/reference arguments and then extraLocals ints
+  public void method(String name, String descriptor, Code body, int maxStack, int extraLocals) {
+    byte code[] = body.finish();
+    int maxLocals = 1 + argumentSlots(descriptor) + extraLocals;
+
+    methods.u2(ACC_PUBLIC);
+    methods.u2(utf8(name));
+    methods.u2(utf8(descriptor));
+    methods.u2(1);  // attributes
+    methods.u2(utf8("Code"));
+    methods.u4(12 + code.length);
+    methods.u2(maxStack);
+    methods.u2(maxLocals);
+    methods.u4(code.length);
+    methods.bytes(code);
+    methods.u2(0);  // exception table
+    methods.u2(0);  // attributes
+    methodCount++;
+  }
+
+  // Adds the no argument constructor, which just calls super()
+  public void constructor(String superName) {
+    Code body = newCode();
+    body.op(ALOAD_0).invoke(INVOKESPECIAL, superName, "<init>", "()V").op(RETURN);
+    method("<init>", "()V", body, 1, 0);
+  }
+
+  public byte[] toByteArray() {
+    Buffer out = new Buffer();
+    out.u4(0xCAFEBABE);
+    out.u2(0);   // minor
+    out.u2(49);  // major, Java 5
+    out.u2(poolCount);
+    out.bytes(pool.toArray());
+    out.u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+    out.u2(thisClass);
+    out.u2(superClass);
+    out.u2(0);  // interfaces
+    out.u2(0);  // fields
+    out.u2(methodCount);
+    out.bytes(methods.toArray());
+    out.u2(0);  // attributes
+    return out.toArray();
+  }
+
+  /*
+   * Constant pool entries, each added once
+   */
+  private int utf8(String value) {
+    Integer index = poolIndex.get("U" + value);
+    if (index != null) return index;
+    pool.u1(1);
+    byte bytes[] = value.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    pool.u2(bytes.length);
+    pool.bytes(bytes);
+    return add("U" + value);
+  }
+
+  private int classRef(String name) {
+    Integer index = poolIndex.get("C" + name);
+    if (index != null) return index;
+    int nameIndex = utf8(name);
+    pool.u1(7);
+    pool.u2(nameIndex);
+    return add("C" + name);
+  }
+
+  private int integer(int value) {
+    Integer index = poolIndex.get("I" + value);
+    if (index != null) return index;
+    pool.u1(3);
+    pool.u4(value);
+    return add("I" + value);
+  }
+
+  // Fieldref (9), Methodref (10) or InterfaceMethodref (11)
+  private int member(int tag, String owner, String name, String descriptor) {
+    String key = tag + owner + "." + name + descriptor;
+    Integer index = poolIndex.get(key);
+    if (index != null) return index;
+
+    int classIndex = classRef(owner);
+    int nameIndex = utf8(name);
+    int descriptorIndex = utf8(descriptor);
+    Integer nameAndType = poolIndex.get("N" + name + descriptor);
+    if (nameAndType == null) {
+      pool.u1(12);
+      pool.u2(nameIndex);
+      pool.u2(descriptorIndex);
+      nameAndType = add("N" + name + descriptor);
+    }
+
+    pool.u1(tag);
+    pool.u2(classIndex);
+    pool.u2(nameAndType);
+    return add(key);
+  }
+
+  private int add(String key) {
+    poolIndex.put(key, poolCount);
+    return poolCount++;
+  }
+
+  // Argument slots in a descriptor that only uses ints and references
+  private static int argumentSlots(String descriptor) {
+    int slots = 0;
+    for (int i = 1; descriptor.charAt(i) != ')'; i++) {
+      char c = descriptor.charAt(i);
+      if (c == 'L') i = descriptor.indexOf(';', i);
+      else if (c == '[') continue;
+      slots++;
+    }
+    return slots;
+  }
+
+  // Growable big endian byte buffer
+  private static class Buffer {
+    private byte data[] = new byte[256];
+    int length = 0;
+
+    void u1(int value) {
+      if (length == data.length) data = java.util.Arrays.copyOf(data, data.length * 2);
+      data[length++] = (byte)value;
+    }
+    void u2(int value) { u1(value >> 8); u1(value); }
+    void u4(int value) { u2(value >> 16); u2(value); }
+    void bytes(byte values[]) { for (byte b : values) u1(b); }
+
+    void set2(int at, int value) { data[at] = (byte)(value >> 8); data[at + 1] = (byte)value; }
+    void set4(int at, int value) { set2(at, value >> 16); set2(at + 2, value); }
+
+    byte[] toArray() { return java.util.Arrays.copyOf(data, length); }
+  }
+}
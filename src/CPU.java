@@ -3,22 +3,184 @@ import java.util.HashMap;
 
 class CPU {
 
+  // How tick() gets from an opcode to its handler
+  public enum Engine {
+    SWITCH,  // Opcodes.execute() switch
+    TABLE,   // Opcodes.table() lookup
+    BLOCK,   // BlockCache of predecoded table handlers
+    JIT,     // BLOCK, with hot blocks compiled to bytecode by BlockCompiler
+  }
+
   private CPUState state;
   private MMU mmu;
   private Cart cart;
   private ClockCounter clockCounter;
   private Instructions ins;
+  private Opcodes opcodes;
+  private Engine engine = Engine.SWITCH;
+  private Opcode handlers[];
+  private BlockCache blockCache;
+  private BlockCache.Block block;  // block being run and the index of its next instruction
+  private int blockIndex;
+  private BlockCompiler compiler;
+  private TranslationCache translations;
+  private Fusions fusions;
+  private IdleLoops idleLoops;
+  private Hardware hardware;  // the rest of the machine, see run()
+  private TraceBuffer trace;  // null when instructions aren't traced
+  private TraceBuffer debugLine;  // formats Util.debug's line when there's no trace
+  private OpcodeProfile profile;  // null when opcodes aren't profiled
+  private PCSampler sampler;      // null when PC isn't sampled
+  private CallGraph calls;        // null when calls aren't followed
+  private DoctorTrace doctor;     // null when there's no Gameboy Doctor log
+  private Coverage coverage;      // null when coverage isn't recorded
+  private boolean breakpoints[];  // by PC, null when there aren't any
+
+  private static final int HALT_SLICE = 0x10000;  // most halted cycles one tick() skips
+
+  /*
+   * What run() needs from the rest of the machine
+   */
+  public interface Hardware {
+    // Runs between each pair of instructions, before interrupts are serviced
+    void tick();
+    // Clocks the hardware can go without tick() and still have nothing to do
+    int idleCycles();
+    // Same as tick() after each of the next instructions, which take cycles
+    // clocks between them, no more than idleCycles()
+    void skip(int instructions, int cycles);
+  }
 
   public CPU(CPUState state, MMU mmu, Cart cart, ClockCounter clockCounter) {
     this.state = state;
     this.mmu = mmu;
     this.cart = cart;
     this.clockCounter = clockCounter;
-    this.ins = new Instructions(state, mmu, clockCounter);
+    this.ins = new Instructions(state, mmu);
+    this.opcodes = new Opcodes(this, state, clockCounter, ins, new CBInstructions(state));
 
     loadROM();
   }
 
+  public void setEngine(Engine engine) {
+    if (engine != Engine.SWITCH && handlers == null)
+      handlers = opcodes.table();
+    boolean blocks = engine == Engine.BLOCK || engine == Engine.JIT;
+    if (blocks && blockCache == null) {
+      blockCache = new BlockCache(mmu, handlers);
+      fusions = new Fusions(this, state, clockCounter, ins, mmu);
+      blockCache.setFusions(fusions);
+      idleLoops = new IdleLoops(state, clockCounter, mmu);
+      blockCache.setIdleLoops(idleLoops);
+      blockCache.setBreakpoints(breakpoints);
+    }
+    if (engine == Engine.JIT && compiler == null) {
+      compiler = new BlockCompiler(state, clockCounter, ins, mmu, handlers, blockCache);
+      compiler.setTranslationCache(translations);
+    }
+
+    mmu.setBlockCache(blocks ? blockCache : null);
+    block = null;
+    this.engine = engine;
+  }
+
+  public Engine getEngine() {
+    return engine;
+  }
+
+  public BlockCompiler getCompiler() {
+    return compiler;
+  }
+
+  public Fusions getFusions() {
+    return fusions;
+  }
+
+  public IdleLoops getIdleLoops() {
+    return idleLoops;
+  }
+
+  // Where Engine.JIT keeps translations between runs, null for nowhere
+  public void setTranslationCache(TranslationCache translations) {
+    this.translations = translations;
+    if (compiler != null) compiler.setTranslationCache(translations);
+  }
+
+  // Records each instruction before it runs, null to stop
+  // Compiled blocks, fusions and idle loop skipping are turned off while
+  // tracing so every instruction goes through execute()
+  public void setTrace(TraceBuffer trace) {
+    this.trace = trace;
+    block = null;
+  }
+
+  public TraceBuffer getTrace() {
+    return trace;
+  }
+
+  // Counts each opcode, null to stop, with the same slow path as setTrace()
+  public void setProfile(OpcodeProfile profile) {
+    this.profile = profile;
+    block = null;
+  }
+
+  public OpcodeProfile getProfile() {
+    return profile;
+  }
+
+  // Hands PC to sampler between instructions, null to stop
+  // Unlike tracing this leaves run()'s shortcuts on
+  public void setSampler(PCSampler sampler) {
+    this.sampler = sampler;
+  }
+
+  public PCSampler getSampler() {
+    return sampler;
+  }
+
+  // Follows calls, returns and interrupts, null to stop
+  public void setCallGraph(CallGraph calls) {
+    this.calls = calls;
+    ins.setCallGraph(calls);
+  }
+
+  public CallGraph getCallGraph() {
+    return calls;
+  }
+
+  // Logs each instruction in Gameboy Doctor's format, null to stop
+  // Turns off run()'s shortcuts like setTrace() until the log is done
+  public void setDoctorTrace(DoctorTrace doctor) {
+    this.doctor = doctor;
+    block = null;
+  }
+
+  // Marks instructions run and memory accessed, null to stop
+  // Leaves run()'s shortcuts on, blocks they run are marked when entered
+  public void setCoverage(Coverage coverage) {
+    this.coverage = coverage;
+    ins.setCoverage(coverage);
+  }
+
+  public Coverage getCoverage() {
+    return coverage;
+  }
+
+  // run() returns in front of pc, other than where it started, so a
+  // debugger can stop there without going an instruction at a time
+  public void setBreakpoint(int pc, boolean set) {
+    if (breakpoints == null) {
+      breakpoints = new boolean[0x10000];
+      if (blockCache != null) blockCache.setBreakpoints(breakpoints);
+    }
+    breakpoints[pc] = set;
+    if (set && blockCache != null) blockCache.split(pc);
+  }
+
+  public void setHardware(Hardware hardware) {
+    this.hardware = hardware;
+  }
+
   // Load MMU's romBank00 and romBank01 with cart data
   private void loadROM() {
     for (int i = 0; i < cart.size(); i++) {
@@ -30,20 +192,225 @@ class CPU {
   public void tick() {
 
     handleInterrupts();
+    if (sampler != null) sampler.sample(mmu, state.PC(), clockCounter.count());
 
     if (state.isHalted()) {
       // Util.debug("CPU.tick - Halted...");
-      clockCounter.add(1);
+      halt(HALT_SLICE);
+      return;
+    }
+
+    step();
+  }
+
+  /*
+   * Runs up to max instructions and returns how many ran, a halted tick
+   * counts as one
+   * Does what a tick() per instruction does, with Hardware.tick() run
+   * between each pair of them. The caller does whatever comes before the
+   * first and after the last. This is what lets compiled blocks and fused
+   * sequences run several instructions in one call, and IdleLoops skip
+   * instructions altogether
+   */
+  public int run(int max) {
+    handleInterrupts();
+
+    int executed = 0;
+    while (true) {
+      if (state.isHalted()) {
+        executed += halt(max - executed);
+      } else {
+        BlockCache.Block entered = enter(state.PC());
+        if (entered != null && coverage != null && !entered.covered) coverage.block(entered, mmu);
+        if (entered != null && entered.idle && !breakpoint(state.PC())) {
+          int skipped = idleLoops.skip(entered, hardware, max - executed);
+          if (skipped > 0) {
+            executed += skipped;
+            continue;
+          }
+        } else if (entered != null) {
+          idleLoops.forget();
+        }
+
+        CompiledBlock code = compiled(entered, max - executed);
+        Fusions.Fusion fusion = code == null ? fusion(state.PC()) : null;
+        int ran;
+        if (code != null) {
+          int stopped = code.run(blockIndex, quietCycles());
+          ran = stopped - blockIndex;
+          blockIndex = stopped;
+        } else if (fusion != null) {
+          ran = fusion.run(max - executed, quietCycles());
+          blockIndex += Math.abs(ran);
+        } else {
+          step();
+          ran = 1;
+        }
+
+        if (ran < 0) {
+          // Stopped right after betweenInstructions()
+          executed -= ran;
+          if (breakpoint(state.PC())) return executed;
+          continue;
+        }
+        executed += ran;
+      }
+
+      if (executed >= max || breakpoint(state.PC())) return executed;
+      betweenInstructions();
+    }
+  }
+
+  // Everything that happens between two instructions in run()
+  // Public for Fusions
+  public void betweenInstructions() {
+    hardware.tick();
+    handleInterrupts();
+    if (sampler != null) sampler.sample(mmu, state.PC(), clockCounter.count());
+  }
+
+  // Cycles that can go by before betweenInstructions() does anything, -1
+  // when it has to run after every instruction
+  private int quietCycles() {
+    return sampler != null ? -1 : hardware.idleCycles();
+  }
+
+  // Runs the instruction at PC, recording it if tracing or profiling
+  private void step() {
+    if (coverage != null) coverage.executed(mmu.bank(state.PC()), state.PC());
+    if (trace == null && profile == null && doctor == null && !Util.debug) {
+      execute();
       return;
     }
 
-    short instruction = mmu.get(state.PC());
-    short nextByte = mmu.get(CPUMath.inc16(state.PC()));
-    short nextNextByte = mmu.get(CPUMath.inc16(CPUMath.inc16(state.PC())));
-    Util.debug(Util.hex(state.PC()) + "\t" + Util.hex(instruction) + "\t" + Util.mnemonic(instruction, nextByte, nextNextByte));
+    if (doctor != null) {
+      doctor.record(state, mmu);
+      if (doctor.done()) setDoctorTrace(null);  // it's flushed, so back to the fast paths
+    }
+    int pc = state.PC();
+    long clock = clockCounter.count();
+    if (trace != null) trace.record(state, mmu, clock);
+    if (Util.debug) {
+      TraceBuffer line = trace;
+      if (line == null) {
+        if (debugLine == null) debugLine = new TraceBuffer(1);
+        line = debugLine;
+        line.record(state, mmu, clock);
+      }
+      Util.debug(line.format(0));
+    }
+    int opcode = mmu.peek(pc);
+    int cb = opcode == 0xCB ? mmu.peek((pc + 1) & 0xFFFF) : 0;
+
+    execute();
+
+    if (profile != null) profile.executed(opcode, cb, (int)(clockCounter.count() - clock));
+  }
+
+  // A halted tick, plus any skipped before it, returns how many there were
+  private int halt(int max) {
+    int skipped = skipHalted(max);
+    clockCounter.add(1);
+    if (profile != null) profile.halted(skipped + 1);
+    return skipped + 1;
+  }
+
+  /*
+   * Called halted with no interrupt flags set, which only a PPU or timer
+   * event can change, so the halted cycles before the next event are
+   * charged in one go instead of one per tick. Returns how many were
+   * skipped, leaving at least one of the max to be run normally
+   * STOP doesn't stop anything in this emulator, so only HALT gets here
+   */
+  private int skipHalted(int max) {
+    if (hardware == null) return 0;
 
+    int cycles = Math.min(hardware.idleCycles(), max) - 1;
+    if (cycles <= 0) return 0;
+
+    clockCounter.add(cycles);
+    hardware.skip(cycles, cycles);
+    return cycles;
+  }
+
+  // Runs the instruction at PC with the engine's dispatch
+  private void execute() {
+    if (engine == Engine.BLOCK || engine == Engine.JIT) {
+      Opcode handler = cachedHandler(state.PC());
+      if (handler != null) {
+        state.incPC();
+        handler.execute();
+        return;
+      }
+    }
+
+    short instruction = mmu.fetch(state.PC());
     state.incPC();
-    decode(instruction);
+    if (engine == Engine.SWITCH)
+      opcodes.execute(instruction);
+    else
+      handlers[instruction].execute();
+  }
+
+  // Something needs to see every instruction, so run() can't take shortcuts
+  private boolean instrumented() {
+    return Util.debug || trace != null || profile != null || doctor != null;
+  }
+
+  // The block starting at pc when run() is entering one, null when it's part
+  // way through the block being interpreted or pc isn't cacheable
+  private BlockCache.Block enter(int pc) {
+    if ((engine != Engine.BLOCK && engine != Engine.JIT) || instrumented()) return null;
+    if (block != null && block.valid && blockIndex < block.length && block.pcs[blockIndex] == pc)
+      return null;
+
+    block = blockCache.lookup(pc);
+    blockIndex = 0;
+    return block;
+  }
+
+  private boolean breakpoint(int pc) {
+    return breakpoints != null && breakpoints[pc];
+  }
+
+  // pc is the instruction at blockIndex in the block being run
+  private boolean inBlock(int pc) {
+    return !instrumented() && block != null && block.valid && blockIndex < block.length && block.pcs[blockIndex] == pc;
+  }
+
+  // Fused sequence starting at pc in the block being interpreted, null if there isn't one
+  private Fusions.Fusion fusion(int pc) {
+    if (!inBlock(pc)) return null;
+    return block.fusions != null ? block.fusions[blockIndex] : null;
+  }
+
+  // Compiled code to run the rest of the block run() is in, null to interpret it
+  // Blocks are counted each time the CPU enters them at their start, and
+  // compiled when they get hot or straight away if they were last run
+  // Ones that would go past max instructions are interpreted
+  private CompiledBlock compiled(BlockCache.Block entered, int max) {
+    if (engine != Engine.JIT) return null;
+    if (entered != null && entered.code == null) {
+      entered.entries++;
+      if (entered.entries == 1)
+        entered.code = compiler.cached(entered);  // hot on an earlier run
+      else if (entered.entries == BlockCompiler.HOT_ENTRIES)
+        entered.code = compiler.compile(entered);
+    }
+    if (!inBlock(state.PC()) || block.length - blockIndex > max) return null;
+    return block.code;
+  }
+
+  // Handler for the instruction at pc from the block cache, null if pc isn't cacheable
+  // Timer, PPU and interrupts are still serviced between every instruction,
+  // so a block is stepped through one instruction per tick
+  private Opcode cachedHandler(int pc) {
+    if (block == null || !block.valid || blockIndex >= block.length || block.pcs[blockIndex] != pc) {
+      block = blockCache.lookup(pc);
+      blockIndex = 0;
+      if (block == null) return null;
+    }
+    return block.handlers[blockIndex++];
   }
 
   public void dump() {
@@ -79,13 +446,8 @@ class CPU {
   }
 
   private void handleInterrupts() {
-    int interruptFlagsAddress = 0xFF0F;
-    short interruptFlags = mmu.get(interruptFlagsAddress);
-
-    // Util.log("INTERRUPT FLAGS - " + Util.hex(interruptFlags));
-
     // Return if there aren't any interrupts
-    if (interruptFlags == 0) return;
+    if (mmu.interruptFlags() == 0) return;
 
     // Always un-halt the CPU if there is a pending interrupt
     state.setHalted(false);
@@ -93,819 +455,38 @@ class CPU {
     // Return if interrupts are disabled
     if (!state.IME()) return;
 
-    for (int i = 0; i <= 4; i++) {
-      int bit = CPUMath.getBit(interruptFlags, i);
-      int ierFlag = CPUMath.getBit(mmu.get(0xFFFF), i);
-
-      if (bit > 0 && ierFlag > 0) {
+    int pending = mmu.pendingInterrupts();
+    if (pending == 0) return;
 
+    // Lowest bit has the highest priority
+    int i = Integer.numberOfTrailingZeros(pending);
 
-        // turn off interrupt flag
-        interruptFlags = CPUMath.resetBit(interruptFlags, i);
-        mmu.set(interruptFlagsAddress, interruptFlags);
+    // turn off interrupt flag
+    mmu.set(0xFF0F, CPUMath.resetBit((short)mmu.interruptFlags(), i));
 
-        int interruptAddress = 0x40 + 8 * i;
+    int interruptAddress = 0x40 + 8 * i;
 
-        ins.push(CPUState.R.PC_0, CPUState.R.PC_1);
-        state.setPC(interruptAddress);  // jump to interrupt handler
-        state.IME(false); // prevents more interrupts from occuring
+    ins.push(state.PC());
+    state.setPC(interruptAddress);  // jump to interrupt handler
+    state.IME(false); // prevents more interrupts from occuring
+    if (calls != null) calls.interrupt(i, state.SP());
 
-        short newInstruction = mmu.get(interruptAddress);
-        short data1 = mmu.get(interruptAddress + 1);
-        short data2 = mmu.get(interruptAddress + 2);
+    if (Util.debug) {
+      short newInstruction = mmu.get(interruptAddress);
+      short data1 = mmu.get(interruptAddress + 1);
+      short data2 = mmu.get(interruptAddress + 2);
 
-        Util.debug("HANDLING INTERRUPT - " + Util.getInterruptName(i));
-        Util.debug("Interrupt address - " + Util.hex(interruptAddress));
-        Util.debug("\n### New instruction - " + Util.mnemonic(newInstruction, data1, data2));
-
-        // Timing
-        clockCounter.add(5);  // 20 / 4
-
-        break;
-      }
+      Util.debug("HANDLING INTERRUPT - " + Util.getInterruptName(i));
+      Util.debug("Interrupt address - " + Util.hex(interruptAddress));
+      Util.debug("\n### New instruction - " + Util.mnemonic(newInstruction, data1, data2));
     }
-  }
 
-  /*
-   * Instruction helpers
-   */
-  private void decode(short instruction) {
-    switch ((int) instruction) {  // cast to remove lossy conversion errors
-      case 0x00:  // NOP
-        ins.nop();
-        break;
-      case 0x01:  // LD BC,d16
-        ins.ld16(CPUState.R.B, CPUState.R.C);
-        break;
-      case 0x02:  // LD [BC], A
-        ins.ld8_store(CPUState.R.B, CPUState.R.C, CPUState.R.A);
-        break;
-      case 0x03:  // INC BC
-        ins.inc(CPUState.R.B, CPUState.R.C);
-        break;
-      case 0x04:  // INC B
-        ins.inc(CPUState.R.B);
-        break;
-      case 0x05:  // DEC B
-        ins.dec(CPUState.R.B);
-        break;
-      case 0x06:  // LD B,d8
-        ins.ld8(CPUState.R.B);
-        break;
-      case 0x07:  // RLCA
-        ins.rlca();
-        break;
-      case 0x08:  // LD (a16),SP
-        ins.ld16_store(CPUState.R.SP_0, CPUState.R.SP_1);
-        break;
-      case 0x09:  // ADD HL,BC
-        ins.add16(CPUState.R.H, CPUState.R.L, CPUState.R.B, CPUState.R.C);
-        break;
-      case 0x0A:  // LD A,[BC]
-        ins.ld8_load(CPUState.R.A, CPUState.R.B, CPUState.R.C);
-        break;
-      case 0x0B:  // DEC BC
-        ins.dec(CPUState.R.B, CPUState.R.C);
-        break;
-      case 0x0C:  // INC C
-        ins.inc(CPUState.R.C);
-        break;
-      case 0x0D:  // DEC C
-        ins.dec(CPUState.R.C);
-        break;
-      case 0x0E:  // LD C,d8
-        ins.ld8(CPUState.R.C);
-        break;
-      case 0x0F:  // RRCA
-        ins.rrca();
-        break;
-      case 0x10:  // STOP 0
-        ins.stop();
-        break;
-      case 0x11:  // LD DE,d16
-        ins.ld16(CPUState.R.D, CPUState.R.E);
-        break;
-      case 0x12:  // LD [DE],A
-        ins.ld8_store(CPUState.R.D, CPUState.R.E, CPUState.R.A);
-        break;
-      case 0x13:  // INC DE
-        ins.inc(CPUState.R.D, CPUState.R.E);
-        break;
-      case 0x14:  // INC D
-        ins.inc(CPUState.R.D);
-        break;
-      case 0x15:  // DEC D
-        ins.dec(CPUState.R.D);
-        break;
-      case 0x16:  // LD D,d8
-        ins.ld8(CPUState.R.D);
-        break;
-      case 0x17:  // RLA
-        ins.rla();
-        break;
-      case 0x18:  // JR r8
-        ins.jr();
-        break;
-      case 0x19:  // LD HL,DE
-        ins.add16(CPUState.R.H, CPUState.R.L, CPUState.R.D, CPUState.R.E);
-        break;
-      case 0x1A:  // LD A,(DE)
-        ins.ld8_load(CPUState.R.A, CPUState.R.D, CPUState.R.E);
-        break;
-      case 0x1B:  // DEC DE
-        ins.dec(CPUState.R.D, CPUState.R.E);
-        break;
-      case 0x1C:  // INC E
-        ins.inc(CPUState.R.E);
-        break;
-      case 0x1D:  // DEC E
-        ins.dec(CPUState.R.E);
-        break;
-      case 0x1E:  // LD E,d8
-        ins.ld8(CPUState.R.E);
-        break;
-      case 0x1F:  // RRA
-        ins.rra();
-        break;
-      case 0x20:  // JR NZ,r8
-        ins.jrn(CPUState.Flag.Z);
-        break;
-      case 0x21:  // LD HL,d16
-        ins.ld16(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x22:  // LD (HL+),A
-        ins.ld8_storei(CPUState.R.H, CPUState.R.L, CPUState.R.A);
-        break;
-      case 0x23:  // INC HL
-        ins.inc(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x24:  // INC H
-        ins.inc(CPUState.R.H);
-        break;
-      case 0x25:  // DEC H
-        ins.dec(CPUState.R.H);
-        break;
-      case 0x26:  // LD H,d8
-        ins.ld8(CPUState.R.H);
-        break;
-      case 0x27:  // DAA
-        ins.daa();
-        break;
-      case 0x28:  // JR Z,r8
-        ins.jr(CPUState.Flag.Z);
-        break;
-      case 0x29:  // LD HL,HL
-        ins.add16(CPUState.R.H, CPUState.R.L, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x2A:  // LD A,[HL+]
-        ins.ld8_loadi(CPUState.R.A, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x2B:  // DEC HL
-        ins.dec(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x2C:  // INC L
-        ins.inc(CPUState.R.L);
-        break;
-      case 0x2D:  // DEC L
-        ins.dec(CPUState.R.L);
-        break;
-      case 0x2E:  // LD L,d8
-        ins.ld8(CPUState.R.L);
-        break;
-      case 0x2F:  // CPL
-        ins.cpl();
-        break;
-      case 0x30:  // JR NC,r8
-        ins.jrn(CPUState.Flag.C);
-        break;
-      case 0x31:  // LD SP,d16
-        ins.ld16(CPUState.R.SP_0, CPUState.R.SP_1);
-        break;
-      case 0x32:  // LD (HL-),A
-        ins.ld8_stored(CPUState.R.H, CPUState.R.L, CPUState.R.A);
-        break;
-      case 0x33:  // INC SP
-        ins.inc(CPUState.R.SP_0, CPUState.R.SP_1);
-        break;
-      case 0x34:  // INC (HL)
-        ins.inc_mem(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x35:  // DEC [HL]
-        ins.dec_mem(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x36:  // LD [HL],d8
-        ins.ldhl_store(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x37:  // SCF
-        ins.scf();
-        break;
-      case 0x38:  // JR C,r8
-        ins.jr(CPUState.Flag.C);
-        break;
-      case 0x39:  // LD HL,SP
-        ins.add16(CPUState.R.H, CPUState.R.L, CPUState.R.SP_0, CPUState.R.SP_1);
-        break;
-      case 0x3A:  // LD A,[HL-]
-        ins.ld8_loadd(CPUState.R.A, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x3B:  // DEC SP
-        ins.dec(CPUState.R.SP_0, CPUState.R.SP_1);
-        break;
-      case 0x3C:  // INC A
-        ins.inc(CPUState.R.A);
-        break;
-      case 0x3D:  // DEC A
-        ins.dec(CPUState.R.A);
-        break;
-      case 0x3E:  // LD A,d8
-        ins.ld8(CPUState.R.A);
-        break;
-      case 0x3F:  // CCF
-        ins.ccf();
-        break;
-      case 0x40:  // LD B,B
-        ins.ld8(CPUState.R.B, CPUState.R.B);
-        break;
-      case 0x41:  // LD B,C
-        ins.ld8(CPUState.R.B, CPUState.R.C);
-        break;
-      case 0x42:  // LD B,D
-        ins.ld8(CPUState.R.B, CPUState.R.D);
-        break;
-      case 0x43:  // LD B,E
-        ins.ld8(CPUState.R.B, CPUState.R.E);
-        break;
-      case 0x44:  // LD B,H
-        ins.ld8(CPUState.R.B, CPUState.R.H);
-        break;
-      case 0x45:  // LD B,L
-        ins.ld8(CPUState.R.B, CPUState.R.L);
-        break;
-      case 0x46:  // LD B,[HL]
-        ins.ld8_load(CPUState.R.B, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x47:  // LD B,A
-        ins.ld8(CPUState.R.B, CPUState.R.A);
-        break;
-      case 0x48:  // LD C,B
-        ins.ld8(CPUState.R.C, CPUState.R.B);
-        break;
-      case 0x49:  // LD C,C
-        ins.ld8(CPUState.R.C, CPUState.R.C);
-        break;
-      case 0x4A:  // LD C,D
-        ins.ld8(CPUState.R.C, CPUState.R.D);
-        break;
-      case 0x4B:  // LD C,E
-        ins.ld8(CPUState.R.C, CPUState.R.E);
-        break;
-      case 0x4C:  // LD C,H
-        ins.ld8(CPUState.R.C, CPUState.R.H);
-        break;
-      case 0x4D:  // LD C,L
-        ins.ld8(CPUState.R.C, CPUState.R.L);
-        break;
-      case 0x4E:  // LD C,[HL]
-        ins.ld8_load(CPUState.R.C, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x4F:  // LD C,A
-        ins.ld8(CPUState.R.C, CPUState.R.A);
-        break;
-      case 0x50:  // LD D,B
-        ins.ld8(CPUState.R.D, CPUState.R.B);
-        break;
-      case 0x51:  // LD D,C
-        ins.ld8(CPUState.R.D, CPUState.R.C);
-        break;
-      case 0x52:  // LD D,D
-        ins.ld8(CPUState.R.D, CPUState.R.D);
-        break;
-      case 0x53:  // LD D,E
-        ins.ld8(CPUState.R.D, CPUState.R.E);
-        break;
-      case 0x54:  // LD D,H
-        ins.ld8(CPUState.R.D, CPUState.R.H);
-        break;
-      case 0x55:  // LD D,L
-        ins.ld8(CPUState.R.D, CPUState.R.L);
-        break;
-      case 0x56:  // LD D,[HL]
-        ins.ld8_load(CPUState.R.D, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x57:  // LD D,A
-        ins.ld8(CPUState.R.D, CPUState.R.A);
-        break;
-      case 0x58:  // LD E,B
-        ins.ld8(CPUState.R.E, CPUState.R.B);
-        break;
-      case 0x59:  // LD E,C
-        ins.ld8(CPUState.R.E, CPUState.R.C);
-        break;
-      case 0x5A:  // LD E,D
-        ins.ld8(CPUState.R.E, CPUState.R.D);
-        break;
-      case 0x5B:  // LD E,E
-        ins.ld8(CPUState.R.E, CPUState.R.E);
-        break;
-      case 0x5C:  // LD E,H
-        ins.ld8(CPUState.R.E, CPUState.R.H);
-        break;
-      case 0x5D:  // LD E,L
-        ins.ld8(CPUState.R.E, CPUState.R.L);
-        break;
-      case 0x5E:  // LD E,[HL]
-        ins.ld8_load(CPUState.R.E, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x5F:  // LD E,A
-        ins.ld8(CPUState.R.E, CPUState.R.A);
-        break;
-      case 0x60:  // LD H,B
-        ins.ld8(CPUState.R.H, CPUState.R.B);
-        break;
-      case 0x61:  // LD H,C
-        ins.ld8(CPUState.R.H, CPUState.R.C);
-        break;
-      case 0x62:  // LD H,D
-        ins.ld8(CPUState.R.H, CPUState.R.D);
-        break;
-      case 0x63:  // LD H,E
-        ins.ld8(CPUState.R.H, CPUState.R.E);
-        break;
-      case 0x64:  // LD H,H
-        ins.ld8(CPUState.R.H, CPUState.R.H);
-        break;
-      case 0x65:  // LD H,L
-        ins.ld8(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x66:  // LD H,[HL]
-        ins.ld8_load(CPUState.R.H, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x67:  // LD H,A
-        ins.ld8(CPUState.R.H, CPUState.R.A);
-        break;
-      case 0x68:  // LD L,B
-        ins.ld8(CPUState.R.L, CPUState.R.B);
-        break;
-      case 0x69:  // LD L,C
-        ins.ld8(CPUState.R.L, CPUState.R.C);
-        break;
-      case 0x6A:  // LD L,D
-        ins.ld8(CPUState.R.L, CPUState.R.D);
-        break;
-      case 0x6B:  // LD L,E
-        ins.ld8(CPUState.R.L, CPUState.R.E);
-        break;
-      case 0x6C:  // LD L,H
-        ins.ld8(CPUState.R.L, CPUState.R.H);
-        break;
-      case 0x6D:  // LD L,L
-        ins.ld8(CPUState.R.L, CPUState.R.L);
-        break;
-      case 0x6E:  // LD L,[HL]
-        ins.ld8_load(CPUState.R.L, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x6F:  // LD L,A
-        ins.ld8(CPUState.R.L, CPUState.R.A);
-        break;
-      case 0x70:  // LD [HL],B
-        ins.ld8_store(CPUState.R.H, CPUState.R.L, CPUState.R.B);
-        break;
-      case 0x71:  // LD [HL],C
-        ins.ld8_store(CPUState.R.H, CPUState.R.L, CPUState.R.C);
-        break;
-      case 0x72:  // LD [HL],D
-        ins.ld8_store(CPUState.R.H, CPUState.R.L, CPUState.R.D);
-        break;
-      case 0x73:  // LD [HL],E
-        ins.ld8_store(CPUState.R.H, CPUState.R.L, CPUState.R.E);
-        break;
-      case 0x74:  // LD [HL],H
-        ins.ld8_store(CPUState.R.H, CPUState.R.L, CPUState.R.H);
-        break;
-      case 0x75:  // LD [HL],L
-        ins.ld8_store(CPUState.R.H, CPUState.R.L, CPUState.R.L);
-        break;
-      case 0x76:  // HALT
-        ins.halt();
-        break;
-      case 0x77:  // LD [HL],A
-        ins.ld8_store(CPUState.R.H, CPUState.R.L, CPUState.R.A);
-        break;
-      case 0x78:  // LD A,B
-        ins.ld8(CPUState.R.A, CPUState.R.B);
-        break;
-      case 0x79:  // LD A,C
-        ins.ld8(CPUState.R.A, CPUState.R.C);
-        break;
-      case 0x7A:  // LD A,D
-        ins.ld8(CPUState.R.A, CPUState.R.D);
-        break;
-      case 0x7B:  // LD A,E
-        ins.ld8(CPUState.R.A, CPUState.R.E);
-        break;
-      case 0x7C:  // LD A,H
-        ins.ld8(CPUState.R.A, CPUState.R.H);
-        break;
-      case 0x7D:  // LD A,L
-        ins.ld8(CPUState.R.A, CPUState.R.L);
-        break;
-      case 0x7E:  // LD A,[HL]
-        ins.ld8_load(CPUState.R.A, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x7F:  // LD A,A
-        ins.ld8(CPUState.R.A, CPUState.R.A);
-        break;
-      case 0x80:  // ADD A,B
-        ins.add(CPUState.R.A, CPUState.R.B);
-        break;
-      case 0x81:  // ADD A,C
-        ins.add(CPUState.R.A, CPUState.R.C);
-        break;
-      case 0x82:  // ADD A,D
-        ins.add(CPUState.R.A, CPUState.R.D);
-        break;
-      case 0x83:  // ADD A,E
-        ins.add(CPUState.R.A, CPUState.R.E);
-        break;
-      case 0x84:  // ADD A,H
-        ins.add(CPUState.R.A, CPUState.R.H);
-        break;
-      case 0x85:  // ADD A,L
-        ins.add(CPUState.R.A, CPUState.R.L);
-        break;
-      case 0x86:  // ADD A,[HL]
-        ins.add(CPUState.R.A, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x87:  // ADD A,A
-        ins.add(CPUState.R.A, CPUState.R.A);
-        break;
-      case 0x88:  // ADC A,B
-        ins.adc(CPUState.R.A, CPUState.R.B);
-        break;
-      case 0x89:  // ADC A,C
-        ins.adc(CPUState.R.A, CPUState.R.C);
-        break;
-      case 0x8A:  // ADC A,D
-        ins.adc(CPUState.R.A, CPUState.R.D);
-        break;
-      case 0x8B:  // ADC A,E
-        ins.adc(CPUState.R.A, CPUState.R.E);
-        break;
-      case 0x8C:  // ADC A,H
-        ins.adc(CPUState.R.A, CPUState.R.H);
-        break;
-      case 0x8D:  // ADC A,L
-        ins.adc(CPUState.R.A, CPUState.R.L);
-        break;
-      case 0x8E:  // ADC A,[HL]
-        ins.adc(CPUState.R.A, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x8F:  // ADC A,A
-        ins.adc(CPUState.R.A, CPUState.R.A);
-        break;
-      case 0x90:  // SUB B
-        ins.sub(CPUState.R.B);
-        break;
-      case 0x91:  // SUB C
-        ins.sub(CPUState.R.C);
-        break;
-      case 0x92:  // SUB D
-        ins.sub(CPUState.R.D);
-        break;
-      case 0x93:  // SUB E
-        ins.sub(CPUState.R.E);
-        break;
-      case 0x94:  // SUB H
-        ins.sub(CPUState.R.H);
-        break;
-      case 0x95:  // SUB L
-        ins.sub(CPUState.R.L);
-        break;
-      case 0x96:  // SUB [HL]
-        ins.sub(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x97:  // SUB A
-        ins.sub(CPUState.R.A);
-        break;
-      case 0x98:  // SBC A,B
-        ins.sbc(CPUState.R.B);
-        break;
-      case 0x99:  // SBC A,C
-        ins.sbc(CPUState.R.C);
-        break;
-      case 0x9A:  // SBC A,D
-        ins.sbc(CPUState.R.D);
-        break;
-      case 0x9B:  // SBC A,E
-        ins.sbc(CPUState.R.E);
-        break;
-      case 0x9C:  // SBC A,H
-        ins.sbc(CPUState.R.H);
-        break;
-      case 0x9D:  // SBC A,L
-        ins.sbc(CPUState.R.L);
-        break;
-      case 0x9E:  // SBC A,[HL]
-        ins.sbc(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0x9F:  // SBC A,A
-        ins.sbc(CPUState.R.A);
-        break;
-      case 0xA0:  // AND B
-        ins.and(CPUState.R.B);
-        break;
-      case 0xA1:  // AND C
-        ins.and(CPUState.R.C);
-        break;
-      case 0xA2:  // AND D
-        ins.and(CPUState.R.D);
-        break;
-      case 0xA3:  // AND E
-        ins.and(CPUState.R.E);
-        break;
-      case 0xA4:  // AND H
-        ins.and(CPUState.R.H);
-        break;
-      case 0xA5:  // AND L
-        ins.and(CPUState.R.L);
-        break;
-      case 0xA6:  // AND [HL]
-        ins.and(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0xA7:  // AND A
-        ins.and(CPUState.R.A);
-        break;
-      case 0xA8:  // XOR B
-        ins.xor(CPUState.R.B);
-        break;
-      case 0xA9:  // XOR C
-        ins.xor(CPUState.R.C);
-        break;
-      case 0xAA:  // XOR D
-        ins.xor(CPUState.R.D);
-        break;
-      case 0xAB:  // XOR E
-        ins.xor(CPUState.R.E);
-        break;
-      case 0xAC:  // XOR H
-        ins.xor(CPUState.R.H);
-        break;
-      case 0xAD:  // XOR L
-        ins.xor(CPUState.R.L);
-        break;
-      case 0xAE:  // XOR [HL]
-        ins.xor(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0xAF:  // XOR A
-        ins.xor(CPUState.R.A);
-        break;
-      case 0xB0:  // OR B
-        ins.or(CPUState.R.B);
-        break;
-      case 0xB1:  // OR C
-        ins.or(CPUState.R.C);
-        break;
-      case 0xB2:  // OR D
-        ins.or(CPUState.R.D);
-        break;
-      case 0xB3:  // OR E
-        ins.or(CPUState.R.E);
-        break;
-      case 0xB4:  // OR H
-        ins.or(CPUState.R.H);
-        break;
-      case 0xB5:  // OR L
-        ins.or(CPUState.R.L);
-        break;
-      case 0xB6:  // OR [HL]
-        ins.or(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0xB7:  // OR A
-        ins.or(CPUState.R.A);
-        break;
-      case 0xB8:  // CP B
-        ins.cp(CPUState.R.B);
-        break;
-      case 0xB9:  // CP C
-        ins.cp(CPUState.R.C);
-        break;
-      case 0xBA:  // CP D
-        ins.cp(CPUState.R.D);
-        break;
-      case 0xBB:  // CP E
-        ins.cp(CPUState.R.E);
-        break;
-      case 0xBC:  // CP H
-        ins.cp(CPUState.R.H);
-        break;
-      case 0xBD:  // CP L
-        ins.cp(CPUState.R.L);
-        break;
-      case 0xBE:  // CP [HL]
-        ins.cp(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0xBF:  // CP A
-        ins.cp(CPUState.R.A);
-        break;
-      case 0xC0:  // RET NZ
-        ins.retn(CPUState.Flag.Z);
-        break;
-      case 0xC1:  // POP BC
-        ins.pop(CPUState.R.B, CPUState.R.C);
-        break;
-      case 0xC2:  // JP NZ,a16
-        ins.jpn(CPUState.Flag.Z);
-        break;
-      case 0xC3:  // JP a16
-        ins.jp();
-        break;
-      case 0xC4:  // CALL NZ,a16
-        ins.calln(CPUState.Flag.Z);
-        break;
-      case 0xC5:  // PUSH BC
-        ins.push(CPUState.R.B, CPUState.R.C);
-        break;
-      case 0xC6:  // ADD A,d8
-        ins.add(CPUState.R.A);
-        break;
-      case 0xC7:  // RST 0x00
-        ins.rst(0x00);
-        break;
-      case 0xC8:  // RET Z
-        ins.ret(CPUState.Flag.Z);
-        break;
-      case 0xC9:  // RET
-        ins.ret();
-        break;
-      case 0xCA:  // JP Z,a16
-        ins.jp(CPUState.Flag.Z);
-        break;
-      case 0xCB:  // PREFIX CB
-        ins.CB();
-        break;
-      case 0xCC:  // CALL Z,a16
-        ins.call(CPUState.Flag.Z);
-        break;
-      case 0xCD:  // CALL a16
-        ins.call();
-        break;
-      case 0xCE:  // ADC A,d8
-        ins.adc(CPUState.R.A);
-        break;
-      case 0xCF:  // RST 0x08
-        ins.rst(0x08);
-        break;
-      case 0xD0:  // RET NC
-        ins.retn(CPUState.Flag.C);
-        break;
-      case 0xD1:  // POP DE
-        ins.pop(CPUState.R.D, CPUState.R.E);
-        break;
-      case 0xD2:  // JP NC,a16
-        ins.jpn(CPUState.Flag.C);
-        break;
-      case 0xD3:  // N/A
-        missing(instruction);
-        break;
-      case 0xD4:  // CALL NC,a16
-        ins.calln(CPUState.Flag.C);
-        break;
-      case 0xD5:  // PUSH DE
-        ins.push(CPUState.R.D, CPUState.R.E);
-        break;
-      case 0xD6:  // SUB d8
-        ins.sub();
-        break;
-      case 0xD7:  // RST 0x10
-        ins.rst(0x10);
-        break;
-      case 0xD8:  // RET C
-        ins.ret(CPUState.Flag.C);
-        break;
-      case 0xD9:  // RETI
-        ins.reti();
-        break;
-      case 0xDA:  // JP C,a16
-        ins.jp(CPUState.Flag.C);
-        break;
-      case 0xDB:  // N/A
-        missing(instruction);
-        break;
-      case 0xDC:  // CALL C,a16
-        ins.call(CPUState.Flag.C);
-        break;
-      case 0xDD:  // N/A
-        dump(); // TODO change back to missing(instruction);
-        break;
-      case 0xDE:  // SBC A,d8
-        ins.sbc();
-        break;
-      case 0xDF:  // RST 0x18
-        ins.rst(0x18);
-        break;
-      case 0xE0:  // LDH (a8),A
-        ins.ldh_store(CPUState.R.A);
-        break;
-      case 0xE1:  // POP HL
-        ins.pop(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0xE2:  // LD (C),A
-        ins.ld8_store(CPUState.R.C, CPUState.R.A);
-        break;
-      case 0xE3:  // N/A
-        missing(instruction);
-        break;
-      case 0xE4:  // N/A
-        missing(instruction);
-        break;
-      case 0xE5:  // PUSH HL
-        ins.push(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0xE6:  // AND d8
-        ins.and();
-        break;
-      case 0xE7:  // RST 0x20
-        ins.rst(0x20);
-        break;
-      case 0xE8:  // ADD SP,r8
-        ins.add16(CPUState.R.SP_0, CPUState.R.SP_1);
-        break;
-      case 0xE9:  // JP HL
-        ins.jp(CPUState.R.H, CPUState.R.L);
-        break;
-      case 0xEA:  // LD [a16],A
-        ins.ld8_store(CPUState.R.A);
-        break;
-      case 0xEB:  // N/A
-        missing(instruction);
-        break;
-      case 0xEC:  // N/A
-        missing(instruction);
-        break;
-      case 0xED:  // N/A
-        missing(instruction);
-        break;
-      case 0xEE:  // XOR d8
-        ins.xor();
-        break;
-      case 0xEF:  // RST 0x28
-        ins.rst(0x28);
-        break;
-      case 0xF0:  // LDH A,(a8)
-        ins.ldh_load(CPUState.R.A);
-        break;
-      case 0xF1:  // POP AF
-        ins.pop(CPUState.R.A, CPUState.R.F);
-        break;
-      case 0xF2:  // LD A,(C)
-        ins.ld8_load(CPUState.R.A, CPUState.R.C);
-        break;
-      case 0xF3:  // DI
-        ins.DI();
-        break;
-      case 0xF4:  // N/A
-        missing(instruction);
-        break;
-      case 0xF5:  // PUSH AF
-        ins.push(CPUState.R.A, CPUState.R.F);
-        break;
-      case 0xF6:  // OR d8
-        ins.or();
-        break;
-      case 0xF7:  // RST 0x30
-        ins.rst(0x30);
-        break;
-      case 0xF8:  // LD HL,SP+r8
-        ins.ld_pop();
-        break;
-      case 0xF9:  // LD SP,HL
-        ins.ld16(CPUState.R.SP_0, CPUState.R.SP_1, CPUState.R.H, CPUState.R.L);
-        break;
-      case 0xFA:  // LD A,[a16]
-        ins.ld8_load(CPUState.R.A);
-        break;
-      case 0xFB:  // EI
-        ins.EI();
-        break;
-      case 0xFC:  // N/A
-        missing(instruction);
-        break;
-      case 0xFD:  // N/A
-        missing(instruction);
-        break;
-      case 0xFE:  // CP d8
-        ins.cp();
-        break;
-      case 0xFF:  // RST 0x38
-        ins.rst(0x38);
-        break;
-      default:
-        Util.errn("CPU.decode - defaulted on instruction: " + Util.hex(instruction));
-        break;
-    }
+    // Timing
+    clockCounter.add(4 + 5);  // the push, then 20 / 4
+    if (profile != null) profile.interrupt(i, 4 + 5);
   }
 
-  private void missing(short instruction) {
+  void missing(short instruction) {
     Util.errn("Attempted to run missing instruction 0x" + Util.hex(instruction));
   }
 }
@@ -29,20 +29,33 @@ class CPUMath {
   }
 
 
+  // Packed results
+  // The allocation free ALU functions (suffixed with p) return the 8 bit value
+  // in bits 0-7 and the Z/N/H/C flags in bits 8-15, laid out like register F
+  public static int pack(int value, int flags) { return (flags << 8) | (value & 0xFF); }
+  public static int value(int packed) { return packed & 0xFF; }
+  public static int flags(int packed) { return (packed >> 8) & 0xF0; }
+
+  private static int zero(int value) { return value == 0 ? CPUState.FLAG_Z : 0; }
+
+
   // Logic functions
-  public static Result or8(short byte1, short byte2) {
-    short result = (short)(byte1 | byte2);
-    return new Result(result, result == 0, false, false, false);
+  public static Result or8(short byte1, short byte2) { return toResult(or8p(byte1, byte2)); }
+  public static int or8p(int byte1, int byte2) {
+    int result = byte1 | byte2;
+    return pack(result, zero(result));
   }
 
-  public static Result xor8(short byte1, short byte2) {
-    short result = (short)(byte1 ^ byte2);
-    return new Result(result, result == 0, false, false, false);
+  public static Result xor8(short byte1, short byte2) { return toResult(xor8p(byte1, byte2)); }
+  public static int xor8p(int byte1, int byte2) {
+    int result = byte1 ^ byte2;
+    return pack(result, zero(result));
   }
 
-  public static Result and8(short byte1, short byte2) {
-    short result = (short)(byte1 & byte2);
-    return new Result(result, result == 0, false, false, false);
+  public static Result and8(short byte1, short byte2) { return toResult(and8p(byte1, byte2)); }
+  public static int and8p(int byte1, int byte2) {
+    int result = byte1 & byte2;
+    return pack(result, zero(result));
   }
 
 
@@ -71,7 +84,8 @@ class CPUMath {
 
 
   // Arithmetic functions
-  public static Result inc8(short value) { return add8(value, (short)1); }
+  public static Result inc8(short value) { return toResult(inc8p(value)); }
+  public static int inc8p(int value) { return add8p(value, 1); }
 
   public static int inc16(int word) { return add16(word, 1); }
   public static int inc16(short byte1, short byte2) {
@@ -79,7 +93,8 @@ class CPUMath {
     return inc16(word);
   }
 
-  public static Result dec8(short value) { return sub8(value, (short)1); }
+  public static Result dec8(short value) { return toResult(dec8p(value)); }
+  public static int dec8p(int value) { return sub8p(value, 1); }
 
   public static int dec16(int word) { return sub16(word, 1); }
   public static int dec16(short byte1, short byte2) {
@@ -87,17 +102,33 @@ class CPUMath {
     return dec16(word);
   }
 
-  public static Result add8(short byte1, short byte2) {
-    short result = (short)(byte1 + byte2);
-    result &= 0xFF; // handle 8 bit overflow
+  public static Result add8(short byte1, short byte2) { return toResult(add8p(byte1, byte2)); }
+  public static int add8p(int byte1, int byte2) {
+    int result = (byte1 + byte2) & 0xFF; // handle 8 bit overflow
 
-    boolean z = result == 0;
-    boolean n = true;
-    boolean h = (((byte1 & 0xF) + (byte2 & 0xF)) & 0x10) == 0x10;
+    int flags = zero(result) | CPUState.FLAG_N;
+    if ((((byte1 & 0xF) + (byte2 & 0xF)) & 0x10) == 0x10) flags |= CPUState.FLAG_H;
      // result is less than original numbers? must be overflow
-    boolean c = result < byte1 || result < byte2;
+    if (result < byte1 || result < byte2) flags |= CPUState.FLAG_C;
 
-    return new Result(result, z, n, h, c);
+    return pack(result, flags);
+  }
+
+  // carry is 0 or 1
+  public static int adc8p(int byte1, int byte2, int carry) {
+    // Test half carry
+    boolean halfCarry = (((byte1 & 0xF) + (byte2 & 0xF) + carry) & 0xF0) > 0;
+
+    // Test carry
+    int sum = byte1 + byte2 + carry;
+    boolean fullCarry = (sum & 0xFF00) > 0;
+    sum &= 0xFF;
+
+    int flags = zero(sum);
+    if (halfCarry) flags |= CPUState.FLAG_H;
+    if (fullCarry) flags |= CPUState.FLAG_C;
+
+    return pack(sum, flags);
   }
 
   public static int add16(int word1, int word2) {
@@ -106,17 +137,35 @@ class CPUMath {
     return result;
   }
 
-  public static Result sub8(short byte1, short byte2) {
-    short result = (short)(byte1 - byte2);
-    result &= 0xFF;
+  public static Result sub8(short byte1, short byte2) { return toResult(sub8p(byte1, byte2)); }
+  public static int sub8p(int byte1, int byte2) {
+    int result = (byte1 - byte2) & 0xFF;
 
-    boolean z = result == 0;
-    boolean n = true;
+    int flags = zero(result) | CPUState.FLAG_N;
     // if lower nibble 1 < lower nibble 2, half carry occurred
-    boolean h = (byte1 & 0xF) < (byte2 & 0xF);
-    boolean c = byte1 < byte2;
+    if ((byte1 & 0xF) < (byte2 & 0xF)) flags |= CPUState.FLAG_H;
+    if (byte1 < byte2) flags |= CPUState.FLAG_C;
+
+    return pack(result, flags);
+  }
+
+  // carry is 0 or 1
+  public static int sbc8p(int byte1, int byte2, int carry) {
+    // Test half carry
+    boolean halfCarry = carry == 1 && (byte1 & 0xF) <= (byte2 & 0xF)
+        || carry == 0 && (byte1 & 0xF) < (byte2 & 0xF);
+
+    // Test carry
+    boolean fullCarry = carry == 1 && byte1 <= byte2
+        || carry == 0 && byte1 < byte2;
+
+    int result = (byte1 - byte2 - carry) & 0xFF;
 
-    return new Result(result, z, n, h, c);
+    int flags = zero(result) | CPUState.FLAG_N;
+    if (halfCarry) flags |= CPUState.FLAG_H;
+    if (fullCarry) flags |= CPUState.FLAG_C;
+
+    return pack(result, flags);
   }
 
   public static int sub16(int word1, int word2) {
@@ -126,6 +175,37 @@ class CPUMath {
   }
 
 
+  // Decimal adjust, flags are register F's current value
+  // Returns the adjusted value along with the complete new F
+  public static int daa8p(int value, int flags) {
+    // Adapted from http://forums.nesdev.com/viewtopic.php?t=9088
+    final boolean flagN = (flags & CPUState.FLAG_N) != 0;
+    final boolean flagH = (flags & CPUState.FLAG_H) != 0;
+    final boolean flagC = (flags & CPUState.FLAG_C) != 0;
+
+    if (!flagN) {
+        if (flagH || (value & 0x0F) > 0x09)
+            value += 0x06;
+        if (flagC || value > 0x9F)
+            value += 0x60;
+    }
+    else {
+        if (flagH)
+            value -= 0x06;
+        if (flagC)
+            value -= 0x60;
+    }
+
+    boolean carry = (value & 0x100) == 0x100;
+    value &= 0xFF;
+
+    int newFlags = zero(value) | (flags & CPUState.FLAG_N);
+    if (carry || flagC) newFlags |= CPUState.FLAG_C;
+
+    return pack(value, newFlags);
+  }
+
+
   public static void main(String args[]) {
     short arg1 = (short)0xCD;
     short arg2 = (short)0x08;
@@ -145,6 +225,16 @@ class CPUMath {
   }
 
 
+  private static Result toResult(int packed) {
+    int flags = flags(packed);
+    return new Result(value(packed),
+        (flags & CPUState.FLAG_Z) != 0,
+        (flags & CPUState.FLAG_N) != 0,
+        (flags & CPUState.FLAG_H) != 0,
+        (flags & CPUState.FLAG_C) != 0);
+  }
+
+
   /*
    * Represents the result of a math operation
    * Returns the value (either 8 or 16 bit) of the result along with flag states
@@ -1,6 +1,4 @@
 
-import java.util.HashMap;
-
 class CPUState {
 
   public enum Flag {
@@ -10,6 +8,13 @@ class CPUState {
     C   // carry
   };
 
+  // Flag bits within register F
+  public static final int FLAG_Z = 0x80;
+  public static final int FLAG_N = 0x40;
+  public static final int FLAG_H = 0x20;
+  public static final int FLAG_C = 0x10;
+  public static final int ALL_FLAGS = 0xF0;
+
   public enum R { // registers
     A, F,
     B, C,
@@ -19,28 +24,31 @@ class CPUState {
     PC_0, PC_1  // same
   }
 
-  private HashMap<R, Short> registers;
+  // Register file, kept as primitives so reads and writes never box
+  private int a, f;
+  private int b, c;
+  private int d, e;
+  private int h, l;
+  private int sp;
+  private int pc;
   private boolean IME;  // Interrupt Master Enable
   private boolean halted;
 
-  public CPUState() {
-    registers = new HashMap<R, Short>();
+  // Lazy flag evaluation
+  // ALU ops record their operation and operands instead of writing F, which
+  // gets worked out from the ALU tables the first time something reads it
+  private final boolean lazyFlags;
+  private int pendingOp = NO_PENDING_OP; // ALU op whose flags aren't in F yet
+  private int pendingA;
+  private int pendingB;
+  private static final int NO_PENDING_OP = -1;
+
+  public CPUState() { this(false); }
+  public CPUState(boolean lazyFlags) {
+    this.lazyFlags = lazyFlags;
     IME = false;
     halted = false;
 
-    registers.put(R.A, (short)0);
-    registers.put(R.F, (short)0);
-    registers.put(R.B, (short)0);
-    registers.put(R.C, (short)0);
-    registers.put(R.D, (short)0);
-    registers.put(R.E, (short)0);
-    registers.put(R.H, (short)0);
-    registers.put(R.L, (short)0);
-    registers.put(R.SP_0, (short)0);
-    registers.put(R.SP_1, (short)0);
-    registers.put(R.PC_0, (short)0);
-    registers.put(R.PC_1, (short)0);
-
     // Initial state
     // AF = 1180
     // BC = 0000
@@ -49,10 +57,10 @@ class CPUState {
     // SP = FFFE
     // Z flag = 1
     setReg16(R.A, R.F, 0x1180); // sets zero flag too
-    setReg16(R.B, R.C, 0x0000);
-    setReg16(R.D, R.E, 0xFF56);
-    setReg16(R.H, R.L, 0x0000);
-    setReg16(R.SP_0, R.SP_1, 0xFFFE);
+    setBC(0x0000);
+    setDE(0xFF56);
+    setHL(0x0000);
+    setSP(0xFFFE);
   }
 
   public boolean IME() { return IME; }
@@ -66,46 +74,119 @@ class CPUState {
    */
 
   // 8 bit manipulators
-  public short getReg(R reg) { return registers.get(reg); }
+  public short getReg(R reg) {
+    switch (reg) {
+      case A: return (short)a;
+      case F: materializeFlags(); return (short)f;
+      case B: return (short)b;
+      case C: return (short)c;
+      case D: return (short)d;
+      case E: return (short)e;
+      case H: return (short)h;
+      case L: return (short)l;
+      case SP_0: return (short)(sp >> 8);
+      case SP_1: return (short)(sp & 0xFF);
+      case PC_0: return (short)(pc >> 8);
+      case PC_1: return (short)(pc & 0xFF);
+      default: return 0;
+    }
+  }
   public void setReg(R reg, short value) {
     if (value < 0 || value > 0xFF) {
       Util.errn("CPU.setReg - out of bounds: 0x" + Util.hex(value));
     }
 
-    if (reg == R.F) value &= 0xF0;  // F's unused bits can't be set
-
-    registers.put(reg, value);
+    switch (reg) {
+      case A: a = value; break;
+      case F: pendingOp = NO_PENDING_OP; f = value & 0xF0; break;  // F's unused bits can't be set
+      case B: b = value; break;
+      case C: c = value; break;
+      case D: d = value; break;
+      case E: e = value; break;
+      case H: h = value; break;
+      case L: l = value; break;
+      case SP_0: sp = ((value & 0xFF) << 8) | (sp & 0xFF); break;
+      case SP_1: sp = (sp & 0xFF00) | (value & 0xFF); break;
+      case PC_0: pc = ((value & 0xFF) << 8) | (pc & 0xFF); break;
+      case PC_1: pc = (pc & 0xFF00) | (value & 0xFF); break;
+    }
   }
 
   // 16 bit manipulators
-  public int getReg16(R reg1, R reg2) { return CPUMath.word(getReg(reg1), getReg(reg2)); }
+  public int getReg16(R reg1, R reg2) {
+    if (reg1 == R.PC_0 && reg2 == R.PC_1) return pc;
+    if (reg1 == R.SP_0 && reg2 == R.SP_1) return sp;
+    return CPUMath.word(getReg(reg1), getReg(reg2));
+  }
   public void setReg16(R reg1, R reg2, int word) {
     if (word < 0 || word > 0xFFFF) {
       Util.errn("CPU.setReg16 - out of bounds: 0x" + Util.hex(word));
       return;
     }
-    short bytes[] = CPUMath.toBytes(word);
-    setReg16(reg1, reg2, bytes[0], bytes[1]);
+    setReg16(reg1, reg2, (short)(word >> 8), (short)(word & 0xFF));
   }
   public void setReg16(R reg1, R reg2, short a, short b) {
     setReg(reg1, a);
     setReg(reg2, b);
   }
 
+  // Single register manipulators, values are 0-0xFF
+  public int A() { return a; }
+  public void setA(int value) { a = value; }
+
+  public int B() { return b; }
+  public void setB(int value) { b = value; }
+
+  public int C() { return c; }
+  public void setC(int value) { c = value; }
+
+  public int D() { return d; }
+  public void setD(int value) { d = value; }
+
+  public int E() { return e; }
+  public void setE(int value) { e = value; }
+
+  public int H() { return h; }
+  public void setH(int value) { h = value; }
+
+  public int L() { return l; }
+  public void setL(int value) { l = value; }
+
+  // AF, BC, DE and HL manipulators
+  public int AF() { materializeFlags(); return (a << 8) + f; }
+  public void setAF(int word) { pendingOp = NO_PENDING_OP; a = word >> 8; f = word & 0xF0; }  // F's unused bits can't be set
+
+  public int BC() { return (b << 8) + c; }
+  public void setBC(int word) { b = word >> 8; c = word & 0xFF; }
+
+  public int DE() { return (d << 8) + e; }
+  public void setDE(int word) { d = word >> 8; e = word & 0xFF; }
+
+  public int HL() { return (h << 8) + l; }
+  public void setHL(int word) { h = word >> 8; l = word & 0xFF; }
+
   // PC manipulators
-  public int PC() { return getReg16(CPUState.R.PC_0, CPUState.R.PC_1); }
-  public void incPC() { setPC(CPUMath.inc16(PC())); }
-  public void decPC() { setPC(CPUMath.dec16(PC())); }
+  public int PC() { return pc; }
+  public void incPC() { pc = (pc + 1) & 0xFFFF; }
+  public void decPC() { pc = (pc - 1) & 0xFFFF; }
   public void setPC(int word) {
-    setReg16(CPUState.R.PC_0, CPUState.R.PC_1, word);
+    if (word < 0 || word > 0xFFFF) {
+      Util.errn("CPUState.setPC - out of bounds: 0x" + Util.hex(word));
+      return;
+    }
+    pc = word;
   }
 
   // SP manipulators
-  public int SP() { return getReg16(CPUState.R.SP_0, CPUState.R.SP_1); }
-  public void incSP() { setSP(CPUMath.inc16(SP())); }
-  public void decSP() { setSP(CPUMath.dec16(SP())); }
+  public int SP() { return sp; }
+  public void incSP() { sp = (sp + 1) & 0xFFFF; }
+  public void decSP() { sp = (sp - 1) & 0xFFFF; }
   public void setSP(int word) {
-    setReg16(CPUState.R.SP_0, CPUState.R.SP_1, word);
+    if (word < 0 || word > 0xFFFF) {
+      Util.errn("CPUState.setSP - out of bounds: 0x" + Util.hex(word));
+      return;
+    }
+    sp = word;
   }
 
 
@@ -113,53 +194,65 @@ class CPUState {
   * Flag helpers
   */
   public void setFlag(CPUState.Flag flag, boolean value) {
-    short newFlags = 0;
+    materializeFlags();
+    int mask = flagMask(flag);
+    if (value)  f |= mask;
+    else        f &= ~mask;
+  }
 
-    short currentFlags = getReg(CPUState.R.F);
-    if (flag == CPUState.Flag.Z) {
-      if (value)  newFlags = CPUMath.or8(currentFlags, (short)0x80).get8();
-      else        newFlags = CPUMath.and8(currentFlags, (short)0x7F).get8();
-    }
-    else if (flag == CPUState.Flag.N) {
-      if (value)  newFlags = CPUMath.or8(currentFlags, (short)0x40).get8();
-      else        newFlags = CPUMath.and8(currentFlags, (short)0xBF).get8();
-    }
-    else if (flag == CPUState.Flag.H) {
-      if (value)  newFlags = CPUMath.or8(currentFlags, (short)0x20).get8();
-      else        newFlags = CPUMath.and8(currentFlags, (short)0xDF).get8();
-    }
-    else if (flag == CPUState.Flag.C) {
-      if (value)  newFlags = CPUMath.or8(currentFlags, (short)0x10).get8();
-      else        newFlags = CPUMath.and8(currentFlags, (short)0xEF).get8();
-    }
+  public boolean getFlag(CPUState.Flag flag) {
+    materializeFlags();
+    return (f & flagMask(flag)) != 0;
+  }
 
-    setReg(CPUState.R.F, newFlags);
+  // Sets the flags selected by mask to the matching bits of flags
+  // flags uses register F's layout, e.g. CPUMath.flags(packed)
+  public void setFlags(int mask, int flags) {
+    if (mask == ALL_FLAGS) pendingOp = NO_PENDING_OP;
+    else materializeFlags();
+    f = (f & ~mask) | (flags & mask);
   }
 
-  public boolean getFlag(CPUState.Flag flag) {
-    boolean val = false;
+  public int getFlags() {
+    materializeFlags();
+    return f;
+  }
 
-    short currentFlags = getReg(CPUState.R.F);
-    if (flag == CPUState.Flag.Z) {
-      val = CPUMath.and8(currentFlags, (short)0x80).get8() > 0;
-    }
-    else if (flag == CPUState.Flag.N) {
-      val = CPUMath.and8(currentFlags, (short)0x40).get8() > 0;
-    }
-    else if (flag == CPUState.Flag.H) {
-      val = CPUMath.and8(currentFlags, (short)0x20).get8() > 0;
-    }
-    else if (flag == CPUState.Flag.C) {
-      val = CPUMath.and8(currentFlags, (short)0x10).get8() > 0;
-    }
-    else {
-      Util.errn("CPUState.getFlag - bad flag " + flag);
-    }
+  public boolean isLazyFlags() { return lazyFlags; }
 
-    return val;
+  // Records an ALU op (see ALU.apply) whose flags are written the next time F is read
+  public void deferFlags(int op, int a, int b) {
+    // A partial update needs the flags it leaves alone
+    if (ALU.mask(op) != ALL_FLAGS) materializeFlags();
+    pendingOp = op;
+    pendingA = a;
+    pendingB = b;
+  }
+
+  private void materializeFlags() {
+    if (pendingOp == NO_PENDING_OP) return;
+
+    int mask = ALU.mask(pendingOp);
+    int result = ALU.apply(pendingOp, pendingA, pendingB);
+    f = (f & ~mask) | (CPUMath.flags(result) & mask);
+    pendingOp = NO_PENDING_OP;
+  }
+
+  // The flag's bit within F
+  private static int flagMask(CPUState.Flag flag) {
+    switch (flag) {
+      case Z: return FLAG_Z;
+      case N: return FLAG_N;
+      case H: return FLAG_H;
+      case C: return FLAG_C;
+      default:
+        Util.errn("CPUState.getFlag - bad flag " + flag);
+        return 0;
+    }
   }
 
   public void resetFlags() {
-    setReg(CPUState.R.F, (short)0);  // set all flags to 0
+    pendingOp = NO_PENDING_OP;
+    f = 0;  // set all flags to 0
   }
 }
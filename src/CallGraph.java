@@ -0,0 +1,121 @@
+import java.io.PrintStream;
+import java.util.HashMap;
+
+/*
+ * Cycles spent under each call path of the game's code
+ * Instructions reports CALL, RST and RET, and CPU reports interrupts, which
+ * keeps a shadow of the game's call stack. The cycles between two of those
+ * go to whatever path was on top, so nothing is done per instruction
+ * Each frame remembers SP right after its return address was pushed. A RET
+ * pops back to the frame whose return address it's about to pop, and one
+ * that matches no frame, like a RET used as a computed jump, leaves the
+ * stack alone
+ * write() gives one "main;Caller;Callee cycles" line per path, the collapsed
+ * stack format flame graph tools read
+ */
+class CallGraph {
+  private static final int MAX_DEPTH = 256;
+  private static final int ROOT = 0;
+
+  private ClockCounter clockCounter;
+  private MMU mmu;
+
+  // Call tree, a node per distinct path
+  private int parents[] = new int[256];
+  private int keys[] = new int[256];   // bank << 16 | address called, or -1 - interrupt index
+  private long cycles[] = new long[256];
+  private int nodes = 1;
+  private HashMap<Long, Integer> children = new HashMap<Long, Integer>();  // by parent << 32 | key
+
+  // Shadow stack, node and SP of each frame
+  private int stack[] = new int[MAX_DEPTH];
+  private int stackSP[] = new int[MAX_DEPTH];
+  private int depth = 0;
+  private int node = ROOT;
+
+  private long lastClock;
+  private long overflows;
+
+  public CallGraph(ClockCounter clockCounter, MMU mmu) {
+    this.clockCounter = clockCounter;
+    this.mmu = mmu;
+    this.lastClock = clockCounter.count();
+    parents[ROOT] = -1;
+  }
+
+  // CALL or RST to address has pushed its return address, sp is SP after the push
+  public void call(int address, int sp) {
+    enter((mmu.bank(address) << 16) | address, sp);
+  }
+
+  // Interrupt index has been dispatched
+  public void interrupt(int index, int sp) {
+    enter(-1 - index, sp);
+  }
+
+  // RET or RETI is about to pop its return address from sp
+  public void ret(int sp) {
+    for (int frame = depth - 1; frame >= 0; frame--) {
+      if (stackSP[frame] != sp) continue;
+      charge();
+      depth = frame;
+      node = frame > 0 ? stack[frame - 1] : ROOT;
+      return;
+    }
+  }
+
+  public long overflows() { return overflows; }
+
+  // Writes the collapsed stacks, naming calls with symbols
+  public void write(PrintStream out, Symbols symbols) {
+    charge();
+    String paths[] = new String[nodes];
+    for (int i = 0; i < nodes; i++) {
+      paths[i] = i == ROOT ? "main" : paths[parents[i]] + ";" + name(keys[i], symbols);
+      if (cycles[i] > 0) out.println(paths[i] + " " + cycles[i]);
+    }
+  }
+
+  private void enter(int key, int sp) {
+    if (depth == MAX_DEPTH) {
+      overflows++;
+      return;
+    }
+
+    charge();
+    long childKey = ((long)node << 32) | (key & 0xFFFFFFFFL);
+    Integer child = children.get(childKey);
+    if (child == null) {
+      child = add(node, key);
+      children.put(childKey, child);
+    }
+
+    stack[depth] = child;
+    stackSP[depth] = sp;
+    depth++;
+    node = child;
+  }
+
+  // Cycles since the last call or return go to the current path
+  private void charge() {
+    long clock = clockCounter.count();
+    cycles[node] += clock - lastClock;
+    lastClock = clock;
+  }
+
+  private int add(int parent, int key) {
+    if (nodes == keys.length) {
+      parents = java.util.Arrays.copyOf(parents, nodes * 2);
+      keys = java.util.Arrays.copyOf(keys, nodes * 2);
+      cycles = java.util.Arrays.copyOf(cycles, nodes * 2);
+    }
+    parents[nodes] = parent;
+    keys[nodes] = key;
+    return nodes++;
+  }
+
+  private static String name(int key, Symbols symbols) {
+    if (key < 0) return "[" + Util.getInterruptName(-1 - key).replace(' ', '_') + "]";
+    return symbols.name(key >> 16, key & 0xFFFF);
+  }
+}
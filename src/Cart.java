@@ -2,11 +2,20 @@
 import java.io.File;
 import java.io.DataInputStream;
 import java.io.FileInputStream;
+import java.security.MessageDigest;
 
 class Cart implements DataSource {
   private short[] bytes;
+  private String filename;
+
+  // No ROM, for running code that's put straight into memory
+  public Cart() {
+    this.filename = "";
+    bytes = new short[0];
+  }
 
   public Cart(String filename) {
+    this.filename = filename;
     File file = new File(filename);
     bytes = new short[(int) file.length()];
 
@@ -25,10 +34,34 @@ class Cart implements DataSource {
     } catch (Exception e) {e.printStackTrace(); System.exit(1);}
   }
 
+  public String getFilename() {
+    return filename;
+  }
+
   public int size() {
     return bytes.length;
   }
 
+  // Byte at offset in the ROM file, for tools that look at banks past the
+  // first 64KB
+  public short byteAt(int offset) {
+    return bytes[offset];
+  }
+
+  // SHA-256 of the ROM's contents as hex, identifies the cart across runs
+  public String hash() {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (short b : bytes) digest.update((byte)b);
+      String hex = "";
+      for (byte b : digest.digest()) hex += String.format("%02x", b);
+      return hex;
+    } catch (Exception e) {
+      Util.errn("Cart.hash - " + e);
+      return "";
+    }
+  }
+
   public String toString() {
     String z = "";
     for (int i = 0; i < bytes.length; i++) {
@@ -1,7 +1,13 @@
 
+/*
+ * The emulator's one timeline, in machine cycles since power on
+ * It's 64 bits so it never wraps, even in runs of days at full speed.
+ * Anything timed off it keeps the count it last caught up to as a long
+ * too, see Clocked
+ */
 class ClockCounter {
 
-  private int time;
+  private long time;
 
   public ClockCounter() {
     time = 0;
@@ -11,7 +17,7 @@ class ClockCounter {
     time += amount;
   }
 
-  public int count() {
+  public long count() {
     return time;
   }
 }
@@ -0,0 +1,16 @@
+/*
+ * Hardware that runs off the ClockCounter
+ * Nothing steps it a cycle at a time. catchUp() takes in every cycle since
+ * its last call, so none are lost however seldom it's called, and
+ * idleCycles() says how many it can go without the call changing anything.
+ * Scheduler uses the two to call it only when that's run out or the CPU
+ * has written one of its registers
+ */
+interface Clocked {
+  // Brings it up to the ClockCounter's count
+  void catchUp();
+
+  // Cycles past the last catchUp() before one would change anything,
+  // Integer.MAX_VALUE when nothing will until a register is written
+  int idleCycles();
+}
@@ -0,0 +1,40 @@
+/*
+ * Base class of the blocks BlockCompiler translates into bytecode
+ * The generated subclass only overrides run(), BlockCompiler fills in the
+ * fields after creating it
+ */
+abstract class CompiledBlock {
+  CPUState state;
+  ClockCounter clockCounter;
+  Instructions ins;
+  short mem[];
+  Opcode handlers[];
+  BlockCache.Block block;
+
+  /*
+   * Runs the block from the instruction at index, quiet is how many cycles
+   * can go by before CPU.betweenInstructions() has anything to do
+   * Returns the index of the instruction it stopped before, block.length
+   * when it ran to the end. It stops early when betweenInstructions() has
+   * to run, CPU calls it and then carries on from there. CPU only calls run()
+   * when its budget covers the rest of the block
+   */
+  public abstract int run(int index, int quiet);
+
+  // Every block calls its handlers from here, so the JVM doesn't inline
+  // each one into the block it's in
+  final void execute(int opcode) {
+    handlers[opcode].execute();
+  }
+
+  // Registers back from the locals run() keeps them in
+  final void setRegisters(int b, int c, int d, int e, int h, int l, int a) {
+    state.setB(b);
+    state.setC(c);
+    state.setD(d);
+    state.setE(e);
+    state.setH(h);
+    state.setL(l);
+    state.setA(a);
+  }
+}
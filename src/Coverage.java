@@ -0,0 +1,167 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/*
+ * Which instructions the game ran, by ROM bank and address, and which
+ * memory its instructions read and wrote
+ * Instructions going through CPU.step() are marked one by one. Blocks
+ * that run without it (compiled code, fusions, skipped idle loops) are
+ * marked the first time run() enters them, with the reads compiled code
+ * does straight from memory, so a block counts as run once it's started
+ * Marks are only ever set, so a file can be loaded and added to over many
+ * runs. Files are:
+ *   int MAGIC, int VERSION, int banks,
+ *   then per bank 8KB of executed bits, then 8KB each of read and written bits
+ * bits LSB first by address, ints big-endian
+ */
+class Coverage {
+  private static final int MAGIC = 0x47424356;  // "GBCV"
+  private static final int VERSION = 1;
+  private static final int BITMAP = 0x10000 / 8;
+
+  private static final int REGIONS[] = {
+    0x0000, 0x4000, 0x8000, 0xA000, 0xC000, 0xE000, 0xFE00, 0xFEA0, 0xFF00, 0xFF80, 0xFFFF, 0x10000
+  };
+  private static final String REGION_NAMES[] = {
+    "ROM0", "ROMX", "VRAM", "SRAM", "WRAM", "ECHO", "OAM", "unused", "IO", "HRAM", "IE"
+  };
+
+  private BitSet executed[] = new BitSet[2];  // by ROM bank
+  private BitSet read = new BitSet(0x10000);
+  private BitSet written = new BitSet(0x10000);
+
+  // Loaded from path to be added to, empty if there's no such file yet
+  public static Coverage load(String path) {
+    Coverage coverage = new Coverage();
+    if (!new File(path).exists()) return coverage;
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        Util.errn("Coverage - " + path + " isn't a coverage file, starting again");
+        return coverage;
+      }
+      int banks = in.readInt();
+      for (int bank = 0; bank < banks; bank++) coverage.bank(bank).or(bits(in));
+      coverage.read.or(bits(in));
+      coverage.written.or(bits(in));
+    } catch (IOException e) {
+      Util.errn("Coverage - couldn't read " + path + ", starting again: " + e);
+      return new Coverage();
+    }
+    return coverage;
+  }
+
+  public void save(String path) {
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(executed.length);
+      for (int bank = 0; bank < executed.length; bank++) bits(out, bank(bank));
+      bits(out, read);
+      bits(out, written);
+    } catch (IOException e) {
+      Util.errn("Coverage - couldn't write " + path + ": " + e);
+    }
+  }
+
+  // The instruction at address ran with bank mapped
+  public void executed(int bank, int address) {
+    bank(bank).set(address);
+  }
+
+  public void read(int address) {
+    read.set(address);
+  }
+
+  public void written(int address) {
+    written.set(address);
+  }
+
+  // run() is starting block for the first time
+  public void block(BlockCache.Block block, MMU mmu) {
+    for (int i = 0; i < block.length; i++) {
+      int pc = block.pcs[i];
+      executed(mmu.bank(pc), pc);
+
+      // Compiled code reads these without going through Instructions
+      int opcode = mmu.peek(pc);
+      if (opcode == 0xF0) read(0xFF00 + mmu.peek((pc + 1) & 0xFFFF));
+      else if (opcode == 0xFA) read((mmu.peek((pc + 2) & 0xFFFF) << 8) | mmu.peek((pc + 1) & 0xFFFF));
+    }
+    block.covered = true;
+  }
+
+  /*
+   * Bytes marked in each memory region, with ROM split by bank
+   * Reads and writes are only kept by address, so ROMX gets one row for
+   * them across every bank, and its bank rows just show what ran
+   * When disassembler is given, ROM rows also show how many of the
+   * instructions it found ran
+   */
+  public String report(Disassembler disassembler) {
+    int banks = Math.max(executed.length, disassembler != null ? disassembler.banks() : 0);
+
+    StringBuilder z = new StringBuilder();
+    z.append(String.format("%-10s %6s %9s %9s %9s%n", "region", "size", "executed", "read", "written"));
+    for (int region = 0; region < REGION_NAMES.length; region++) {
+      if (REGIONS[region] != 0x4000) {
+        row(z, REGION_NAMES[region], 0, REGIONS[region], REGIONS[region + 1], disassembler);
+        continue;
+      }
+      row(z, REGION_NAMES[region], -1, REGIONS[region], REGIONS[region + 1], null);
+      for (int bank = 1; bank < banks; bank++)
+        row(z, "  bank " + Util.hex((short)bank), bank, REGIONS[region], REGIONS[region + 1], disassembler);
+    }
+    return z.toString();
+  }
+
+  // bank -1 is every ROM bank added up, with reads and writes, a single
+  // bank's row leaves those out
+  private void row(StringBuilder z, String name, int bank, int start, int end, Disassembler disassembler) {
+    BitSet ran = bank >= 0 ? bank(bank).get(start, end) : new BitSet();
+    int count = ran.cardinality();
+    for (int i = 1; bank < 0 && i < executed.length; i++) count += bank(i).get(start, end).cardinality();
+
+    if (bank <= 0)
+      z.append(String.format("%-10s %6d %9d %9d %9d", name, end - start, count,
+        read.get(start, end).cardinality(), written.get(start, end).cardinality()));
+    else
+      z.append(String.format("%-10s %6d %9d %9s %9s", name, end - start, count, "-", "-"));
+
+    if (disassembler != null && start < 0x8000) {
+      int found = 0;
+      int foundRan = 0;
+      for (int address = start; address < end; address++) {
+        if (!disassembler.isCode(bank, address)) continue;
+        found++;
+        if (ran.get(address - start)) foundRan++;
+      }
+      z.append(String.format("   %d of the %d instructions found statically", foundRan, found));
+    }
+    z.append(String.format("%n"));
+  }
+
+  private BitSet bank(int bank) {
+    if (bank >= executed.length) executed = Arrays.copyOf(executed, bank + 1);
+    if (executed[bank] == null) executed[bank] = new BitSet(0x10000);
+    return executed[bank];
+  }
+
+  private static BitSet bits(DataInputStream in) throws IOException {
+    byte bytes[] = new byte[BITMAP];
+    in.readFully(bytes);
+    return BitSet.valueOf(bytes);
+  }
+
+  private static void bits(DataOutputStream out, BitSet bits) throws IOException {
+    out.write(Arrays.copyOf(bits.toByteArray(), BITMAP));
+  }
+}
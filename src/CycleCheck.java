@@ -0,0 +1,83 @@
+/*
+ * Runs each conditional RET taken and not taken on every engine, with eager
+ * and lazy flags, and checks the cycles charged and Opcodes' cycle tables
+ * against hardware's 5 taken and 2 not taken
+ * Each case runs enough times for Engine.JIT to compile the block
+ * Usage: java -cp src/ CycleCheck
+ */
+class CycleCheck {
+  private static final int AT = 0xC100;      // where the RET is
+  private static final int TARGET = 0xC200;  // where it returns to
+  private static final int STACK = 0xDFF0;
+  private static final int TAKEN = 5;
+  private static final int NOT_TAKEN = 2;
+  private static final int RUNS = BlockCompiler.HOT_ENTRIES * 2;
+
+  // Opcode, then F for it to be taken and F for it not to be
+  private static final int RETS[][] = {
+    { 0xC0, 0x00, 0x80 },  // RET NZ
+    { 0xC8, 0x80, 0x00 },  // RET Z
+    { 0xD0, 0x00, 0x10 },  // RET NC
+    { 0xD8, 0x10, 0x00 },  // RET C
+  };
+
+  // Nothing between instructions, only the CPU is being checked
+  private static final CPU.Hardware NO_HARDWARE = new CPU.Hardware() {
+    public void tick() {}
+    public int idleCycles() { return Integer.MAX_VALUE; }
+    public void skip(int instructions, int cycles) {}
+  };
+
+  public static void main(String args[]) {
+    Util.debug = false;
+
+    int failures = 0;
+    for (int ret[] : RETS) {
+      if (Opcodes.CYCLES[ret[0]] != TAKEN || Opcodes.CYCLES_NOT_TAKEN[ret[0]] != NOT_TAKEN) {
+        Util.log(Util.hex(ret[0]) + " - table has " + Opcodes.CYCLES[ret[0]] + "/" + Opcodes.CYCLES_NOT_TAKEN[ret[0]] +
+                 " cycles, not " + TAKEN + "/" + NOT_TAKEN);
+        failures++;
+      }
+    }
+
+    for (CPU.Engine engine : CPU.Engine.values()) {
+      for (boolean lazyFlags : new boolean[] { false, true }) {
+        for (int ret[] : RETS) {
+          if (!check(engine, lazyFlags, ret[0], ret[1], TAKEN, TARGET)) failures++;
+          if (!check(engine, lazyFlags, ret[0], ret[2], NOT_TAKEN, AT + 1)) failures++;
+        }
+      }
+    }
+
+    Util.log("CycleCheck - " + failures + " failed");
+    if (failures > 0) System.exit(1);
+  }
+
+  private static boolean check(CPU.Engine engine, boolean lazyFlags, int opcode, int flags, int cycles, int pc) {
+    CPUState state = new CPUState(lazyFlags);
+    ClockCounter clockCounter = new ClockCounter();
+    MMU mmu = new MMU();
+    CPU cpu = new CPU(state, mmu, new Cart(), clockCounter);
+    cpu.setHardware(NO_HARDWARE);
+    cpu.setEngine(engine);
+    mmu.set(AT, (short)opcode);
+
+    for (int run = 0; run < RUNS; run++) {
+      state.setPC(AT);
+      state.setSP(STACK);
+      mmu.set(STACK, (short)(TARGET & 0xFF));
+      mmu.set(STACK + 1, (short)(TARGET >> 8));
+      state.setFlags(0xF0, flags);
+
+      long before = clockCounter.count();
+      cpu.run(1);
+      long charged = clockCounter.count() - before;
+      if (charged != cycles || state.PC() != pc) {
+        Util.log(engine + (lazyFlags ? " lazy " : " eager ") + Util.hex(opcode) + " F " + Util.hex(flags) + " - " +
+                 charged + " cycles to " + Util.hex(state.PC()) + ", expected " + cycles + " to " + Util.hex(pc));
+        return false;
+      }
+    }
+    return true;
+  }
+}
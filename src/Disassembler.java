@@ -0,0 +1,272 @@
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/*
+ * Static disassembly of a whole Cart
+ * Code is found by following control flow from the entry points (0x100,
+ * the RST vectors and the interrupt vectors): every jump, call and RST
+ * target is followed, and flow stops at unconditional jumps, returns,
+ * JP HL and unused opcodes. Whatever isn't reached is taken to be data
+ * Bank 0 code that jumps into 0x4000 - 0x7FFF is assumed to go to bank 1,
+ * unless it has just switched banks with LD A,n (or XOR A) and a store to
+ * 0x2000 - 0x3FFF. Each ROM byte is decoded once, so bank 0 code reached
+ * from several banks is only followed with the first
+ * Decoded instructions are kept as packed ints by ROM offset, see
+ * instruction(), so the debugger and tools can use them without going back
+ * to the ROM
+ * Usage: java Disassembler <rom> [listing file]
+ */
+class Disassembler {
+  // Map bits, per ROM byte
+  public static final int CODE = 1;     // first byte of an instruction
+  public static final int OPERAND = 2;  // later byte of an instruction
+  public static final int JUMPED = 4;   // jumped to
+  public static final int CALLED = 8;   // called, an RST or an entry point
+
+  private static final int ENTRIES[] = {
+    0x100,
+    0x00, 0x08, 0x10, 0x18, 0x20, 0x28, 0x30, 0x38,  // RST
+    0x40, 0x48, 0x50, 0x58, 0x60,                    // interrupts
+  };
+  private static final int BANK_SIZE = 0x4000;
+  private static final int DATA_PER_LINE = 8;
+
+  private Cart cart;
+  private int banks;
+  private byte map[];
+  private int decoded[];  // opcode | byte1 << 8 | byte2 << 16 | length << 24, at each instruction's first byte
+  private int instructions;
+
+  private int pending[] = new int[64];  // bank << 16 | address still to follow
+  private int pendingCount;
+
+  public Disassembler(Cart cart) {
+    this.cart = cart;
+    this.banks = Math.max(1, (cart.size() + BANK_SIZE - 1) / BANK_SIZE);
+    this.map = new byte[cart.size()];
+    this.decoded = new int[cart.size()];
+
+    for (int entry : ENTRIES) follow(1, entry, CALLED);
+  }
+
+  // Adds an entry point, e.g. code only reached through a jump table
+  public void follow(int bank, int address, int flag) {
+    branch(bank, address, flag);
+    while (pendingCount > 0) {
+      int entry = pending[--pendingCount];
+      run(entry >>> 16, entry & 0xFFFF);
+    }
+  }
+
+  public int banks() { return banks; }
+  public int instructions() { return instructions; }
+
+  // ROM bytes that are part of an instruction
+  public int codeBytes() {
+    int z = 0;
+    for (byte flags : map) if ((flags & (CODE | OPERAND)) != 0) z++;
+    return z;
+  }
+
+  // ROM offset address is read from when bank is mapped at 0x4000, -1 if it isn't ROM
+  public int offset(int bank, int address) {
+    int offset;
+    if (address < 0 || address >= 2 * BANK_SIZE) return -1;
+    if (address < BANK_SIZE) offset = address;
+    else offset = Math.max(1, bank) * BANK_SIZE + address - BANK_SIZE;
+    return offset < map.length ? offset : -1;
+  }
+
+  // Map bits for address, 0 for data or outside ROM
+  public int flags(int bank, int address) {
+    int offset = offset(bank, address);
+    return offset < 0 ? 0 : map[offset];
+  }
+
+  public boolean isCode(int bank, int address) {
+    return (flags(bank, address) & CODE) != 0;
+  }
+
+  // Instruction starting at address, 0 when there isn't one
+  // Unpack it with opcode(), length(), byte1() and byte2()
+  public int instruction(int bank, int address) {
+    int offset = offset(bank, address);
+    return offset < 0 ? 0 : decoded[offset];
+  }
+
+  public static int opcode(int instruction) { return instruction & 0xFF; }
+  public static int byte1(int instruction) { return (instruction >> 8) & 0xFF; }
+  public static int byte2(int instruction) { return (instruction >> 16) & 0xFF; }
+  public static int length(int instruction) { return instruction >>> 24; }
+
+  // Mnemonic of the instruction starting at address, null when there isn't one
+  public String text(int bank, int address) {
+    int instruction = instruction(bank, address);
+    if (instruction == 0) return null;
+    return format(instruction, address);
+  }
+
+  // Mnemonic of a packed instruction at address, with JR targets worked out
+  public static String format(int instruction, int address) {
+    int opcode = opcode(instruction);
+    String z = Opcodes.mnemonic(opcode, byte1(instruction), byte2(instruction));
+    if (opcode == 0x18 || (opcode & 0xE7) == 0x20)
+      z += "  ; " + Util.hex((address + 2 + (byte)byte1(instruction)) & 0xFFFF);
+    return z;
+  }
+
+  // Packs the instruction at address in memory, for code outside the ROM
+  public static int decode(DataSource memory, int address) {
+    int opcode = memory.get(address & 0xFFFF);
+    int length = Opcodes.LENGTH[opcode];
+    int z = opcode | (length << 24);
+    if (length > 1) z |= memory.get((address + 1) & 0xFFFF) << 8;
+    if (length > 2) z |= memory.get((address + 2) & 0xFFFF) << 16;
+    return z;
+  }
+
+  // Writes a listing of every bank, code as instructions and the rest as db lines
+  public void write(PrintStream out, Symbols symbols) {
+    for (int bank = 0; bank < banks; bank++) {
+      out.println("; ROM bank " + Util.hex((short)bank));
+      int base = bank == 0 ? 0 : BANK_SIZE;
+      int end = Math.min(BANK_SIZE, map.length - bank * BANK_SIZE);
+
+      for (int i = 0; i < end;) {
+        int address = base + i;
+        int offset = bank * BANK_SIZE + i;
+        String label = label(bank, address, symbols);
+        if (label != null) out.println(label + ":");
+
+        String location = "  " + Util.hex((short)bank) + ":" + Util.hex(address) + "  ";
+        if ((map[offset] & CODE) != 0) {
+          int instruction = decoded[offset];
+          String bytes = "";
+          for (int b = 0; b < length(instruction); b++) bytes += Util.hex(cart.byteAt(offset + b)) + " ";
+          out.println(location + String.format("%-10s", bytes) + format(instruction, address));
+          i += length(instruction);
+          continue;
+        }
+
+        // Data up to the next instruction or label
+        String bytes = "";
+        int count = 0;
+        do {
+          bytes += (count > 0 ? "," : "") + Util.hex(cart.byteAt(offset + count));
+          count++;
+        } while (count < DATA_PER_LINE && i + count < end && (map[offset + count] & CODE) == 0
+          && label(bank, address + count, symbols) == null);
+        out.println(location + "db " + bytes);
+        i += count;
+      }
+      out.println();
+    }
+  }
+
+  private String label(int bank, int address, Symbols symbols) {
+    String label = symbols.label(bank, address);
+    if (label != null && symbols.name(bank, address).equals(label)) return label;
+
+    int flags = flags(bank, address);
+    String at = Util.hex((short)bank) + "_" + Util.hex(address);
+    if ((flags & CALLED) != 0) return "call_" + at;
+    if ((flags & JUMPED) != 0) return "jump_" + at;
+    return null;
+  }
+
+  // Decodes straight line code from address until flow can't carry on
+  private void run(int bank, int address) {
+    int a = -1;  // A when it's a known constant, for bank switches
+
+    while (true) {
+      int offset = offset(bank, address);
+      if (offset < 0 || (map[offset] & (CODE | OPERAND)) != 0) return;
+
+      int opcode = cart.byteAt(offset);
+      int length = Opcodes.LENGTH[opcode];
+      if (unused(opcode)) return;
+      int instruction = opcode | (length << 24);
+      for (int i = 1; i < length; i++) {
+        int operand = offset(bank, address + i);
+        if (operand < 0 || (map[operand] & CODE) != 0) return;
+        instruction |= cart.byteAt(operand) << (8 * i);
+      }
+
+      map[offset] |= CODE;
+      for (int i = 1; i < length; i++) map[offset(bank, address + i)] |= OPERAND;
+      decoded[offset] = instruction;
+      instructions++;
+
+      int word = (byte2(instruction) << 8) | byte1(instruction);
+      int next = address + length;
+      if (opcode == 0x18 || (opcode & 0xE7) == 0x20)       // JR, JR cc
+        branch(bank, (next + (byte)byte1(instruction)) & 0xFFFF, JUMPED);
+      else if (opcode == 0xC3 || (opcode & 0xE7) == 0xC2)  // JP, JP cc
+        branch(bank, word, JUMPED);
+      else if (opcode == 0xCD || (opcode & 0xE7) == 0xC4)  // CALL, CALL cc
+        branch(bank, word, CALLED);
+      else if ((opcode & 0xC7) == 0xC7)                    // RST
+        branch(bank, opcode & 0x38, CALLED);
+
+      // Bank switches, only followed from bank 0 where the code itself stays put
+      if (opcode == 0x3E) a = byte1(instruction);
+      else if (opcode == 0xAF) a = 0;
+      else if (opcode == 0xEA && word >= 0x2000 && word < 0x4000 && a >= 0 && address < BANK_SIZE) {
+        if (Math.max(1, a) < banks) bank = Math.max(1, a);
+      } else if (!keepsA(opcode)) a = -1;
+
+      if (opcode == 0x18 || opcode == 0xC3 || opcode == 0xE9 || opcode == 0xC9 || opcode == 0xD9) return;
+      address = next;
+    }
+  }
+
+  private void branch(int bank, int target, int flag) {
+    int offset = offset(bank, target);
+    if (offset < 0) return;
+    map[offset] |= flag;
+    if ((map[offset] & (CODE | OPERAND)) != 0) return;
+
+    if (pendingCount == pending.length) pending = Arrays.copyOf(pending, pendingCount * 2);
+    pending[pendingCount++] = (bank << 16) | target;
+  }
+
+  private static boolean unused(int opcode) {
+    switch (opcode) {
+      case 0xD3: case 0xDB: case 0xDD: case 0xE3: case 0xE4: case 0xEB:
+      case 0xEC: case 0xED: case 0xF4: case 0xFC: case 0xFD:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  // Stores of A, which leave a known A alone
+  private static boolean keepsA(int opcode) {
+    switch (opcode) {
+      case 0x02: case 0x12: case 0x22: case 0x32: case 0x77: case 0xE0: case 0xE2: case 0xEA:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  public static void main(String args[]) throws FileNotFoundException {
+    if (args.length < 1) {
+      Util.log("Usage: Disassembler <rom> [listing file]");
+      return;
+    }
+
+    Cart cart = new Cart(args[0]);
+    long start = System.nanoTime();
+    Disassembler disassembler = new Disassembler(cart);
+    long elapsed = System.nanoTime() - start;
+
+    PrintStream out = args.length > 1 ? new PrintStream(args[1]) : System.out;
+    disassembler.write(out, Symbols.forRom(args[0]));
+    if (out != System.out) out.close();
+
+    Util.log(String.format("Disassembler - %d instructions, %d of %d bytes are code, %d us",
+      disassembler.instructions(), disassembler.codeBytes(), cart.size(), elapsed / 1000));
+  }
+}
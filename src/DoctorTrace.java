@@ -0,0 +1,116 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/*
+ * Instruction log in Gameboy Doctor's format, for diffing against other
+ * emulators, one line per instruction before it runs:
+ *   A:01 F:B0 B:00 C:13 D:00 E:D8 H:01 L:4D SP:FFFE PC:0100 PCMEM:00,C3,13,02
+ * Lines are built as bytes into a big buffer with a hex table, no Strings,
+ * since a run can be tens of millions of lines
+ * Logging starts when PC first reaches start (or straight away) and stops
+ * for good at stop or after limit lines
+ */
+class DoctorTrace {
+  private static final byte HEX[] = "0123456789ABCDEF".getBytes();
+  private static final int BUFFER = 1 << 20;
+  private static final int LINE = 80;  // longest line is 74 bytes
+
+  private OutputStream out;
+  private byte buffer[] = new byte[BUFFER];
+  private int length = 0;
+
+  private int start = -1;        // PC to start at, -1 to start straight away
+  private int stop = -1;         // PC to stop at, -1 for none
+  private long limit = Long.MAX_VALUE;
+  private boolean logging;
+  private boolean done;
+  private long lines;
+
+  public DoctorTrace(String path) throws IOException {
+    this(new FileOutputStream(path));  // buffer is already the size of a big write
+  }
+  public DoctorTrace(OutputStream out) {
+    this.out = out;
+  }
+
+  public void setStart(int pc) { start = pc; }
+  public void setStop(int pc) { stop = pc; }
+  public void setLimit(long lines) { limit = lines; }
+
+  public long lines() { return lines; }
+  // Past stop or limit, nothing more will be written
+  public boolean done() { return done; }
+
+  // Instruction at PC is about to run
+  public void record(CPUState state, MMU mmu) {
+    if (done) return;
+
+    int pc = state.PC();
+    if (!logging) {
+      if (start >= 0 && pc != start) return;
+      logging = true;
+    }
+    if (pc == stop || lines == limit) {
+      done = true;
+      flush();
+      return;
+    }
+
+    if (length + LINE > buffer.length) flush();
+    int af = state.AF();
+    text("A:"); hex8(af >> 8);
+    text(" F:"); hex8(af);
+    text(" B:"); hex8(state.B());
+    text(" C:"); hex8(state.C());
+    text(" D:"); hex8(state.D());
+    text(" E:"); hex8(state.E());
+    text(" H:"); hex8(state.H());
+    text(" L:"); hex8(state.L());
+    text(" SP:"); hex16(state.SP());
+    text(" PC:"); hex16(pc);
+    text(" PCMEM:"); hex8(mmu.peek(pc));
+    for (int i = 1; i < 4; i++) {
+      buffer[length++] = ',';
+      hex8(mmu.peek((pc + i) & 0xFFFF));
+    }
+    buffer[length++] = '\n';
+    lines++;
+  }
+
+  public void flush() {
+    try {
+      out.write(buffer, 0, length);
+      out.flush();
+    } catch (IOException e) {
+      Util.errn("DoctorTrace.flush - " + e);
+      done = true;
+    }
+    length = 0;
+  }
+
+  public void close() {
+    flush();
+    done = true;
+    try {
+      out.close();
+    } catch (IOException e) {
+      Util.errn("DoctorTrace.close - " + e);
+    }
+  }
+
+  // Only ASCII
+  private void text(String z) {
+    for (int i = 0; i < z.length(); i++) buffer[length++] = (byte)z.charAt(i);
+  }
+
+  private void hex8(int value) {
+    buffer[length++] = HEX[(value >> 4) & 0xF];
+    buffer[length++] = HEX[value & 0xF];
+  }
+
+  private void hex16(int value) {
+    hex8(value >> 8);
+    hex8(value);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Runs a ROM with eager and lazy flag evaluation side by side and stops at
+ * the first instruction where the two CPUs disagree
+ * Usage: java -cp src/ FlagsCheck <rom> [instructions]
+ */
+class FlagsCheck {
+
+  // F is only compared every so often, reading it forces lazy flags to be
+  // worked out and would hide deferred ops that span several instructions
+  private static final int FLAGS_INTERVAL = 64;
+
+  private static final CPUState.R[] REGISTERS = {
+    CPUState.R.A, CPUState.R.B, CPUState.R.C, CPUState.R.D, CPUState.R.E, CPUState.R.H, CPUState.R.L
+  };
+
+  public static void main(String args[]) {
+    if (args.length < 1) {
+      Util.log("Usage: FlagsCheck <rom> [instructions]");
+      return;
+    }
+    long count = args.length > 1 ? Long.parseLong(args[1]) : 10000000;
+
+    Util.debug = false;
+
+    Settings eagerSettings = new Settings();
+    eagerSettings.display = false;
+    Settings lazySettings = new Settings();
+    lazySettings.display = false;
+    lazySettings.lazyFlags = true;
+
+    Gameboy eager = new Gameboy(new Cart(args[0]), eagerSettings);
+    Gameboy lazy = new Gameboy(new Cart(args[0]), lazySettings);
+
+    for (long i = 0; i < count; i++) {
+      int pc = eager.getState().PC();
+      eager.step();
+      lazy.step();
+
+      String mismatch = compare(eager, lazy, i % FLAGS_INTERVAL == 0);
+      if (mismatch != null) {
+        Util.log("Mismatch after instruction " + i + " at " + Util.hex(pc) + " - " + mismatch);
+        return;
+      }
+    }
+
+    Util.log("Eager and lazy flags agree for " + count + " instructions");
+  }
+
+  private static String compare(Gameboy eager, Gameboy lazy, boolean checkFlags) {
+    CPUState a = eager.getState();
+    CPUState b = lazy.getState();
+
+    for (CPUState.R reg : REGISTERS) {
+      if (a.getReg(reg) != b.getReg(reg))
+        return reg + " " + Util.hex(a.getReg(reg)) + " != " + Util.hex(b.getReg(reg));
+    }
+    if (a.PC() != b.PC()) return "PC " + Util.hex(a.PC()) + " != " + Util.hex(b.PC());
+    if (a.SP() != b.SP()) return "SP " + Util.hex(a.SP()) + " != " + Util.hex(b.SP());
+    if (eager.getClockCounter().count() != lazy.getClockCounter().count()) return "clock counts differ";
+    if (checkFlags && a.getFlags() != b.getFlags())
+      return "F " + Util.hex((short)a.getFlags()) + " != " + Util.hex((short)b.getFlags());
+
+    return null;
+  }
+}
@@ -0,0 +1,291 @@
+/*
+ * Superinstructions for the loop idioms games spend most of their time in
+ * BlockCache looks for them when it decodes a block, and CPU.run() runs a
+ * matched sequence with one call that has its operands, jump target and
+ * cycles worked out already, instead of dispatching each instruction
+ * When the hardware has nothing to do until after the last step, the steps
+ * run straight through and their cycles go on the clock together. Otherwise
+ * each step charges its own cycles and CPU.betweenInstructions() runs
+ * between steps, so a fused sequence behaves exactly like the instructions
+ * it replaces either way
+ */
+class Fusions {
+  // Kinds of fusion, index into hits()
+  public static final int COPY = 0;       // LD A,[HL+]  LD [DE],A  INC DE  DEC BC  LD A,B  OR C  JR NZ
+  public static final int COUNTDOWN = 1;  // DEC r  JR NZ
+  public static final int POLL = 2;       // LDH A,[a8]  CP d8 / AND d8  JR cc
+  private static final String NAMES[] = { "copy", "countdown", "poll" };
+
+  private static final int COPY_LOOP[] = { 0x2A, 0x12, 0x13, 0x0B, 0x78, 0xB1, 0x20 };
+
+  private CPU cpu;
+  private CPUState state;
+  private ClockCounter clockCounter;
+  private Instructions ins;
+  private MMU mmu;
+
+  private long hits[] = new long[NAMES.length];     // times each kind was started
+  private long matched[] = new long[NAMES.length];  // times each kind was found while decoding
+
+  public Fusions(CPU cpu, CPUState state, ClockCounter clockCounter, Instructions ins, MMU mmu) {
+    this.cpu = cpu;
+    this.state = state;
+    this.clockCounter = clockCounter;
+    this.ins = ins;
+    this.mmu = mmu;
+  }
+
+  /*
+   * A fused run of instructions
+   * run() returns a count of the steps that ran, negative when it stopped
+   * right after CPU.betweenInstructions()
+   */
+  abstract class Fusion {
+    final int kind;
+    final BlockCache.Block block;
+    final int pcs[];  // address of each step
+    final int between;  // cycles of every step but the last, the ones betweenInstructions() would see
+
+    private int batched = -1;  // cycles run() hasn't put on the clock yet, -1 while each step charges its own
+
+    Fusion(int kind, BlockCache.Block block, int index, int steps) {
+      this.kind = kind;
+      this.block = block;
+      this.pcs = java.util.Arrays.copyOfRange(block.pcs, index, index + steps);
+      int cycles = 0;
+      for (int step = 0; step < steps - 1; step++) cycles += Opcodes.CYCLES[mmu.get(pcs[step])];
+      this.between = cycles;
+    }
+
+    // quiet is how many cycles can go by before betweenInstructions() has anything to do
+    public int run(int budget, int quiet) {
+      hits[kind]++;
+      if (pcs.length <= budget && between <= quiet && !touchesHardware()) {
+        batched = 0;
+        int step = 0;
+        while (step < pcs.length) {
+          step(step);
+          step++;
+          if (!block.valid) break;
+        }
+        clockCounter.add(batched);
+        batched = -1;
+        return step;
+      }
+
+      for (int step = 0; ; ) {
+        step(step);
+        step++;
+
+        if (step == pcs.length) return step;
+        if (step >= budget || !block.valid) return step;
+        cpu.betweenInstructions();
+        if (!block.valid || state.PC() != pcs[step]) return -step;
+      }
+    }
+
+    // Runs one instruction of the sequence, including setting PC past it
+    abstract void step(int step);
+
+    // The steps write somewhere that betweenInstructions() has to see
+    boolean touchesHardware() {
+      return false;
+    }
+
+    // Charges the step's cycles and moves PC past it
+    void start(int step, int opcode) {
+      charge(Opcodes.CYCLES[opcode]);
+      state.setPC((pcs[step] + Opcodes.LENGTH[opcode]) & 0xFFFF);
+    }
+
+    // JR cc ending the sequence, taken when F & mask == value
+    void jr(int step, int opcode, int mask, int value, int target) {
+      if ((state.getFlags() & mask) == value) {
+        charge(Opcodes.CYCLES[opcode]);
+        state.setPC(target);
+      } else {
+        charge(Opcodes.CYCLES_NOT_TAKEN[opcode]);
+        state.setPC((pcs[step] + 2) & 0xFFFF);
+      }
+    }
+
+    private void charge(int cycles) {
+      if (batched < 0) clockCounter.add(cycles);
+      else batched += cycles;
+    }
+  }
+
+  // Block copy, the body of a memcpy with the count in BC
+  class Copy extends Fusion {
+    final int target;
+
+    Copy(BlockCache.Block block, int index, int target) {
+      super(COPY, block, index, COPY_LOOP.length);
+      this.target = target;
+    }
+
+    // Copying into IO registers, HRAM or IE
+    boolean touchesHardware() {
+      return state.DE() >= 0xFF00;
+    }
+
+    void step(int step) {
+      switch (step) {
+        case 0:  // LD A,[HL+]
+          start(0, 0x2A);
+          state.setA(ins.readMem8(state.HL()));
+          state.setHL(CPUMath.inc16(state.HL()));
+          break;
+        case 1:  // LD [DE],A
+          start(1, 0x12);
+          ins.writeMem8(state.DE(), state.A());
+          break;
+        case 2:  // INC DE
+          start(2, 0x13);
+          state.setDE(CPUMath.inc16(state.DE()));
+          break;
+        case 3:  // DEC BC
+          start(3, 0x0B);
+          state.setBC(CPUMath.dec16(state.BC()));
+          break;
+        case 4:  // LD A,B
+          start(4, 0x78);
+          state.setA(state.B());
+          break;
+        case 5:  // OR C
+          start(5, 0xB1);
+          state.setA(ins.alu(ALU.OP_OR, state.A(), state.C()));
+          break;
+        case 6:  // JR NZ
+          jr(6, 0x20, CPUState.FLAG_Z, 0, target);
+          break;
+      }
+    }
+  }
+
+  // Counting a register down to 0
+  class Countdown extends Fusion {
+    final int register;  // opcode encoding, B C D E H L - A
+    final int target;
+
+    Countdown(BlockCache.Block block, int index, int register, int target) {
+      super(COUNTDOWN, block, index, 2);
+      this.register = register;
+      this.target = target;
+    }
+
+    void step(int step) {
+      if (step == 0) {
+        start(0, 0x05 | (register << 3));
+        switch (register) {
+          case 0: state.setB(ins.alu(ALU.OP_DEC, state.B(), 0)); break;
+          case 1: state.setC(ins.alu(ALU.OP_DEC, state.C(), 0)); break;
+          case 2: state.setD(ins.alu(ALU.OP_DEC, state.D(), 0)); break;
+          case 3: state.setE(ins.alu(ALU.OP_DEC, state.E(), 0)); break;
+          case 4: state.setH(ins.alu(ALU.OP_DEC, state.H(), 0)); break;
+          case 5: state.setL(ins.alu(ALU.OP_DEC, state.L(), 0)); break;
+          case 7: state.setA(ins.alu(ALU.OP_DEC, state.A(), 0)); break;
+        }
+      } else {
+        jr(1, 0x20, CPUState.FLAG_Z, 0, target);
+      }
+    }
+  }
+
+  // Waiting on an IO register, usually LY or STAT
+  class Poll extends Fusion {
+    final int address;
+    final int op;     // ALU.OP_CP or ALU.OP_AND
+    final int operand;
+    final int jr;     // JR cc opcode, taken when F & mask == value
+    final int mask;
+    final int value;
+    final int target;
+
+    Poll(BlockCache.Block block, int index, int address, int op, int operand, int jr, int mask, int value, int target) {
+      super(POLL, block, index, 3);
+      this.address = address;
+      this.op = op;
+      this.operand = operand;
+      this.jr = jr;
+      this.mask = mask;
+      this.value = value;
+      this.target = target;
+    }
+
+    void step(int step) {
+      switch (step) {
+        case 0:  // LDH A,[a8]
+          start(0, 0xF0);
+          state.setA(ins.readMem8(address));
+          break;
+        case 1:  // CP d8 or AND d8
+          if (op == ALU.OP_CP) {
+            start(1, 0xFE);
+            ins.alu(ALU.OP_CP, state.A(), operand);
+          } else {
+            start(1, 0xE6);
+            state.setA(ins.alu(ALU.OP_AND, state.A(), operand));
+          }
+          break;
+        case 2:  // JR cc
+          jr(2, jr, mask, value, target);
+          break;
+      }
+    }
+  }
+
+  // Fusion for the instructions of block starting at index, null if there isn't one
+  public Fusion match(BlockCache.Block block, int index) {
+    int left = block.length - index;
+    int pc = block.pcs[index];
+    int opcode = mmu.get(pc);
+
+    if (opcode == COPY_LOOP[0] && left >= COPY_LOOP.length) {
+      boolean copy = true;
+      for (int i = 0; i < COPY_LOOP.length && copy; i++)
+        copy = mmu.get(block.pcs[index + i]) == COPY_LOOP[i];
+      if (copy) {
+        matched[COPY]++;
+        return new Copy(block, index, jrTarget(block.pcs[index + 6]));
+      }
+    }
+
+    // DEC r, not DEC [HL]
+    if ((opcode & 0xC7) == 0x05 && opcode != 0x35 && left >= 2 && mmu.get(block.pcs[index + 1]) == 0x20) {
+      matched[COUNTDOWN]++;
+      return new Countdown(block, index, opcode >> 3, jrTarget(block.pcs[index + 1]));
+    }
+
+    if (opcode == 0xF0 && left >= 3) {
+      int alu = mmu.get(block.pcs[index + 1]);
+      int jr = mmu.get(block.pcs[index + 2]);
+      if ((alu == 0xFE || alu == 0xE6) && (jr & 0xE7) == 0x20) {
+        int mask = (jr & 0x10) == 0 ? CPUState.FLAG_Z : CPUState.FLAG_C;
+        int value = (jr & 0x08) != 0 ? mask : 0;
+        int address = 0xFF00 + mmu.get((pc + 1) & 0xFFFF);
+        int operand = mmu.get((block.pcs[index + 1] + 1) & 0xFFFF);
+        matched[POLL]++;
+        return new Poll(block, index, address, alu == 0xFE ? ALU.OP_CP : ALU.OP_AND, operand, jr, mask, value, jrTarget(block.pcs[index + 2]));
+      }
+    }
+
+    return null;
+  }
+
+  public long[] hits() { return hits; }
+  public long[] matched() { return matched; }
+
+  // e.g. "copy 12/1 countdown 3400/2 poll 0/0", hits then times matched
+  public String report() {
+    String report = "";
+    for (int kind = 0; kind < NAMES.length; kind++)
+      report += (kind > 0 ? " " : "") + NAMES[kind] + " " + hits[kind] + "/" + matched[kind];
+    return report;
+  }
+
+  // Where the JR at pc goes when it's taken
+  private int jrTarget(int pc) {
+    return (pc + 2 + (byte)mmu.get((pc + 1) & 0xFFFF)) & 0xFFFF;
+  }
+}
@@ -1,5 +1,7 @@
 
 import java.io.Console;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.StringTokenizer;
@@ -11,7 +13,10 @@ class Gameboy {
   private PPU ppu;
   private MMU mmu;
   private TimerHandler timer;
+  private Scheduler scheduler;
   private Cart cart;
+  private TranslationCache translations;
+  private Disassembler disassembler;  // made the first time the debugger needs it
 
   // For debugging
   private ArrayList<Integer> breakpoints;
@@ -19,25 +24,87 @@ class Gameboy {
   private boolean step;
   private long tickCounter = 0;
 
-  public Gameboy(Cart cart) {
+  private static final int RUN_SLICE = 0x10000;  // instructions per CPU.run() call
+  private static final int PROFILE_ROWS = 40;     // rows in the --profile-opcodes and --sample reports
+
+  public Gameboy(Cart cart) { this(cart, new Settings()); }
+  public Gameboy(Cart cart, Settings settings) {
     this.cart = cart;
-    this.state = new CPUState();
+    this.state = new CPUState(settings.lazyFlags);
     this.clockCounter = new ClockCounter();
     this.mmu = new MMU();
-    this.ppu = new PPU(clockCounter, mmu);
+    this.ppu = new PPU(clockCounter, mmu, settings.display);
     this.cpu = new CPU(state, mmu, cart, clockCounter);
+    if (settings.jitCache != null) {
+      this.translations = new TranslationCache(settings.jitCache, cart);
+      cpu.setTranslationCache(translations);
+      Runtime.getRuntime().addShutdownHook(new Thread(this::saveTranslations));
+    }
+    cpu.setEngine(settings.engine);
+    if (settings.trace > 0) cpu.setTrace(new TraceBuffer(settings.trace));
+    if (settings.profileOpcodes) {
+      OpcodeProfile profile = new OpcodeProfile();
+      cpu.setProfile(profile);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> Util.log(profile.report(PROFILE_ROWS))));
+    }
+    Symbols symbols = settings.symbols != null ? Symbols.load(settings.symbols) : Symbols.forRom(cart.getFilename());
+    if (settings.sampleInterval > 0) {
+      PCSampler sampler = new PCSampler(settings.sampleInterval, clockCounter.count());
+      cpu.setSampler(sampler);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> Util.log(sampler.report(symbols, PROFILE_ROWS))));
+    }
+    if (settings.doctor != null) {
+      try {
+        DoctorTrace doctor = new DoctorTrace(settings.doctor);
+        doctor.setStart(settings.doctorStart);
+        doctor.setStop(settings.doctorStop);
+        doctor.setLimit(settings.doctorLimit);
+        cpu.setDoctorTrace(doctor);
+        Runtime.getRuntime().addShutdownHook(new Thread(doctor::close));
+      } catch (IOException e) {
+        Util.errn("Gameboy - couldn't open " + settings.doctor + ": " + e);
+      }
+    }
+    if (settings.callGraph != null) {
+      CallGraph calls = new CallGraph(clockCounter, mmu);
+      cpu.setCallGraph(calls);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> writeCallGraph(calls, symbols, settings.callGraph)));
+    }
+    if (settings.coverage != null) {
+      Coverage coverage = Coverage.load(settings.coverage);
+      cpu.setCoverage(coverage);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        coverage.save(settings.coverage);
+        Util.log(coverage.report(new Disassembler(cart)));
+      }));
+    }
     this.timer = new TimerHandler(mmu, clockCounter);
+    this.scheduler = new Scheduler(clockCounter, ppu, timer);
+    mmu.setScheduler(scheduler);
+    cpu.setHardware(scheduler);
 
     this.breakpoints = new ArrayList<Integer>();
     this.watchpoints = new ArrayList<Integer>();
     breakpoints.add(0x0);
+    cpu.setBreakpoint(0x0, true);
     this.step = false;
+
+    state.setPC(0x100);
+  }
+
+  public CPUState getState() { return state; }
+  public ClockCounter getClockCounter() { return clockCounter; }
+  public CPU getCPU() { return cpu; }
+  public TranslationCache getTranslations() { return translations; }
+
+  // Writes out what the JIT compiled, also done when the JVM exits
+  public void saveTranslations() {
+    if (translations != null) translations.save();
   }
 
   public void run() {
     Util.debug = false;
 
-    state.setPC(0x100);
     // breakpoints.add(0x100);
     // breakpoints.add(0x4FF);
 
@@ -47,7 +114,14 @@ class Gameboy {
       else if (watchpoints.contains(mmu.lastAccessed())) debug_break();
       else if (step)                {cpu.dump(); prompt();}
 
-      tick();
+      // Stepping and watchpoints need every instruction, CPU.run() stops at
+      // breakpoints itself
+      try {
+        if (step || !watchpoints.isEmpty()) tick();
+        else slice(RUN_SLICE);
+      } catch (RuntimeException e) {
+        crashed(e);
+      }
       // try {
       //   if (tickCounter % 13 == 0)
       //     Thread.sleep(1);
@@ -55,11 +129,61 @@ class Gameboy {
     }
   }
 
+  // Runs a single instruction without the debugger, for batch runs and tools
+  public void step() {
+    tick();
+  }
+
+  // Runs instructions without the debugger, letting the CPU run compiled
+  // blocks and skip idle loops
+  // Stops on an instruction boundary with the CPU, memory and hardware as
+  // step() calls would have left them there. It isn't the same as that many
+  // step() calls though, idle and halted time are skipped in bulk and counted
+  // differently, and a halted step() skips ahead by up to a whole slice
+  // Goes in slices so CPU.run() returns now and then, which lets the JVM swap
+  // in a recompiled copy after new blocks are compiled
+  public void run(long instructions) {
+    try {
+      while (instructions > 0)
+        instructions -= slice((int)Math.min(instructions, RUN_SLICE));
+    } catch (RuntimeException e) {
+      crashed(e);
+    }
+  }
+
+  private static void writeCallGraph(CallGraph calls, Symbols symbols, String path) {
+    try {
+      PrintStream out = new PrintStream(path);
+      calls.write(out, symbols);
+      out.close();
+    } catch (IOException e) {
+      Util.errn("Gameboy.writeCallGraph - couldn't write " + path + ": " + e);
+    }
+  }
+
+  // Shows what led up to an exception out of the CPU, then passes it on
+  private void crashed(RuntimeException e) {
+    TraceBuffer trace = cpu.getTrace();
+    if (trace != null) {
+      Util.errn("Gameboy - " + e + ", last " + trace.size() + " instructions:");
+      trace.dump(trace.size());
+    }
+    throw e;
+  }
+
+  // One CPU.run() and the hardware after its last instruction, returns how
+  // many instructions ran
+  private int slice(int max) {
+    int ran = cpu.run(max);
+    scheduler.tick();
+    this.tickCounter++;
+    return ran;
+  }
+
   private void tick() {
     // Util.log(".");
-    timer.tick();
     cpu.tick();
-    ppu.tick();
+    scheduler.tick();  // PPU then timer, only when something's due
     this.tickCounter++;
   }
 
@@ -132,6 +256,12 @@ class Gameboy {
       case "watch":
         watch(st);
         break;
+      case "trace":
+        trace(st);
+        break;
+      case "disasm":
+        disasm(st);
+        break;
       default:
         cnt = false;
         break;
@@ -184,12 +314,15 @@ class Gameboy {
       return;
     }
 
-    if (!breakpoints.contains(breakpoint))
+    if (!breakpoints.contains(breakpoint)) {
       breakpoints.add(breakpoint);
+      cpu.setBreakpoint(breakpoint, true);
+    }
   }
 
   private void unsetBreakpoint(StringTokenizer st) {
     if (!st.hasMoreTokens()) {
+      for (int breakpoint : breakpoints) cpu.setBreakpoint(breakpoint, false);
       breakpoints.clear();
       return;
     }
@@ -202,8 +335,10 @@ class Gameboy {
       return;
     }
 
-    if (breakpoints.contains(breakpoint))
+    if (breakpoints.contains(breakpoint)) {
       breakpoints.remove(Integer.valueOf(breakpoint));
+      cpu.setBreakpoint(breakpoint, false);
+    }
   }
 
   private void stack(StringTokenizer st) {
@@ -216,6 +351,50 @@ class Gameboy {
     Util.log();
   }
 
+  private void trace(StringTokenizer st) {
+    TraceBuffer trace = cpu.getTrace();
+    if (trace == null) {
+      Util.log("Not tracing, start with --trace=<instructions>");
+      return;
+    }
+
+    int n = 20;
+    try {
+      if (st.hasMoreTokens()) n = Integer.parseInt(st.nextToken());
+    } catch (Exception e) {
+      Util.log("Usage: trace <count>");
+      return;
+    }
+
+    Util.log("Last " + Math.min(n, trace.size()) + " instructions");
+    trace.dump(n);
+    Util.log();
+  }
+
+  // Instructions from address, marked with ? where the Disassembler didn't
+  // find code and memory is decoded as it is now
+  private void disasm(StringTokenizer st) {
+    int address = state.PC();
+    int count = 10;
+    try {
+      if (st.hasMoreTokens()) address = Integer.decode("0x" + st.nextToken());
+      if (st.hasMoreTokens()) count = Integer.parseInt(st.nextToken());
+    } catch (Exception e) {
+      Util.log("Usage: disasm <a16> <count>");
+      return;
+    }
+    if (disassembler == null) disassembler = new Disassembler(cart);
+
+    for (int i = 0; i < count && address <= 0xFFFF; i++) {
+      int instruction = disassembler.instruction(mmu.bank(address), address);
+      boolean known = instruction != 0;
+      if (!known) instruction = Disassembler.decode(mmu, address);
+      Util.log(Util.hex(address) + (known ? "  " : " ?") + "\t" + Disassembler.format(instruction, address));
+      address += Disassembler.length(instruction);
+    }
+    Util.log();
+  }
+
   private void timer() {
     short div = mmu.get(TimerHandler.DIV);
     short timerCounter = mmu.get(TimerHandler.TIMER_COUNTER);
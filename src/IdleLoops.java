@@ -0,0 +1,125 @@
+/*
+ * Fast forwarding through loops that wait on the PPU or timer
+ * A candidate is a block that jumps back to its own start and only reads
+ * memory and registers on the way round. When CPU.run() comes back to its
+ * start with the same registers and nothing written since the last time
+ * round, the next time round does exactly the same thing, and so does every
+ * one after it until the PPU or timer changes some memory. Those times round
+ * are charged in one go, with the PPU and timer counters moved on to match,
+ * and the CPU carries on from the one the next event happens in, so the
+ * state, clock and memory come out the same as running every instruction
+ * The joypad register changes without being written, loops that read it are
+ * never skipped
+ */
+class IdleLoops {
+  private CPUState state;
+  private ClockCounter clockCounter;
+  private MMU mmu;
+
+  // The block the CPU last arrived at the start of, and how things were then
+  private BlockCache.Block last;
+  private long lastClock;
+  private long lastWrites;
+  private long lastJoypadReads;
+  private int lastAF, lastBC, lastDE, lastHL, lastSP;
+  private boolean lastIME;
+
+  private long skips;
+  private long skippedInstructions;
+  private long skippedCycles;
+
+  public IdleLoops(CPUState state, ClockCounter clockCounter, MMU mmu) {
+    this.state = state;
+    this.clockCounter = clockCounter;
+    this.mmu = mmu;
+  }
+
+  // Whether block can be an idle loop, decided when it's decoded
+  public boolean candidate(BlockCache.Block block) {
+    int jump = block.pcs[block.length - 1];
+    int opcode = mmu.get(jump);
+    int target;
+    if (opcode == 0x18 || (opcode & 0xE7) == 0x20)       // JR, JR cc
+      target = (jump + 2 + (byte)mmu.get((jump + 1) & 0xFFFF)) & 0xFFFF;
+    else if (opcode == 0xC3 || (opcode & 0xE7) == 0xC2)  // JP, JP cc
+      target = (mmu.get((jump + 2) & 0xFFFF) << 8) | mmu.get((jump + 1) & 0xFFFF);
+    else
+      return false;
+    if (target != block.start) return false;
+
+    for (int i = 0; i < block.length - 1; i++)
+      if (!readOnly(block.pcs[i])) return false;
+    return true;
+  }
+
+  /*
+   * Called when CPU.run() arrives at the start of a block, with the hardware
+   * ticked and interrupts serviced. Returns the number of instructions
+   * skipped, 0 when block isn't idle or the next event is too close
+   * Leaves at least one of the budget's instructions to run
+   */
+  public int skip(BlockCache.Block block, CPU.Hardware hardware, int budget) {
+    long clock = clockCounter.count();
+    long writes = mmu.writes();
+    long joypadReads = mmu.joypadReads();
+    int af = state.AF(), bc = state.BC(), de = state.DE(), hl = state.HL(), sp = state.SP();
+    boolean ime = state.IME();
+
+    boolean idle = block == last && writes == lastWrites && joypadReads == lastJoypadReads
+      && af == lastAF && bc == lastBC && de == lastDE && hl == lastHL && sp == lastSP && ime == lastIME;
+    if (!idle) {
+      last = block;
+      lastClock = clock;
+      lastWrites = writes;
+      lastJoypadReads = joypadReads;
+      lastAF = af; lastBC = bc; lastDE = de; lastHL = hl; lastSP = sp;
+      lastIME = ime;
+      return 0;
+    }
+
+    // Whole times round that end before the next event
+    long cycles = clock - lastClock;
+    lastClock = clock;
+    int times = (int)Math.min(hardware.idleCycles() / cycles, (budget - 1) / block.length);
+    if (times <= 0) return 0;
+
+    int instructions = times * block.length;
+    clockCounter.add((int)(times * cycles));  // no more than idleCycles()
+    hardware.skip(instructions, (int)(times * cycles));
+    lastClock = clockCounter.count();
+
+    skips++;
+    skippedInstructions += instructions;
+    skippedCycles += times * cycles;
+    return instructions;
+  }
+
+  // The block the CPU arrived at isn't a candidate
+  public void forget() {
+    last = null;
+  }
+
+  public long skips() { return skips; }
+  public long skippedInstructions() { return skippedInstructions; }
+  public long skippedCycles() { return skippedCycles; }
+
+  // Instructions that don't write memory, the stack or IME, or halt
+  private boolean readOnly(int pc) {
+    int opcode = mmu.get(pc);
+    if (opcode == 0x00) return true;                                   // NOP
+    if (opcode >= 0x40 && opcode < 0x80) return opcode < 0x70 || opcode > 0x77;  // LD r,r' and LD r,[HL], not LD [HL],r or HALT
+    if (opcode >= 0x80 && opcode < 0xC0) return true;                  // ALU A,r
+    if ((opcode & 0xC7) == 0xC6) return true;                          // ALU A,d8
+    if ((opcode & 0xC7) == 0x06) return opcode != 0x36;                // LD r,d8
+    if ((opcode & 0xC6) == 0x04) return opcode != 0x34 && opcode != 0x35;  // INC r, DEC r
+    if ((opcode & 0xC7) == 0x03) return true;                          // INC rr, DEC rr
+    if ((opcode & 0xC7) == 0x07) return true;                          // rotates, DAA, CPL, SCF, CCF
+    if (opcode == 0x0A || opcode == 0x1A) return true;                 // LD A,[BC], LD A,[DE]
+    if (opcode == 0xF0 || opcode == 0xF2 || opcode == 0xFA) return true;  // LDH A,[a8], LD A,[C], LD A,[a16]
+    if (opcode == 0xCB) {
+      int cb = mmu.get((pc + 1) & 0xFFFF);
+      return cb >= 0x40 && cb < 0x80;                                  // BIT
+    }
+    return false;
+  }
+}
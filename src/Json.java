@@ -0,0 +1,174 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/*
+ * Just enough JSON to read test vectors
+ * Objects come back as HashMaps, arrays as ArrayLists, whole numbers as
+ * Longs and other numbers as Doubles. String escapes other than n, t, r and
+ * u give the escaped character itself, which is all the test files need
+ */
+class Json {
+  private final String text;
+  private int at = 0;
+
+  private Json(String text) {
+    this.text = text;
+  }
+
+  public static Object parse(String text) {
+    Json json = new Json(text);
+    Object value = json.value();
+    json.space();
+    if (json.at != text.length()) throw json.error("trailing characters");
+    return value;
+  }
+
+  // Values parse() returned, as what the caller knows them to be
+  @SuppressWarnings("unchecked")
+  public static HashMap<String, Object> object(Object value) {
+    return (HashMap<String, Object>)value;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static ArrayList<Object> array(Object value) {
+    return (ArrayList<Object>)value;
+  }
+
+  public static int number(Object value) {
+    return ((Long)value).intValue();
+  }
+
+  private Object value() {
+    space();
+    if (at >= text.length()) throw error("unexpected end");
+
+    char c = text.charAt(at);
+    switch (c) {
+      case '{': return object();
+      case '[': return array();
+      case '"': return string();
+      case 't': word("true"); return Boolean.TRUE;
+      case 'f': word("false"); return Boolean.FALSE;
+      case 'n': word("null"); return null;
+      default:
+        if (c == '-' || (c >= '0' && c <= '9')) return number();
+        throw error("unexpected '" + c + "'");
+    }
+  }
+
+  private HashMap<String, Object> object() {
+    HashMap<String, Object> object = new HashMap<String, Object>();
+    at++;
+    space();
+    if (peek() == '}') {
+      at++;
+      return object;
+    }
+    while (true) {
+      space();
+      if (peek() != '"') throw error("expected a key");
+      String key = string();
+      space();
+      expect(':');
+      object.put(key, value());
+      space();
+      if (peek() == '}') {
+        at++;
+        return object;
+      }
+      expect(',');
+    }
+  }
+
+  private ArrayList<Object> array() {
+    ArrayList<Object> array = new ArrayList<Object>();
+    at++;
+    space();
+    if (peek() == ']') {
+      at++;
+      return array;
+    }
+    while (true) {
+      array.add(value());
+      space();
+      if (peek() == ']') {
+        at++;
+        return array;
+      }
+      expect(',');
+    }
+  }
+
+  private String string() {
+    at++;
+    int start = at;
+    while (at < text.length() && text.charAt(at) != '"' && text.charAt(at) != '\\') at++;
+    if (at < text.length() && text.charAt(at) == '"') return text.substring(start, at++);
+
+    // Has escapes, the slow way
+    StringBuilder z = new StringBuilder(text.substring(start, at));
+    while (at < text.length()) {
+      char c = text.charAt(at++);
+      if (c == '"') return z.toString();
+      if (c != '\\') {
+        z.append(c);
+        continue;
+      }
+      if (at >= text.length()) break;
+      char escaped = text.charAt(at++);
+      switch (escaped) {
+        case 'n': z.append('\n'); break;
+        case 't': z.append('\t'); break;
+        case 'r': z.append('\r'); break;
+        case 'u':
+          if (at + 4 > text.length()) throw error("bad escape");
+          z.append((char)Integer.parseInt(text.substring(at, at + 4), 16));
+          at += 4;
+          break;
+        default: z.append(escaped);
+      }
+    }
+    throw error("unterminated string");
+  }
+
+  private Object number() {
+    int start = at;
+    boolean whole = true;
+    if (peek() == '-') at++;
+    while (at < text.length()) {
+      char c = text.charAt(at);
+      if (c == '.' || c == 'e' || c == 'E' || c == '+' || (c == '-' && at > start)) whole = false;
+      else if (c < '0' || c > '9') break;
+      at++;
+    }
+
+    String number = text.substring(start, at);
+    try {
+      return whole ? (Object)Long.parseLong(number) : (Object)Double.parseDouble(number);
+    } catch (NumberFormatException e) {
+      throw error("bad number " + number);
+    }
+  }
+
+  private void word(String word) {
+    if (!text.startsWith(word, at)) throw error("expected " + word);
+    at += word.length();
+  }
+
+  private void expect(char c) {
+    if (peek() != c) throw error("expected '" + c + "'");
+    at++;
+  }
+
+  private char peek() {
+    return at < text.length() ? text.charAt(at) : 0;
+  }
+
+  private void space() {
+    while (at < text.length() && Character.isWhitespace(text.charAt(at))) at++;
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException("Json - " + message + " at character " + at);
+  }
+}
@@ -19,6 +19,19 @@ class MMU implements DataSource {
 
   public int lastAccessed;
 
+  // Told about every write so it can drop blocks decoded from that memory
+  private BlockCache blockCache;
+  // Told about IO register writes so the hardware reading them catches up
+  private Scheduler scheduler;
+
+  // IF and IE kept as fields, so CPU.handleInterrupts() can check them
+  // without going through get() every instruction
+  private int interruptFlags;
+  private int pendingInterrupts;  // IF & IE, bits 0 - 4
+
+  // For IdleLoops, which needs to know memory hasn't changed
+  private long writes;
+  private long joypadReads;
 
   public MMU() {
     mem = new short[0xFFFF + 1];
@@ -34,6 +47,9 @@ class MMU implements DataSource {
     }
 
     mem[address] = value;
+    if (blockCache != null) blockCache.written(address);
+    if (address == 0xFF0F || address == 0xFFFF) interruptsWritten();
+    writes++;
 
     lastAccessed = address;
   }
@@ -41,6 +57,7 @@ class MMU implements DataSource {
   private short _read(int address) {
     // Handle joypad data
     if (address == 0xFF00) {
+      joypadReads++;
       short joypadState = Joypad.getState(mem[address]);
       // Util.log("MMU - from Joypad: " + Util.bin(joypadState));
       return joypadState;
@@ -68,6 +85,36 @@ class MMU implements DataSource {
     return _read(address);
   }
 
+  /*
+   * Read for instruction fetches, straight from the array when address is
+   * plain memory and through get() otherwise
+   */
+  public short fetch(int address) {
+    if (plain(address)) return mem[address];
+    return get(address);
+  }
+
+  // What get() would return, without the joypad read being counted
+  public short peek(int address) {
+    if (address >= 0xE000 && address < 0xFE00) address -= 0x2000;
+    if (address == 0xFF00) return Joypad.getState(mem[address]);
+    return mem[address & 0xFFFF];
+  }
+
+  // ROM bank mapped at address, 0 outside ROM
+  // There's no MBC yet so 0x4000 - 0x7FFF always holds bank 1
+  public int bank(int address) {
+    if (address < 0x4000) return 0;
+    if (address < 0x8000) return 1;
+    return 0;
+  }
+
+  // Memory whose reads have no side effects and aren't mirrored, everything
+  // but echo RAM and the IO registers, where the joypad is
+  public static boolean plain(int address) {
+    return (address >= 0 && address < 0xE000) || (address >= 0xFF80 && address <= 0xFFFF);
+  }
+
   /*
    * Set a value in memory
    */
@@ -94,8 +141,40 @@ class MMU implements DataSource {
   // Allows memory to be set without following normal MMU logic
   public void forceSet(int address, short value) {
     mem[address] = value;
+    if (blockCache != null) blockCache.written(address);
+    if (address == 0xFF0F || address == 0xFFFF) interruptsWritten();
+    writes++;
   }
 
+  public void setBlockCache(BlockCache blockCache) {
+    this.blockCache = blockCache;
+  }
+
+  public void setScheduler(Scheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  // Backing array for compiled code, which reads plain memory without get()
+  // Only safe for addresses without read side effects or mirroring
+  short[] memory() {
+    return mem;
+  }
+
+  // Value of IF, 0xFF0F
+  public int interruptFlags() { return interruptFlags; }
+  // Interrupts that are both requested and enabled, bit 0 is V-Blank
+  public int pendingInterrupts() { return pendingInterrupts; }
+
+  private void interruptsWritten() {
+    interruptFlags = mem[0xFF0F];
+    pendingInterrupts = interruptFlags & mem[0xFFFF] & 0x1F;
+  }
+
+  // Writes so far, through set() or forceSet()
+  public long writes() { return writes; }
+  // Reads of the joypad register, the only memory that changes without a write
+  public long joypadReads() { return joypadReads; }
+
 
   public void raiseInterrupt(int interruptIndex) {
     if (interruptIndex < 0 || interruptIndex > 4) {
@@ -109,6 +188,8 @@ class MMU implements DataSource {
   }
 
   private void handleIO(int address, short value) {
+    if (scheduler != null) scheduler.written(address);
+
     // Log Link Cable writes
     if (address == 0xFF02 && value == 0x81) {
       short data = get(0xFF01);
@@ -0,0 +1,3 @@
+interface Opcode {
+  public void execute();
+}
@@ -0,0 +1,81 @@
+/*
+ * Counts how often each opcode runs and the cycles it's charged
+ * CB prefixed opcodes are counted apart from the base ones, and interrupt
+ * dispatches and halted cycles get their own counts, so the cycles add up
+ * to the ClockCounter's
+ * report() sorts opcodes by their share of the cycles, which is the order
+ * their handlers are worth speeding up in
+ */
+class OpcodeProfile {
+  private static final int CB = 0x100;  // index of CB 00 in counts and cycles
+
+  private long counts[] = new long[0x200];
+  private long cycles[] = new long[0x200];
+  private long interrupts[] = new long[5];
+  private long interruptCycles;
+  private long haltedCycles;
+
+  // An instruction ran, cb is its second byte when opcode is 0xCB
+  public void executed(int opcode, int cb, int clocks) {
+    int index = opcode == 0xCB ? CB + cb : opcode;
+    counts[index]++;
+    cycles[index] += clocks;
+  }
+
+  public void interrupt(int index, int clocks) {
+    interrupts[index]++;
+    interruptCycles += clocks;
+  }
+
+  public void halted(int clocks) {
+    haltedCycles += clocks;
+  }
+
+  public long count(int opcode, boolean cb) { return counts[cb ? CB + opcode : opcode]; }
+  public long cycles(int opcode, boolean cb) { return cycles[cb ? CB + opcode : opcode]; }
+  public long interrupts(int index) { return interrupts[index]; }
+
+  public void clear() {
+    java.util.Arrays.fill(counts, 0);
+    java.util.Arrays.fill(cycles, 0);
+    java.util.Arrays.fill(interrupts, 0);
+    interruptCycles = 0;
+    haltedCycles = 0;
+  }
+
+  // Opcodes that ran, most cycles first, up to rows of them
+  public String report(int rows) {
+    long total = interruptCycles + haltedCycles;
+    Integer order[] = new Integer[counts.length];
+    int ran = 0;
+    for (int i = 0; i < counts.length; i++) {
+      total += cycles[i];
+      if (counts[i] > 0) order[ran++] = i;
+    }
+    order = java.util.Arrays.copyOf(order, ran);
+    java.util.Arrays.sort(order, (a, b) -> Long.compare(cycles[b], cycles[a]));
+
+    StringBuilder z = new StringBuilder();
+    z.append(String.format("%-6s %-16s %12s %12s %7s %6s%n", "op", "", "count", "cycles", "share", "avg"));
+    for (int i = 0; i < Math.min(rows, order.length); i++) {
+      int index = order[i];
+      boolean cb = index >= CB;
+      String op = cb ? "CB " + Util.hex((short)(index - CB)) : Util.hex((short)index);
+      z.append(String.format("%-6s %-16s %12d %12d %6.2f%% %6.2f%n", op, Opcodes.name(index & 0xFF, cb),
+        counts[index], cycles[index], share(cycles[index], total), (double)cycles[index] / counts[index]));
+    }
+
+    long dispatched = 0;
+    for (long count : interrupts) dispatched += count;
+    z.append(String.format("%-23s %12d %12d %6.2f%%%n", "interrupts", dispatched, interruptCycles, share(interruptCycles, total)));
+    for (int i = 0; i < interrupts.length; i++)
+      if (interrupts[i] > 0) z.append(String.format("  %-21s %12d%n", Util.getInterruptName(i), interrupts[i]));
+    z.append(String.format("%-23s %12s %12d %6.2f%%%n", "halted", "", haltedCycles, share(haltedCycles, total)));
+    z.append(String.format("%-23s %12s %12d%n", "total", "", total));
+    return z.toString();
+  }
+
+  private static double share(long part, long total) {
+    return total == 0 ? 0 : part * 100.0 / total;
+  }
+}
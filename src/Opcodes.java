@@ -0,0 +1,4914 @@
+// GENERATED by dev/OpcodeGen.java from dev/opcodes.txt, edit those and run
+// `make opcodes` instead of changing this file
+
+/*
+ * A handler for every opcode with its operands and cycles resolved ahead of
+ * time, plus the lengths, cycle counts and mnemonics tools need
+ */
+class Opcodes {
+  // Flag bits within register F
+  private static final int Z = CPUState.FLAG_Z;
+  private static final int N = CPUState.FLAG_N;
+  private static final int H = CPUState.FLAG_H;
+  private static final int C = CPUState.FLAG_C;
+
+  // Instruction length in bytes, CB prefixed instructions are all 2
+  public static final int LENGTH[] = {
+    1, 3, 1, 1, 1, 1, 2, 1, 3, 1, 1, 1, 1, 1, 2, 1,  // 00
+    2, 3, 1, 1, 1, 1, 2, 1, 2, 1, 1, 1, 1, 1, 2, 1,  // 10
+    2, 3, 1, 1, 1, 1, 2, 1, 2, 1, 1, 1, 1, 1, 2, 1,  // 20
+    2, 3, 1, 1, 1, 1, 2, 1, 2, 1, 1, 1, 1, 1, 2, 1,  // 30
+    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,  // 40
+    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,  // 50
+    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,  // 60
+    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,  // 70
+    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,  // 80
+    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,  // 90
+    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,  // A0
+    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,  // B0
+    1, 1, 3, 3, 3, 1, 2, 1, 1, 1, 3, 2, 3, 3, 2, 1,  // C0
+    1, 1, 3, 1, 3, 1, 2, 1, 1, 1, 3, 1, 3, 1, 2, 1,  // D0
+    2, 1, 1, 1, 1, 1, 2, 1, 2, 1, 3, 1, 1, 1, 2, 1,  // E0
+    2, 1, 1, 1, 1, 1, 2, 1, 2, 1, 3, 1, 1, 1, 2, 1,  // F0
+  };
+
+  // Cycles charged, the taken cycles for conditional branches
+  public static final int CYCLES[] = {
+    1, 3, 2, 2, 1, 1, 2, 1, 5, 2, 2, 2, 1, 1, 2, 1,  // 00
+    1, 3, 2, 2, 1, 1, 2, 1, 3, 2, 2, 2, 1, 1, 2, 1,  // 10
+    3, 3, 6, 2, 1, 1, 2, 1, 3, 2, 6, 2, 1, 1, 2, 1,  // 20
+    3, 3, 6, 2, 3, 3, 3, 0, 3, 2, 6, 2, 1, 1, 2, 1,  // 30
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 40
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 50
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 60
+    2, 2, 2, 2, 2, 2, 1, 2, 1, 1, 1, 1, 1, 1, 2, 1,  // 70
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 80
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 90
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // A0
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // B0
+    5, 3, 4, 4, 6, 4, 2, 4, 5, 4, 4, 1, 6, 6, 2, 4,  // C0
+    5, 3, 4, 0, 6, 4, 2, 4, 5, 5, 4, 0, 6, 0, 2, 4,  // D0
+    3, 3, 2, 0, 0, 4, 2, 4, 4, 1, 4, 0, 0, 0, 2, 4,  // E0
+    3, 3, 2, 1, 0, 4, 2, 4, 3, 2, 4, 1, 0, 0, 2, 4,  // F0
+  };
+
+  // Cycles charged when a conditional branch isn't taken
+  public static final int CYCLES_NOT_TAKEN[] = {
+    1, 3, 2, 2, 1, 1, 2, 1, 5, 2, 2, 2, 1, 1, 2, 1,  // 00
+    1, 3, 2, 2, 1, 1, 2, 1, 3, 2, 2, 2, 1, 1, 2, 1,  // 10
+    2, 3, 6, 2, 1, 1, 2, 1, 2, 2, 6, 2, 1, 1, 2, 1,  // 20
+    2, 3, 6, 2, 3, 3, 3, 0, 2, 2, 6, 2, 1, 1, 2, 1,  // 30
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 40
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 50
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 60
+    2, 2, 2, 2, 2, 2, 1, 2, 1, 1, 1, 1, 1, 1, 2, 1,  // 70
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 80
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // 90
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // A0
+    1, 1, 1, 1, 1, 1, 2, 1, 1, 1, 1, 1, 1, 1, 2, 1,  // B0
+    2, 3, 3, 4, 3, 4, 2, 4, 2, 4, 3, 1, 3, 6, 2, 4,  // C0
+    2, 3, 3, 0, 3, 4, 2, 4, 2, 5, 3, 0, 3, 0, 2, 4,  // D0
+    3, 3, 2, 0, 0, 4, 2, 4, 4, 1, 4, 0, 0, 0, 2, 4,  // E0
+    3, 3, 2, 1, 0, 4, 2, 4, 3, 2, 4, 1, 0, 0, 2, 4,  // F0
+  };
+
+  // Instructions that may not carry on at the next address: jumps, calls,
+  // returns, HALT/STOP and the unused opcodes
+  public static final boolean ENDS_BLOCK[] = {
+    false, false, false, false, false, false, false, false,  // 00
+    false, false, false, false, false, false, false, false,  // 08
+    true, false, false, false, false, false, false, false,  // 10
+    true, false, false, false, false, false, false, false,  // 18
+    true, false, false, false, false, false, false, false,  // 20
+    true, false, false, false, false, false, false, false,  // 28
+    true, false, false, false, false, false, false, false,  // 30
+    true, false, false, false, false, false, false, false,  // 38
+    false, false, false, false, false, false, false, false,  // 40
+    false, false, false, false, false, false, false, false,  // 48
+    false, false, false, false, false, false, false, false,  // 50
+    false, false, false, false, false, false, false, false,  // 58
+    false, false, false, false, false, false, false, false,  // 60
+    false, false, false, false, false, false, false, false,  // 68
+    false, false, false, false, false, false, true, false,  // 70
+    false, false, false, false, false, false, false, false,  // 78
+    false, false, false, false, false, false, false, false,  // 80
+    false, false, false, false, false, false, false, false,  // 88
+    false, false, false, false, false, false, false, false,  // 90
+    false, false, false, false, false, false, false, false,  // 98
+    false, false, false, false, false, false, false, false,  // A0
+    false, false, false, false, false, false, false, false,  // A8
+    false, false, false, false, false, false, false, false,  // B0
+    false, false, false, false, false, false, false, false,  // B8
+    true, false, true, true, true, false, false, true,  // C0
+    true, true, true, false, true, true, false, true,  // C8
+    true, false, true, true, true, false, false, true,  // D0
+    true, true, true, true, true, true, false, true,  // D8
+    false, false, false, true, true, false, false, true,  // E0
+    false, true, false, true, true, true, false, true,  // E8
+    false, false, false, false, true, false, false, true,  // F0
+    false, false, false, false, true, true, false, true,  // F8
+  };
+
+  // Cycles charged for CB prefixed opcodes, including the prefix
+  public static final int CB_CYCLES[] = {
+    3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // 00
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // 10
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // 20
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // 30
+    5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5,  // 40
+    5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5,  // 50
+    5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5,  // 60
+    5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5,  // 70
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // 80
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // 90
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // A0
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // B0
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // C0
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // D0
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // E0
+    3, 3, 3, 3, 3, 3, 5, 3, 3, 3, 3, 3, 3, 3, 5, 3,  // F0
+  };
+
+  private static final String MNEMONIC[] = {
+    "nop",
+    "ld BC, d16",
+    "ld [BC], A",
+    "inc BC",
+    "inc B",
+    "dec B",
+    "ld B, d8",
+    "rlca",
+    "ld [a16], SP",
+    "add HL, BC",
+    "ld A, [BC]",
+    "dec BC",
+    "inc C",
+    "dec C",
+    "ld C, d8",
+    "rrca",
+    "stop",
+    "ld DE, d16",
+    "ld [DE], A",
+    "inc DE",
+    "inc D",
+    "dec D",
+    "ld D, d8",
+    "rla",
+    "jr r8",
+    "add HL, DE",
+    "ld A, [DE]",
+    "dec DE",
+    "inc E",
+    "dec E",
+    "ld E, d8",
+    "rra",
+    "jr NZ, r8",
+    "ld HL, d16",
+    "ld [HL+], A",
+    "inc HL",
+    "inc H",
+    "dec H",
+    "ld H, d8",
+    "daa",
+    "jr Z, r8",
+    "add HL, HL",
+    "ld A, [HL+]",
+    "dec HL",
+    "inc L",
+    "dec L",
+    "ld L, d8",
+    "cpl",
+    "jr NC, r8",
+    "ld SP, d16",
+    "ld [HL-], A",
+    "inc SP",
+    "inc [HL]",
+    "dec [HL]",
+    "ld [HL], d8",
+    "scf",
+    "jr C, r8",
+    "add HL, SP",
+    "ld A, [HL-]",
+    "dec SP",
+    "inc A",
+    "dec A",
+    "ld A, d8",
+    "ccf",
+    "ld B, B",
+    "ld B, C",
+    "ld B, D",
+    "ld B, E",
+    "ld B, H",
+    "ld B, L",
+    "ld B, [HL]",
+    "ld B, A",
+    "ld C, B",
+    "ld C, C",
+    "ld C, D",
+    "ld C, E",
+    "ld C, H",
+    "ld C, L",
+    "ld C, [HL]",
+    "ld C, A",
+    "ld D, B",
+    "ld D, C",
+    "ld D, D",
+    "ld D, E",
+    "ld D, H",
+    "ld D, L",
+    "ld D, [HL]",
+    "ld D, A",
+    "ld E, B",
+    "ld E, C",
+    "ld E, D",
+    "ld E, E",
+    "ld E, H",
+    "ld E, L",
+    "ld E, [HL]",
+    "ld E, A",
+    "ld H, B",
+    "ld H, C",
+    "ld H, D",
+    "ld H, E",
+    "ld H, H",
+    "ld H, L",
+    "ld H, [HL]",
+    "ld H, A",
+    "ld L, B",
+    "ld L, C",
+    "ld L, D",
+    "ld L, E",
+    "ld L, H",
+    "ld L, L",
+    "ld L, [HL]",
+    "ld L, A",
+    "ld [HL], B",
+    "ld [HL], C",
+    "ld [HL], D",
+    "ld [HL], E",
+    "ld [HL], H",
+    "ld [HL], L",
+    "halt",
+    "ld [HL], A",
+    "ld A, B",
+    "ld A, C",
+    "ld A, D",
+    "ld A, E",
+    "ld A, H",
+    "ld A, L",
+    "ld A, [HL]",
+    "ld A, A",
+    "add A, B",
+    "add A, C",
+    "add A, D",
+    "add A, E",
+    "add A, H",
+    "add A, L",
+    "add A, [HL]",
+    "add A, A",
+    "adc A, B",
+    "adc A, C",
+    "adc A, D",
+    "adc A, E",
+    "adc A, H",
+    "adc A, L",
+    "adc A, [HL]",
+    "adc A, A",
+    "sub B",
+    "sub C",
+    "sub D",
+    "sub E",
+    "sub H",
+    "sub L",
+    "sub [HL]",
+    "sub A",
+    "sbc A, B",
+    "sbc A, C",
+    "sbc A, D",
+    "sbc A, E",
+    "sbc A, H",
+    "sbc A, L",
+    "sbc A, [HL]",
+    "sbc A, A",
+    "and B",
+    "and C",
+    "and D",
+    "and E",
+    "and H",
+    "and L",
+    "and [HL]",
+    "and A",
+    "xor B",
+    "xor C",
+    "xor D",
+    "xor E",
+    "xor H",
+    "xor L",
+    "xor [HL]",
+    "xor A",
+    "or B",
+    "or C",
+    "or D",
+    "or E",
+    "or H",
+    "or L",
+    "or [HL]",
+    "or A",
+    "cp B",
+    "cp C",
+    "cp D",
+    "cp E",
+    "cp H",
+    "cp L",
+    "cp [HL]",
+    "cp A",
+    "ret NZ",
+    "pop BC",
+    "jp NZ, a16",
+    "jp a16",
+    "call NZ, a16",
+    "push BC",
+    "add A, d8",
+    "rst 0x00",
+    "ret Z",
+    "ret",
+    "jp Z, a16",
+    "prefix CB",
+    "call Z, a16",
+    "call a16",
+    "adc A, d8",
+    "rst 0x08",
+    "ret NC",
+    "pop DE",
+    "jp NC, a16",
+    "N/A",
+    "call NC, a16",
+    "push DE",
+    "sub d8",
+    "rst 0x10",
+    "ret C",
+    "reti",
+    "jp C, a16",
+    "N/A",
+    "call C, a16",
+    "dump",
+    "sbc A, d8",
+    "rst 0x18",
+    "ldh [a8], A",
+    "pop HL",
+    "ld [C], A",
+    "N/A",
+    "N/A",
+    "push HL",
+    "and d8",
+    "rst 0x20",
+    "add SP, r8",
+    "jp HL",
+    "ld [a16], A",
+    "N/A",
+    "N/A",
+    "N/A",
+    "xor d8",
+    "rst 0x28",
+    "ldh A, [a8]",
+    "pop AF",
+    "ld A, [C]",
+    "di",
+    "N/A",
+    "push AF",
+    "or d8",
+    "rst 0x30",
+    "ld HL, SP+r8",
+    "ld SP, HL",
+    "ld A, [a16]",
+    "ei",
+    "N/A",
+    "N/A",
+    "cp d8",
+    "rst 0x38",
+  };
+
+  private static final String CB_MNEMONIC[] = {
+    "rlc B",
+    "rlc C",
+    "rlc D",
+    "rlc E",
+    "rlc H",
+    "rlc L",
+    "rlc [HL]",
+    "rlc A",
+    "rrc B",
+    "rrc C",
+    "rrc D",
+    "rrc E",
+    "rrc H",
+    "rrc L",
+    "rrc [HL]",
+    "rrc A",
+    "rl B",
+    "rl C",
+    "rl D",
+    "rl E",
+    "rl H",
+    "rl L",
+    "rl [HL]",
+    "rl A",
+    "rr B",
+    "rr C",
+    "rr D",
+    "rr E",
+    "rr H",
+    "rr L",
+    "rr [HL]",
+    "rr A",
+    "sla B",
+    "sla C",
+    "sla D",
+    "sla E",
+    "sla H",
+    "sla L",
+    "sla [HL]",
+    "sla A",
+    "sra B",
+    "sra C",
+    "sra D",
+    "sra E",
+    "sra H",
+    "sra L",
+    "sra [HL]",
+    "sra A",
+    "swap B",
+    "swap C",
+    "swap D",
+    "swap E",
+    "swap H",
+    "swap L",
+    "swap [HL]",
+    "swap A",
+    "srl B",
+    "srl C",
+    "srl D",
+    "srl E",
+    "srl H",
+    "srl L",
+    "srl [HL]",
+    "srl A",
+    "bit 0, B",
+    "bit 0, C",
+    "bit 0, D",
+    "bit 0, E",
+    "bit 0, H",
+    "bit 0, L",
+    "bit 0, [HL]",
+    "bit 0, A",
+    "bit 1, B",
+    "bit 1, C",
+    "bit 1, D",
+    "bit 1, E",
+    "bit 1, H",
+    "bit 1, L",
+    "bit 1, [HL]",
+    "bit 1, A",
+    "bit 2, B",
+    "bit 2, C",
+    "bit 2, D",
+    "bit 2, E",
+    "bit 2, H",
+    "bit 2, L",
+    "bit 2, [HL]",
+    "bit 2, A",
+    "bit 3, B",
+    "bit 3, C",
+    "bit 3, D",
+    "bit 3, E",
+    "bit 3, H",
+    "bit 3, L",
+    "bit 3, [HL]",
+    "bit 3, A",
+    "bit 4, B",
+    "bit 4, C",
+    "bit 4, D",
+    "bit 4, E",
+    "bit 4, H",
+    "bit 4, L",
+    "bit 4, [HL]",
+    "bit 4, A",
+    "bit 5, B",
+    "bit 5, C",
+    "bit 5, D",
+    "bit 5, E",
+    "bit 5, H",
+    "bit 5, L",
+    "bit 5, [HL]",
+    "bit 5, A",
+    "bit 6, B",
+    "bit 6, C",
+    "bit 6, D",
+    "bit 6, E",
+    "bit 6, H",
+    "bit 6, L",
+    "bit 6, [HL]",
+    "bit 6, A",
+    "bit 7, B",
+    "bit 7, C",
+    "bit 7, D",
+    "bit 7, E",
+    "bit 7, H",
+    "bit 7, L",
+    "bit 7, [HL]",
+    "bit 7, A",
+    "res 0, B",
+    "res 0, C",
+    "res 0, D",
+    "res 0, E",
+    "res 0, H",
+    "res 0, L",
+    "res 0, [HL]",
+    "res 0, A",
+    "res 1, B",
+    "res 1, C",
+    "res 1, D",
+    "res 1, E",
+    "res 1, H",
+    "res 1, L",
+    "res 1, [HL]",
+    "res 1, A",
+    "res 2, B",
+    "res 2, C",
+    "res 2, D",
+    "res 2, E",
+    "res 2, H",
+    "res 2, L",
+    "res 2, [HL]",
+    "res 2, A",
+    "res 3, B",
+    "res 3, C",
+    "res 3, D",
+    "res 3, E",
+    "res 3, H",
+    "res 3, L",
+    "res 3, [HL]",
+    "res 3, A",
+    "res 4, B",
+    "res 4, C",
+    "res 4, D",
+    "res 4, E",
+    "res 4, H",
+    "res 4, L",
+    "res 4, [HL]",
+    "res 4, A",
+    "res 5, B",
+    "res 5, C",
+    "res 5, D",
+    "res 5, E",
+    "res 5, H",
+    "res 5, L",
+    "res 5, [HL]",
+    "res 5, A",
+    "res 6, B",
+    "res 6, C",
+    "res 6, D",
+    "res 6, E",
+    "res 6, H",
+    "res 6, L",
+    "res 6, [HL]",
+    "res 6, A",
+    "res 7, B",
+    "res 7, C",
+    "res 7, D",
+    "res 7, E",
+    "res 7, H",
+    "res 7, L",
+    "res 7, [HL]",
+    "res 7, A",
+    "set 0, B",
+    "set 0, C",
+    "set 0, D",
+    "set 0, E",
+    "set 0, H",
+    "set 0, L",
+    "set 0, [HL]",
+    "set 0, A",
+    "set 1, B",
+    "set 1, C",
+    "set 1, D",
+    "set 1, E",
+    "set 1, H",
+    "set 1, L",
+    "set 1, [HL]",
+    "set 1, A",
+    "set 2, B",
+    "set 2, C",
+    "set 2, D",
+    "set 2, E",
+    "set 2, H",
+    "set 2, L",
+    "set 2, [HL]",
+    "set 2, A",
+    "set 3, B",
+    "set 3, C",
+    "set 3, D",
+    "set 3, E",
+    "set 3, H",
+    "set 3, L",
+    "set 3, [HL]",
+    "set 3, A",
+    "set 4, B",
+    "set 4, C",
+    "set 4, D",
+    "set 4, E",
+    "set 4, H",
+    "set 4, L",
+    "set 4, [HL]",
+    "set 4, A",
+    "set 5, B",
+    "set 5, C",
+    "set 5, D",
+    "set 5, E",
+    "set 5, H",
+    "set 5, L",
+    "set 5, [HL]",
+    "set 5, A",
+    "set 6, B",
+    "set 6, C",
+    "set 6, D",
+    "set 6, E",
+    "set 6, H",
+    "set 6, L",
+    "set 6, [HL]",
+    "set 6, A",
+    "set 7, B",
+    "set 7, C",
+    "set 7, D",
+    "set 7, E",
+    "set 7, H",
+    "set 7, L",
+    "set 7, [HL]",
+    "set 7, A",
+  };
+
+  private CPU cpu;
+  private CPUState state;
+  private ClockCounter clockCounter;
+  private Instructions ins;
+  private CBInstructions cb;
+  private Opcode cbHandlers[];
+
+  public Opcodes(CPU cpu, CPUState state, ClockCounter clockCounter, Instructions ins, CBInstructions cb) {
+    this.cpu = cpu;
+    this.state = state;
+    this.clockCounter = clockCounter;
+    this.ins = ins;
+    this.cb = cb;
+  }
+
+  // Runs opcode, PC is already past it
+  public void execute(int opcode) {
+    switch (opcode) {
+      case 0x00: op00(); break;  // NOP
+      case 0x01: op01(); break;  // LD BC,d16
+      case 0x02: op02(); break;  // LD [BC],A
+      case 0x03: op03(); break;  // INC BC
+      case 0x04: op04(); break;  // INC B
+      case 0x05: op05(); break;  // DEC B
+      case 0x06: op06(); break;  // LD B,d8
+      case 0x07: op07(); break;  // RLCA
+      case 0x08: op08(); break;  // LD [a16],SP
+      case 0x09: op09(); break;  // ADD HL,BC
+      case 0x0A: op0A(); break;  // LD A,[BC]
+      case 0x0B: op0B(); break;  // DEC BC
+      case 0x0C: op0C(); break;  // INC C
+      case 0x0D: op0D(); break;  // DEC C
+      case 0x0E: op0E(); break;  // LD C,d8
+      case 0x0F: op0F(); break;  // RRCA
+      case 0x10: op10(); break;  // STOP
+      case 0x11: op11(); break;  // LD DE,d16
+      case 0x12: op12(); break;  // LD [DE],A
+      case 0x13: op13(); break;  // INC DE
+      case 0x14: op14(); break;  // INC D
+      case 0x15: op15(); break;  // DEC D
+      case 0x16: op16(); break;  // LD D,d8
+      case 0x17: op17(); break;  // RLA
+      case 0x18: op18(); break;  // JR r8
+      case 0x19: op19(); break;  // ADD HL,DE
+      case 0x1A: op1A(); break;  // LD A,[DE]
+      case 0x1B: op1B(); break;  // DEC DE
+      case 0x1C: op1C(); break;  // INC E
+      case 0x1D: op1D(); break;  // DEC E
+      case 0x1E: op1E(); break;  // LD E,d8
+      case 0x1F: op1F(); break;  // RRA
+      case 0x20: op20(); break;  // JR NZ,r8
+      case 0x21: op21(); break;  // LD HL,d16
+      case 0x22: op22(); break;  // LD [HL+],A
+      case 0x23: op23(); break;  // INC HL
+      case 0x24: op24(); break;  // INC H
+      case 0x25: op25(); break;  // DEC H
+      case 0x26: op26(); break;  // LD H,d8
+      case 0x27: op27(); break;  // DAA
+      case 0x28: op28(); break;  // JR Z,r8
+      case 0x29: op29(); break;  // ADD HL,HL
+      case 0x2A: op2A(); break;  // LD A,[HL+]
+      case 0x2B: op2B(); break;  // DEC HL
+      case 0x2C: op2C(); break;  // INC L
+      case 0x2D: op2D(); break;  // DEC L
+      case 0x2E: op2E(); break;  // LD L,d8
+      case 0x2F: op2F(); break;  // CPL
+      case 0x30: op30(); break;  // JR NC,r8
+      case 0x31: op31(); break;  // LD SP,d16
+      case 0x32: op32(); break;  // LD [HL-],A
+      case 0x33: op33(); break;  // INC SP
+      case 0x34: op34(); break;  // INC [HL]
+      case 0x35: op35(); break;  // DEC [HL]
+      case 0x36: op36(); break;  // LD [HL],d8
+      case 0x37: op37(); break;  // SCF
+      case 0x38: op38(); break;  // JR C,r8
+      case 0x39: op39(); break;  // ADD HL,SP
+      case 0x3A: op3A(); break;  // LD A,[HL-]
+      case 0x3B: op3B(); break;  // DEC SP
+      case 0x3C: op3C(); break;  // INC A
+      case 0x3D: op3D(); break;  // DEC A
+      case 0x3E: op3E(); break;  // LD A,d8
+      case 0x3F: op3F(); break;  // CCF
+      case 0x40: op40(); break;  // LD B,B
+      case 0x41: op41(); break;  // LD B,C
+      case 0x42: op42(); break;  // LD B,D
+      case 0x43: op43(); break;  // LD B,E
+      case 0x44: op44(); break;  // LD B,H
+      case 0x45: op45(); break;  // LD B,L
+      case 0x46: op46(); break;  // LD B,[HL]
+      case 0x47: op47(); break;  // LD B,A
+      case 0x48: op48(); break;  // LD C,B
+      case 0x49: op49(); break;  // LD C,C
+      case 0x4A: op4A(); break;  // LD C,D
+      case 0x4B: op4B(); break;  // LD C,E
+      case 0x4C: op4C(); break;  // LD C,H
+      case 0x4D: op4D(); break;  // LD C,L
+      case 0x4E: op4E(); break;  // LD C,[HL]
+      case 0x4F: op4F(); break;  // LD C,A
+      case 0x50: op50(); break;  // LD D,B
+      case 0x51: op51(); break;  // LD D,C
+      case 0x52: op52(); break;  // LD D,D
+      case 0x53: op53(); break;  // LD D,E
+      case 0x54: op54(); break;  // LD D,H
+      case 0x55: op55(); break;  // LD D,L
+      case 0x56: op56(); break;  // LD D,[HL]
+      case 0x57: op57(); break;  // LD D,A
+      case 0x58: op58(); break;  // LD E,B
+      case 0x59: op59(); break;  // LD E,C
+      case 0x5A: op5A(); break;  // LD E,D
+      case 0x5B: op5B(); break;  // LD E,E
+      case 0x5C: op5C(); break;  // LD E,H
+      case 0x5D: op5D(); break;  // LD E,L
+      case 0x5E: op5E(); break;  // LD E,[HL]
+      case 0x5F: op5F(); break;  // LD E,A
+      case 0x60: op60(); break;  // LD H,B
+      case 0x61: op61(); break;  // LD H,C
+      case 0x62: op62(); break;  // LD H,D
+      case 0x63: op63(); break;  // LD H,E
+      case 0x64: op64(); break;  // LD H,H
+      case 0x65: op65(); break;  // LD H,L
+      case 0x66: op66(); break;  // LD H,[HL]
+      case 0x67: op67(); break;  // LD H,A
+      case 0x68: op68(); break;  // LD L,B
+      case 0x69: op69(); break;  // LD L,C
+      case 0x6A: op6A(); break;  // LD L,D
+      case 0x6B: op6B(); break;  // LD L,E
+      case 0x6C: op6C(); break;  // LD L,H
+      case 0x6D: op6D(); break;  // LD L,L
+      case 0x6E: op6E(); break;  // LD L,[HL]
+      case 0x6F: op6F(); break;  // LD L,A
+      case 0x70: op70(); break;  // LD [HL],B
+      case 0x71: op71(); break;  // LD [HL],C
+      case 0x72: op72(); break;  // LD [HL],D
+      case 0x73: op73(); break;  // LD [HL],E
+      case 0x74: op74(); break;  // LD [HL],H
+      case 0x75: op75(); break;  // LD [HL],L
+      case 0x76: op76(); break;  // HALT
+      case 0x77: op77(); break;  // LD [HL],A
+      case 0x78: op78(); break;  // LD A,B
+      case 0x79: op79(); break;  // LD A,C
+      case 0x7A: op7A(); break;  // LD A,D
+      case 0x7B: op7B(); break;  // LD A,E
+      case 0x7C: op7C(); break;  // LD A,H
+      case 0x7D: op7D(); break;  // LD A,L
+      case 0x7E: op7E(); break;  // LD A,[HL]
+      case 0x7F: op7F(); break;  // LD A,A
+      case 0x80: op80(); break;  // ADD A,B
+      case 0x81: op81(); break;  // ADD A,C
+      case 0x82: op82(); break;  // ADD A,D
+      case 0x83: op83(); break;  // ADD A,E
+      case 0x84: op84(); break;  // ADD A,H
+      case 0x85: op85(); break;  // ADD A,L
+      case 0x86: op86(); break;  // ADD A,[HL]
+      case 0x87: op87(); break;  // ADD A,A
+      case 0x88: op88(); break;  // ADC A,B
+      case 0x89: op89(); break;  // ADC A,C
+      case 0x8A: op8A(); break;  // ADC A,D
+      case 0x8B: op8B(); break;  // ADC A,E
+      case 0x8C: op8C(); break;  // ADC A,H
+      case 0x8D: op8D(); break;  // ADC A,L
+      case 0x8E: op8E(); break;  // ADC A,[HL]
+      case 0x8F: op8F(); break;  // ADC A,A
+      case 0x90: op90(); break;  // SUB B
+      case 0x91: op91(); break;  // SUB C
+      case 0x92: op92(); break;  // SUB D
+      case 0x93: op93(); break;  // SUB E
+      case 0x94: op94(); break;  // SUB H
+      case 0x95: op95(); break;  // SUB L
+      case 0x96: op96(); break;  // SUB [HL]
+      case 0x97: op97(); break;  // SUB A
+      case 0x98: op98(); break;  // SBC A,B
+      case 0x99: op99(); break;  // SBC A,C
+      case 0x9A: op9A(); break;  // SBC A,D
+      case 0x9B: op9B(); break;  // SBC A,E
+      case 0x9C: op9C(); break;  // SBC A,H
+      case 0x9D: op9D(); break;  // SBC A,L
+      case 0x9E: op9E(); break;  // SBC A,[HL]
+      case 0x9F: op9F(); break;  // SBC A,A
+      case 0xA0: opA0(); break;  // AND B
+      case 0xA1: opA1(); break;  // AND C
+      case 0xA2: opA2(); break;  // AND D
+      case 0xA3: opA3(); break;  // AND E
+      case 0xA4: opA4(); break;  // AND H
+      case 0xA5: opA5(); break;  // AND L
+      case 0xA6: opA6(); break;  // AND [HL]
+      case 0xA7: opA7(); break;  // AND A
+      case 0xA8: opA8(); break;  // XOR B
+      case 0xA9: opA9(); break;  // XOR C
+      case 0xAA: opAA(); break;  // XOR D
+      case 0xAB: opAB(); break;  // XOR E
+      case 0xAC: opAC(); break;  // XOR H
+      case 0xAD: opAD(); break;  // XOR L
+      case 0xAE: opAE(); break;  // XOR [HL]
+      case 0xAF: opAF(); break;  // XOR A
+      case 0xB0: opB0(); break;  // OR B
+      case 0xB1: opB1(); break;  // OR C
+      case 0xB2: opB2(); break;  // OR D
+      case 0xB3: opB3(); break;  // OR E
+      case 0xB4: opB4(); break;  // OR H
+      case 0xB5: opB5(); break;  // OR L
+      case 0xB6: opB6(); break;  // OR [HL]
+      case 0xB7: opB7(); break;  // OR A
+      case 0xB8: opB8(); break;  // CP B
+      case 0xB9: opB9(); break;  // CP C
+      case 0xBA: opBA(); break;  // CP D
+      case 0xBB: opBB(); break;  // CP E
+      case 0xBC: opBC(); break;  // CP H
+      case 0xBD: opBD(); break;  // CP L
+      case 0xBE: opBE(); break;  // CP [HL]
+      case 0xBF: opBF(); break;  // CP A
+      case 0xC0: opC0(); break;  // RET NZ
+      case 0xC1: opC1(); break;  // POP BC
+      case 0xC2: opC2(); break;  // JP NZ,a16
+      case 0xC3: opC3(); break;  // JP a16
+      case 0xC4: opC4(); break;  // CALL NZ,a16
+      case 0xC5: opC5(); break;  // PUSH BC
+      case 0xC6: opC6(); break;  // ADD A,d8
+      case 0xC7: opC7(); break;  // RST 0x00
+      case 0xC8: opC8(); break;  // RET Z
+      case 0xC9: opC9(); break;  // RET
+      case 0xCA: opCA(); break;  // JP Z,a16
+      case 0xCB: opCB(); break;  // PREFIX CB
+      case 0xCC: opCC(); break;  // CALL Z,a16
+      case 0xCD: opCD(); break;  // CALL a16
+      case 0xCE: opCE(); break;  // ADC A,d8
+      case 0xCF: opCF(); break;  // RST 0x08
+      case 0xD0: opD0(); break;  // RET NC
+      case 0xD1: opD1(); break;  // POP DE
+      case 0xD2: opD2(); break;  // JP NC,a16
+      case 0xD3: opD3(); break;  // -
+      case 0xD4: opD4(); break;  // CALL NC,a16
+      case 0xD5: opD5(); break;  // PUSH DE
+      case 0xD6: opD6(); break;  // SUB d8
+      case 0xD7: opD7(); break;  // RST 0x10
+      case 0xD8: opD8(); break;  // RET C
+      case 0xD9: opD9(); break;  // RETI
+      case 0xDA: opDA(); break;  // JP C,a16
+      case 0xDB: opDB(); break;  // -
+      case 0xDC: opDC(); break;  // CALL C,a16
+      case 0xDD: opDD(); break;  // DUMP
+      case 0xDE: opDE(); break;  // SBC A,d8
+      case 0xDF: opDF(); break;  // RST 0x18
+      case 0xE0: opE0(); break;  // LDH [a8],A
+      case 0xE1: opE1(); break;  // POP HL
+      case 0xE2: opE2(); break;  // LD [C],A
+      case 0xE3: opE3(); break;  // -
+      case 0xE4: opE4(); break;  // -
+      case 0xE5: opE5(); break;  // PUSH HL
+      case 0xE6: opE6(); break;  // AND d8
+      case 0xE7: opE7(); break;  // RST 0x20
+      case 0xE8: opE8(); break;  // ADD SP,r8
+      case 0xE9: opE9(); break;  // JP HL
+      case 0xEA: opEA(); break;  // LD [a16],A
+      case 0xEB: opEB(); break;  // -
+      case 0xEC: opEC(); break;  // -
+      case 0xED: opED(); break;  // -
+      case 0xEE: opEE(); break;  // XOR d8
+      case 0xEF: opEF(); break;  // RST 0x28
+      case 0xF0: opF0(); break;  // LDH A,[a8]
+      case 0xF1: opF1(); break;  // POP AF
+      case 0xF2: opF2(); break;  // LD A,[C]
+      case 0xF3: opF3(); break;  // DI
+      case 0xF4: opF4(); break;  // -
+      case 0xF5: opF5(); break;  // PUSH AF
+      case 0xF6: opF6(); break;  // OR d8
+      case 0xF7: opF7(); break;  // RST 0x30
+      case 0xF8: opF8(); break;  // LD HL,SP+r8
+      case 0xF9: opF9(); break;  // LD SP,HL
+      case 0xFA: opFA(); break;  // LD A,[a16]
+      case 0xFB: opFB(); break;  // EI
+      case 0xFC: opFC(); break;  // -
+      case 0xFD: opFD(); break;  // -
+      case 0xFE: opFE(); break;  // CP d8
+      case 0xFF: opFF(); break;  // RST 0x38
+    }
+  }
+
+  // Runs the opcode after a CB prefix, PC is already past it
+  public void executeCB(int opcode) {
+    switch (opcode) {
+      case 0x00: cb00(); break;  // RLC B
+      case 0x01: cb01(); break;  // RLC C
+      case 0x02: cb02(); break;  // RLC D
+      case 0x03: cb03(); break;  // RLC E
+      case 0x04: cb04(); break;  // RLC H
+      case 0x05: cb05(); break;  // RLC L
+      case 0x06: cb06(); break;  // RLC [HL]
+      case 0x07: cb07(); break;  // RLC A
+      case 0x08: cb08(); break;  // RRC B
+      case 0x09: cb09(); break;  // RRC C
+      case 0x0A: cb0A(); break;  // RRC D
+      case 0x0B: cb0B(); break;  // RRC E
+      case 0x0C: cb0C(); break;  // RRC H
+      case 0x0D: cb0D(); break;  // RRC L
+      case 0x0E: cb0E(); break;  // RRC [HL]
+      case 0x0F: cb0F(); break;  // RRC A
+      case 0x10: cb10(); break;  // RL B
+      case 0x11: cb11(); break;  // RL C
+      case 0x12: cb12(); break;  // RL D
+      case 0x13: cb13(); break;  // RL E
+      case 0x14: cb14(); break;  // RL H
+      case 0x15: cb15(); break;  // RL L
+      case 0x16: cb16(); break;  // RL [HL]
+      case 0x17: cb17(); break;  // RL A
+      case 0x18: cb18(); break;  // RR B
+      case 0x19: cb19(); break;  // RR C
+      case 0x1A: cb1A(); break;  // RR D
+      case 0x1B: cb1B(); break;  // RR E
+      case 0x1C: cb1C(); break;  // RR H
+      case 0x1D: cb1D(); break;  // RR L
+      case 0x1E: cb1E(); break;  // RR [HL]
+      case 0x1F: cb1F(); break;  // RR A
+      case 0x20: cb20(); break;  // SLA B
+      case 0x21: cb21(); break;  // SLA C
+      case 0x22: cb22(); break;  // SLA D
+      case 0x23: cb23(); break;  // SLA E
+      case 0x24: cb24(); break;  // SLA H
+      case 0x25: cb25(); break;  // SLA L
+      case 0x26: cb26(); break;  // SLA [HL]
+      case 0x27: cb27(); break;  // SLA A
+      case 0x28: cb28(); break;  // SRA B
+      case 0x29: cb29(); break;  // SRA C
+      case 0x2A: cb2A(); break;  // SRA D
+      case 0x2B: cb2B(); break;  // SRA E
+      case 0x2C: cb2C(); break;  // SRA H
+      case 0x2D: cb2D(); break;  // SRA L
+      case 0x2E: cb2E(); break;  // SRA [HL]
+      case 0x2F: cb2F(); break;  // SRA A
+      case 0x30: cb30(); break;  // SWAP B
+      case 0x31: cb31(); break;  // SWAP C
+      case 0x32: cb32(); break;  // SWAP D
+      case 0x33: cb33(); break;  // SWAP E
+      case 0x34: cb34(); break;  // SWAP H
+      case 0x35: cb35(); break;  // SWAP L
+      case 0x36: cb36(); break;  // SWAP [HL]
+      case 0x37: cb37(); break;  // SWAP A
+      case 0x38: cb38(); break;  // SRL B
+      case 0x39: cb39(); break;  // SRL C
+      case 0x3A: cb3A(); break;  // SRL D
+      case 0x3B: cb3B(); break;  // SRL E
+      case 0x3C: cb3C(); break;  // SRL H
+      case 0x3D: cb3D(); break;  // SRL L
+      case 0x3E: cb3E(); break;  // SRL [HL]
+      case 0x3F: cb3F(); break;  // SRL A
+      case 0x40: cb40(); break;  // BIT 0,B
+      case 0x41: cb41(); break;  // BIT 0,C
+      case 0x42: cb42(); break;  // BIT 0,D
+      case 0x43: cb43(); break;  // BIT 0,E
+      case 0x44: cb44(); break;  // BIT 0,H
+      case 0x45: cb45(); break;  // BIT 0,L
+      case 0x46: cb46(); break;  // BIT 0,[HL]
+      case 0x47: cb47(); break;  // BIT 0,A
+      case 0x48: cb48(); break;  // BIT 1,B
+      case 0x49: cb49(); break;  // BIT 1,C
+      case 0x4A: cb4A(); break;  // BIT 1,D
+      case 0x4B: cb4B(); break;  // BIT 1,E
+      case 0x4C: cb4C(); break;  // BIT 1,H
+      case 0x4D: cb4D(); break;  // BIT 1,L
+      case 0x4E: cb4E(); break;  // BIT 1,[HL]
+      case 0x4F: cb4F(); break;  // BIT 1,A
+      case 0x50: cb50(); break;  // BIT 2,B
+      case 0x51: cb51(); break;  // BIT 2,C
+      case 0x52: cb52(); break;  // BIT 2,D
+      case 0x53: cb53(); break;  // BIT 2,E
+      case 0x54: cb54(); break;  // BIT 2,H
+      case 0x55: cb55(); break;  // BIT 2,L
+      case 0x56: cb56(); break;  // BIT 2,[HL]
+      case 0x57: cb57(); break;  // BIT 2,A
+      case 0x58: cb58(); break;  // BIT 3,B
+      case 0x59: cb59(); break;  // BIT 3,C
+      case 0x5A: cb5A(); break;  // BIT 3,D
+      case 0x5B: cb5B(); break;  // BIT 3,E
+      case 0x5C: cb5C(); break;  // BIT 3,H
+      case 0x5D: cb5D(); break;  // BIT 3,L
+      case 0x5E: cb5E(); break;  // BIT 3,[HL]
+      case 0x5F: cb5F(); break;  // BIT 3,A
+      case 0x60: cb60(); break;  // BIT 4,B
+      case 0x61: cb61(); break;  // BIT 4,C
+      case 0x62: cb62(); break;  // BIT 4,D
+      case 0x63: cb63(); break;  // BIT 4,E
+      case 0x64: cb64(); break;  // BIT 4,H
+      case 0x65: cb65(); break;  // BIT 4,L
+      case 0x66: cb66(); break;  // BIT 4,[HL]
+      case 0x67: cb67(); break;  // BIT 4,A
+      case 0x68: cb68(); break;  // BIT 5,B
+      case 0x69: cb69(); break;  // BIT 5,C
+      case 0x6A: cb6A(); break;  // BIT 5,D
+      case 0x6B: cb6B(); break;  // BIT 5,E
+      case 0x6C: cb6C(); break;  // BIT 5,H
+      case 0x6D: cb6D(); break;  // BIT 5,L
+      case 0x6E: cb6E(); break;  // BIT 5,[HL]
+      case 0x6F: cb6F(); break;  // BIT 5,A
+      case 0x70: cb70(); break;  // BIT 6,B
+      case 0x71: cb71(); break;  // BIT 6,C
+      case 0x72: cb72(); break;  // BIT 6,D
+      case 0x73: cb73(); break;  // BIT 6,E
+      case 0x74: cb74(); break;  // BIT 6,H
+      case 0x75: cb75(); break;  // BIT 6,L
+      case 0x76: cb76(); break;  // BIT 6,[HL]
+      case 0x77: cb77(); break;  // BIT 6,A
+      case 0x78: cb78(); break;  // BIT 7,B
+      case 0x79: cb79(); break;  // BIT 7,C
+      case 0x7A: cb7A(); break;  // BIT 7,D
+      case 0x7B: cb7B(); break;  // BIT 7,E
+      case 0x7C: cb7C(); break;  // BIT 7,H
+      case 0x7D: cb7D(); break;  // BIT 7,L
+      case 0x7E: cb7E(); break;  // BIT 7,[HL]
+      case 0x7F: cb7F(); break;  // BIT 7,A
+      case 0x80: cb80(); break;  // RES 0,B
+      case 0x81: cb81(); break;  // RES 0,C
+      case 0x82: cb82(); break;  // RES 0,D
+      case 0x83: cb83(); break;  // RES 0,E
+      case 0x84: cb84(); break;  // RES 0,H
+      case 0x85: cb85(); break;  // RES 0,L
+      case 0x86: cb86(); break;  // RES 0,[HL]
+      case 0x87: cb87(); break;  // RES 0,A
+      case 0x88: cb88(); break;  // RES 1,B
+      case 0x89: cb89(); break;  // RES 1,C
+      case 0x8A: cb8A(); break;  // RES 1,D
+      case 0x8B: cb8B(); break;  // RES 1,E
+      case 0x8C: cb8C(); break;  // RES 1,H
+      case 0x8D: cb8D(); break;  // RES 1,L
+      case 0x8E: cb8E(); break;  // RES 1,[HL]
+      case 0x8F: cb8F(); break;  // RES 1,A
+      case 0x90: cb90(); break;  // RES 2,B
+      case 0x91: cb91(); break;  // RES 2,C
+      case 0x92: cb92(); break;  // RES 2,D
+      case 0x93: cb93(); break;  // RES 2,E
+      case 0x94: cb94(); break;  // RES 2,H
+      case 0x95: cb95(); break;  // RES 2,L
+      case 0x96: cb96(); break;  // RES 2,[HL]
+      case 0x97: cb97(); break;  // RES 2,A
+      case 0x98: cb98(); break;  // RES 3,B
+      case 0x99: cb99(); break;  // RES 3,C
+      case 0x9A: cb9A(); break;  // RES 3,D
+      case 0x9B: cb9B(); break;  // RES 3,E
+      case 0x9C: cb9C(); break;  // RES 3,H
+      case 0x9D: cb9D(); break;  // RES 3,L
+      case 0x9E: cb9E(); break;  // RES 3,[HL]
+      case 0x9F: cb9F(); break;  // RES 3,A
+      case 0xA0: cbA0(); break;  // RES 4,B
+      case 0xA1: cbA1(); break;  // RES 4,C
+      case 0xA2: cbA2(); break;  // RES 4,D
+      case 0xA3: cbA3(); break;  // RES 4,E
+      case 0xA4: cbA4(); break;  // RES 4,H
+      case 0xA5: cbA5(); break;  // RES 4,L
+      case 0xA6: cbA6(); break;  // RES 4,[HL]
+      case 0xA7: cbA7(); break;  // RES 4,A
+      case 0xA8: cbA8(); break;  // RES 5,B
+      case 0xA9: cbA9(); break;  // RES 5,C
+      case 0xAA: cbAA(); break;  // RES 5,D
+      case 0xAB: cbAB(); break;  // RES 5,E
+      case 0xAC: cbAC(); break;  // RES 5,H
+      case 0xAD: cbAD(); break;  // RES 5,L
+      case 0xAE: cbAE(); break;  // RES 5,[HL]
+      case 0xAF: cbAF(); break;  // RES 5,A
+      case 0xB0: cbB0(); break;  // RES 6,B
+      case 0xB1: cbB1(); break;  // RES 6,C
+      case 0xB2: cbB2(); break;  // RES 6,D
+      case 0xB3: cbB3(); break;  // RES 6,E
+      case 0xB4: cbB4(); break;  // RES 6,H
+      case 0xB5: cbB5(); break;  // RES 6,L
+      case 0xB6: cbB6(); break;  // RES 6,[HL]
+      case 0xB7: cbB7(); break;  // RES 6,A
+      case 0xB8: cbB8(); break;  // RES 7,B
+      case 0xB9: cbB9(); break;  // RES 7,C
+      case 0xBA: cbBA(); break;  // RES 7,D
+      case 0xBB: cbBB(); break;  // RES 7,E
+      case 0xBC: cbBC(); break;  // RES 7,H
+      case 0xBD: cbBD(); break;  // RES 7,L
+      case 0xBE: cbBE(); break;  // RES 7,[HL]
+      case 0xBF: cbBF(); break;  // RES 7,A
+      case 0xC0: cbC0(); break;  // SET 0,B
+      case 0xC1: cbC1(); break;  // SET 0,C
+      case 0xC2: cbC2(); break;  // SET 0,D
+      case 0xC3: cbC3(); break;  // SET 0,E
+      case 0xC4: cbC4(); break;  // SET 0,H
+      case 0xC5: cbC5(); break;  // SET 0,L
+      case 0xC6: cbC6(); break;  // SET 0,[HL]
+      case 0xC7: cbC7(); break;  // SET 0,A
+      case 0xC8: cbC8(); break;  // SET 1,B
+      case 0xC9: cbC9(); break;  // SET 1,C
+      case 0xCA: cbCA(); break;  // SET 1,D
+      case 0xCB: cbCB(); break;  // SET 1,E
+      case 0xCC: cbCC(); break;  // SET 1,H
+      case 0xCD: cbCD(); break;  // SET 1,L
+      case 0xCE: cbCE(); break;  // SET 1,[HL]
+      case 0xCF: cbCF(); break;  // SET 1,A
+      case 0xD0: cbD0(); break;  // SET 2,B
+      case 0xD1: cbD1(); break;  // SET 2,C
+      case 0xD2: cbD2(); break;  // SET 2,D
+      case 0xD3: cbD3(); break;  // SET 2,E
+      case 0xD4: cbD4(); break;  // SET 2,H
+      case 0xD5: cbD5(); break;  // SET 2,L
+      case 0xD6: cbD6(); break;  // SET 2,[HL]
+      case 0xD7: cbD7(); break;  // SET 2,A
+      case 0xD8: cbD8(); break;  // SET 3,B
+      case 0xD9: cbD9(); break;  // SET 3,C
+      case 0xDA: cbDA(); break;  // SET 3,D
+      case 0xDB: cbDB(); break;  // SET 3,E
+      case 0xDC: cbDC(); break;  // SET 3,H
+      case 0xDD: cbDD(); break;  // SET 3,L
+      case 0xDE: cbDE(); break;  // SET 3,[HL]
+      case 0xDF: cbDF(); break;  // SET 3,A
+      case 0xE0: cbE0(); break;  // SET 4,B
+      case 0xE1: cbE1(); break;  // SET 4,C
+      case 0xE2: cbE2(); break;  // SET 4,D
+      case 0xE3: cbE3(); break;  // SET 4,E
+      case 0xE4: cbE4(); break;  // SET 4,H
+      case 0xE5: cbE5(); break;  // SET 4,L
+      case 0xE6: cbE6(); break;  // SET 4,[HL]
+      case 0xE7: cbE7(); break;  // SET 4,A
+      case 0xE8: cbE8(); break;  // SET 5,B
+      case 0xE9: cbE9(); break;  // SET 5,C
+      case 0xEA: cbEA(); break;  // SET 5,D
+      case 0xEB: cbEB(); break;  // SET 5,E
+      case 0xEC: cbEC(); break;  // SET 5,H
+      case 0xED: cbED(); break;  // SET 5,L
+      case 0xEE: cbEE(); break;  // SET 5,[HL]
+      case 0xEF: cbEF(); break;  // SET 5,A
+      case 0xF0: cbF0(); break;  // SET 6,B
+      case 0xF1: cbF1(); break;  // SET 6,C
+      case 0xF2: cbF2(); break;  // SET 6,D
+      case 0xF3: cbF3(); break;  // SET 6,E
+      case 0xF4: cbF4(); break;  // SET 6,H
+      case 0xF5: cbF5(); break;  // SET 6,L
+      case 0xF6: cbF6(); break;  // SET 6,[HL]
+      case 0xF7: cbF7(); break;  // SET 6,A
+      case 0xF8: cbF8(); break;  // SET 7,B
+      case 0xF9: cbF9(); break;  // SET 7,C
+      case 0xFA: cbFA(); break;  // SET 7,D
+      case 0xFB: cbFB(); break;  // SET 7,E
+      case 0xFC: cbFC(); break;  // SET 7,H
+      case 0xFD: cbFD(); break;  // SET 7,L
+      case 0xFE: cbFE(); break;  // SET 7,[HL]
+      case 0xFF: cbFF(); break;  // SET 7,A
+    }
+  }
+
+  // The same handlers as an array for the table dispatch engine
+  public Opcode[] table() {
+    if (cbHandlers == null) {
+      cbHandlers = new Opcode[256];
+      cbHandlers[0x00] = this::cb00;
+      cbHandlers[0x01] = this::cb01;
+      cbHandlers[0x02] = this::cb02;
+      cbHandlers[0x03] = this::cb03;
+      cbHandlers[0x04] = this::cb04;
+      cbHandlers[0x05] = this::cb05;
+      cbHandlers[0x06] = this::cb06;
+      cbHandlers[0x07] = this::cb07;
+      cbHandlers[0x08] = this::cb08;
+      cbHandlers[0x09] = this::cb09;
+      cbHandlers[0x0A] = this::cb0A;
+      cbHandlers[0x0B] = this::cb0B;
+      cbHandlers[0x0C] = this::cb0C;
+      cbHandlers[0x0D] = this::cb0D;
+      cbHandlers[0x0E] = this::cb0E;
+      cbHandlers[0x0F] = this::cb0F;
+      cbHandlers[0x10] = this::cb10;
+      cbHandlers[0x11] = this::cb11;
+      cbHandlers[0x12] = this::cb12;
+      cbHandlers[0x13] = this::cb13;
+      cbHandlers[0x14] = this::cb14;
+      cbHandlers[0x15] = this::cb15;
+      cbHandlers[0x16] = this::cb16;
+      cbHandlers[0x17] = this::cb17;
+      cbHandlers[0x18] = this::cb18;
+      cbHandlers[0x19] = this::cb19;
+      cbHandlers[0x1A] = this::cb1A;
+      cbHandlers[0x1B] = this::cb1B;
+      cbHandlers[0x1C] = this::cb1C;
+      cbHandlers[0x1D] = this::cb1D;
+      cbHandlers[0x1E] = this::cb1E;
+      cbHandlers[0x1F] = this::cb1F;
+      cbHandlers[0x20] = this::cb20;
+      cbHandlers[0x21] = this::cb21;
+      cbHandlers[0x22] = this::cb22;
+      cbHandlers[0x23] = this::cb23;
+      cbHandlers[0x24] = this::cb24;
+      cbHandlers[0x25] = this::cb25;
+      cbHandlers[0x26] = this::cb26;
+      cbHandlers[0x27] = this::cb27;
+      cbHandlers[0x28] = this::cb28;
+      cbHandlers[0x29] = this::cb29;
+      cbHandlers[0x2A] = this::cb2A;
+      cbHandlers[0x2B] = this::cb2B;
+      cbHandlers[0x2C] = this::cb2C;
+      cbHandlers[0x2D] = this::cb2D;
+      cbHandlers[0x2E] = this::cb2E;
+      cbHandlers[0x2F] = this::cb2F;
+      cbHandlers[0x30] = this::cb30;
+      cbHandlers[0x31] = this::cb31;
+      cbHandlers[0x32] = this::cb32;
+      cbHandlers[0x33] = this::cb33;
+      cbHandlers[0x34] = this::cb34;
+      cbHandlers[0x35] = this::cb35;
+      cbHandlers[0x36] = this::cb36;
+      cbHandlers[0x37] = this::cb37;
+      cbHandlers[0x38] = this::cb38;
+      cbHandlers[0x39] = this::cb39;
+      cbHandlers[0x3A] = this::cb3A;
+      cbHandlers[0x3B] = this::cb3B;
+      cbHandlers[0x3C] = this::cb3C;
+      cbHandlers[0x3D] = this::cb3D;
+      cbHandlers[0x3E] = this::cb3E;
+      cbHandlers[0x3F] = this::cb3F;
+      cbHandlers[0x40] = this::cb40;
+      cbHandlers[0x41] = this::cb41;
+      cbHandlers[0x42] = this::cb42;
+      cbHandlers[0x43] = this::cb43;
+      cbHandlers[0x44] = this::cb44;
+      cbHandlers[0x45] = this::cb45;
+      cbHandlers[0x46] = this::cb46;
+      cbHandlers[0x47] = this::cb47;
+      cbHandlers[0x48] = this::cb48;
+      cbHandlers[0x49] = this::cb49;
+      cbHandlers[0x4A] = this::cb4A;
+      cbHandlers[0x4B] = this::cb4B;
+      cbHandlers[0x4C] = this::cb4C;
+      cbHandlers[0x4D] = this::cb4D;
+      cbHandlers[0x4E] = this::cb4E;
+      cbHandlers[0x4F] = this::cb4F;
+      cbHandlers[0x50] = this::cb50;
+      cbHandlers[0x51] = this::cb51;
+      cbHandlers[0x52] = this::cb52;
+      cbHandlers[0x53] = this::cb53;
+      cbHandlers[0x54] = this::cb54;
+      cbHandlers[0x55] = this::cb55;
+      cbHandlers[0x56] = this::cb56;
+      cbHandlers[0x57] = this::cb57;
+      cbHandlers[0x58] = this::cb58;
+      cbHandlers[0x59] = this::cb59;
+      cbHandlers[0x5A] = this::cb5A;
+      cbHandlers[0x5B] = this::cb5B;
+      cbHandlers[0x5C] = this::cb5C;
+      cbHandlers[0x5D] = this::cb5D;
+      cbHandlers[0x5E] = this::cb5E;
+      cbHandlers[0x5F] = this::cb5F;
+      cbHandlers[0x60] = this::cb60;
+      cbHandlers[0x61] = this::cb61;
+      cbHandlers[0x62] = this::cb62;
+      cbHandlers[0x63] = this::cb63;
+      cbHandlers[0x64] = this::cb64;
+      cbHandlers[0x65] = this::cb65;
+      cbHandlers[0x66] = this::cb66;
+      cbHandlers[0x67] = this::cb67;
+      cbHandlers[0x68] = this::cb68;
+      cbHandlers[0x69] = this::cb69;
+      cbHandlers[0x6A] = this::cb6A;
+      cbHandlers[0x6B] = this::cb6B;
+      cbHandlers[0x6C] = this::cb6C;
+      cbHandlers[0x6D] = this::cb6D;
+      cbHandlers[0x6E] = this::cb6E;
+      cbHandlers[0x6F] = this::cb6F;
+      cbHandlers[0x70] = this::cb70;
+      cbHandlers[0x71] = this::cb71;
+      cbHandlers[0x72] = this::cb72;
+      cbHandlers[0x73] = this::cb73;
+      cbHandlers[0x74] = this::cb74;
+      cbHandlers[0x75] = this::cb75;
+      cbHandlers[0x76] = this::cb76;
+      cbHandlers[0x77] = this::cb77;
+      cbHandlers[0x78] = this::cb78;
+      cbHandlers[0x79] = this::cb79;
+      cbHandlers[0x7A] = this::cb7A;
+      cbHandlers[0x7B] = this::cb7B;
+      cbHandlers[0x7C] = this::cb7C;
+      cbHandlers[0x7D] = this::cb7D;
+      cbHandlers[0x7E] = this::cb7E;
+      cbHandlers[0x7F] = this::cb7F;
+      cbHandlers[0x80] = this::cb80;
+      cbHandlers[0x81] = this::cb81;
+      cbHandlers[0x82] = this::cb82;
+      cbHandlers[0x83] = this::cb83;
+      cbHandlers[0x84] = this::cb84;
+      cbHandlers[0x85] = this::cb85;
+      cbHandlers[0x86] = this::cb86;
+      cbHandlers[0x87] = this::cb87;
+      cbHandlers[0x88] = this::cb88;
+      cbHandlers[0x89] = this::cb89;
+      cbHandlers[0x8A] = this::cb8A;
+      cbHandlers[0x8B] = this::cb8B;
+      cbHandlers[0x8C] = this::cb8C;
+      cbHandlers[0x8D] = this::cb8D;
+      cbHandlers[0x8E] = this::cb8E;
+      cbHandlers[0x8F] = this::cb8F;
+      cbHandlers[0x90] = this::cb90;
+      cbHandlers[0x91] = this::cb91;
+      cbHandlers[0x92] = this::cb92;
+      cbHandlers[0x93] = this::cb93;
+      cbHandlers[0x94] = this::cb94;
+      cbHandlers[0x95] = this::cb95;
+      cbHandlers[0x96] = this::cb96;
+      cbHandlers[0x97] = this::cb97;
+      cbHandlers[0x98] = this::cb98;
+      cbHandlers[0x99] = this::cb99;
+      cbHandlers[0x9A] = this::cb9A;
+      cbHandlers[0x9B] = this::cb9B;
+      cbHandlers[0x9C] = this::cb9C;
+      cbHandlers[0x9D] = this::cb9D;
+      cbHandlers[0x9E] = this::cb9E;
+      cbHandlers[0x9F] = this::cb9F;
+      cbHandlers[0xA0] = this::cbA0;
+      cbHandlers[0xA1] = this::cbA1;
+      cbHandlers[0xA2] = this::cbA2;
+      cbHandlers[0xA3] = this::cbA3;
+      cbHandlers[0xA4] = this::cbA4;
+      cbHandlers[0xA5] = this::cbA5;
+      cbHandlers[0xA6] = this::cbA6;
+      cbHandlers[0xA7] = this::cbA7;
+      cbHandlers[0xA8] = this::cbA8;
+      cbHandlers[0xA9] = this::cbA9;
+      cbHandlers[0xAA] = this::cbAA;
+      cbHandlers[0xAB] = this::cbAB;
+      cbHandlers[0xAC] = this::cbAC;
+      cbHandlers[0xAD] = this::cbAD;
+      cbHandlers[0xAE] = this::cbAE;
+      cbHandlers[0xAF] = this::cbAF;
+      cbHandlers[0xB0] = this::cbB0;
+      cbHandlers[0xB1] = this::cbB1;
+      cbHandlers[0xB2] = this::cbB2;
+      cbHandlers[0xB3] = this::cbB3;
+      cbHandlers[0xB4] = this::cbB4;
+      cbHandlers[0xB5] = this::cbB5;
+      cbHandlers[0xB6] = this::cbB6;
+      cbHandlers[0xB7] = this::cbB7;
+      cbHandlers[0xB8] = this::cbB8;
+      cbHandlers[0xB9] = this::cbB9;
+      cbHandlers[0xBA] = this::cbBA;
+      cbHandlers[0xBB] = this::cbBB;
+      cbHandlers[0xBC] = this::cbBC;
+      cbHandlers[0xBD] = this::cbBD;
+      cbHandlers[0xBE] = this::cbBE;
+      cbHandlers[0xBF] = this::cbBF;
+      cbHandlers[0xC0] = this::cbC0;
+      cbHandlers[0xC1] = this::cbC1;
+      cbHandlers[0xC2] = this::cbC2;
+      cbHandlers[0xC3] = this::cbC3;
+      cbHandlers[0xC4] = this::cbC4;
+      cbHandlers[0xC5] = this::cbC5;
+      cbHandlers[0xC6] = this::cbC6;
+      cbHandlers[0xC7] = this::cbC7;
+      cbHandlers[0xC8] = this::cbC8;
+      cbHandlers[0xC9] = this::cbC9;
+      cbHandlers[0xCA] = this::cbCA;
+      cbHandlers[0xCB] = this::cbCB;
+      cbHandlers[0xCC] = this::cbCC;
+      cbHandlers[0xCD] = this::cbCD;
+      cbHandlers[0xCE] = this::cbCE;
+      cbHandlers[0xCF] = this::cbCF;
+      cbHandlers[0xD0] = this::cbD0;
+      cbHandlers[0xD1] = this::cbD1;
+      cbHandlers[0xD2] = this::cbD2;
+      cbHandlers[0xD3] = this::cbD3;
+      cbHandlers[0xD4] = this::cbD4;
+      cbHandlers[0xD5] = this::cbD5;
+      cbHandlers[0xD6] = this::cbD6;
+      cbHandlers[0xD7] = this::cbD7;
+      cbHandlers[0xD8] = this::cbD8;
+      cbHandlers[0xD9] = this::cbD9;
+      cbHandlers[0xDA] = this::cbDA;
+      cbHandlers[0xDB] = this::cbDB;
+      cbHandlers[0xDC] = this::cbDC;
+      cbHandlers[0xDD] = this::cbDD;
+      cbHandlers[0xDE] = this::cbDE;
+      cbHandlers[0xDF] = this::cbDF;
+      cbHandlers[0xE0] = this::cbE0;
+      cbHandlers[0xE1] = this::cbE1;
+      cbHandlers[0xE2] = this::cbE2;
+      cbHandlers[0xE3] = this::cbE3;
+      cbHandlers[0xE4] = this::cbE4;
+      cbHandlers[0xE5] = this::cbE5;
+      cbHandlers[0xE6] = this::cbE6;
+      cbHandlers[0xE7] = this::cbE7;
+      cbHandlers[0xE8] = this::cbE8;
+      cbHandlers[0xE9] = this::cbE9;
+      cbHandlers[0xEA] = this::cbEA;
+      cbHandlers[0xEB] = this::cbEB;
+      cbHandlers[0xEC] = this::cbEC;
+      cbHandlers[0xED] = this::cbED;
+      cbHandlers[0xEE] = this::cbEE;
+      cbHandlers[0xEF] = this::cbEF;
+      cbHandlers[0xF0] = this::cbF0;
+      cbHandlers[0xF1] = this::cbF1;
+      cbHandlers[0xF2] = this::cbF2;
+      cbHandlers[0xF3] = this::cbF3;
+      cbHandlers[0xF4] = this::cbF4;
+      cbHandlers[0xF5] = this::cbF5;
+      cbHandlers[0xF6] = this::cbF6;
+      cbHandlers[0xF7] = this::cbF7;
+      cbHandlers[0xF8] = this::cbF8;
+      cbHandlers[0xF9] = this::cbF9;
+      cbHandlers[0xFA] = this::cbFA;
+      cbHandlers[0xFB] = this::cbFB;
+      cbHandlers[0xFC] = this::cbFC;
+      cbHandlers[0xFD] = this::cbFD;
+      cbHandlers[0xFE] = this::cbFE;
+      cbHandlers[0xFF] = this::cbFF;
+    }
+
+    Opcode handlers[] = new Opcode[256];
+    handlers[0x00] = this::op00;
+    handlers[0x01] = this::op01;
+    handlers[0x02] = this::op02;
+    handlers[0x03] = this::op03;
+    handlers[0x04] = this::op04;
+    handlers[0x05] = this::op05;
+    handlers[0x06] = this::op06;
+    handlers[0x07] = this::op07;
+    handlers[0x08] = this::op08;
+    handlers[0x09] = this::op09;
+    handlers[0x0A] = this::op0A;
+    handlers[0x0B] = this::op0B;
+    handlers[0x0C] = this::op0C;
+    handlers[0x0D] = this::op0D;
+    handlers[0x0E] = this::op0E;
+    handlers[0x0F] = this::op0F;
+    handlers[0x10] = this::op10;
+    handlers[0x11] = this::op11;
+    handlers[0x12] = this::op12;
+    handlers[0x13] = this::op13;
+    handlers[0x14] = this::op14;
+    handlers[0x15] = this::op15;
+    handlers[0x16] = this::op16;
+    handlers[0x17] = this::op17;
+    handlers[0x18] = this::op18;
+    handlers[0x19] = this::op19;
+    handlers[0x1A] = this::op1A;
+    handlers[0x1B] = this::op1B;
+    handlers[0x1C] = this::op1C;
+    handlers[0x1D] = this::op1D;
+    handlers[0x1E] = this::op1E;
+    handlers[0x1F] = this::op1F;
+    handlers[0x20] = this::op20;
+    handlers[0x21] = this::op21;
+    handlers[0x22] = this::op22;
+    handlers[0x23] = this::op23;
+    handlers[0x24] = this::op24;
+    handlers[0x25] = this::op25;
+    handlers[0x26] = this::op26;
+    handlers[0x27] = this::op27;
+    handlers[0x28] = this::op28;
+    handlers[0x29] = this::op29;
+    handlers[0x2A] = this::op2A;
+    handlers[0x2B] = this::op2B;
+    handlers[0x2C] = this::op2C;
+    handlers[0x2D] = this::op2D;
+    handlers[0x2E] = this::op2E;
+    handlers[0x2F] = this::op2F;
+    handlers[0x30] = this::op30;
+    handlers[0x31] = this::op31;
+    handlers[0x32] = this::op32;
+    handlers[0x33] = this::op33;
+    handlers[0x34] = this::op34;
+    handlers[0x35] = this::op35;
+    handlers[0x36] = this::op36;
+    handlers[0x37] = this::op37;
+    handlers[0x38] = this::op38;
+    handlers[0x39] = this::op39;
+    handlers[0x3A] = this::op3A;
+    handlers[0x3B] = this::op3B;
+    handlers[0x3C] = this::op3C;
+    handlers[0x3D] = this::op3D;
+    handlers[0x3E] = this::op3E;
+    handlers[0x3F] = this::op3F;
+    handlers[0x40] = this::op40;
+    handlers[0x41] = this::op41;
+    handlers[0x42] = this::op42;
+    handlers[0x43] = this::op43;
+    handlers[0x44] = this::op44;
+    handlers[0x45] = this::op45;
+    handlers[0x46] = this::op46;
+    handlers[0x47] = this::op47;
+    handlers[0x48] = this::op48;
+    handlers[0x49] = this::op49;
+    handlers[0x4A] = this::op4A;
+    handlers[0x4B] = this::op4B;
+    handlers[0x4C] = this::op4C;
+    handlers[0x4D] = this::op4D;
+    handlers[0x4E] = this::op4E;
+    handlers[0x4F] = this::op4F;
+    handlers[0x50] = this::op50;
+    handlers[0x51] = this::op51;
+    handlers[0x52] = this::op52;
+    handlers[0x53] = this::op53;
+    handlers[0x54] = this::op54;
+    handlers[0x55] = this::op55;
+    handlers[0x56] = this::op56;
+    handlers[0x57] = this::op57;
+    handlers[0x58] = this::op58;
+    handlers[0x59] = this::op59;
+    handlers[0x5A] = this::op5A;
+    handlers[0x5B] = this::op5B;
+    handlers[0x5C] = this::op5C;
+    handlers[0x5D] = this::op5D;
+    handlers[0x5E] = this::op5E;
+    handlers[0x5F] = this::op5F;
+    handlers[0x60] = this::op60;
+    handlers[0x61] = this::op61;
+    handlers[0x62] = this::op62;
+    handlers[0x63] = this::op63;
+    handlers[0x64] = this::op64;
+    handlers[0x65] = this::op65;
+    handlers[0x66] = this::op66;
+    handlers[0x67] = this::op67;
+    handlers[0x68] = this::op68;
+    handlers[0x69] = this::op69;
+    handlers[0x6A] = this::op6A;
+    handlers[0x6B] = this::op6B;
+    handlers[0x6C] = this::op6C;
+    handlers[0x6D] = this::op6D;
+    handlers[0x6E] = this::op6E;
+    handlers[0x6F] = this::op6F;
+    handlers[0x70] = this::op70;
+    handlers[0x71] = this::op71;
+    handlers[0x72] = this::op72;
+    handlers[0x73] = this::op73;
+    handlers[0x74] = this::op74;
+    handlers[0x75] = this::op75;
+    handlers[0x76] = this::op76;
+    handlers[0x77] = this::op77;
+    handlers[0x78] = this::op78;
+    handlers[0x79] = this::op79;
+    handlers[0x7A] = this::op7A;
+    handlers[0x7B] = this::op7B;
+    handlers[0x7C] = this::op7C;
+    handlers[0x7D] = this::op7D;
+    handlers[0x7E] = this::op7E;
+    handlers[0x7F] = this::op7F;
+    handlers[0x80] = this::op80;
+    handlers[0x81] = this::op81;
+    handlers[0x82] = this::op82;
+    handlers[0x83] = this::op83;
+    handlers[0x84] = this::op84;
+    handlers[0x85] = this::op85;
+    handlers[0x86] = this::op86;
+    handlers[0x87] = this::op87;
+    handlers[0x88] = this::op88;
+    handlers[0x89] = this::op89;
+    handlers[0x8A] = this::op8A;
+    handlers[0x8B] = this::op8B;
+    handlers[0x8C] = this::op8C;
+    handlers[0x8D] = this::op8D;
+    handlers[0x8E] = this::op8E;
+    handlers[0x8F] = this::op8F;
+    handlers[0x90] = this::op90;
+    handlers[0x91] = this::op91;
+    handlers[0x92] = this::op92;
+    handlers[0x93] = this::op93;
+    handlers[0x94] = this::op94;
+    handlers[0x95] = this::op95;
+    handlers[0x96] = this::op96;
+    handlers[0x97] = this::op97;
+    handlers[0x98] = this::op98;
+    handlers[0x99] = this::op99;
+    handlers[0x9A] = this::op9A;
+    handlers[0x9B] = this::op9B;
+    handlers[0x9C] = this::op9C;
+    handlers[0x9D] = this::op9D;
+    handlers[0x9E] = this::op9E;
+    handlers[0x9F] = this::op9F;
+    handlers[0xA0] = this::opA0;
+    handlers[0xA1] = this::opA1;
+    handlers[0xA2] = this::opA2;
+    handlers[0xA3] = this::opA3;
+    handlers[0xA4] = this::opA4;
+    handlers[0xA5] = this::opA5;
+    handlers[0xA6] = this::opA6;
+    handlers[0xA7] = this::opA7;
+    handlers[0xA8] = this::opA8;
+    handlers[0xA9] = this::opA9;
+    handlers[0xAA] = this::opAA;
+    handlers[0xAB] = this::opAB;
+    handlers[0xAC] = this::opAC;
+    handlers[0xAD] = this::opAD;
+    handlers[0xAE] = this::opAE;
+    handlers[0xAF] = this::opAF;
+    handlers[0xB0] = this::opB0;
+    handlers[0xB1] = this::opB1;
+    handlers[0xB2] = this::opB2;
+    handlers[0xB3] = this::opB3;
+    handlers[0xB4] = this::opB4;
+    handlers[0xB5] = this::opB5;
+    handlers[0xB6] = this::opB6;
+    handlers[0xB7] = this::opB7;
+    handlers[0xB8] = this::opB8;
+    handlers[0xB9] = this::opB9;
+    handlers[0xBA] = this::opBA;
+    handlers[0xBB] = this::opBB;
+    handlers[0xBC] = this::opBC;
+    handlers[0xBD] = this::opBD;
+    handlers[0xBE] = this::opBE;
+    handlers[0xBF] = this::opBF;
+    handlers[0xC0] = this::opC0;
+    handlers[0xC1] = this::opC1;
+    handlers[0xC2] = this::opC2;
+    handlers[0xC3] = this::opC3;
+    handlers[0xC4] = this::opC4;
+    handlers[0xC5] = this::opC5;
+    handlers[0xC6] = this::opC6;
+    handlers[0xC7] = this::opC7;
+    handlers[0xC8] = this::opC8;
+    handlers[0xC9] = this::opC9;
+    handlers[0xCA] = this::opCA;
+    handlers[0xCB] = this::opCBTable;
+    handlers[0xCC] = this::opCC;
+    handlers[0xCD] = this::opCD;
+    handlers[0xCE] = this::opCE;
+    handlers[0xCF] = this::opCF;
+    handlers[0xD0] = this::opD0;
+    handlers[0xD1] = this::opD1;
+    handlers[0xD2] = this::opD2;
+    handlers[0xD3] = this::opD3;
+    handlers[0xD4] = this::opD4;
+    handlers[0xD5] = this::opD5;
+    handlers[0xD6] = this::opD6;
+    handlers[0xD7] = this::opD7;
+    handlers[0xD8] = this::opD8;
+    handlers[0xD9] = this::opD9;
+    handlers[0xDA] = this::opDA;
+    handlers[0xDB] = this::opDB;
+    handlers[0xDC] = this::opDC;
+    handlers[0xDD] = this::opDD;
+    handlers[0xDE] = this::opDE;
+    handlers[0xDF] = this::opDF;
+    handlers[0xE0] = this::opE0;
+    handlers[0xE1] = this::opE1;
+    handlers[0xE2] = this::opE2;
+    handlers[0xE3] = this::opE3;
+    handlers[0xE4] = this::opE4;
+    handlers[0xE5] = this::opE5;
+    handlers[0xE6] = this::opE6;
+    handlers[0xE7] = this::opE7;
+    handlers[0xE8] = this::opE8;
+    handlers[0xE9] = this::opE9;
+    handlers[0xEA] = this::opEA;
+    handlers[0xEB] = this::opEB;
+    handlers[0xEC] = this::opEC;
+    handlers[0xED] = this::opED;
+    handlers[0xEE] = this::opEE;
+    handlers[0xEF] = this::opEF;
+    handlers[0xF0] = this::opF0;
+    handlers[0xF1] = this::opF1;
+    handlers[0xF2] = this::opF2;
+    handlers[0xF3] = this::opF3;
+    handlers[0xF4] = this::opF4;
+    handlers[0xF5] = this::opF5;
+    handlers[0xF6] = this::opF6;
+    handlers[0xF7] = this::opF7;
+    handlers[0xF8] = this::opF8;
+    handlers[0xF9] = this::opF9;
+    handlers[0xFA] = this::opFA;
+    handlers[0xFB] = this::opFB;
+    handlers[0xFC] = this::opFC;
+    handlers[0xFD] = this::opFD;
+    handlers[0xFE] = this::opFE;
+    handlers[0xFF] = this::opFF;
+    return handlers;
+  }
+
+  /*
+   * Converts an opcode and it's next 2 bytes to a mnemonic representation
+   * byte1 and byte2 are passed in case the instruction is multi-byte
+   */
+  public static String mnemonic(int opcode, int byte1, int byte2) {
+    if (opcode == 0xCB) return CB_MNEMONIC[byte1 & 0xFF];
+
+    String z = MNEMONIC[opcode & 0xFF];
+    String word = Util.hex((short)byte2) + Util.hex((short)byte1);
+    return z.replace("d16", word).replace("a16", word)
+            .replace("d8", Util.hex((short)byte1)).replace("a8", Util.hex((short)byte1)).replace("r8", Util.hex((short)byte1));
+  }
+
+  // Mnemonic with its operands left as d8, a16 and so on
+  public static String name(int opcode, boolean cb) {
+    return cb ? CB_MNEMONIC[opcode & 0xFF] : MNEMONIC[opcode & 0xFF];
+  }
+
+
+  /* - Handlers */
+  // 0x00 NOP  1  ----
+  private void op00() {
+    clockCounter.add(1);
+  }
+
+  // 0x01 LD BC,d16  3  ----
+  private void op01() {
+    clockCounter.add(3);
+    state.setBC(ins.imm16());
+  }
+
+  // 0x02 LD [BC],A  2  ----
+  private void op02() {
+    clockCounter.add(2);
+    ins.writeMem8(state.BC(), state.A());
+  }
+
+  // 0x03 INC BC  2  ----
+  private void op03() {
+    clockCounter.add(2);
+    state.setBC(CPUMath.inc16(state.BC()));
+  }
+
+  // 0x04 INC B  1  Z0H-
+  private void op04() {
+    clockCounter.add(1);
+    state.setB(ins.alu(ALU.OP_INC, state.B(), 0));
+  }
+
+  // 0x05 DEC B  1  Z1H-
+  private void op05() {
+    clockCounter.add(1);
+    state.setB(ins.alu(ALU.OP_DEC, state.B(), 0));
+  }
+
+  // 0x06 LD B,d8  2  ----
+  private void op06() {
+    clockCounter.add(2);
+    state.setB(ins.imm8());
+  }
+
+  // 0x07 RLCA  1  000C
+  private void op07() {
+    clockCounter.add(1);
+    ins.rlca();
+  }
+
+  // 0x08 LD [a16],SP  5  ----
+  private void op08() {
+    clockCounter.add(5);
+    ins.writeMem16(ins.imm16(), state.SP());
+  }
+
+  // 0x09 ADD HL,BC  2  -0HC
+  private void op09() {
+    clockCounter.add(2);
+    ins.addHL(state.BC());
+  }
+
+  // 0x0A LD A,[BC]  2  ----
+  private void op0A() {
+    clockCounter.add(2);
+    state.setA(ins.readMem8(state.BC()));
+  }
+
+  // 0x0B DEC BC  2  ----
+  private void op0B() {
+    clockCounter.add(2);
+    state.setBC(CPUMath.dec16(state.BC()));
+  }
+
+  // 0x0C INC C  1  Z0H-
+  private void op0C() {
+    clockCounter.add(1);
+    state.setC(ins.alu(ALU.OP_INC, state.C(), 0));
+  }
+
+  // 0x0D DEC C  1  Z1H-
+  private void op0D() {
+    clockCounter.add(1);
+    state.setC(ins.alu(ALU.OP_DEC, state.C(), 0));
+  }
+
+  // 0x0E LD C,d8  2  ----
+  private void op0E() {
+    clockCounter.add(2);
+    state.setC(ins.imm8());
+  }
+
+  // 0x0F RRCA  1  000C
+  private void op0F() {
+    clockCounter.add(1);
+    ins.rrca();
+  }
+
+  // 0x10 STOP  1  ----
+  private void op10() {
+    clockCounter.add(1);
+    ins.stop();
+  }
+
+  // 0x11 LD DE,d16  3  ----
+  private void op11() {
+    clockCounter.add(3);
+    state.setDE(ins.imm16());
+  }
+
+  // 0x12 LD [DE],A  2  ----
+  private void op12() {
+    clockCounter.add(2);
+    ins.writeMem8(state.DE(), state.A());
+  }
+
+  // 0x13 INC DE  2  ----
+  private void op13() {
+    clockCounter.add(2);
+    state.setDE(CPUMath.inc16(state.DE()));
+  }
+
+  // 0x14 INC D  1  Z0H-
+  private void op14() {
+    clockCounter.add(1);
+    state.setD(ins.alu(ALU.OP_INC, state.D(), 0));
+  }
+
+  // 0x15 DEC D  1  Z1H-
+  private void op15() {
+    clockCounter.add(1);
+    state.setD(ins.alu(ALU.OP_DEC, state.D(), 0));
+  }
+
+  // 0x16 LD D,d8  2  ----
+  private void op16() {
+    clockCounter.add(2);
+    state.setD(ins.imm8());
+  }
+
+  // 0x17 RLA  1  000C
+  private void op17() {
+    clockCounter.add(1);
+    ins.rla();
+  }
+
+  // 0x18 JR r8  3  ----
+  private void op18() {
+    clockCounter.add(3);
+    ins.jr();
+  }
+
+  // 0x19 ADD HL,DE  2  -0HC
+  private void op19() {
+    clockCounter.add(2);
+    ins.addHL(state.DE());
+  }
+
+  // 0x1A LD A,[DE]  2  ----
+  private void op1A() {
+    clockCounter.add(2);
+    state.setA(ins.readMem8(state.DE()));
+  }
+
+  // 0x1B DEC DE  2  ----
+  private void op1B() {
+    clockCounter.add(2);
+    state.setDE(CPUMath.dec16(state.DE()));
+  }
+
+  // 0x1C INC E  1  Z0H-
+  private void op1C() {
+    clockCounter.add(1);
+    state.setE(ins.alu(ALU.OP_INC, state.E(), 0));
+  }
+
+  // 0x1D DEC E  1  Z1H-
+  private void op1D() {
+    clockCounter.add(1);
+    state.setE(ins.alu(ALU.OP_DEC, state.E(), 0));
+  }
+
+  // 0x1E LD E,d8  2  ----
+  private void op1E() {
+    clockCounter.add(2);
+    state.setE(ins.imm8());
+  }
+
+  // 0x1F RRA  1  000C
+  private void op1F() {
+    clockCounter.add(1);
+    ins.rra();
+  }
+
+  // 0x20 JR NZ,r8  3/2  ----
+  private void op20() {
+    if ((state.getFlags() & Z) == 0) {
+      clockCounter.add(3);
+      ins.jr();
+    } else {
+      clockCounter.add(2);
+      state.incPC();  // skip offset
+    }
+  }
+
+  // 0x21 LD HL,d16  3  ----
+  private void op21() {
+    clockCounter.add(3);
+    state.setHL(ins.imm16());
+  }
+
+  // 0x22 LD [HL+],A  6  ----
+  private void op22() {
+    clockCounter.add(6);
+    ins.writeMem8(state.HL(), state.A());
+    state.setHL(CPUMath.inc16(state.HL()));
+  }
+
+  // 0x23 INC HL  2  ----
+  private void op23() {
+    clockCounter.add(2);
+    state.setHL(CPUMath.inc16(state.HL()));
+  }
+
+  // 0x24 INC H  1  Z0H-
+  private void op24() {
+    clockCounter.add(1);
+    state.setH(ins.alu(ALU.OP_INC, state.H(), 0));
+  }
+
+  // 0x25 DEC H  1  Z1H-
+  private void op25() {
+    clockCounter.add(1);
+    state.setH(ins.alu(ALU.OP_DEC, state.H(), 0));
+  }
+
+  // 0x26 LD H,d8  2  ----
+  private void op26() {
+    clockCounter.add(2);
+    state.setH(ins.imm8());
+  }
+
+  // 0x27 DAA  1  Z-0C
+  private void op27() {
+    clockCounter.add(1);
+    ins.daa();
+  }
+
+  // 0x28 JR Z,r8  3/2  ----
+  private void op28() {
+    if ((state.getFlags() & Z) != 0) {
+      clockCounter.add(3);
+      ins.jr();
+    } else {
+      clockCounter.add(2);
+      state.incPC();  // skip offset
+    }
+  }
+
+  // 0x29 ADD HL,HL  2  -0HC
+  private void op29() {
+    clockCounter.add(2);
+    ins.addHL(state.HL());
+  }
+
+  // 0x2A LD A,[HL+]  6  ----
+  private void op2A() {
+    clockCounter.add(6);
+    state.setA(ins.readMem8(state.HL()));
+    state.setHL(CPUMath.inc16(state.HL()));
+  }
+
+  // 0x2B DEC HL  2  ----
+  private void op2B() {
+    clockCounter.add(2);
+    state.setHL(CPUMath.dec16(state.HL()));
+  }
+
+  // 0x2C INC L  1  Z0H-
+  private void op2C() {
+    clockCounter.add(1);
+    state.setL(ins.alu(ALU.OP_INC, state.L(), 0));
+  }
+
+  // 0x2D DEC L  1  Z1H-
+  private void op2D() {
+    clockCounter.add(1);
+    state.setL(ins.alu(ALU.OP_DEC, state.L(), 0));
+  }
+
+  // 0x2E LD L,d8  2  ----
+  private void op2E() {
+    clockCounter.add(2);
+    state.setL(ins.imm8());
+  }
+
+  // 0x2F CPL  1  -11-
+  private void op2F() {
+    clockCounter.add(1);
+    ins.cpl();
+  }
+
+  // 0x30 JR NC,r8  3/2  ----
+  private void op30() {
+    if ((state.getFlags() & C) == 0) {
+      clockCounter.add(3);
+      ins.jr();
+    } else {
+      clockCounter.add(2);
+      state.incPC();  // skip offset
+    }
+  }
+
+  // 0x31 LD SP,d16  3  ----
+  private void op31() {
+    clockCounter.add(3);
+    state.setSP(ins.imm16());
+  }
+
+  // 0x32 LD [HL-],A  6  ----
+  private void op32() {
+    clockCounter.add(6);
+    ins.writeMem8(state.HL(), state.A());
+    state.setHL(CPUMath.dec16(state.HL()));
+  }
+
+  // 0x33 INC SP  2  ----
+  private void op33() {
+    clockCounter.add(2);
+    state.setSP(CPUMath.inc16(state.SP()));
+  }
+
+  // 0x34 INC [HL]  3  Z0H-
+  private void op34() {
+    clockCounter.add(3);
+    int address = state.HL();
+    ins.writeMem8(address, ins.alu(ALU.OP_INC, ins.readMem8(address), 0));
+  }
+
+  // 0x35 DEC [HL]  3  Z1H-
+  private void op35() {
+    clockCounter.add(3);
+    int address = state.HL();
+    ins.writeMem8(address, ins.alu(ALU.OP_DEC, ins.readMem8(address), 0));
+  }
+
+  // 0x36 LD [HL],d8  3  ----
+  private void op36() {
+    clockCounter.add(3);
+    ins.writeMem8(state.HL(), ins.imm8());
+  }
+
+  // 0x37 SCF  0  -001
+  private void op37() {
+    ins.scf();
+  }
+
+  // 0x38 JR C,r8  3/2  ----
+  private void op38() {
+    if ((state.getFlags() & C) != 0) {
+      clockCounter.add(3);
+      ins.jr();
+    } else {
+      clockCounter.add(2);
+      state.incPC();  // skip offset
+    }
+  }
+
+  // 0x39 ADD HL,SP  2  -0HC
+  private void op39() {
+    clockCounter.add(2);
+    ins.addHL(state.SP());
+  }
+
+  // 0x3A LD A,[HL-]  6  ----
+  private void op3A() {
+    clockCounter.add(6);
+    state.setA(ins.readMem8(state.HL()));
+    state.setHL(CPUMath.dec16(state.HL()));
+  }
+
+  // 0x3B DEC SP  2  ----
+  private void op3B() {
+    clockCounter.add(2);
+    state.setSP(CPUMath.dec16(state.SP()));
+  }
+
+  // 0x3C INC A  1  Z0H-
+  private void op3C() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_INC, state.A(), 0));
+  }
+
+  // 0x3D DEC A  1  Z1H-
+  private void op3D() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_DEC, state.A(), 0));
+  }
+
+  // 0x3E LD A,d8  2  ----
+  private void op3E() {
+    clockCounter.add(2);
+    state.setA(ins.imm8());
+  }
+
+  // 0x3F CCF  1  -00C
+  private void op3F() {
+    clockCounter.add(1);
+    ins.ccf();
+  }
+
+  // 0x40 LD B,B  1  ----
+  private void op40() {
+    clockCounter.add(1);
+    state.setB(state.B());
+  }
+
+  // 0x41 LD B,C  1  ----
+  private void op41() {
+    clockCounter.add(1);
+    state.setB(state.C());
+  }
+
+  // 0x42 LD B,D  1  ----
+  private void op42() {
+    clockCounter.add(1);
+    state.setB(state.D());
+  }
+
+  // 0x43 LD B,E  1  ----
+  private void op43() {
+    clockCounter.add(1);
+    state.setB(state.E());
+  }
+
+  // 0x44 LD B,H  1  ----
+  private void op44() {
+    clockCounter.add(1);
+    state.setB(state.H());
+  }
+
+  // 0x45 LD B,L  1  ----
+  private void op45() {
+    clockCounter.add(1);
+    state.setB(state.L());
+  }
+
+  // 0x46 LD B,[HL]  2  ----
+  private void op46() {
+    clockCounter.add(2);
+    state.setB(ins.readMem8(state.HL()));
+  }
+
+  // 0x47 LD B,A  1  ----
+  private void op47() {
+    clockCounter.add(1);
+    state.setB(state.A());
+  }
+
+  // 0x48 LD C,B  1  ----
+  private void op48() {
+    clockCounter.add(1);
+    state.setC(state.B());
+  }
+
+  // 0x49 LD C,C  1  ----
+  private void op49() {
+    clockCounter.add(1);
+    state.setC(state.C());
+  }
+
+  // 0x4A LD C,D  1  ----
+  private void op4A() {
+    clockCounter.add(1);
+    state.setC(state.D());
+  }
+
+  // 0x4B LD C,E  1  ----
+  private void op4B() {
+    clockCounter.add(1);
+    state.setC(state.E());
+  }
+
+  // 0x4C LD C,H  1  ----
+  private void op4C() {
+    clockCounter.add(1);
+    state.setC(state.H());
+  }
+
+  // 0x4D LD C,L  1  ----
+  private void op4D() {
+    clockCounter.add(1);
+    state.setC(state.L());
+  }
+
+  // 0x4E LD C,[HL]  2  ----
+  private void op4E() {
+    clockCounter.add(2);
+    state.setC(ins.readMem8(state.HL()));
+  }
+
+  // 0x4F LD C,A  1  ----
+  private void op4F() {
+    clockCounter.add(1);
+    state.setC(state.A());
+  }
+
+  // 0x50 LD D,B  1  ----
+  private void op50() {
+    clockCounter.add(1);
+    state.setD(state.B());
+  }
+
+  // 0x51 LD D,C  1  ----
+  private void op51() {
+    clockCounter.add(1);
+    state.setD(state.C());
+  }
+
+  // 0x52 LD D,D  1  ----
+  private void op52() {
+    clockCounter.add(1);
+    state.setD(state.D());
+  }
+
+  // 0x53 LD D,E  1  ----
+  private void op53() {
+    clockCounter.add(1);
+    state.setD(state.E());
+  }
+
+  // 0x54 LD D,H  1  ----
+  private void op54() {
+    clockCounter.add(1);
+    state.setD(state.H());
+  }
+
+  // 0x55 LD D,L  1  ----
+  private void op55() {
+    clockCounter.add(1);
+    state.setD(state.L());
+  }
+
+  // 0x56 LD D,[HL]  2  ----
+  private void op56() {
+    clockCounter.add(2);
+    state.setD(ins.readMem8(state.HL()));
+  }
+
+  // 0x57 LD D,A  1  ----
+  private void op57() {
+    clockCounter.add(1);
+    state.setD(state.A());
+  }
+
+  // 0x58 LD E,B  1  ----
+  private void op58() {
+    clockCounter.add(1);
+    state.setE(state.B());
+  }
+
+  // 0x59 LD E,C  1  ----
+  private void op59() {
+    clockCounter.add(1);
+    state.setE(state.C());
+  }
+
+  // 0x5A LD E,D  1  ----
+  private void op5A() {
+    clockCounter.add(1);
+    state.setE(state.D());
+  }
+
+  // 0x5B LD E,E  1  ----
+  private void op5B() {
+    clockCounter.add(1);
+    state.setE(state.E());
+  }
+
+  // 0x5C LD E,H  1  ----
+  private void op5C() {
+    clockCounter.add(1);
+    state.setE(state.H());
+  }
+
+  // 0x5D LD E,L  1  ----
+  private void op5D() {
+    clockCounter.add(1);
+    state.setE(state.L());
+  }
+
+  // 0x5E LD E,[HL]  2  ----
+  private void op5E() {
+    clockCounter.add(2);
+    state.setE(ins.readMem8(state.HL()));
+  }
+
+  // 0x5F LD E,A  1  ----
+  private void op5F() {
+    clockCounter.add(1);
+    state.setE(state.A());
+  }
+
+  // 0x60 LD H,B  1  ----
+  private void op60() {
+    clockCounter.add(1);
+    state.setH(state.B());
+  }
+
+  // 0x61 LD H,C  1  ----
+  private void op61() {
+    clockCounter.add(1);
+    state.setH(state.C());
+  }
+
+  // 0x62 LD H,D  1  ----
+  private void op62() {
+    clockCounter.add(1);
+    state.setH(state.D());
+  }
+
+  // 0x63 LD H,E  1  ----
+  private void op63() {
+    clockCounter.add(1);
+    state.setH(state.E());
+  }
+
+  // 0x64 LD H,H  1  ----
+  private void op64() {
+    clockCounter.add(1);
+    state.setH(state.H());
+  }
+
+  // 0x65 LD H,L  1  ----
+  private void op65() {
+    clockCounter.add(1);
+    state.setH(state.L());
+  }
+
+  // 0x66 LD H,[HL]  2  ----
+  private void op66() {
+    clockCounter.add(2);
+    state.setH(ins.readMem8(state.HL()));
+  }
+
+  // 0x67 LD H,A  1  ----
+  private void op67() {
+    clockCounter.add(1);
+    state.setH(state.A());
+  }
+
+  // 0x68 LD L,B  1  ----
+  private void op68() {
+    clockCounter.add(1);
+    state.setL(state.B());
+  }
+
+  // 0x69 LD L,C  1  ----
+  private void op69() {
+    clockCounter.add(1);
+    state.setL(state.C());
+  }
+
+  // 0x6A LD L,D  1  ----
+  private void op6A() {
+    clockCounter.add(1);
+    state.setL(state.D());
+  }
+
+  // 0x6B LD L,E  1  ----
+  private void op6B() {
+    clockCounter.add(1);
+    state.setL(state.E());
+  }
+
+  // 0x6C LD L,H  1  ----
+  private void op6C() {
+    clockCounter.add(1);
+    state.setL(state.H());
+  }
+
+  // 0x6D LD L,L  1  ----
+  private void op6D() {
+    clockCounter.add(1);
+    state.setL(state.L());
+  }
+
+  // 0x6E LD L,[HL]  2  ----
+  private void op6E() {
+    clockCounter.add(2);
+    state.setL(ins.readMem8(state.HL()));
+  }
+
+  // 0x6F LD L,A  1  ----
+  private void op6F() {
+    clockCounter.add(1);
+    state.setL(state.A());
+  }
+
+  // 0x70 LD [HL],B  2  ----
+  private void op70() {
+    clockCounter.add(2);
+    ins.writeMem8(state.HL(), state.B());
+  }
+
+  // 0x71 LD [HL],C  2  ----
+  private void op71() {
+    clockCounter.add(2);
+    ins.writeMem8(state.HL(), state.C());
+  }
+
+  // 0x72 LD [HL],D  2  ----
+  private void op72() {
+    clockCounter.add(2);
+    ins.writeMem8(state.HL(), state.D());
+  }
+
+  // 0x73 LD [HL],E  2  ----
+  private void op73() {
+    clockCounter.add(2);
+    ins.writeMem8(state.HL(), state.E());
+  }
+
+  // 0x74 LD [HL],H  2  ----
+  private void op74() {
+    clockCounter.add(2);
+    ins.writeMem8(state.HL(), state.H());
+  }
+
+  // 0x75 LD [HL],L  2  ----
+  private void op75() {
+    clockCounter.add(2);
+    ins.writeMem8(state.HL(), state.L());
+  }
+
+  // 0x76 HALT  1  ----
+  private void op76() {
+    clockCounter.add(1);
+    ins.halt();
+  }
+
+  // 0x77 LD [HL],A  2  ----
+  private void op77() {
+    clockCounter.add(2);
+    ins.writeMem8(state.HL(), state.A());
+  }
+
+  // 0x78 LD A,B  1  ----
+  private void op78() {
+    clockCounter.add(1);
+    state.setA(state.B());
+  }
+
+  // 0x79 LD A,C  1  ----
+  private void op79() {
+    clockCounter.add(1);
+    state.setA(state.C());
+  }
+
+  // 0x7A LD A,D  1  ----
+  private void op7A() {
+    clockCounter.add(1);
+    state.setA(state.D());
+  }
+
+  // 0x7B LD A,E  1  ----
+  private void op7B() {
+    clockCounter.add(1);
+    state.setA(state.E());
+  }
+
+  // 0x7C LD A,H  1  ----
+  private void op7C() {
+    clockCounter.add(1);
+    state.setA(state.H());
+  }
+
+  // 0x7D LD A,L  1  ----
+  private void op7D() {
+    clockCounter.add(1);
+    state.setA(state.L());
+  }
+
+  // 0x7E LD A,[HL]  2  ----
+  private void op7E() {
+    clockCounter.add(2);
+    state.setA(ins.readMem8(state.HL()));
+  }
+
+  // 0x7F LD A,A  1  ----
+  private void op7F() {
+    clockCounter.add(1);
+    state.setA(state.A());
+  }
+
+  // 0x80 ADD A,B  1  Z0HC
+  private void op80() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADD, state.A(), state.B()));
+  }
+
+  // 0x81 ADD A,C  1  Z0HC
+  private void op81() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADD, state.A(), state.C()));
+  }
+
+  // 0x82 ADD A,D  1  Z0HC
+  private void op82() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADD, state.A(), state.D()));
+  }
+
+  // 0x83 ADD A,E  1  Z0HC
+  private void op83() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADD, state.A(), state.E()));
+  }
+
+  // 0x84 ADD A,H  1  Z0HC
+  private void op84() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADD, state.A(), state.H()));
+  }
+
+  // 0x85 ADD A,L  1  Z0HC
+  private void op85() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADD, state.A(), state.L()));
+  }
+
+  // 0x86 ADD A,[HL]  2  Z0HC
+  private void op86() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_ADD, state.A(), ins.readMem8(state.HL())));
+  }
+
+  // 0x87 ADD A,A  1  Z0HC
+  private void op87() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADD, state.A(), state.A()));
+  }
+
+  // 0x88 ADC A,B  1  Z0HC
+  private void op88() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADC, state.A(), state.B() | ins.carryIn()));
+  }
+
+  // 0x89 ADC A,C  1  Z0HC
+  private void op89() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADC, state.A(), state.C() | ins.carryIn()));
+  }
+
+  // 0x8A ADC A,D  1  Z0HC
+  private void op8A() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADC, state.A(), state.D() | ins.carryIn()));
+  }
+
+  // 0x8B ADC A,E  1  Z0HC
+  private void op8B() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADC, state.A(), state.E() | ins.carryIn()));
+  }
+
+  // 0x8C ADC A,H  1  Z0HC
+  private void op8C() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADC, state.A(), state.H() | ins.carryIn()));
+  }
+
+  // 0x8D ADC A,L  1  Z0HC
+  private void op8D() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADC, state.A(), state.L() | ins.carryIn()));
+  }
+
+  // 0x8E ADC A,[HL]  2  Z0HC
+  private void op8E() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_ADC, state.A(), ins.readMem8(state.HL()) | ins.carryIn()));
+  }
+
+  // 0x8F ADC A,A  1  Z0HC
+  private void op8F() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_ADC, state.A(), state.A() | ins.carryIn()));
+  }
+
+  // 0x90 SUB B  1  Z1HC
+  private void op90() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SUB, state.A(), state.B()));
+  }
+
+  // 0x91 SUB C  1  Z1HC
+  private void op91() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SUB, state.A(), state.C()));
+  }
+
+  // 0x92 SUB D  1  Z1HC
+  private void op92() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SUB, state.A(), state.D()));
+  }
+
+  // 0x93 SUB E  1  Z1HC
+  private void op93() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SUB, state.A(), state.E()));
+  }
+
+  // 0x94 SUB H  1  Z1HC
+  private void op94() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SUB, state.A(), state.H()));
+  }
+
+  // 0x95 SUB L  1  Z1HC
+  private void op95() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SUB, state.A(), state.L()));
+  }
+
+  // 0x96 SUB [HL]  2  Z1HC
+  private void op96() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_SUB, state.A(), ins.readMem8(state.HL())));
+  }
+
+  // 0x97 SUB A  1  Z1HC
+  private void op97() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SUB, state.A(), state.A()));
+  }
+
+  // 0x98 SBC A,B  1  Z1HC
+  private void op98() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SBC, state.A(), state.B() | ins.carryIn()));
+  }
+
+  // 0x99 SBC A,C  1  Z1HC
+  private void op99() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SBC, state.A(), state.C() | ins.carryIn()));
+  }
+
+  // 0x9A SBC A,D  1  Z1HC
+  private void op9A() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SBC, state.A(), state.D() | ins.carryIn()));
+  }
+
+  // 0x9B SBC A,E  1  Z1HC
+  private void op9B() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SBC, state.A(), state.E() | ins.carryIn()));
+  }
+
+  // 0x9C SBC A,H  1  Z1HC
+  private void op9C() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SBC, state.A(), state.H() | ins.carryIn()));
+  }
+
+  // 0x9D SBC A,L  1  Z1HC
+  private void op9D() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SBC, state.A(), state.L() | ins.carryIn()));
+  }
+
+  // 0x9E SBC A,[HL]  2  Z1HC
+  private void op9E() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_SBC, state.A(), ins.readMem8(state.HL()) | ins.carryIn()));
+  }
+
+  // 0x9F SBC A,A  1  Z1HC
+  private void op9F() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_SBC, state.A(), state.A() | ins.carryIn()));
+  }
+
+  // 0xA0 AND B  1  Z010
+  private void opA0() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_AND, state.A(), state.B()));
+  }
+
+  // 0xA1 AND C  1  Z010
+  private void opA1() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_AND, state.A(), state.C()));
+  }
+
+  // 0xA2 AND D  1  Z010
+  private void opA2() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_AND, state.A(), state.D()));
+  }
+
+  // 0xA3 AND E  1  Z010
+  private void opA3() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_AND, state.A(), state.E()));
+  }
+
+  // 0xA4 AND H  1  Z010
+  private void opA4() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_AND, state.A(), state.H()));
+  }
+
+  // 0xA5 AND L  1  Z010
+  private void opA5() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_AND, state.A(), state.L()));
+  }
+
+  // 0xA6 AND [HL]  2  Z010
+  private void opA6() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_AND, state.A(), ins.readMem8(state.HL())));
+  }
+
+  // 0xA7 AND A  1  Z010
+  private void opA7() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_AND, state.A(), state.A()));
+  }
+
+  // 0xA8 XOR B  1  Z000
+  private void opA8() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_XOR, state.A(), state.B()));
+  }
+
+  // 0xA9 XOR C  1  Z000
+  private void opA9() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_XOR, state.A(), state.C()));
+  }
+
+  // 0xAA XOR D  1  Z000
+  private void opAA() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_XOR, state.A(), state.D()));
+  }
+
+  // 0xAB XOR E  1  Z000
+  private void opAB() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_XOR, state.A(), state.E()));
+  }
+
+  // 0xAC XOR H  1  Z000
+  private void opAC() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_XOR, state.A(), state.H()));
+  }
+
+  // 0xAD XOR L  1  Z000
+  private void opAD() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_XOR, state.A(), state.L()));
+  }
+
+  // 0xAE XOR [HL]  2  Z000
+  private void opAE() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_XOR, state.A(), ins.readMem8(state.HL())));
+  }
+
+  // 0xAF XOR A  1  Z000
+  private void opAF() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_XOR, state.A(), state.A()));
+  }
+
+  // 0xB0 OR B  1  Z000
+  private void opB0() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_OR, state.A(), state.B()));
+  }
+
+  // 0xB1 OR C  1  Z000
+  private void opB1() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_OR, state.A(), state.C()));
+  }
+
+  // 0xB2 OR D  1  Z000
+  private void opB2() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_OR, state.A(), state.D()));
+  }
+
+  // 0xB3 OR E  1  Z000
+  private void opB3() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_OR, state.A(), state.E()));
+  }
+
+  // 0xB4 OR H  1  Z000
+  private void opB4() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_OR, state.A(), state.H()));
+  }
+
+  // 0xB5 OR L  1  Z000
+  private void opB5() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_OR, state.A(), state.L()));
+  }
+
+  // 0xB6 OR [HL]  2  Z000
+  private void opB6() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_OR, state.A(), ins.readMem8(state.HL())));
+  }
+
+  // 0xB7 OR A  1  Z000
+  private void opB7() {
+    clockCounter.add(1);
+    state.setA(ins.alu(ALU.OP_OR, state.A(), state.A()));
+  }
+
+  // 0xB8 CP B  1  Z1HC
+  private void opB8() {
+    clockCounter.add(1);
+    ins.alu(ALU.OP_CP, state.A(), state.B());
+  }
+
+  // 0xB9 CP C  1  Z1HC
+  private void opB9() {
+    clockCounter.add(1);
+    ins.alu(ALU.OP_CP, state.A(), state.C());
+  }
+
+  // 0xBA CP D  1  Z1HC
+  private void opBA() {
+    clockCounter.add(1);
+    ins.alu(ALU.OP_CP, state.A(), state.D());
+  }
+
+  // 0xBB CP E  1  Z1HC
+  private void opBB() {
+    clockCounter.add(1);
+    ins.alu(ALU.OP_CP, state.A(), state.E());
+  }
+
+  // 0xBC CP H  1  Z1HC
+  private void opBC() {
+    clockCounter.add(1);
+    ins.alu(ALU.OP_CP, state.A(), state.H());
+  }
+
+  // 0xBD CP L  1  Z1HC
+  private void opBD() {
+    clockCounter.add(1);
+    ins.alu(ALU.OP_CP, state.A(), state.L());
+  }
+
+  // 0xBE CP [HL]  2  Z1HC
+  private void opBE() {
+    clockCounter.add(2);
+    ins.alu(ALU.OP_CP, state.A(), ins.readMem8(state.HL()));
+  }
+
+  // 0xBF CP A  1  Z1HC
+  private void opBF() {
+    clockCounter.add(1);
+    ins.alu(ALU.OP_CP, state.A(), state.A());
+  }
+
+  // 0xC0 RET NZ  5/2  ----
+  private void opC0() {
+    if ((state.getFlags() & Z) == 0) {
+      clockCounter.add(5);
+      ins.ret();
+    } else {
+      clockCounter.add(2);
+    }
+  }
+
+  // 0xC1 POP BC  3  ----
+  private void opC1() {
+    clockCounter.add(3);
+    state.setBC(ins.pop());
+  }
+
+  // 0xC2 JP NZ,a16  4/3  ----
+  private void opC2() {
+    if ((state.getFlags() & Z) == 0) {
+      clockCounter.add(4);
+      ins.jp();
+    } else {
+      clockCounter.add(3);
+      state.incPC();  // skip immediate address
+      state.incPC();
+    }
+  }
+
+  // 0xC3 JP a16  4  ----
+  private void opC3() {
+    clockCounter.add(4);
+    ins.jp();
+  }
+
+  // 0xC4 CALL NZ,a16  6/3  ----
+  private void opC4() {
+    if ((state.getFlags() & Z) == 0) {
+      clockCounter.add(6);
+      ins.call();
+    } else {
+      clockCounter.add(3);
+      state.incPC();  // skip immediate address
+      state.incPC();
+    }
+  }
+
+  // 0xC5 PUSH BC  4  ----
+  private void opC5() {
+    clockCounter.add(4);
+    ins.push(state.BC());
+  }
+
+  // 0xC6 ADD A,d8  2  Z0HC
+  private void opC6() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_ADD, state.A(), ins.imm8()));
+  }
+
+  // 0xC7 RST 0x00  4  ----
+  private void opC7() {
+    clockCounter.add(4);
+    ins.rst(0x00);
+  }
+
+  // 0xC8 RET Z  5/2  ----
+  private void opC8() {
+    if ((state.getFlags() & Z) != 0) {
+      clockCounter.add(5);
+      ins.ret();
+    } else {
+      clockCounter.add(2);
+    }
+  }
+
+  // 0xC9 RET  4  ----
+  private void opC9() {
+    clockCounter.add(4);
+    ins.ret();
+  }
+
+  // 0xCA JP Z,a16  4/3  ----
+  private void opCA() {
+    if ((state.getFlags() & Z) != 0) {
+      clockCounter.add(4);
+      ins.jp();
+    } else {
+      clockCounter.add(3);
+      state.incPC();  // skip immediate address
+      state.incPC();
+    }
+  }
+
+  // 0xCB PREFIX CB  1  ----
+  private void opCB() {
+    clockCounter.add(1);
+    executeCB(ins.imm8());
+  }
+  private void opCBTable() {
+    clockCounter.add(1);
+    cbHandlers[ins.imm8()].execute();
+  }
+
+  // 0xCC CALL Z,a16  6/3  ----
+  private void opCC() {
+    if ((state.getFlags() & Z) != 0) {
+      clockCounter.add(6);
+      ins.call();
+    } else {
+      clockCounter.add(3);
+      state.incPC();  // skip immediate address
+      state.incPC();
+    }
+  }
+
+  // 0xCD CALL a16  6  ----
+  private void opCD() {
+    clockCounter.add(6);
+    ins.call();
+  }
+
+  // 0xCE ADC A,d8  2  Z0HC
+  private void opCE() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_ADC, state.A(), ins.imm8() | ins.carryIn()));
+  }
+
+  // 0xCF RST 0x08  4  ----
+  private void opCF() {
+    clockCounter.add(4);
+    ins.rst(0x08);
+  }
+
+  // 0xD0 RET NC  5/2  ----
+  private void opD0() {
+    if ((state.getFlags() & C) == 0) {
+      clockCounter.add(5);
+      ins.ret();
+    } else {
+      clockCounter.add(2);
+    }
+  }
+
+  // 0xD1 POP DE  3  ----
+  private void opD1() {
+    clockCounter.add(3);
+    state.setDE(ins.pop());
+  }
+
+  // 0xD2 JP NC,a16  4/3  ----
+  private void opD2() {
+    if ((state.getFlags() & C) == 0) {
+      clockCounter.add(4);
+      ins.jp();
+    } else {
+      clockCounter.add(3);
+      state.incPC();  // skip immediate address
+      state.incPC();
+    }
+  }
+
+  // 0xD3 -  0  ----
+  private void opD3() {
+    cpu.missing((short)0xD3);
+  }
+
+  // 0xD4 CALL NC,a16  6/3  ----
+  private void opD4() {
+    if ((state.getFlags() & C) == 0) {
+      clockCounter.add(6);
+      ins.call();
+    } else {
+      clockCounter.add(3);
+      state.incPC();  // skip immediate address
+      state.incPC();
+    }
+  }
+
+  // 0xD5 PUSH DE  4  ----
+  private void opD5() {
+    clockCounter.add(4);
+    ins.push(state.DE());
+  }
+
+  // 0xD6 SUB d8  2  Z1HC
+  private void opD6() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_SUB, state.A(), ins.imm8()));
+  }
+
+  // 0xD7 RST 0x10  4  ----
+  private void opD7() {
+    clockCounter.add(4);
+    ins.rst(0x10);
+  }
+
+  // 0xD8 RET C  5/2  ----
+  private void opD8() {
+    if ((state.getFlags() & C) != 0) {
+      clockCounter.add(5);
+      ins.ret();
+    } else {
+      clockCounter.add(2);
+    }
+  }
+
+  // 0xD9 RETI  5  ----
+  private void opD9() {
+    clockCounter.add(5);
+    ins.ret();
+    state.IME(true);
+  }
+
+  // 0xDA JP C,a16  4/3  ----
+  private void opDA() {
+    if ((state.getFlags() & C) != 0) {
+      clockCounter.add(4);
+      ins.jp();
+    } else {
+      clockCounter.add(3);
+      state.incPC();  // skip immediate address
+      state.incPC();
+    }
+  }
+
+  // 0xDB -  0  ----
+  private void opDB() {
+    cpu.missing((short)0xDB);
+  }
+
+  // 0xDC CALL C,a16  6/3  ----
+  private void opDC() {
+    if ((state.getFlags() & C) != 0) {
+      clockCounter.add(6);
+      ins.call();
+    } else {
+      clockCounter.add(3);
+      state.incPC();  // skip immediate address
+      state.incPC();
+    }
+  }
+
+  // 0xDD DUMP  0  ----
+  private void opDD() {
+    cpu.dump();
+  }
+
+  // 0xDE SBC A,d8  2  Z1HC
+  private void opDE() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_SBC, state.A(), ins.imm8() | ins.carryIn()));
+  }
+
+  // 0xDF RST 0x18  4  ----
+  private void opDF() {
+    clockCounter.add(4);
+    ins.rst(0x18);
+  }
+
+  // 0xE0 LDH [a8],A  3  ----
+  private void opE0() {
+    clockCounter.add(3);
+    ins.writeMem8(0xFF00 + ins.imm8(), state.A());
+  }
+
+  // 0xE1 POP HL  3  ----
+  private void opE1() {
+    clockCounter.add(3);
+    state.setHL(ins.pop());
+  }
+
+  // 0xE2 LD [C],A  2  ----
+  private void opE2() {
+    clockCounter.add(2);
+    ins.writeMem8(0xFF00 + state.C(), state.A());
+  }
+
+  // 0xE3 -  0  ----
+  private void opE3() {
+    cpu.missing((short)0xE3);
+  }
+
+  // 0xE4 -  0  ----
+  private void opE4() {
+    cpu.missing((short)0xE4);
+  }
+
+  // 0xE5 PUSH HL  4  ----
+  private void opE5() {
+    clockCounter.add(4);
+    ins.push(state.HL());
+  }
+
+  // 0xE6 AND d8  2  Z010
+  private void opE6() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_AND, state.A(), ins.imm8()));
+  }
+
+  // 0xE7 RST 0x20  4  ----
+  private void opE7() {
+    clockCounter.add(4);
+    ins.rst(0x20);
+  }
+
+  // 0xE8 ADD SP,r8  4  00HC
+  private void opE8() {
+    clockCounter.add(4);
+    state.setSP(ins.addSP(ins.imm8()));
+  }
+
+  // 0xE9 JP HL  1  ----
+  private void opE9() {
+    clockCounter.add(1);
+    ins.jump(state.HL());
+  }
+
+  // 0xEA LD [a16],A  4  ----
+  private void opEA() {
+    clockCounter.add(4);
+    ins.writeMem8(ins.imm16(), state.A());
+  }
+
+  // 0xEB -  0  ----
+  private void opEB() {
+    cpu.missing((short)0xEB);
+  }
+
+  // 0xEC -  0  ----
+  private void opEC() {
+    cpu.missing((short)0xEC);
+  }
+
+  // 0xED -  0  ----
+  private void opED() {
+    cpu.missing((short)0xED);
+  }
+
+  // 0xEE XOR d8  2  Z000
+  private void opEE() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_XOR, state.A(), ins.imm8()));
+  }
+
+  // 0xEF RST 0x28  4  ----
+  private void opEF() {
+    clockCounter.add(4);
+    ins.rst(0x28);
+  }
+
+  // 0xF0 LDH A,[a8]  3  ----
+  private void opF0() {
+    clockCounter.add(3);
+    state.setA(ins.readMem8(0xFF00 + ins.imm8()));
+  }
+
+  // 0xF1 POP AF  3  ZNHC
+  private void opF1() {
+    clockCounter.add(3);
+    state.setAF(ins.pop());
+  }
+
+  // 0xF2 LD A,[C]  2  ----
+  private void opF2() {
+    clockCounter.add(2);
+    state.setA(ins.readMem8(0xFF00 + state.C()));
+  }
+
+  // 0xF3 DI  1  ----
+  private void opF3() {
+    clockCounter.add(1);
+    state.IME(false);
+  }
+
+  // 0xF4 -  0  ----
+  private void opF4() {
+    cpu.missing((short)0xF4);
+  }
+
+  // 0xF5 PUSH AF  4  ----
+  private void opF5() {
+    clockCounter.add(4);
+    ins.push(state.AF());
+  }
+
+  // 0xF6 OR d8  2  Z000
+  private void opF6() {
+    clockCounter.add(2);
+    state.setA(ins.alu(ALU.OP_OR, state.A(), ins.imm8()));
+  }
+
+  // 0xF7 RST 0x30  4  ----
+  private void opF7() {
+    clockCounter.add(4);
+    ins.rst(0x30);
+  }
+
+  // 0xF8 LD HL,SP+r8  3  00HC
+  private void opF8() {
+    clockCounter.add(3);
+    state.setHL(ins.addSP(ins.imm8()));
+  }
+
+  // 0xF9 LD SP,HL  2  ----
+  private void opF9() {
+    clockCounter.add(2);
+    state.setSP(state.HL());
+  }
+
+  // 0xFA LD A,[a16]  4  ----
+  private void opFA() {
+    clockCounter.add(4);
+    state.setA(ins.readMem8(ins.imm16()));
+  }
+
+  // 0xFB EI  1  ----
+  private void opFB() {
+    clockCounter.add(1);
+    state.IME(true);
+  }
+
+  // 0xFC -  0  ----
+  private void opFC() {
+    cpu.missing((short)0xFC);
+  }
+
+  // 0xFD -  0  ----
+  private void opFD() {
+    cpu.missing((short)0xFD);
+  }
+
+  // 0xFE CP d8  2  Z1HC
+  private void opFE() {
+    clockCounter.add(2);
+    ins.alu(ALU.OP_CP, state.A(), ins.imm8());
+  }
+
+  // 0xFF RST 0x38  4  ----
+  private void opFF() {
+    clockCounter.add(4);
+    ins.rst(0x38);
+  }
+
+  /* - END Handlers */
+
+
+  /* - CB Handlers */
+  // CB 0x00 RLC B  3  Z00C
+  private void cb00() {
+    clockCounter.add(2);
+    state.setB(cb.rlc(state.B()));
+  }
+
+  // CB 0x01 RLC C  3  Z00C
+  private void cb01() {
+    clockCounter.add(2);
+    state.setC(cb.rlc(state.C()));
+  }
+
+  // CB 0x02 RLC D  3  Z00C
+  private void cb02() {
+    clockCounter.add(2);
+    state.setD(cb.rlc(state.D()));
+  }
+
+  // CB 0x03 RLC E  3  Z00C
+  private void cb03() {
+    clockCounter.add(2);
+    state.setE(cb.rlc(state.E()));
+  }
+
+  // CB 0x04 RLC H  3  Z00C
+  private void cb04() {
+    clockCounter.add(2);
+    state.setH(cb.rlc(state.H()));
+  }
+
+  // CB 0x05 RLC L  3  Z00C
+  private void cb05() {
+    clockCounter.add(2);
+    state.setL(cb.rlc(state.L()));
+  }
+
+  // CB 0x06 RLC [HL]  3  Z00C
+  private void cb06() {
+    clockCounter.add(2);
+    int address = state.HL();
+    ins.writeMem8(address, cb.rlc(ins.readMem8(address)));
+  }
+
+  // CB 0x07 RLC A  3  Z00C
+  private void cb07() {
+    clockCounter.add(2);
+    state.setA(cb.rlc(state.A()));
+  }
+
+  // CB 0x08 RRC B  3  Z00C
+  private void cb08() {
+    clockCounter.add(2);
+    state.setB(cb.rrc(state.B()));
+  }
+
+  // CB 0x09 RRC C  3  Z00C
+  private void cb09() {
+    clockCounter.add(2);
+    state.setC(cb.rrc(state.C()));
+  }
+
+  // CB 0x0A RRC D  3  Z00C
+  private void cb0A() {
+    clockCounter.add(2);
+    state.setD(cb.rrc(state.D()));
+  }
+
+  // CB 0x0B RRC E  3  Z00C
+  private void cb0B() {
+    clockCounter.add(2);
+    state.setE(cb.rrc(state.E()));
+  }
+
+  // CB 0x0C RRC H  3  Z00C
+  private void cb0C() {
+    clockCounter.add(2);
+    state.setH(cb.rrc(state.H()));
+  }
+
+  // CB 0x0D RRC L  3  Z00C
+  private void cb0D() {
+    clockCounter.add(2);
+    state.setL(cb.rrc(state.L()));
+  }
+
+  // CB 0x0E RRC [HL]  5  Z00C
+  private void cb0E() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, cb.rrc(ins.readMem8(address)));
+  }
+
+  // CB 0x0F RRC A  3  Z00C
+  private void cb0F() {
+    clockCounter.add(2);
+    state.setA(cb.rrc(state.A()));
+  }
+
+  // CB 0x10 RL B  3  Z00C
+  private void cb10() {
+    clockCounter.add(2);
+    state.setB(cb.rl(state.B()));
+  }
+
+  // CB 0x11 RL C  3  Z00C
+  private void cb11() {
+    clockCounter.add(2);
+    state.setC(cb.rl(state.C()));
+  }
+
+  // CB 0x12 RL D  3  Z00C
+  private void cb12() {
+    clockCounter.add(2);
+    state.setD(cb.rl(state.D()));
+  }
+
+  // CB 0x13 RL E  3  Z00C
+  private void cb13() {
+    clockCounter.add(2);
+    state.setE(cb.rl(state.E()));
+  }
+
+  // CB 0x14 RL H  3  Z00C
+  private void cb14() {
+    clockCounter.add(2);
+    state.setH(cb.rl(state.H()));
+  }
+
+  // CB 0x15 RL L  3  Z00C
+  private void cb15() {
+    clockCounter.add(2);
+    state.setL(cb.rl(state.L()));
+  }
+
+  // CB 0x16 RL [HL]  5  Z00C
+  private void cb16() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, cb.rl(ins.readMem8(address)));
+  }
+
+  // CB 0x17 RL A  3  Z00C
+  private void cb17() {
+    clockCounter.add(2);
+    state.setA(cb.rl(state.A()));
+  }
+
+  // CB 0x18 RR B  3  Z00C
+  private void cb18() {
+    clockCounter.add(2);
+    state.setB(cb.rr(state.B()));
+  }
+
+  // CB 0x19 RR C  3  Z00C
+  private void cb19() {
+    clockCounter.add(2);
+    state.setC(cb.rr(state.C()));
+  }
+
+  // CB 0x1A RR D  3  Z00C
+  private void cb1A() {
+    clockCounter.add(2);
+    state.setD(cb.rr(state.D()));
+  }
+
+  // CB 0x1B RR E  3  Z00C
+  private void cb1B() {
+    clockCounter.add(2);
+    state.setE(cb.rr(state.E()));
+  }
+
+  // CB 0x1C RR H  3  Z00C
+  private void cb1C() {
+    clockCounter.add(2);
+    state.setH(cb.rr(state.H()));
+  }
+
+  // CB 0x1D RR L  3  Z00C
+  private void cb1D() {
+    clockCounter.add(2);
+    state.setL(cb.rr(state.L()));
+  }
+
+  // CB 0x1E RR [HL]  5  Z00C
+  private void cb1E() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, cb.rr(ins.readMem8(address)));
+  }
+
+  // CB 0x1F RR A  3  Z00C
+  private void cb1F() {
+    clockCounter.add(2);
+    state.setA(cb.rr(state.A()));
+  }
+
+  // CB 0x20 SLA B  3  Z00C
+  private void cb20() {
+    clockCounter.add(2);
+    state.setB(cb.sla(state.B()));
+  }
+
+  // CB 0x21 SLA C  3  Z00C
+  private void cb21() {
+    clockCounter.add(2);
+    state.setC(cb.sla(state.C()));
+  }
+
+  // CB 0x22 SLA D  3  Z00C
+  private void cb22() {
+    clockCounter.add(2);
+    state.setD(cb.sla(state.D()));
+  }
+
+  // CB 0x23 SLA E  3  Z00C
+  private void cb23() {
+    clockCounter.add(2);
+    state.setE(cb.sla(state.E()));
+  }
+
+  // CB 0x24 SLA H  3  Z00C
+  private void cb24() {
+    clockCounter.add(2);
+    state.setH(cb.sla(state.H()));
+  }
+
+  // CB 0x25 SLA L  3  Z00C
+  private void cb25() {
+    clockCounter.add(2);
+    state.setL(cb.sla(state.L()));
+  }
+
+  // CB 0x26 SLA [HL]  5  Z00C
+  private void cb26() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, cb.sla(ins.readMem8(address)));
+  }
+
+  // CB 0x27 SLA A  3  Z00C
+  private void cb27() {
+    clockCounter.add(2);
+    state.setA(cb.sla(state.A()));
+  }
+
+  // CB 0x28 SRA B  3  Z00C
+  private void cb28() {
+    clockCounter.add(2);
+    state.setB(cb.sra(state.B()));
+  }
+
+  // CB 0x29 SRA C  3  Z00C
+  private void cb29() {
+    clockCounter.add(2);
+    state.setC(cb.sra(state.C()));
+  }
+
+  // CB 0x2A SRA D  3  Z00C
+  private void cb2A() {
+    clockCounter.add(2);
+    state.setD(cb.sra(state.D()));
+  }
+
+  // CB 0x2B SRA E  3  Z00C
+  private void cb2B() {
+    clockCounter.add(2);
+    state.setE(cb.sra(state.E()));
+  }
+
+  // CB 0x2C SRA H  3  Z00C
+  private void cb2C() {
+    clockCounter.add(2);
+    state.setH(cb.sra(state.H()));
+  }
+
+  // CB 0x2D SRA L  3  Z00C
+  private void cb2D() {
+    clockCounter.add(2);
+    state.setL(cb.sra(state.L()));
+  }
+
+  // CB 0x2E SRA [HL]  5  Z00C
+  private void cb2E() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, cb.sra(ins.readMem8(address)));
+  }
+
+  // CB 0x2F SRA A  3  Z00C
+  private void cb2F() {
+    clockCounter.add(2);
+    state.setA(cb.sra(state.A()));
+  }
+
+  // CB 0x30 SWAP B  3  Z000
+  private void cb30() {
+    clockCounter.add(2);
+    state.setB(cb.swap(state.B()));
+  }
+
+  // CB 0x31 SWAP C  3  Z000
+  private void cb31() {
+    clockCounter.add(2);
+    state.setC(cb.swap(state.C()));
+  }
+
+  // CB 0x32 SWAP D  3  Z000
+  private void cb32() {
+    clockCounter.add(2);
+    state.setD(cb.swap(state.D()));
+  }
+
+  // CB 0x33 SWAP E  3  Z000
+  private void cb33() {
+    clockCounter.add(2);
+    state.setE(cb.swap(state.E()));
+  }
+
+  // CB 0x34 SWAP H  3  Z000
+  private void cb34() {
+    clockCounter.add(2);
+    state.setH(cb.swap(state.H()));
+  }
+
+  // CB 0x35 SWAP L  3  Z000
+  private void cb35() {
+    clockCounter.add(2);
+    state.setL(cb.swap(state.L()));
+  }
+
+  // CB 0x36 SWAP [HL]  5  Z000
+  private void cb36() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, cb.swap(ins.readMem8(address)));
+  }
+
+  // CB 0x37 SWAP A  3  Z000
+  private void cb37() {
+    clockCounter.add(2);
+    state.setA(cb.swap(state.A()));
+  }
+
+  // CB 0x38 SRL B  3  Z00C
+  private void cb38() {
+    clockCounter.add(2);
+    state.setB(cb.srl(state.B()));
+  }
+
+  // CB 0x39 SRL C  3  Z00C
+  private void cb39() {
+    clockCounter.add(2);
+    state.setC(cb.srl(state.C()));
+  }
+
+  // CB 0x3A SRL D  3  Z00C
+  private void cb3A() {
+    clockCounter.add(2);
+    state.setD(cb.srl(state.D()));
+  }
+
+  // CB 0x3B SRL E  3  Z00C
+  private void cb3B() {
+    clockCounter.add(2);
+    state.setE(cb.srl(state.E()));
+  }
+
+  // CB 0x3C SRL H  3  Z00C
+  private void cb3C() {
+    clockCounter.add(2);
+    state.setH(cb.srl(state.H()));
+  }
+
+  // CB 0x3D SRL L  3  Z00C
+  private void cb3D() {
+    clockCounter.add(2);
+    state.setL(cb.srl(state.L()));
+  }
+
+  // CB 0x3E SRL [HL]  5  Z00C
+  private void cb3E() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, cb.srl(ins.readMem8(address)));
+  }
+
+  // CB 0x3F SRL A  3  Z00C
+  private void cb3F() {
+    clockCounter.add(2);
+    state.setA(cb.srl(state.A()));
+  }
+
+  // CB 0x40 BIT 0,B  5  Z01-
+  private void cb40() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.B() & 0x01) != 0 ? H : Z | H);
+  }
+
+  // CB 0x41 BIT 0,C  5  Z01-
+  private void cb41() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.C() & 0x01) != 0 ? H : Z | H);
+  }
+
+  // CB 0x42 BIT 0,D  5  Z01-
+  private void cb42() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.D() & 0x01) != 0 ? H : Z | H);
+  }
+
+  // CB 0x43 BIT 0,E  5  Z01-
+  private void cb43() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.E() & 0x01) != 0 ? H : Z | H);
+  }
+
+  // CB 0x44 BIT 0,H  5  Z01-
+  private void cb44() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.H() & 0x01) != 0 ? H : Z | H);
+  }
+
+  // CB 0x45 BIT 0,L  5  Z01-
+  private void cb45() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.L() & 0x01) != 0 ? H : Z | H);
+  }
+
+  // CB 0x46 BIT 0,[HL]  5  Z01-
+  private void cb46() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (ins.readMem8(state.HL()) & 0x01) != 0 ? H : Z | H);
+  }
+
+  // CB 0x47 BIT 0,A  5  Z01-
+  private void cb47() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.A() & 0x01) != 0 ? H : Z | H);
+  }
+
+  // CB 0x48 BIT 1,B  5  Z01-
+  private void cb48() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.B() & 0x02) != 0 ? H : Z | H);
+  }
+
+  // CB 0x49 BIT 1,C  5  Z01-
+  private void cb49() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.C() & 0x02) != 0 ? H : Z | H);
+  }
+
+  // CB 0x4A BIT 1,D  5  Z01-
+  private void cb4A() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.D() & 0x02) != 0 ? H : Z | H);
+  }
+
+  // CB 0x4B BIT 1,E  5  Z01-
+  private void cb4B() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.E() & 0x02) != 0 ? H : Z | H);
+  }
+
+  // CB 0x4C BIT 1,H  5  Z01-
+  private void cb4C() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.H() & 0x02) != 0 ? H : Z | H);
+  }
+
+  // CB 0x4D BIT 1,L  5  Z01-
+  private void cb4D() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.L() & 0x02) != 0 ? H : Z | H);
+  }
+
+  // CB 0x4E BIT 1,[HL]  5  Z01-
+  private void cb4E() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (ins.readMem8(state.HL()) & 0x02) != 0 ? H : Z | H);
+  }
+
+  // CB 0x4F BIT 1,A  5  Z01-
+  private void cb4F() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.A() & 0x02) != 0 ? H : Z | H);
+  }
+
+  // CB 0x50 BIT 2,B  5  Z01-
+  private void cb50() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.B() & 0x04) != 0 ? H : Z | H);
+  }
+
+  // CB 0x51 BIT 2,C  5  Z01-
+  private void cb51() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.C() & 0x04) != 0 ? H : Z | H);
+  }
+
+  // CB 0x52 BIT 2,D  5  Z01-
+  private void cb52() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.D() & 0x04) != 0 ? H : Z | H);
+  }
+
+  // CB 0x53 BIT 2,E  5  Z01-
+  private void cb53() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.E() & 0x04) != 0 ? H : Z | H);
+  }
+
+  // CB 0x54 BIT 2,H  5  Z01-
+  private void cb54() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.H() & 0x04) != 0 ? H : Z | H);
+  }
+
+  // CB 0x55 BIT 2,L  5  Z01-
+  private void cb55() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.L() & 0x04) != 0 ? H : Z | H);
+  }
+
+  // CB 0x56 BIT 2,[HL]  5  Z01-
+  private void cb56() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (ins.readMem8(state.HL()) & 0x04) != 0 ? H : Z | H);
+  }
+
+  // CB 0x57 BIT 2,A  5  Z01-
+  private void cb57() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.A() & 0x04) != 0 ? H : Z | H);
+  }
+
+  // CB 0x58 BIT 3,B  5  Z01-
+  private void cb58() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.B() & 0x08) != 0 ? H : Z | H);
+  }
+
+  // CB 0x59 BIT 3,C  5  Z01-
+  private void cb59() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.C() & 0x08) != 0 ? H : Z | H);
+  }
+
+  // CB 0x5A BIT 3,D  5  Z01-
+  private void cb5A() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.D() & 0x08) != 0 ? H : Z | H);
+  }
+
+  // CB 0x5B BIT 3,E  5  Z01-
+  private void cb5B() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.E() & 0x08) != 0 ? H : Z | H);
+  }
+
+  // CB 0x5C BIT 3,H  5  Z01-
+  private void cb5C() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.H() & 0x08) != 0 ? H : Z | H);
+  }
+
+  // CB 0x5D BIT 3,L  5  Z01-
+  private void cb5D() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.L() & 0x08) != 0 ? H : Z | H);
+  }
+
+  // CB 0x5E BIT 3,[HL]  5  Z01-
+  private void cb5E() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (ins.readMem8(state.HL()) & 0x08) != 0 ? H : Z | H);
+  }
+
+  // CB 0x5F BIT 3,A  5  Z01-
+  private void cb5F() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.A() & 0x08) != 0 ? H : Z | H);
+  }
+
+  // CB 0x60 BIT 4,B  5  Z01-
+  private void cb60() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.B() & 0x10) != 0 ? H : Z | H);
+  }
+
+  // CB 0x61 BIT 4,C  5  Z01-
+  private void cb61() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.C() & 0x10) != 0 ? H : Z | H);
+  }
+
+  // CB 0x62 BIT 4,D  5  Z01-
+  private void cb62() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.D() & 0x10) != 0 ? H : Z | H);
+  }
+
+  // CB 0x63 BIT 4,E  5  Z01-
+  private void cb63() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.E() & 0x10) != 0 ? H : Z | H);
+  }
+
+  // CB 0x64 BIT 4,H  5  Z01-
+  private void cb64() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.H() & 0x10) != 0 ? H : Z | H);
+  }
+
+  // CB 0x65 BIT 4,L  5  Z01-
+  private void cb65() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.L() & 0x10) != 0 ? H : Z | H);
+  }
+
+  // CB 0x66 BIT 4,[HL]  5  Z01-
+  private void cb66() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (ins.readMem8(state.HL()) & 0x10) != 0 ? H : Z | H);
+  }
+
+  // CB 0x67 BIT 4,A  5  Z01-
+  private void cb67() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.A() & 0x10) != 0 ? H : Z | H);
+  }
+
+  // CB 0x68 BIT 5,B  5  Z01-
+  private void cb68() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.B() & 0x20) != 0 ? H : Z | H);
+  }
+
+  // CB 0x69 BIT 5,C  5  Z01-
+  private void cb69() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.C() & 0x20) != 0 ? H : Z | H);
+  }
+
+  // CB 0x6A BIT 5,D  5  Z01-
+  private void cb6A() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.D() & 0x20) != 0 ? H : Z | H);
+  }
+
+  // CB 0x6B BIT 5,E  5  Z01-
+  private void cb6B() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.E() & 0x20) != 0 ? H : Z | H);
+  }
+
+  // CB 0x6C BIT 5,H  5  Z01-
+  private void cb6C() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.H() & 0x20) != 0 ? H : Z | H);
+  }
+
+  // CB 0x6D BIT 5,L  5  Z01-
+  private void cb6D() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.L() & 0x20) != 0 ? H : Z | H);
+  }
+
+  // CB 0x6E BIT 5,[HL]  5  Z01-
+  private void cb6E() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (ins.readMem8(state.HL()) & 0x20) != 0 ? H : Z | H);
+  }
+
+  // CB 0x6F BIT 5,A  5  Z01-
+  private void cb6F() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.A() & 0x20) != 0 ? H : Z | H);
+  }
+
+  // CB 0x70 BIT 6,B  5  Z01-
+  private void cb70() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.B() & 0x40) != 0 ? H : Z | H);
+  }
+
+  // CB 0x71 BIT 6,C  5  Z01-
+  private void cb71() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.C() & 0x40) != 0 ? H : Z | H);
+  }
+
+  // CB 0x72 BIT 6,D  5  Z01-
+  private void cb72() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.D() & 0x40) != 0 ? H : Z | H);
+  }
+
+  // CB 0x73 BIT 6,E  5  Z01-
+  private void cb73() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.E() & 0x40) != 0 ? H : Z | H);
+  }
+
+  // CB 0x74 BIT 6,H  5  Z01-
+  private void cb74() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.H() & 0x40) != 0 ? H : Z | H);
+  }
+
+  // CB 0x75 BIT 6,L  5  Z01-
+  private void cb75() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.L() & 0x40) != 0 ? H : Z | H);
+  }
+
+  // CB 0x76 BIT 6,[HL]  5  Z01-
+  private void cb76() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (ins.readMem8(state.HL()) & 0x40) != 0 ? H : Z | H);
+  }
+
+  // CB 0x77 BIT 6,A  5  Z01-
+  private void cb77() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.A() & 0x40) != 0 ? H : Z | H);
+  }
+
+  // CB 0x78 BIT 7,B  5  Z01-
+  private void cb78() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.B() & 0x80) != 0 ? H : Z | H);
+  }
+
+  // CB 0x79 BIT 7,C  5  Z01-
+  private void cb79() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.C() & 0x80) != 0 ? H : Z | H);
+  }
+
+  // CB 0x7A BIT 7,D  5  Z01-
+  private void cb7A() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.D() & 0x80) != 0 ? H : Z | H);
+  }
+
+  // CB 0x7B BIT 7,E  5  Z01-
+  private void cb7B() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.E() & 0x80) != 0 ? H : Z | H);
+  }
+
+  // CB 0x7C BIT 7,H  5  Z01-
+  private void cb7C() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.H() & 0x80) != 0 ? H : Z | H);
+  }
+
+  // CB 0x7D BIT 7,L  5  Z01-
+  private void cb7D() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.L() & 0x80) != 0 ? H : Z | H);
+  }
+
+  // CB 0x7E BIT 7,[HL]  5  Z01-
+  private void cb7E() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (ins.readMem8(state.HL()) & 0x80) != 0 ? H : Z | H);
+  }
+
+  // CB 0x7F BIT 7,A  5  Z01-
+  private void cb7F() {
+    clockCounter.add(4);
+    state.setFlags(Z | N | H, (state.A() & 0x80) != 0 ? H : Z | H);
+  }
+
+  // CB 0x80 RES 0,B  3  ----
+  private void cb80() {
+    clockCounter.add(2);
+    state.setB(state.B() & 0xFE);
+  }
+
+  // CB 0x81 RES 0,C  3  ----
+  private void cb81() {
+    clockCounter.add(2);
+    state.setC(state.C() & 0xFE);
+  }
+
+  // CB 0x82 RES 0,D  3  ----
+  private void cb82() {
+    clockCounter.add(2);
+    state.setD(state.D() & 0xFE);
+  }
+
+  // CB 0x83 RES 0,E  3  ----
+  private void cb83() {
+    clockCounter.add(2);
+    state.setE(state.E() & 0xFE);
+  }
+
+  // CB 0x84 RES 0,H  3  ----
+  private void cb84() {
+    clockCounter.add(2);
+    state.setH(state.H() & 0xFE);
+  }
+
+  // CB 0x85 RES 0,L  3  ----
+  private void cb85() {
+    clockCounter.add(2);
+    state.setL(state.L() & 0xFE);
+  }
+
+  // CB 0x86 RES 0,[HL]  5  ----
+  private void cb86() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) & 0xFE);
+  }
+
+  // CB 0x87 RES 0,A  3  ----
+  private void cb87() {
+    clockCounter.add(2);
+    state.setA(state.A() & 0xFE);
+  }
+
+  // CB 0x88 RES 1,B  3  ----
+  private void cb88() {
+    clockCounter.add(2);
+    state.setB(state.B() & 0xFD);
+  }
+
+  // CB 0x89 RES 1,C  3  ----
+  private void cb89() {
+    clockCounter.add(2);
+    state.setC(state.C() & 0xFD);
+  }
+
+  // CB 0x8A RES 1,D  3  ----
+  private void cb8A() {
+    clockCounter.add(2);
+    state.setD(state.D() & 0xFD);
+  }
+
+  // CB 0x8B RES 1,E  3  ----
+  private void cb8B() {
+    clockCounter.add(2);
+    state.setE(state.E() & 0xFD);
+  }
+
+  // CB 0x8C RES 1,H  3  ----
+  private void cb8C() {
+    clockCounter.add(2);
+    state.setH(state.H() & 0xFD);
+  }
+
+  // CB 0x8D RES 1,L  3  ----
+  private void cb8D() {
+    clockCounter.add(2);
+    state.setL(state.L() & 0xFD);
+  }
+
+  // CB 0x8E RES 1,[HL]  5  ----
+  private void cb8E() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) & 0xFD);
+  }
+
+  // CB 0x8F RES 1,A  3  ----
+  private void cb8F() {
+    clockCounter.add(2);
+    state.setA(state.A() & 0xFD);
+  }
+
+  // CB 0x90 RES 2,B  3  ----
+  private void cb90() {
+    clockCounter.add(2);
+    state.setB(state.B() & 0xFB);
+  }
+
+  // CB 0x91 RES 2,C  3  ----
+  private void cb91() {
+    clockCounter.add(2);
+    state.setC(state.C() & 0xFB);
+  }
+
+  // CB 0x92 RES 2,D  3  ----
+  private void cb92() {
+    clockCounter.add(2);
+    state.setD(state.D() & 0xFB);
+  }
+
+  // CB 0x93 RES 2,E  3  ----
+  private void cb93() {
+    clockCounter.add(2);
+    state.setE(state.E() & 0xFB);
+  }
+
+  // CB 0x94 RES 2,H  3  ----
+  private void cb94() {
+    clockCounter.add(2);
+    state.setH(state.H() & 0xFB);
+  }
+
+  // CB 0x95 RES 2,L  3  ----
+  private void cb95() {
+    clockCounter.add(2);
+    state.setL(state.L() & 0xFB);
+  }
+
+  // CB 0x96 RES 2,[HL]  5  ----
+  private void cb96() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) & 0xFB);
+  }
+
+  // CB 0x97 RES 2,A  3  ----
+  private void cb97() {
+    clockCounter.add(2);
+    state.setA(state.A() & 0xFB);
+  }
+
+  // CB 0x98 RES 3,B  3  ----
+  private void cb98() {
+    clockCounter.add(2);
+    state.setB(state.B() & 0xF7);
+  }
+
+  // CB 0x99 RES 3,C  3  ----
+  private void cb99() {
+    clockCounter.add(2);
+    state.setC(state.C() & 0xF7);
+  }
+
+  // CB 0x9A RES 3,D  3  ----
+  private void cb9A() {
+    clockCounter.add(2);
+    state.setD(state.D() & 0xF7);
+  }
+
+  // CB 0x9B RES 3,E  3  ----
+  private void cb9B() {
+    clockCounter.add(2);
+    state.setE(state.E() & 0xF7);
+  }
+
+  // CB 0x9C RES 3,H  3  ----
+  private void cb9C() {
+    clockCounter.add(2);
+    state.setH(state.H() & 0xF7);
+  }
+
+  // CB 0x9D RES 3,L  3  ----
+  private void cb9D() {
+    clockCounter.add(2);
+    state.setL(state.L() & 0xF7);
+  }
+
+  // CB 0x9E RES 3,[HL]  5  ----
+  private void cb9E() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) & 0xF7);
+  }
+
+  // CB 0x9F RES 3,A  3  ----
+  private void cb9F() {
+    clockCounter.add(2);
+    state.setA(state.A() & 0xF7);
+  }
+
+  // CB 0xA0 RES 4,B  3  ----
+  private void cbA0() {
+    clockCounter.add(2);
+    state.setB(state.B() & 0xEF);
+  }
+
+  // CB 0xA1 RES 4,C  3  ----
+  private void cbA1() {
+    clockCounter.add(2);
+    state.setC(state.C() & 0xEF);
+  }
+
+  // CB 0xA2 RES 4,D  3  ----
+  private void cbA2() {
+    clockCounter.add(2);
+    state.setD(state.D() & 0xEF);
+  }
+
+  // CB 0xA3 RES 4,E  3  ----
+  private void cbA3() {
+    clockCounter.add(2);
+    state.setE(state.E() & 0xEF);
+  }
+
+  // CB 0xA4 RES 4,H  3  ----
+  private void cbA4() {
+    clockCounter.add(2);
+    state.setH(state.H() & 0xEF);
+  }
+
+  // CB 0xA5 RES 4,L  3  ----
+  private void cbA5() {
+    clockCounter.add(2);
+    state.setL(state.L() & 0xEF);
+  }
+
+  // CB 0xA6 RES 4,[HL]  5  ----
+  private void cbA6() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) & 0xEF);
+  }
+
+  // CB 0xA7 RES 4,A  3  ----
+  private void cbA7() {
+    clockCounter.add(2);
+    state.setA(state.A() & 0xEF);
+  }
+
+  // CB 0xA8 RES 5,B  3  ----
+  private void cbA8() {
+    clockCounter.add(2);
+    state.setB(state.B() & 0xDF);
+  }
+
+  // CB 0xA9 RES 5,C  3  ----
+  private void cbA9() {
+    clockCounter.add(2);
+    state.setC(state.C() & 0xDF);
+  }
+
+  // CB 0xAA RES 5,D  3  ----
+  private void cbAA() {
+    clockCounter.add(2);
+    state.setD(state.D() & 0xDF);
+  }
+
+  // CB 0xAB RES 5,E  3  ----
+  private void cbAB() {
+    clockCounter.add(2);
+    state.setE(state.E() & 0xDF);
+  }
+
+  // CB 0xAC RES 5,H  3  ----
+  private void cbAC() {
+    clockCounter.add(2);
+    state.setH(state.H() & 0xDF);
+  }
+
+  // CB 0xAD RES 5,L  3  ----
+  private void cbAD() {
+    clockCounter.add(2);
+    state.setL(state.L() & 0xDF);
+  }
+
+  // CB 0xAE RES 5,[HL]  5  ----
+  private void cbAE() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) & 0xDF);
+  }
+
+  // CB 0xAF RES 5,A  3  ----
+  private void cbAF() {
+    clockCounter.add(2);
+    state.setA(state.A() & 0xDF);
+  }
+
+  // CB 0xB0 RES 6,B  3  ----
+  private void cbB0() {
+    clockCounter.add(2);
+    state.setB(state.B() & 0xBF);
+  }
+
+  // CB 0xB1 RES 6,C  3  ----
+  private void cbB1() {
+    clockCounter.add(2);
+    state.setC(state.C() & 0xBF);
+  }
+
+  // CB 0xB2 RES 6,D  3  ----
+  private void cbB2() {
+    clockCounter.add(2);
+    state.setD(state.D() & 0xBF);
+  }
+
+  // CB 0xB3 RES 6,E  3  ----
+  private void cbB3() {
+    clockCounter.add(2);
+    state.setE(state.E() & 0xBF);
+  }
+
+  // CB 0xB4 RES 6,H  3  ----
+  private void cbB4() {
+    clockCounter.add(2);
+    state.setH(state.H() & 0xBF);
+  }
+
+  // CB 0xB5 RES 6,L  3  ----
+  private void cbB5() {
+    clockCounter.add(2);
+    state.setL(state.L() & 0xBF);
+  }
+
+  // CB 0xB6 RES 6,[HL]  5  ----
+  private void cbB6() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) & 0xBF);
+  }
+
+  // CB 0xB7 RES 6,A  3  ----
+  private void cbB7() {
+    clockCounter.add(2);
+    state.setA(state.A() & 0xBF);
+  }
+
+  // CB 0xB8 RES 7,B  3  ----
+  private void cbB8() {
+    clockCounter.add(2);
+    state.setB(state.B() & 0x7F);
+  }
+
+  // CB 0xB9 RES 7,C  3  ----
+  private void cbB9() {
+    clockCounter.add(2);
+    state.setC(state.C() & 0x7F);
+  }
+
+  // CB 0xBA RES 7,D  3  ----
+  private void cbBA() {
+    clockCounter.add(2);
+    state.setD(state.D() & 0x7F);
+  }
+
+  // CB 0xBB RES 7,E  3  ----
+  private void cbBB() {
+    clockCounter.add(2);
+    state.setE(state.E() & 0x7F);
+  }
+
+  // CB 0xBC RES 7,H  3  ----
+  private void cbBC() {
+    clockCounter.add(2);
+    state.setH(state.H() & 0x7F);
+  }
+
+  // CB 0xBD RES 7,L  3  ----
+  private void cbBD() {
+    clockCounter.add(2);
+    state.setL(state.L() & 0x7F);
+  }
+
+  // CB 0xBE RES 7,[HL]  5  ----
+  private void cbBE() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) & 0x7F);
+  }
+
+  // CB 0xBF RES 7,A  3  ----
+  private void cbBF() {
+    clockCounter.add(2);
+    state.setA(state.A() & 0x7F);
+  }
+
+  // CB 0xC0 SET 0,B  3  ----
+  private void cbC0() {
+    clockCounter.add(2);
+    state.setB(state.B() | 0x01);
+  }
+
+  // CB 0xC1 SET 0,C  3  ----
+  private void cbC1() {
+    clockCounter.add(2);
+    state.setC(state.C() | 0x01);
+  }
+
+  // CB 0xC2 SET 0,D  3  ----
+  private void cbC2() {
+    clockCounter.add(2);
+    state.setD(state.D() | 0x01);
+  }
+
+  // CB 0xC3 SET 0,E  3  ----
+  private void cbC3() {
+    clockCounter.add(2);
+    state.setE(state.E() | 0x01);
+  }
+
+  // CB 0xC4 SET 0,H  3  ----
+  private void cbC4() {
+    clockCounter.add(2);
+    state.setH(state.H() | 0x01);
+  }
+
+  // CB 0xC5 SET 0,L  3  ----
+  private void cbC5() {
+    clockCounter.add(2);
+    state.setL(state.L() | 0x01);
+  }
+
+  // CB 0xC6 SET 0,[HL]  5  ----
+  private void cbC6() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) | 0x01);
+  }
+
+  // CB 0xC7 SET 0,A  3  ----
+  private void cbC7() {
+    clockCounter.add(2);
+    state.setA(state.A() | 0x01);
+  }
+
+  // CB 0xC8 SET 1,B  3  ----
+  private void cbC8() {
+    clockCounter.add(2);
+    state.setB(state.B() | 0x02);
+  }
+
+  // CB 0xC9 SET 1,C  3  ----
+  private void cbC9() {
+    clockCounter.add(2);
+    state.setC(state.C() | 0x02);
+  }
+
+  // CB 0xCA SET 1,D  3  ----
+  private void cbCA() {
+    clockCounter.add(2);
+    state.setD(state.D() | 0x02);
+  }
+
+  // CB 0xCB SET 1,E  3  ----
+  private void cbCB() {
+    clockCounter.add(2);
+    state.setE(state.E() | 0x02);
+  }
+
+  // CB 0xCC SET 1,H  3  ----
+  private void cbCC() {
+    clockCounter.add(2);
+    state.setH(state.H() | 0x02);
+  }
+
+  // CB 0xCD SET 1,L  3  ----
+  private void cbCD() {
+    clockCounter.add(2);
+    state.setL(state.L() | 0x02);
+  }
+
+  // CB 0xCE SET 1,[HL]  5  ----
+  private void cbCE() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) | 0x02);
+  }
+
+  // CB 0xCF SET 1,A  3  ----
+  private void cbCF() {
+    clockCounter.add(2);
+    state.setA(state.A() | 0x02);
+  }
+
+  // CB 0xD0 SET 2,B  3  ----
+  private void cbD0() {
+    clockCounter.add(2);
+    state.setB(state.B() | 0x04);
+  }
+
+  // CB 0xD1 SET 2,C  3  ----
+  private void cbD1() {
+    clockCounter.add(2);
+    state.setC(state.C() | 0x04);
+  }
+
+  // CB 0xD2 SET 2,D  3  ----
+  private void cbD2() {
+    clockCounter.add(2);
+    state.setD(state.D() | 0x04);
+  }
+
+  // CB 0xD3 SET 2,E  3  ----
+  private void cbD3() {
+    clockCounter.add(2);
+    state.setE(state.E() | 0x04);
+  }
+
+  // CB 0xD4 SET 2,H  3  ----
+  private void cbD4() {
+    clockCounter.add(2);
+    state.setH(state.H() | 0x04);
+  }
+
+  // CB 0xD5 SET 2,L  3  ----
+  private void cbD5() {
+    clockCounter.add(2);
+    state.setL(state.L() | 0x04);
+  }
+
+  // CB 0xD6 SET 2,[HL]  5  ----
+  private void cbD6() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) | 0x04);
+  }
+
+  // CB 0xD7 SET 2,A  3  ----
+  private void cbD7() {
+    clockCounter.add(2);
+    state.setA(state.A() | 0x04);
+  }
+
+  // CB 0xD8 SET 3,B  3  ----
+  private void cbD8() {
+    clockCounter.add(2);
+    state.setB(state.B() | 0x08);
+  }
+
+  // CB 0xD9 SET 3,C  3  ----
+  private void cbD9() {
+    clockCounter.add(2);
+    state.setC(state.C() | 0x08);
+  }
+
+  // CB 0xDA SET 3,D  3  ----
+  private void cbDA() {
+    clockCounter.add(2);
+    state.setD(state.D() | 0x08);
+  }
+
+  // CB 0xDB SET 3,E  3  ----
+  private void cbDB() {
+    clockCounter.add(2);
+    state.setE(state.E() | 0x08);
+  }
+
+  // CB 0xDC SET 3,H  3  ----
+  private void cbDC() {
+    clockCounter.add(2);
+    state.setH(state.H() | 0x08);
+  }
+
+  // CB 0xDD SET 3,L  3  ----
+  private void cbDD() {
+    clockCounter.add(2);
+    state.setL(state.L() | 0x08);
+  }
+
+  // CB 0xDE SET 3,[HL]  5  ----
+  private void cbDE() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) | 0x08);
+  }
+
+  // CB 0xDF SET 3,A  3  ----
+  private void cbDF() {
+    clockCounter.add(2);
+    state.setA(state.A() | 0x08);
+  }
+
+  // CB 0xE0 SET 4,B  3  ----
+  private void cbE0() {
+    clockCounter.add(2);
+    state.setB(state.B() | 0x10);
+  }
+
+  // CB 0xE1 SET 4,C  3  ----
+  private void cbE1() {
+    clockCounter.add(2);
+    state.setC(state.C() | 0x10);
+  }
+
+  // CB 0xE2 SET 4,D  3  ----
+  private void cbE2() {
+    clockCounter.add(2);
+    state.setD(state.D() | 0x10);
+  }
+
+  // CB 0xE3 SET 4,E  3  ----
+  private void cbE3() {
+    clockCounter.add(2);
+    state.setE(state.E() | 0x10);
+  }
+
+  // CB 0xE4 SET 4,H  3  ----
+  private void cbE4() {
+    clockCounter.add(2);
+    state.setH(state.H() | 0x10);
+  }
+
+  // CB 0xE5 SET 4,L  3  ----
+  private void cbE5() {
+    clockCounter.add(2);
+    state.setL(state.L() | 0x10);
+  }
+
+  // CB 0xE6 SET 4,[HL]  5  ----
+  private void cbE6() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) | 0x10);
+  }
+
+  // CB 0xE7 SET 4,A  3  ----
+  private void cbE7() {
+    clockCounter.add(2);
+    state.setA(state.A() | 0x10);
+  }
+
+  // CB 0xE8 SET 5,B  3  ----
+  private void cbE8() {
+    clockCounter.add(2);
+    state.setB(state.B() | 0x20);
+  }
+
+  // CB 0xE9 SET 5,C  3  ----
+  private void cbE9() {
+    clockCounter.add(2);
+    state.setC(state.C() | 0x20);
+  }
+
+  // CB 0xEA SET 5,D  3  ----
+  private void cbEA() {
+    clockCounter.add(2);
+    state.setD(state.D() | 0x20);
+  }
+
+  // CB 0xEB SET 5,E  3  ----
+  private void cbEB() {
+    clockCounter.add(2);
+    state.setE(state.E() | 0x20);
+  }
+
+  // CB 0xEC SET 5,H  3  ----
+  private void cbEC() {
+    clockCounter.add(2);
+    state.setH(state.H() | 0x20);
+  }
+
+  // CB 0xED SET 5,L  3  ----
+  private void cbED() {
+    clockCounter.add(2);
+    state.setL(state.L() | 0x20);
+  }
+
+  // CB 0xEE SET 5,[HL]  5  ----
+  private void cbEE() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) | 0x20);
+  }
+
+  // CB 0xEF SET 5,A  3  ----
+  private void cbEF() {
+    clockCounter.add(2);
+    state.setA(state.A() | 0x20);
+  }
+
+  // CB 0xF0 SET 6,B  3  ----
+  private void cbF0() {
+    clockCounter.add(2);
+    state.setB(state.B() | 0x40);
+  }
+
+  // CB 0xF1 SET 6,C  3  ----
+  private void cbF1() {
+    clockCounter.add(2);
+    state.setC(state.C() | 0x40);
+  }
+
+  // CB 0xF2 SET 6,D  3  ----
+  private void cbF2() {
+    clockCounter.add(2);
+    state.setD(state.D() | 0x40);
+  }
+
+  // CB 0xF3 SET 6,E  3  ----
+  private void cbF3() {
+    clockCounter.add(2);
+    state.setE(state.E() | 0x40);
+  }
+
+  // CB 0xF4 SET 6,H  3  ----
+  private void cbF4() {
+    clockCounter.add(2);
+    state.setH(state.H() | 0x40);
+  }
+
+  // CB 0xF5 SET 6,L  3  ----
+  private void cbF5() {
+    clockCounter.add(2);
+    state.setL(state.L() | 0x40);
+  }
+
+  // CB 0xF6 SET 6,[HL]  5  ----
+  private void cbF6() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) | 0x40);
+  }
+
+  // CB 0xF7 SET 6,A  3  ----
+  private void cbF7() {
+    clockCounter.add(2);
+    state.setA(state.A() | 0x40);
+  }
+
+  // CB 0xF8 SET 7,B  3  ----
+  private void cbF8() {
+    clockCounter.add(2);
+    state.setB(state.B() | 0x80);
+  }
+
+  // CB 0xF9 SET 7,C  3  ----
+  private void cbF9() {
+    clockCounter.add(2);
+    state.setC(state.C() | 0x80);
+  }
+
+  // CB 0xFA SET 7,D  3  ----
+  private void cbFA() {
+    clockCounter.add(2);
+    state.setD(state.D() | 0x80);
+  }
+
+  // CB 0xFB SET 7,E  3  ----
+  private void cbFB() {
+    clockCounter.add(2);
+    state.setE(state.E() | 0x80);
+  }
+
+  // CB 0xFC SET 7,H  3  ----
+  private void cbFC() {
+    clockCounter.add(2);
+    state.setH(state.H() | 0x80);
+  }
+
+  // CB 0xFD SET 7,L  3  ----
+  private void cbFD() {
+    clockCounter.add(2);
+    state.setL(state.L() | 0x80);
+  }
+
+  // CB 0xFE SET 7,[HL]  5  ----
+  private void cbFE() {
+    clockCounter.add(4);
+    int address = state.HL();
+    ins.writeMem8(address, ins.readMem8(address) | 0x80);
+  }
+
+  // CB 0xFF SET 7,A  3  ----
+  private void cbFF() {
+    clockCounter.add(2);
+    state.setA(state.A() | 0x80);
+  }
+
+  /* - END CB Handlers */
+}
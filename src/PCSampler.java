@@ -0,0 +1,90 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/*
+ * Statistical profile of the game's own code
+ * The CPU hands over PC every instruction, but it's only counted once every
+ * interval cycles or so, which costs a compare the rest of the time. The
+ * interval is jittered so a loop whose length divides it isn't always
+ * caught at the same instruction
+ * Cycles the CPU skips over, halted or in an idle loop, still land on the
+ * PC they were skipped at, so waiting shows up where the game waits
+ */
+class PCSampler {
+  private final int interval;
+  private long next;          // clock at the next sample
+  private int random = 0x2545F491;
+  private HashMap<Integer, long[]> banks = new HashMap<Integer, long[]>();  // samples by address, per ROM bank
+  private long samples;
+
+  public PCSampler(int interval, long clock) {
+    this.interval = Math.max(1, interval);
+    this.next = clock + this.interval;
+  }
+
+  // Called with the PC about to run and the clock
+  public void sample(MMU mmu, int pc, long clock) {
+    if (clock < next) return;
+
+    int bank = mmu.bank(pc);
+    long counts[] = banks.get(bank);
+    if (counts == null) banks.put(bank, counts = new long[0x10000]);
+    while (clock >= next) {
+      counts[pc]++;
+      samples++;
+      next += Math.max(1, interval / 2 + jitter());
+    }
+  }
+
+  public long samples() { return samples; }
+
+  public void clear() {
+    banks.clear();
+    samples = 0;
+  }
+
+  /*
+   * Labels with the most samples, up to rows of them
+   * Every address is its own row when symbols has no labels for it
+   */
+  public String report(Symbols symbols, int rows) {
+    HashMap<String, long[]> byName = new HashMap<String, long[]>();  // samples, then the hottest address
+    for (int bank : banks.keySet()) {
+      long counts[] = banks.get(bank);
+      for (int address = 0; address < counts.length; address++) {
+        if (counts[address] == 0) continue;
+        String label = symbols.label(bank, address);
+        String name = label != null ? label : symbols.name(bank, address);
+        long entry[] = byName.get(name);
+        if (entry == null) byName.put(name, entry = new long[] { 0, 0, -1 });
+        entry[0] += counts[address];
+        if (counts[address] > entry[1]) {
+          entry[1] = counts[address];
+          entry[2] = (bank << 16) | address;
+        }
+      }
+    }
+
+    ArrayList<String> names = new ArrayList<String>(byName.keySet());
+    names.sort((a, b) -> Long.compare(byName.get(b)[0], byName.get(a)[0]));
+
+    StringBuilder z = new StringBuilder();
+    z.append(String.format("%10s %7s  %-32s %s%n", "samples", "share", "code", "hottest"));
+    for (int i = 0; i < Math.min(rows, names.size()); i++) {
+      long entry[] = byName.get(names.get(i));
+      int hottest = (int)entry[2];
+      z.append(String.format("%10d %6.2f%%  %-32s %s%n", entry[0], entry[0] * 100.0 / samples, names.get(i),
+        symbols.name(hottest >> 16, hottest & 0xFFFF)));
+    }
+    z.append(String.format("%10d samples, one per %d cycles%n", samples, interval));
+    return z.toString();
+  }
+
+  // 0 to interval - 1, xorshift
+  private int jitter() {
+    random ^= random << 13;
+    random ^= random >>> 17;
+    random ^= random << 5;
+    return (random >>> 1) % interval;
+  }
+}
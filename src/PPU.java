@@ -1,5 +1,5 @@
 
-class PPU {
+class PPU implements Clocked {
 
   // Screen dimensions
   public static final int VIDEO_WIDTH = 256;
@@ -55,14 +55,15 @@ class PPU {
   private Screen screen;
 
   // Timing variables
-  private int lastClockCount; // The ClockCounter's clock count as of last tick()
+  private long lastClockCount; // The ClockCounter's clock count as of last catchUp()
   private int modeCounter;    // The tick's spent in current mode
   private int mode;           // The LCD's current mode
 
-  public PPU(ClockCounter clockCounter, MMU mmu) {
+  public PPU(ClockCounter clockCounter, MMU mmu) { this(clockCounter, mmu, true); }
+  public PPU(ClockCounter clockCounter, MMU mmu, boolean display) {
     this.clockCounter = clockCounter;
     this.mmu = mmu;
-    this.screen = new BasicScreen(mmu, this);
+    this.screen = display ? new BasicScreen(mmu, this) : null;
     this.lastClockCount = clockCounter.count();
     reset();
   }
@@ -74,12 +75,15 @@ class PPU {
     this.mode = MODE_2;
   }
 
-  public void tick() {
-    int delta = clockCounter.count() - lastClockCount;
-    lastClockCount += delta;
+  @Override
+  public void catchUp() {
+    // Never more than an event behind, idleCycles() has the LCD being off
+    // caught up after every instruction too
+    int delta = (int)(clockCounter.count() - lastClockCount);
+    lastClockCount = clockCounter.count();
 
     if (!isLCDEnabled()) {
-      modeCounter = lastClockCount / SCANLINE_CC;  // Keep line count synced
+      modeCounter = (int)(lastClockCount / SCANLINE_CC);  // Keep line count synced
       reset(); // slows down and bugs the whole display
       return;
     }
@@ -89,6 +93,25 @@ class PPU {
     handleClockChange(delta);
   }
 
+  // 0 while the LCD is off, so lastClockCount keeps up with the clock and
+  // turning it back on only brings in the cycles since the last instruction
+  @Override
+  public int idleCycles() {
+    if (!isLCDEnabled()) return 0;
+
+    int modeLength;
+    switch (mode) {
+      case MODE_1:
+        if (mmu.get(LY) == 0) return 0;  // about to go to mode 2
+        modeLength = SCANLINE_CC;
+        break;
+      case MODE_2: modeLength = MODE_2_CC; break;
+      case MODE_3: modeLength = MODE_3_CC; break;
+      default:     modeLength = MODE_0_CC; break;
+    }
+    return Math.max(0, modeLength - modeCounter);
+  }
+
   private void handleClockChange(int delta) {
     // Update mode counter
     modeCounter += delta;
@@ -107,7 +130,7 @@ class PPU {
 
         // Increment LY
         short oldLY = mmu.get(LY);
-        short newLY = (short)(CPUMath.inc8(oldLY).get8() % 0x9A);
+        short newLY = (short)(CPUMath.value(CPUMath.inc8p(oldLY)) % 0x9A);
         mmu.set(LY, newLY);
       }
 
@@ -171,7 +194,7 @@ class PPU {
 
         // Increment LY
         short oldLY = mmu.get(LY);
-        short newLY = (short)(CPUMath.inc8(oldLY).get8() % 0x9A);
+        short newLY = (short)(CPUMath.value(CPUMath.inc8p(oldLY)) % 0x9A);
         mmu.set(LY, newLY);
 
         // Compare LY and LYC
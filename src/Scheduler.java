@@ -0,0 +1,76 @@
+/*
+ * Runs the PPU and timer only when they have something to do
+ * Between instructions they only change anything at their next event (a
+ * mode change or LY increment, a DIV or TIMA increment), and idleCycles()
+ * says how far off that is. Each gets a slot holding the clock its next
+ * event is due at, and is only caught up once the clock gets there instead
+ * of after every instruction. See Clocked, a catchUp() takes in every
+ * cycle since the last one, so the ones left out are made up for by the next
+ * What they look at is in their registers, which the CPU only changes
+ * through MMU.set(). That calls written(), and the component is caught up
+ * after the instruction same as it always was. Reads need nothing, memory
+ * doesn't change between events
+ * Gameboy's own loops call tick() after each instruction or slice the same way
+ * OAM DMA and serial transfers finish straight away here, so they have no
+ * events of their own
+ */
+class Scheduler implements CPU.Hardware {
+  // Slots, in the order they're caught up when due together
+  private static final int LCD = 0;
+  private static final int TIMER = 1;
+
+  private ClockCounter clockCounter;
+  private Clocked components[];
+
+  private long due[] = new long[2];  // clock each one's next event is due at
+  private long next;                 // earliest of due
+
+  public Scheduler(ClockCounter clockCounter, PPU ppu, TimerHandler timer) {
+    this.clockCounter = clockCounter;
+    this.components = new Clocked[] { ppu, timer };
+    for (int slot = 0; slot < components.length; slot++) due(slot);
+  }
+
+  // Catches slot up now and works out when it next has something to do
+  private void catchUp(int slot) {
+    components[slot].catchUp();
+    due(slot);
+  }
+
+  // The CPU wrote an IO register, whatever reads it is caught up next
+  public void written(int address) {
+    if (address >= TimerHandler.DIV && address <= TimerHandler.TIMER_CONTROL) soon(TIMER);
+    else if (address >= PPU.LCDC_CONTROL && address <= PPU.LYC) soon(LCD);
+  }
+
+  @Override
+  public void tick() {
+    long clock = clockCounter.count();
+    if (clock < next) return;
+
+    // Same order as catching all of them up every time
+    for (int slot = 0; slot < components.length; slot++)
+      if (clock >= due[slot]) catchUp(slot);
+  }
+
+  @Override
+  public int idleCycles() {
+    return (int)Math.min(Math.max(0, next - clockCounter.count() - 1), Integer.MAX_VALUE);
+  }
+
+  // Nothing's due in the cycles skipped, the next catchUp() takes them in
+  @Override
+  public void skip(int instructions, int cycles) {
+  }
+
+  private void due(int slot) {
+    due[slot] = clockCounter.count() + components[slot].idleCycles() + 1L;
+    next = Long.MAX_VALUE;
+    for (long clock : due) next = Math.min(next, clock);
+  }
+
+  private void soon(int slot) {
+    due[slot] = clockCounter.count();
+    next = Math.min(next, due[slot]);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Runs a program that turns the LCD off for a long stretch and back on,
+ * once with the PPU and timer caught up after every instruction and once
+ * through the Scheduler, and stops at the first instruction where LY, STAT,
+ * IF or the interrupts taken differ
+ * The program is put straight into memory, so no ROM is needed. Its
+ * interrupt handlers count V-Blank, STAT and timer interrupts at C000 - C002,
+ * each wrapping at 256
+ * Usage: java -cp src/ SchedulerCheck [instructions]
+ */
+class SchedulerCheck {
+  private static final int COUNTERS = 0xC000;
+
+  private static final int HANDLER[] = {
+    0xF5,              // PUSH AF
+    0xFA, 0x00, 0xC0,  // LD A,(C000 + n), n patched in
+    0x3C,              // INC A
+    0xEA, 0x00, 0xC0,  // LD (C000 + n),A
+    0xF1,              // POP AF
+    0xD9               // RETI
+  };
+
+  private static final int PROGRAM[] = {
+    0x31, 0xFE, 0xFF,        // LD SP,FFFE
+    0x3E, 0x05, 0xE0, 0x07,  // timer on, every 16 cycles
+    0x3E, 0x07, 0xE0, 0xFF,  // V-Blank, STAT and timer interrupts
+    0xAF, 0xE0, 0x0F,        // clear IF
+    0xFB,                    // EI
+    0x01, 0x00, 0x08,        // a while with the LCD on
+    0x0B, 0x78, 0xB1, 0x20, 0xFB,
+    0xAF, 0xE0, 0x40,        // LCD off
+    0x01, 0x00, 0x40,        // a long while with it off
+    0x0B, 0x78, 0xB1, 0x20, 0xFB,
+    0x3E, 0x91, 0xE0, 0x40,  // LCD back on
+    0x18, 0xFE               // JR to itself
+  };
+
+  // CPU, memory and hardware of one run
+  static class Machine {
+    final CPUState state = new CPUState(false);
+    final ClockCounter clockCounter = new ClockCounter();
+    final MMU mmu = new MMU();
+    final CPU cpu;
+    final Scheduler scheduler;  // null when everything's caught up after every instruction
+    final PPU ppu;
+    final TimerHandler timer;
+
+    Machine(boolean scheduled) {
+      ppu = new PPU(clockCounter, mmu, false);
+      timer = new TimerHandler(mmu, clockCounter);
+      cpu = new CPU(state, mmu, new Cart(), clockCounter);
+      scheduler = scheduled ? new Scheduler(clockCounter, ppu, timer) : null;
+      if (scheduled) mmu.setScheduler(scheduler);
+
+      for (int i = 0; i < 3; i++) {
+        int address = 0x40 + 8 * i;
+        for (int j = 0; j < HANDLER.length; j++) mmu.set(address + j, (short)HANDLER[j]);
+        mmu.set(address + 2, (short)((COUNTERS + i) & 0xFF));
+        mmu.set(address + 6, (short)((COUNTERS + i) & 0xFF));
+      }
+      mmu.set(0x100, (short)0xC3);
+      mmu.set(0x101, (short)0x50);
+      mmu.set(0x102, (short)0x01);
+      for (int i = 0; i < PROGRAM.length; i++) mmu.set(0x150 + i, (short)PROGRAM[i]);
+      state.setPC(0x100);
+    }
+
+    void step() {
+      cpu.tick();
+      if (scheduler != null) {
+        scheduler.tick();
+      } else {
+        ppu.catchUp();
+        timer.catchUp();
+      }
+    }
+
+    int counter(int i) {
+      return mmu.get(COUNTERS + i);
+    }
+  }
+
+  public static void main(String args[]) {
+    long count = args.length > 0 ? Long.parseLong(args[0]) : 300000;
+
+    Util.debug = false;
+
+    Machine ticked = new Machine(false);
+    Machine scheduled = new Machine(true);
+
+    for (long i = 0; i < count; i++) {
+      int pc = ticked.state.PC();
+      ticked.step();
+      scheduled.step();
+
+      String mismatch = compare(ticked, scheduled);
+      if (mismatch != null) {
+        Util.log("Mismatch after instruction " + i + " at " + Util.hex(pc) + " - " + mismatch);
+        System.exit(1);
+      }
+    }
+
+    Util.log("Ticked and scheduled agree for " + count + " instructions, " + ticked.counter(0) + " V-Blank, " +
+             ticked.counter(1) + " STAT and " + ticked.counter(2) + " timer interrupts");
+  }
+
+  private static String compare(Machine ticked, Machine scheduled) {
+    if (ticked.state.PC() != scheduled.state.PC())
+      return "PC " + Util.hex(ticked.state.PC()) + " != " + Util.hex(scheduled.state.PC());
+    if (ticked.clockCounter.count() != scheduled.clockCounter.count()) return "clock counts differ";
+
+    int registers[] = { PPU.LY, PPU.LCDC_STATUS, 0xFF0F, TimerHandler.TIMER_COUNTER };
+    for (int address : registers) {
+      if (ticked.mmu.get(address) != scheduled.mmu.get(address))
+        return Util.hex(address) + " " + Util.hex(ticked.mmu.get(address)) + " != " + Util.hex(scheduled.mmu.get(address));
+    }
+    for (int i = 0; i < 3; i++) {
+      if (ticked.counter(i) != scheduled.counter(i))
+        return "interrupt " + i + " taken " + ticked.counter(i) + " != " + scheduled.counter(i) + " times";
+    }
+    return null;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Startup switches for the emulator
+ * Tester fills these in from the command line, the defaults are a normal
+ * windowed run
+ */
+class Settings {
+  public String rom = null;
+  public boolean display = true;    // false for batch runs and tools
+  public boolean lazyFlags = false; // see CPUState
+  public CPU.Engine engine = CPU.Engine.SWITCH;
+  public String jitCache = null;    // directory for TranslationCache files, null to not keep them
+  public int trace = 0;             // instructions kept in a TraceBuffer, 0 for none
+  public boolean profileOpcodes = false;  // OpcodeProfile report when the JVM exits
+  public int sampleInterval = 0;    // cycles between PCSampler samples, 0 to not sample
+  public String symbols = null;     // .sym file for reports, null for the one next to the ROM
+  public String callGraph = null;   // file for CallGraph's collapsed stacks, null to not follow calls
+  public String coverage = null;    // Coverage file to add this run to, null to not record coverage
+  public String doctor = null;      // file for a DoctorTrace, null for none
+  public int doctorStart = -1;      // PC the DoctorTrace starts at, -1 for the first instruction
+  public int doctorStop = -1;       // PC it stops at, -1 for none
+  public long doctorLimit = Long.MAX_VALUE;  // most lines it writes
+
+  public static Settings parse(String args[]) {
+    Settings settings = new Settings();
+
+    for (String arg : args) {
+      switch (arg) {
+        case "--headless":
+          settings.display = false;
+          break;
+        case "--lazy-flags":
+          settings.lazyFlags = true;
+          break;
+        case "--engine=switch":
+          settings.engine = CPU.Engine.SWITCH;
+          break;
+        case "--engine=table":
+          settings.engine = CPU.Engine.TABLE;
+          break;
+        case "--engine=block":
+          settings.engine = CPU.Engine.BLOCK;
+          break;
+        case "--engine=jit":
+          settings.engine = CPU.Engine.JIT;
+          break;
+        case "--profile-opcodes":
+          settings.profileOpcodes = true;
+          break;
+        default:
+          if (arg.startsWith("--jit-cache="))
+            settings.jitCache = arg.substring("--jit-cache=".length());
+          else if (arg.startsWith("--sample="))
+            settings.sampleInterval = Integer.parseInt(arg.substring("--sample=".length()));
+          else if (arg.startsWith("--doctor="))
+            settings.doctor = arg.substring("--doctor=".length());
+          else if (arg.startsWith("--doctor-start="))
+            settings.doctorStart = Integer.parseInt(arg.substring("--doctor-start=".length()), 16);
+          else if (arg.startsWith("--doctor-stop="))
+            settings.doctorStop = Integer.parseInt(arg.substring("--doctor-stop=".length()), 16);
+          else if (arg.startsWith("--doctor-limit="))
+            settings.doctorLimit = Long.parseLong(arg.substring("--doctor-limit=".length()));
+          else if (arg.startsWith("--calls="))
+            settings.callGraph = arg.substring("--calls=".length());
+          else if (arg.startsWith("--coverage="))
+            settings.coverage = arg.substring("--coverage=".length());
+          else if (arg.startsWith("--sym="))
+            settings.symbols = arg.substring("--sym=".length());
+          else if (arg.startsWith("--trace="))
+            settings.trace = Integer.parseInt(arg.substring("--trace=".length()));
+          else if (arg.startsWith("--"))
+            Util.errn("Settings.parse - unknown option " + arg);
+          else
+            settings.rom = arg;
+          break;
+      }
+    }
+
+    return settings;
+  }
+}
@@ -0,0 +1,228 @@
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/*
+ * Runs SM83 single step tests, JSON files of one opcode each ("00.json",
+ * "cb 00.json", ...) holding tests like
+ *   { "name": ..., "initial": { "pc": ..., "a": ..., "ram": [[address, value], ...] },
+ *     "final": { ... }, "cycles": [ one entry per M-cycle ] }
+ * Each test loads its initial state into a CPU over flat memory, runs one
+ * instruction and checks registers, memory and the number of M-cycles
+ * against final. Files run in parallel, each with its own CPU
+ * Only the switch and table engines run single instructions, the block
+ * engines share the table's handlers
+ * Usage: java StepTests <directory> [--engine=table] [--lazy-flags]
+ */
+class StepTests {
+  private static final int FAILURES_SHOWN = 3;  // per file
+
+  // Checked in this order, each named in lower case in the test files
+  private static final String REGISTERS[] = { "A", "F", "B", "C", "D", "E", "H", "L", "SP", "PC", "IME", "IE" };
+
+  /*
+   * 64KB of plain RAM, with none of MMU's IO, echo or joypad handling
+   * Remembers what was written so a test can check it wrote nothing else
+   * and the next test can clear it
+   */
+  static class FlatMemory extends MMU {
+    private int written[];  // null while MMU's constructor clears memory through set()
+    private int writes;
+
+    FlatMemory() {
+      Arrays.fill(memory(), (short)0);
+      written = new int[16];
+    }
+
+    @Override
+    public short get(int address) { return memory()[address & 0xFFFF]; }
+    @Override
+    public short fetch(int address) { return get(address); }
+    @Override
+    public short peek(int address) { return get(address); }
+
+    @Override
+    public void set(int address, short value) {
+      memory()[address & 0xFFFF] = (short)(value & 0xFF);
+      if (written == null) return;
+      if (writes == written.length) written = Arrays.copyOf(written, writes * 2);
+      written[writes++] = address & 0xFFFF;
+    }
+  }
+
+  static class Result {
+    String file;
+    int tests;
+    int failed;
+    ArrayList<String> failures = new ArrayList<String>();
+  }
+
+  public static void main(String args[]) throws Exception {
+    Settings settings = Settings.parse(args);
+    if (settings.rom == null) {
+      Util.log("Usage: StepTests <directory> [--engine=table] [--lazy-flags]");
+      return;
+    }
+    if (settings.engine == CPU.Engine.BLOCK || settings.engine == CPU.Engine.JIT) {
+      Util.errn("StepTests - only the switch and table engines run single instructions");
+      return;
+    }
+    Util.debug = false;
+
+    File files[] = new File(settings.rom).listFiles((directory, name) -> name.endsWith(".json"));
+    if (files == null || files.length == 0) {
+      Util.errn("StepTests - no .json files in " + settings.rom);
+      return;
+    }
+    Arrays.sort(files);
+
+    long start = System.nanoTime();
+    ArrayList<Callable<Result>> tasks = new ArrayList<Callable<Result>>();
+    for (File file : files) tasks.add(() -> run(file, settings));
+    ForkJoinPool pool = new ForkJoinPool();
+    List<Future<Result>> results = pool.invokeAll(tasks);
+    pool.shutdown();
+
+    int tests = 0;
+    int failed = 0;
+    int failedFiles = 0;
+    for (Future<Result> future : results) {
+      Result result = future.get();
+      tests += result.tests;
+      failed += result.failed;
+      if (result.failed == 0) continue;
+
+      failedFiles++;
+      Util.log(result.file + " - " + result.failed + " of " + result.tests + " failed");
+      for (String failure : result.failures) Util.log("  " + failure);
+    }
+
+    long ms = (System.nanoTime() - start) / 1000000;
+    Util.log(String.format("StepTests - %d tests in %d files, %d failed in %d files, %d ms",
+      tests, files.length, failed, failedFiles, ms));
+    if (failed > 0) System.exit(1);
+  }
+
+  private static Result run(File file, Settings settings) {
+    Result result = new Result();
+    result.file = file.getName();
+
+    ArrayList<Object> tests;
+    try {
+      String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.ISO_8859_1);
+      tests = Json.array(Json.parse(text));
+    } catch (Exception e) {
+      result.failed++;
+      result.failures.add("couldn't read: " + e);
+      return result;
+    }
+
+    FlatMemory mmu = new FlatMemory();
+    CPUState state = new CPUState(settings.lazyFlags);
+    ClockCounter clockCounter = new ClockCounter();
+    CPU cpu = new CPU(state, mmu, new Cart(), clockCounter);
+    cpu.setEngine(settings.engine);
+
+    for (Object test : tests) {
+      HashMap<String, Object> fields = Json.object(test);
+      String failure;
+      try {
+        failure = run(fields, cpu, state, mmu, clockCounter);
+      } catch (RuntimeException e) {
+        failure = e.toString();
+      }
+
+      result.tests++;
+      if (failure == null) continue;
+      result.failed++;
+      if (result.failures.size() < FAILURES_SHOWN) result.failures.add(fields.get("name") + " - " + failure);
+    }
+    return result;
+  }
+
+  // Runs one test, returns what was wrong or null if it passed
+  private static String run(HashMap<String, Object> test, CPU cpu, CPUState state, FlatMemory mmu,
+      ClockCounter clockCounter) {
+    HashMap<String, Object> initial = Json.object(test.get("initial"));
+    HashMap<String, Object> expected = Json.object(test.get("final"));
+    ArrayList<Object> initialRAM = Json.array(initial.get("ram"));
+    ArrayList<Object> expectedRAM = Json.array(expected.get("ram"));
+
+    state.setAF((number(initial, "a") << 8) | number(initial, "f"));
+    state.setB(number(initial, "b"));
+    state.setC(number(initial, "c"));
+    state.setD(number(initial, "d"));
+    state.setE(number(initial, "e"));
+    state.setH(number(initial, "h"));
+    state.setL(number(initial, "l"));
+    state.setSP(number(initial, "sp"));
+    state.setPC(number(initial, "pc"));
+    state.IME(initial.containsKey("ime") && number(initial, "ime") != 0);
+    state.setHalted(false);
+    short memory[] = mmu.memory();
+    for (Object entry : initialRAM) memory[entry(entry, 0)] = (short)entry(entry, 1);
+    if (initial.containsKey("ie")) memory[0xFFFF] = (short)number(initial, "ie");
+    mmu.writes = 0;
+
+    long clock = clockCounter.count();
+    cpu.tick();
+    int cycles = (int)(clockCounter.count() - clock);
+
+    String failure = compare(expected, state, mmu);
+    if (failure == null && test.containsKey("cycles")) {
+      int expectedCycles = Json.array(test.get("cycles")).size();
+      if (cycles != expectedCycles) failure = "cycles " + cycles + " != " + expectedCycles;
+    }
+
+    // Leave memory zeroed for the next test
+    for (Object entry : initialRAM) memory[entry(entry, 0)] = 0;
+    for (Object entry : expectedRAM) memory[entry(entry, 0)] = 0;
+    for (int i = 0; i < mmu.writes; i++) memory[mmu.written[i]] = 0;
+    memory[0xFFFF] = 0;
+    return failure;
+  }
+
+  private static String compare(HashMap<String, Object> expected, CPUState state, FlatMemory mmu) {
+    int af = state.AF();
+    int values[] = {
+      af >> 8, af & 0xFF, state.B(), state.C(), state.D(), state.E(), state.H(), state.L(),
+      state.SP(), state.PC(), state.IME() ? 1 : 0, mmu.get(0xFFFF)
+    };
+    for (int i = 0; i < REGISTERS.length; i++) {
+      String key = REGISTERS[i].toLowerCase();
+      if (!expected.containsKey(key) || values[i] == number(expected, key)) continue;
+      return REGISTERS[i] + " " + Util.hex(values[i]) + " != " + Util.hex(number(expected, key));
+    }
+
+    ArrayList<Object> expectedRAM = Json.array(expected.get("ram"));
+    for (Object entry : expectedRAM) {
+      int address = entry(entry, 0);
+      if (mmu.get(address) != entry(entry, 1))
+        return "[" + Util.hex(address) + "] " + Util.hex(mmu.get(address)) + " != " + Util.hex((short)entry(entry, 1));
+    }
+
+    // Anything written has to be in final's RAM
+    for (int i = 0; i < mmu.writes; i++) {
+      boolean listed = false;
+      for (Object entry : expectedRAM) listed |= entry(entry, 0) == mmu.written[i];
+      if (!listed) return "wrote to " + Util.hex(mmu.written[i]);
+    }
+    return null;
+  }
+
+  private static int number(HashMap<String, Object> object, String key) {
+    return Json.number(object.get(key));
+  }
+
+  // Part of an [address, value] pair
+  private static int entry(Object pair, int index) {
+    return Json.number(Json.array(pair).get(index));
+  }
+}
@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Labels from a .sym file, as written by rgblink -n (see dev/build.sh)
+ * Lines look like "01:4A2F Label", bank then address, and ';' starts a
+ * comment. An address is named after the closest label at or before it in
+ * the same bank and memory region, e.g. "Main.loop+3"
+ */
+class Symbols {
+  // Starts of the memory regions a label can't reach past
+  private static final int REGIONS[] = {
+    0x0000, 0x4000, 0x8000, 0xA000, 0xC000, 0xD000, 0xE000, 0xFE00, 0xFF00, 0xFF80, 0xFFFF
+  };
+
+  private TreeMap<Integer, String> labels = new TreeMap<Integer, String>();  // by bank << 16 | address
+
+  // No labels, every address is named by its bank and address
+  public Symbols() {
+  }
+
+  public Symbols(String path) throws IOException {
+    for (String line : Files.readAllLines(Paths.get(path))) {
+      int comment = line.indexOf(';');
+      if (comment >= 0) line = line.substring(0, comment);
+      line = line.trim();
+
+      int colon = line.indexOf(':');
+      int space = line.indexOf(' ');
+      if (colon < 0 || space < colon) continue;
+      try {
+        int bank = Integer.parseInt(line.substring(0, colon), 16);
+        int address = Integer.parseInt(line.substring(colon + 1, space), 16);
+        labels.put(key(bank, address), line.substring(space + 1).trim());
+      } catch (NumberFormatException e) {
+        Util.errn("Symbols - bad line in " + path + ": " + line);
+      }
+    }
+  }
+
+  // Symbols from path, none if it can't be read
+  public static Symbols load(String path) {
+    try {
+      return new Symbols(path);
+    } catch (IOException e) {
+      Util.errn("Symbols - couldn't read " + path + ": " + e);
+      return new Symbols();
+    }
+  }
+
+  // Symbols for the .sym file next to a ROM, none if there isn't one
+  public static Symbols forRom(String rom) {
+    String path = (rom.endsWith(".gb") ? rom.substring(0, rom.length() - 3) : rom) + ".sym";
+    return Files.exists(Paths.get(path)) ? load(path) : new Symbols();
+  }
+
+  public int size() {
+    return labels.size();
+  }
+
+  // Label covering address, null if there isn't one
+  public String label(int bank, int address) {
+    Map.Entry<Integer, String> entry = labels.floorEntry(key(bank, address));
+    if (entry == null || entry.getKey() >> 16 != bank) return null;
+
+    int start = entry.getKey() & 0xFFFF;
+    if (region(start) != region(address)) return null;
+    return entry.getValue();
+  }
+
+  // e.g. "Main.loop+3", or "01:4A2F" when no label covers it
+  public String name(int bank, int address) {
+    String label = label(bank, address);
+    if (label == null) return Util.hex((short)bank) + ":" + Util.hex(address);
+
+    int offset = address - (labels.floorKey(key(bank, address)) & 0xFFFF);
+    return offset == 0 ? label : label + "+" + offset;
+  }
+
+  private static int key(int bank, int address) {
+    return (bank << 16) | address;
+  }
+
+  private static int region(int address) {
+    int region = 0;
+    while (region + 1 < REGIONS.length && REGIONS[region + 1] <= address) region++;
+    return region;
+  }
+}
@@ -25,8 +25,10 @@ class Tester {
     String blargg_instr_timing = "roms/tests/instr_timing/instr_timing.gb";
     String blargg_interrupt_timing = "roms/tests/interrupt_time/interrupt_time.gb";
 
-    Cart cart = new Cart(drMario);
-    Gameboy gb = new Gameboy(cart);
+    Settings settings = Settings.parse(args);
+
+    Cart cart = new Cart(settings.rom != null ? settings.rom : drMario);
+    Gameboy gb = new Gameboy(cart, settings);
     gb.run();
   }
 }
@@ -1,5 +1,5 @@
 
-class TimerHandler {
+class TimerHandler implements Clocked {
 
   public static final int DIV = 0xFF04; // incremented 4 times per clock
   public static final int TIMER_COUNTER = 0xFF05;
@@ -11,9 +11,9 @@ class TimerHandler {
   private MMU mmu;
   private ClockCounter clockCounter;
 
-  private int lastClockCount; // The total clock count from last tick()
-  private int clocksSinceLastDiv; // Clocks since DIV was last icremented
-  private int clocksSinceLastIncrement;   // Clock counts since last timer increment
+  private long lastClockCount; // The total clock count from last catchUp()
+  private long clocksSinceLastDiv; // Clocks since DIV was last icremented
+  private long clocksSinceLastIncrement;   // Clock counts since last timer increment, piles up while it's off
 
 
   public TimerHandler(MMU mmu, ClockCounter clockCounter) {
@@ -22,8 +22,9 @@ class TimerHandler {
     this.lastClockCount = clockCounter.count();
   }
 
-  public void tick() {
-    int delta = clockCounter.count() - lastClockCount;
+  @Override
+  public void catchUp() {
+    long delta = clockCounter.count() - lastClockCount;
     lastClockCount = clockCounter.count();
 
     clocksSinceLastDiv += delta;
@@ -64,6 +65,16 @@ class TimerHandler {
     }
   }
 
+  // Integer.MAX_VALUE while the timer is off
+  @Override
+  public int idleCycles() {
+    if (!isTimerOn()) return Integer.MAX_VALUE;
+
+    long untilDiv = DIV_INC_INTERVAL - 1 - clocksSinceLastDiv;
+    long untilIncrement = getTimerIncrementInterval() - 1 - clocksSinceLastIncrement;
+    return (int)Math.max(0, Math.min(untilDiv, untilIncrement));
+  }
+
   private boolean isTimerOn() {
     short status = mmu.get(TIMER_CONTROL);
     return CPUMath.getBit(status, 2) > 0;
@@ -0,0 +1,80 @@
+/*
+ * The last instructions the CPU ran, kept as numbers in a ring
+ * record() is a few array stores, nothing is formatted until format() or
+ * dump() is called, e.g. from the debugger or after a crash
+ */
+class TraceBuffer {
+  // Fields of a record, in ints
+  private static final int PC = 0;
+  private static final int BYTES = 1;  // opcode | byte1 << 8 | byte2 << 16
+  private static final int AF = 2;
+  private static final int BC = 3;
+  private static final int DE = 4;
+  private static final int HL = 5;
+  private static final int SP = 6;
+  private static final int CLOCK = 7;       // low 32 bits
+  private static final int CLOCK_HIGH = 8;
+  private static final int RECORD = 9;
+
+  private final int records[];
+  private final int mask;
+  private long count;  // records written so far
+
+  // Keeps the last length records, rounded up to a power of 2
+  public TraceBuffer(int length) {
+    int capacity = Integer.highestOneBit(Math.max(1, length - 1)) << 1;
+    records = new int[capacity * RECORD];
+    mask = capacity - 1;
+  }
+
+  // Instruction at PC is about to run
+  public void record(CPUState state, MMU mmu, long clock) {
+    int pc = state.PC();
+    int at = (int)(count++ & mask) * RECORD;
+    records[at + PC] = pc;
+    records[at + BYTES] = mmu.peek(pc) | mmu.peek((pc + 1) & 0xFFFF) << 8 | mmu.peek((pc + 2) & 0xFFFF) << 16;
+    records[at + AF] = state.AF();
+    records[at + BC] = state.BC();
+    records[at + DE] = state.DE();
+    records[at + HL] = state.HL();
+    records[at + SP] = state.SP();
+    records[at + CLOCK] = (int)clock;
+    records[at + CLOCK_HIGH] = (int)(clock >>> 32);
+  }
+
+  // Records held, up to the capacity
+  public int size() {
+    return (int)Math.min(count, mask + 1);
+  }
+
+  public void clear() {
+    count = 0;
+  }
+
+  // Record back records before the latest one, 0 is the latest
+  // e.g. "0150  F0 44 ..  ldh A, [44]  AF 0180 BC 0013 DE 00D8 HL 014D SP FFFE  clock 1234"
+  public String format(int back) {
+    if (back < 0 || back >= size()) return null;
+
+    int at = (int)((count - 1 - back) & mask) * RECORD;
+    int bytes = records[at + BYTES];
+    short opcode = (short)(bytes & 0xFF);
+    short byte1 = (short)((bytes >> 8) & 0xFF);
+    short byte2 = (short)((bytes >> 16) & 0xFF);
+    int length = Opcodes.LENGTH[opcode];
+
+    return Util.hex(records[at + PC])
+      + "  " + Util.hex(opcode) + " " + (length > 1 ? Util.hex(byte1) : "..") + " " + (length > 2 ? Util.hex(byte2) : "..")
+      + "  " + Util.mnemonic(opcode, byte1, byte2)
+      + "  AF " + Util.hex(records[at + AF]) + " BC " + Util.hex(records[at + BC])
+      + " DE " + Util.hex(records[at + DE]) + " HL " + Util.hex(records[at + HL])
+      + " SP " + Util.hex(records[at + SP])
+      + "  clock " + (((long)records[at + CLOCK_HIGH] << 32) | (records[at + CLOCK] & 0xFFFFFFFFL));
+  }
+
+  // Logs the last n records, oldest first
+  public void dump(int n) {
+    for (int back = Math.min(n, size()) - 1; back >= 0; back--)
+      Util.log(format(back));
+  }
+}
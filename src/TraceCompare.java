@@ -0,0 +1,189 @@
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * Runs a ROM and checks its Gameboy Doctor log line by line against a
+ * reference log from another emulator, stopping at the first line that's
+ * different and showing the lines around it from both logs. Once they
+ * differ it only runs on far enough to show what follows
+ * The reference is read a chunk at a time, .gz files through a
+ * GZIPInputStream, so it can be as big as it likes
+ * Usage: java TraceCompare <rom> <reference log[.gz]> [instructions] [Settings options]
+ * --doctor-start=, --doctor-stop= and --doctor-limit= pick the part of the
+ * run that's compared, the reference should start at the same place.
+ * Give an instruction count if the ROM might never reach --doctor-start
+ */
+class TraceCompare extends OutputStream {
+  private static final int CONTEXT = 8;        // lines shown either side of a difference
+  private static final int LINE = 128;
+  private static final int SLICE = 0x4000;     // instructions between checks for a difference
+  private static final int READ_BUFFER = 1 << 20;
+
+  private InputStream reference;
+  private byte ours[] = new byte[LINE];
+  private int oursLength = 0;
+  private byte theirs[] = new byte[LINE];
+  private int theirsLength = 0;
+  private byte context[][] = new byte[CONTEXT][LINE];  // ring of the last matching lines
+  private int contextLength[] = new int[CONTEXT];
+  private byte after[][] = new byte[CONTEXT][LINE];    // our lines after the difference
+  private int afterLength[] = new int[CONTEXT];
+  private int afterLines = 0;
+
+  private long lines = 0;  // lines matched
+  private boolean different;
+  private boolean referenceEnded;
+
+  public TraceCompare(InputStream reference) {
+    this.reference = reference;
+  }
+
+  // Our log, a byte at a time through DoctorTrace's flushes
+  @Override
+  public void write(int b) throws IOException {
+    if (different) {
+      following(b);
+      return;
+    }
+    if (referenceEnded) return;
+    if (b != '\n') {
+      if (oursLength < LINE) ours[oursLength++] = (byte)b;
+      return;
+    }
+
+    if (!readLine()) {
+      referenceEnded = true;
+      return;
+    }
+    if (oursLength != theirsLength || !Arrays.equals(ours, 0, oursLength, theirs, 0, theirsLength)) {
+      different = true;
+      return;
+    }
+
+    int slot = (int)(lines % CONTEXT);
+    System.arraycopy(ours, 0, context[slot], 0, oursLength);
+    contextLength[slot] = oursLength;
+    lines++;
+    oursLength = 0;
+  }
+
+  @Override
+  public void write(byte bytes[], int offset, int length) throws IOException {
+    for (int i = offset; i < offset + length; i++) write(bytes[i]);
+  }
+
+  public boolean different() {
+    return different;
+  }
+
+  // Different with the lines after it in, or out of reference
+  public boolean finished() {
+    return (different && afterLines == CONTEXT) || referenceEnded;
+  }
+
+  public void report() throws IOException {
+    if (!different) {
+      String end = referenceEnded ? ", the reference ends there"
+        : readLine() ? ", but our log ends there and the reference goes on" : "";
+      Util.log("TraceCompare - " + lines + " lines match" + end);
+      return;
+    }
+
+    Util.log("TraceCompare - first difference at line " + (lines + 1));
+    for (long line = Math.max(0, lines - CONTEXT); line < lines; line++) {
+      int slot = (int)(line % CONTEXT);
+      Util.log("  " + (line + 1) + "\t" + new String(context[slot], 0, contextLength[slot]));
+    }
+    String our = new String(ours, 0, oursLength);
+    String their = new String(theirs, 0, theirsLength);
+    Util.log("> " + (lines + 1) + "\t" + our + "\tours");
+    Util.log("< " + (lines + 1) + "\t" + their + "\treference");
+
+    StringBuilder marks = new StringBuilder();
+    for (int i = 0; i < Math.max(our.length(), their.length()); i++)
+      marks.append(i < our.length() && i < their.length() && our.charAt(i) == their.charAt(i) ? ' ' : '^');
+    Util.log("  \t" + marks.toString().replaceAll("\\s+$", ""));
+
+    // What each side does next, as far as CONTEXT lines
+    try {
+      for (int i = 0; i < CONTEXT; i++) {
+        String next = i < afterLines ? new String(after[i], 0, afterLength[i]) : null;
+        String theirNext = readLine() ? new String(theirs, 0, theirsLength) : null;
+        if (next == null && theirNext == null) break;
+        long line = lines + 2 + i;
+        if (next != null && next.equals(theirNext)) {
+          Util.log("  " + line + "\t" + next);
+          continue;
+        }
+        if (next != null) Util.log("> " + line + "\t" + next + "\tours");
+        if (theirNext != null) Util.log("< " + line + "\t" + theirNext + "\treference");
+      }
+    } catch (IOException e) {
+      Util.errn("TraceCompare - couldn't read the reference after the difference: " + e);
+    }
+  }
+
+  // A byte of our log after the difference
+  private void following(int b) {
+    if (afterLines == CONTEXT) return;
+    if (b != '\n') {
+      if (afterLength[afterLines] < LINE) after[afterLines][afterLength[afterLines]++] = (byte)b;
+      return;
+    }
+    afterLines++;
+  }
+
+  // Next reference line into theirs, false at the end of the file
+  private boolean readLine() throws IOException {
+    theirsLength = 0;
+    int b = reference.read();
+    if (b < 0) return false;
+    for (; b >= 0 && b != '\n'; b = reference.read())
+      if (b != '\r' && theirsLength < LINE) theirs[theirsLength++] = (byte)b;
+    return true;
+  }
+
+  public static void main(String args[]) throws IOException {
+    if (args.length < 2) {
+      Util.log("Usage: TraceCompare <rom> <reference log[.gz]> [instructions] [options]");
+      return;
+    }
+    Util.debug = false;
+
+    long instructions = Long.MAX_VALUE;
+    int first = 2;
+    if (args.length > 2 && !args[2].startsWith("--")) {
+      instructions = Long.parseLong(args[2]);
+      first = 3;
+    }
+    Settings settings = Settings.parse(Arrays.copyOfRange(args, first, args.length));
+    settings.display = false;
+
+    InputStream in = new FileInputStream(args[1]);
+    if (args[1].endsWith(".gz")) in = new GZIPInputStream(in, READ_BUFFER);
+    TraceCompare compare = new TraceCompare(new BufferedInputStream(in, READ_BUFFER));
+
+    Gameboy gameboy = new Gameboy(new Cart(args[0]), settings);
+    DoctorTrace doctor = new DoctorTrace(compare);
+    doctor.setStart(settings.doctorStart);
+    doctor.setStop(settings.doctorStop);
+    doctor.setLimit(settings.doctorLimit);
+    gameboy.getCPU().setDoctorTrace(doctor);
+
+    while (instructions > 0 && !compare.finished() && !doctor.done()) {
+      // One at a time once they differ, just to get the lines after
+      long slice = Math.min(instructions, compare.different() ? 1 : SLICE);
+      gameboy.run(slice);
+      instructions -= slice;
+      doctor.flush();
+    }
+
+    compare.report();
+    in.close();
+  }
+}
@@ -0,0 +1,195 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/*
+ * Keeps BlockCompiler's translations of ROM blocks between runs
+ * Saved as <directory>/<cart hash>.jit and loaded when the same cart starts
+ * again, so blocks that got hot last time are compiled the first time
+ * they're entered instead of after BlockCompiler.HOT_ENTRIES
+ * A file written for a different ROM, compiler or opcode table, or against
+ * different builds of the classes compiled code uses, is ignored, and each
+ * entry is checked against the bytes it was translated from before it's
+ * used, since there's no MBC and ROM can be written
+ */
+class TranslationCache {
+  private static final int MAGIC = 0x47424A43;  // "GBJC"
+  private static final int FORMAT = 1;
+
+  // What translations are made by and link against
+  private static final Class<?> LINKED[] = {
+    BlockCompiler.class, Bytecode.class, CompiledBlock.class, BlockCache.Block.class,
+    CPUState.class, ClockCounter.class, Instructions.class, CPUMath.class,
+    MMU.class  // plain() decides which reads go straight to memory
+  };
+
+  private static class Entry {
+    int bank;
+    int start;
+    int end;
+    long checksum;  // CRC32 of start - end
+    byte code[];    // class file
+  }
+
+  private File file;
+  private String cartHash;
+  private HashMap<Integer, Entry> entries = new HashMap<Integer, Entry>();  // by bank << 16 | start
+  private boolean changed = false;
+
+  private int loaded;
+  private int hits;
+
+  public TranslationCache(String directory, Cart cart) {
+    this.cartHash = cart.hash();
+    this.file = new File(directory, cartHash + ".jit");
+    load();
+  }
+
+  // Class file translated from the same bytes as block, null if there isn't one
+  public byte[] get(BlockCache.Block block, MMU mmu) {
+    Entry entry = entries.get(key(block.bank, block.start));
+    if (entry == null || entry.end != block.end) return null;
+    if (entry.checksum != checksum(mmu, block.start, block.end)) return null;
+
+    hits++;
+    return entry.code;
+  }
+
+  // Remembers a translation, only blocks entirely in ROM are worth saving
+  public void put(BlockCache.Block block, MMU mmu, byte code[]) {
+    if (block.end > 0x8000) return;
+
+    Entry entry = new Entry();
+    entry.bank = block.bank;
+    entry.start = block.start;
+    entry.end = block.end;
+    entry.checksum = checksum(mmu, block.start, block.end);
+    entry.code = code;
+    entries.put(key(block.bank, block.start), entry);
+    changed = true;
+  }
+
+  public int loaded() { return loaded; }
+  public int hits() { return hits; }
+  public int size() { return entries.size(); }
+
+  // Written to a temporary file first so a failed write leaves the old
+  // file, or none, rather than part of one
+  public void save() {
+    if (!changed) return;
+
+    File temporary = null;
+    try {
+      file.getParentFile().mkdirs();
+      temporary = File.createTempFile(cartHash, ".tmp", file.getParentFile());
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeUTF(version());
+        out.writeUTF(cartHash);
+        out.writeInt(entries.size());
+        for (Entry entry : entries.values()) {
+          out.writeByte(entry.bank);
+          out.writeShort(entry.start);
+          out.writeInt(entry.end);
+          out.writeLong(entry.checksum);
+          out.writeInt(entry.code.length);
+          out.write(entry.code);
+        }
+      }
+      Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      changed = false;
+    } catch (Exception e) {
+      Util.errn("TranslationCache.save - couldn't write " + file + ": " + e);
+      if (temporary != null) temporary.delete();
+    }
+  }
+
+  private void load() {
+    if (!file.exists()) return;
+
+    try {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      try {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT) return;
+        if (!in.readUTF().equals(version()) || !in.readUTF().equals(cartHash)) {
+          Util.log("TranslationCache - " + file + " is out of date, ignoring it");
+          return;
+        }
+
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+          Entry entry = new Entry();
+          entry.bank = in.readUnsignedByte();
+          entry.start = in.readUnsignedShort();
+          entry.end = in.readInt();
+          entry.checksum = in.readLong();
+          entry.code = new byte[in.readInt()];
+          in.readFully(entry.code);
+          entries.put(key(entry.bank, entry.start), entry);
+        }
+        loaded = count;
+      } finally {
+        in.close();
+      }
+    } catch (Exception e) {
+      Util.errn("TranslationCache.load - couldn't read " + file + ": " + e);
+      entries.clear();
+    }
+  }
+
+  // Changes to the compiler, the opcode tables or the members translations
+  // use make old translations wrong
+  private static String version() {
+    int tables = Arrays.hashCode(Opcodes.LENGTH);
+    tables = tables * 31 + Arrays.hashCode(Opcodes.CYCLES);
+    tables = tables * 31 + Arrays.hashCode(Opcodes.CYCLES_NOT_TAKEN);
+    tables = tables * 31 + Arrays.hashCode(Opcodes.ENDS_BLOCK);
+    return "BlockCompiler " + BlockCompiler.VERSION + " opcodes " + Integer.toHexString(tables) + " blocks " + BlockCache.MAX_INSTRUCTIONS + " classes " + classes();
+  }
+
+  // CRC32 of LINKED's class files, so any rebuild that changes them drops
+  // the file instead of failing to link
+  // When they can't be read it's different every run, which does the same
+  private static String classes() {
+    CRC32 crc = new CRC32();
+    byte buffer[] = new byte[4096];
+    try {
+      for (Class<?> linked : LINKED) {
+        InputStream in = linked.getResourceAsStream(linked.getName() + ".class");
+        if (in == null) throw new IOException("no class file for " + linked.getName());
+        try {
+          for (int n; (n = in.read(buffer)) > 0; ) crc.update(buffer, 0, n);
+        } finally {
+          in.close();
+        }
+      }
+    } catch (IOException e) {
+      Util.errn("TranslationCache.classes - " + e);
+      return "unknown " + System.nanoTime();
+    }
+    return Long.toHexString(crc.getValue());
+  }
+
+  private static int key(int bank, int start) {
+    return (bank << 16) | start;
+  }
+
+  private static long checksum(MMU mmu, int start, int end) {
+    CRC32 crc = new CRC32();
+    for (int address = start; address < end; address++)
+      crc.update(mmu.get(address));
+    return crc.getValue();
+  }
+}